@@ -0,0 +1,51 @@
+/*
+ * Copyright 2022-2025 Pranav Pandey
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.pranavpandey.android.dynamic.ads.benchmark;
+
+import com.google.android.gms.ads.AdSize;
+import com.pranavpandey.android.dynamic.ads.util.DynamicAdUtils;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks the adaptive banner size calculation.
+ *
+ * @see DynamicAdUtils#getAdSize(android.content.Context, android.view.View)
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class AdSizeBenchmark {
+
+    @Benchmark
+    public AdSize screen() {
+        return DynamicAdUtils.getAdSize(BenchmarkEnvironment.getActivity());
+    }
+
+    @Benchmark
+    public AdSize container() {
+        return DynamicAdUtils.getAdSize(BenchmarkEnvironment.getActivity(),
+                BenchmarkEnvironment.getContainer());
+    }
+}
@@ -0,0 +1,117 @@
+/*
+ * Copyright 2022-2025 Pranav Pandey
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.pranavpandey.android.dynamic.ads.benchmark;
+
+import androidx.annotation.LayoutRes;
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import com.google.android.ump.ConsentForm;
+import com.google.android.ump.ConsentInformation;
+import com.pranavpandey.android.dynamic.ads.DynamicAds;
+import com.pranavpandey.android.dynamic.ads.DynamicBaseAd;
+import com.pranavpandey.android.dynamic.ads.listener.BaseAdListener;
+
+/**
+ * A {@link DynamicBaseAd} without any network work to measure the scheduling overhead.
+ */
+public class BenchmarkAd extends DynamicBaseAd {
+
+    /**
+     * Ad unit id used by this ad.
+     */
+    public static final String AD_UNIT_ID = "ca-app-pub-3940256099942544/0000000000";
+
+    /**
+     * Listener used by this ad.
+     */
+    private final BaseAdListener mAdListener;
+
+    /**
+     * Number of times this ad has been created.
+     */
+    private long mCreateCount;
+
+    /**
+     * Constructor to initialize an object of this class.
+     *
+     * @param adListener The listener to be used.
+     */
+    public BenchmarkAd(@NonNull BaseAdListener adListener) {
+        this.mAdListener = adListener;
+    }
+
+    /**
+     * Returns the number of times this ad has been created.
+     *
+     * @return The number of times this ad has been created.
+     */
+    public long getCreateCount() {
+        return mCreateCount;
+    }
+
+    @Override
+    public @NonNull String getAdUnitId() {
+        return AD_UNIT_ID;
+    }
+
+    @Override
+    public @NonNull String getAdFormat() {
+        return Format.BANNER;
+    }
+
+    @Override
+    public @LayoutRes int getAdLayoutRes() {
+        return LAYOUT_RES_NONE;
+    }
+
+    @Override
+    public @NonNull BaseAdListener getAdListener() {
+        return mAdListener;
+    }
+
+    @Override
+    public void onInitialize() {
+        DynamicAds.getInstance().initializeAd(this, getAdListener());
+    }
+
+    @Override
+    public @Nullable ConsentInformation getConsentInformation() {
+        return DynamicAds.getInstance().getConsentInformation();
+    }
+
+    @Override
+    public @Nullable ConsentForm getConsentForm() {
+        return DynamicAds.getInstance().getConsentForm();
+    }
+
+    @Override
+    public void onAdCreate() {
+        mCreateCount++;
+    }
+
+    @Override
+    public boolean isAdLoaded() {
+        return false;
+    }
+
+    @Override
+    public void onAdResume() { }
+
+    @Override
+    public void onAdPause() { }
+}
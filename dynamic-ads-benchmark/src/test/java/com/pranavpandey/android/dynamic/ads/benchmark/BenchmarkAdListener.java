@@ -0,0 +1,130 @@
+/*
+ * Copyright 2022-2025 Pranav Pandey
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.pranavpandey.android.dynamic.ads.benchmark;
+
+import android.content.Context;
+import android.view.View;
+import android.view.ViewGroup;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import com.google.android.gms.ads.AdView;
+import com.google.android.gms.ads.appopen.AppOpenAd;
+import com.google.android.gms.ads.interstitial.InterstitialAd;
+import com.google.android.gms.ads.nativead.NativeAd;
+import com.google.android.gms.ads.nativead.NativeAdView;
+import com.google.android.gms.ads.rewarded.RewardedAd;
+import com.google.android.gms.ads.rewardedinterstitial.RewardedInterstitialAd;
+import com.pranavpandey.android.dynamic.ads.DynamicAds;
+import com.pranavpandey.android.dynamic.ads.listener.DynamicAdListener;
+import com.pranavpandey.android.dynamic.ads.util.DynamicAdUtils;
+
+/**
+ * A {@link DynamicAdListener} to host the ads while running the benchmarks.
+ */
+public class BenchmarkAdListener implements DynamicAdListener {
+
+    /**
+     * Context used by this listener.
+     */
+    private final Context mContext;
+
+    /**
+     * Container view to show the ads.
+     */
+    private final ViewGroup mContainer;
+
+    /**
+     * {@code true} if the ads are enabled for this listener.
+     */
+    private final boolean mAdEnabled;
+
+    /**
+     * Constructor to initialize an object of this class.
+     *
+     * @param context The context to be used.
+     * @param container The container view to be used.
+     * @param adEnabled {@code true} to enable the ads for this listener.
+     */
+    public BenchmarkAdListener(@NonNull Context context,
+            @Nullable ViewGroup container, boolean adEnabled) {
+        this.mContext = context;
+        this.mContainer = container;
+        this.mAdEnabled = adEnabled;
+    }
+
+    @Override
+    public @NonNull Context getAdContext() {
+        return mContext;
+    }
+
+    @Override
+    public boolean isAdEnabled() {
+        return mAdEnabled;
+    }
+
+    @Override
+    public @Nullable ViewGroup getAdContainer() {
+        return mContainer;
+    }
+
+    @Override
+    public void onAdDisplay(@NonNull AdView adView) { }
+
+    @Override
+    public void onAdDisplay(@NonNull InterstitialAd interstitialAd) { }
+
+    @Override
+    public void onAdDisplay(@NonNull NativeAd nativeAd,
+            @Nullable View parent, @Nullable NativeAdView adView) { }
+
+    @Override
+    public void onAdDisplay(@NonNull RewardedAd rewardedAd) { }
+
+    @Override
+    public void onAdDisplay(@NonNull RewardedInterstitialAd rewardedInterstitialAd) { }
+
+    @Override
+    public void onAdDisplay(@NonNull AppOpenAd appOpenAd) { }
+
+    @SuppressWarnings("deprecation")
+    @Override
+    public int getAdOrientation() {
+        return DynamicAdUtils.getAppOpenAdOrientation(getAdContext());
+    }
+
+    @Override
+    public long getAdEventCount() {
+        return DynamicAds.getAdEventCount();
+    }
+
+    @Override
+    public void setAdEventCount(long eventCount) {
+        DynamicAds.setAdEventCount(eventCount);
+    }
+
+    @Override
+    public void resetAdEventCount() {
+        DynamicAds.resetAdEventCount();
+    }
+
+    @Override
+    public void onAdEvent() {
+        DynamicAds.onAdEvent();
+    }
+}
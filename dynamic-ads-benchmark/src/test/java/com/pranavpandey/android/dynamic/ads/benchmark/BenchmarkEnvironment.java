@@ -0,0 +1,220 @@
+/*
+ * Copyright 2022-2025 Pranav Pandey
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.pranavpandey.android.dynamic.ads.benchmark;
+
+import static org.mockito.Mockito.mock;
+import static org.robolectric.Shadows.shadowOf;
+
+import android.app.Activity;
+import android.os.Looper;
+import android.widget.FrameLayout;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import com.google.android.gms.ads.nativead.NativeAd;
+import com.pranavpandey.android.dynamic.ads.DynamicAds;
+import com.pranavpandey.android.dynamic.ads.backend.DynamicSimulatedAdBackend;
+import com.pranavpandey.android.dynamic.ads.device.DynamicAdDeviceProfile;
+import com.pranavpandey.android.dynamic.ads.backend.DynamicVirtualClock;
+import com.pranavpandey.android.dynamic.preferences.DynamicPreferences;
+
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Helper class to share the Android environment created by Robolectric with the benchmarks.
+ * <p>The benchmarks run in the same JVM and class loader as the runner so that they can
+ * access the main thread components created here.
+ */
+public class BenchmarkEnvironment {
+
+    /**
+     * Activity to host the ads.
+     */
+    private static Activity sActivity;
+
+    /**
+     * Container view to show the ads.
+     */
+    private static FrameLayout sContainer;
+
+    /**
+     * Simulated backend to load the ads.
+     */
+    private static DynamicSimulatedAdBackend sBackend;
+
+    /**
+     * Work requested by the benchmarks to be run on the main thread.
+     */
+    private static final BlockingQueue<FutureTask<?>> sMainWork = new LinkedBlockingQueue<>();
+
+    /**
+     * Initialize the environment on the main thread before running the benchmarks.
+     *
+     * @param activity The activity to host the ads.
+     */
+    public static void initialize(@NonNull Activity activity) {
+        sActivity = activity;
+        sContainer = new FrameLayout(activity);
+        sContainer.layout(0, 0, 1080, 1920);
+        activity.setContentView(sContainer);
+
+        DynamicPreferences.initializeInstance(activity.getApplicationContext());
+        DynamicAds.initializeInstance(activity.getApplicationContext());
+
+        sBackend = new DynamicSimulatedAdBackend(new DynamicVirtualClock(), 0,
+                new DynamicSimulatedAdBackend.AdFactory() {
+            @Override
+            public @Nullable <T> T createAd(@NonNull Class<T> type, @NonNull String adUnitId) {
+                if (type == NativeAd.class) {
+                    return type.cast(NativeAdBenchmark.getNativeAd(4.5));
+                }
+
+                return mock(type);
+            }
+        });
+        sBackend.setDefaultProfile(new DynamicSimulatedAdBackend.Profile.Builder()
+                .setFillRate(1f).build());
+        DynamicAds.getInstance().setBackend(sBackend);
+
+        // Measure the ad pipeline without the network pacing.
+        DynamicAds.getInstance().getRateLimiter().setGlobalLimit(Integer.MAX_VALUE, 1e9);
+        DynamicAds.getInstance().getRateLimiter().setUnitLimit(Integer.MAX_VALUE, 1e9);
+        DynamicAds.getInstance().getLoadBudget().setLimit(Integer.MAX_VALUE);
+
+        // The simulated backend does not need the device network or power state.
+        DynamicAds.getInstance().getNetworkMonitor().stop();
+        DynamicAds.getInstance().getPowerPolicy().stop();
+
+        // Measure the same work on every device class.
+        DynamicAds.getInstance().setDeviceProfile(
+                new DynamicAdDeviceProfile(DynamicAdDeviceProfile.Tier.HIGH));
+    }
+
+    /**
+     * Run the main thread work requested by the benchmarks till the runner is done.
+     * <p>It must be called from the main thread.
+     *
+     * @param runner The runner executing the benchmarks on a background thread.
+     *
+     * @throws Exception If the runner has been failed.
+     */
+    public static void loop(@NonNull Future<?> runner) throws Exception {
+        if (Looper.myLooper() != Looper.getMainLooper()) {
+            throw new IllegalStateException("Must be called from the main thread.");
+        }
+
+        while (!runner.isDone()) {
+            FutureTask<?> work = sMainWork.poll(10, TimeUnit.MILLISECONDS);
+            if (work != null) {
+                work.run();
+            }
+        }
+
+        runner.get();
+    }
+
+    /**
+     * Run a work on the main thread and wait till the main looper is idle again.
+     * <p>The benchmarks run on the JMH worker threads, so the work posted by the ad pipeline
+     * would only be queued without it. The hand off to the main thread is a part of the
+     * measurement.
+     *
+     * @param callable The work to be run.
+     * @param <T> The type of the result.
+     *
+     * @return The result of the work.
+     *
+     * @see #loop(Future)
+     */
+    public static <T> T runOnMainThread(final @NonNull Callable<T> callable) {
+        FutureTask<T> work = new FutureTask<>(new Callable<T>() {
+            @Override
+            public T call() throws Exception {
+                T result = callable.call();
+                shadowOf(Looper.getMainLooper()).idle();
+
+                return result;
+            }
+        });
+
+        sMainWork.add(work);
+
+        try {
+            return work.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    /**
+     * Returns the activity to host the ads.
+     *
+     * @return The activity to host the ads.
+     */
+    public static @NonNull Activity getActivity() {
+        if (sActivity == null) {
+            throw new IllegalStateException(BenchmarkEnvironment.class.getSimpleName()
+                    + " is not initialized, run the benchmarks via the jmh task.");
+        }
+
+        return sActivity;
+    }
+
+    /**
+     * Returns the container view to show the ads.
+     *
+     * @return The container view to show the ads.
+     */
+    public static @NonNull FrameLayout getContainer() {
+        getActivity();
+
+        return sContainer;
+    }
+
+    /**
+     * Returns the simulated backend to load the ads.
+     * <p>It always fills the requests and completes them only when its clock is advanced.
+     *
+     * @return The simulated backend to load the ads.
+     */
+    public static @NonNull DynamicSimulatedAdBackend getBackend() {
+        getActivity();
+
+        return sBackend;
+    }
+
+    /**
+     * Returns a listener to host the ads.
+     *
+     * @param adEnabled {@code true} to enable the ads for the listener.
+     *
+     * @return The listener to host the ads.
+     */
+    public static @NonNull BenchmarkAdListener getAdListener(boolean adEnabled) {
+        return new BenchmarkAdListener(getActivity(), getContainer(), adEnabled);
+    }
+}
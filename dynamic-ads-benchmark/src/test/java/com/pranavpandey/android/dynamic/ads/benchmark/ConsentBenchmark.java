@@ -0,0 +1,82 @@
+/*
+ * Copyright 2022-2025 Pranav Pandey
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.pranavpandey.android.dynamic.ads.benchmark;
+
+import com.pranavpandey.android.dynamic.ads.DynamicAds;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks the consent checks performed before creating an ad.
+ *
+ * @see DynamicAds#initializeAd(com.pranavpandey.android.dynamic.ads.DynamicAd,
+ *      com.pranavpandey.android.dynamic.ads.listener.BaseAdListener)
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class ConsentBenchmark {
+
+    /**
+     * Listener to host the ad.
+     */
+    private BenchmarkAdListener mAdListener;
+
+    /**
+     * Ad to be initialized.
+     */
+    private BenchmarkAd mAd;
+
+    /**
+     * Work to initialize the ad.
+     */
+    private Callable<Long> mInitialize;
+
+    @Setup
+    public void setup() {
+        mAdListener = BenchmarkEnvironment.getAdListener(true);
+        mAd = new BenchmarkAd(mAdListener);
+        mInitialize = new Callable<Long>() {
+            @Override
+            public Long call() {
+                DynamicAds.getInstance().initializeAd(mAd, mAdListener);
+
+                return mAd.getCreateCount();
+            }
+        };
+    }
+
+    @Benchmark
+    public long initialize() {
+        return BenchmarkEnvironment.runOnMainThread(mInitialize);
+    }
+
+    @Benchmark
+    public boolean gate() {
+        return DynamicAds.getInstance().isConsentRequired()
+                || !DynamicAds.getInstance().canRequestAds();
+    }
+}
@@ -0,0 +1,111 @@
+/*
+ * Copyright 2022-2025 Pranav Pandey
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.pranavpandey.android.dynamic.ads.benchmark;
+
+import android.app.Activity;
+
+import org.junit.Assume;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.openjdk.jmh.results.RunResult;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.ChainedOptionsBuilder;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.openjdk.jmh.runner.options.TimeValue;
+import org.robolectric.Robolectric;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+import org.robolectric.annotation.LooperMode;
+
+import java.io.File;
+import java.util.Collection;
+import java.util.concurrent.Callable;
+import java.util.concurrent.FutureTask;
+
+/**
+ * Runs the JMH benchmarks inside the Robolectric environment.
+ * <p>Use {@code ./gradlew :dynamic-ads-benchmark:jmh} to run all the benchmarks or pass
+ * {@code -Pjmh.include=<regex>} to run only the matching ones. The results will be saved
+ * in the {@code build/reports/jmh} directory.
+ * <p>JMH measures on its own worker threads, so the runner is started on a background thread
+ * while the test thread keeps running the main thread work requested by the benchmarks.
+ * The work posted by the ad pipeline is then drained from the paused main looper and becomes
+ * part of the measurement.
+ *
+ * @see BenchmarkEnvironment#runOnMainThread(Callable)
+ */
+@RunWith(RobolectricTestRunner.class)
+@LooperMode(LooperMode.Mode.PAUSED)
+@Config(sdk = 34)
+public class DynamicAdBenchmarkTest {
+
+    /**
+     * System property to enable the benchmarks.
+     */
+    public static final String PROPERTY_ENABLED = "jmh.enabled";
+
+    /**
+     * System property for the regex to filter the benchmarks.
+     */
+    public static final String PROPERTY_INCLUDE = "jmh.include";
+
+    /**
+     * System property for the file to save the results.
+     */
+    public static final String PROPERTY_RESULT = "jmh.result";
+
+    @Test
+    public void benchmark() throws Exception {
+        Assume.assumeTrue("Benchmarks are enabled only for the jmh task.",
+                Boolean.getBoolean(PROPERTY_ENABLED));
+
+        BenchmarkEnvironment.initialize(
+                Robolectric.buildActivity(Activity.class).setup().get());
+
+        String include = System.getProperty(PROPERTY_INCLUDE, "");
+        ChainedOptionsBuilder options = new OptionsBuilder()
+                .include(include.isEmpty()
+                        ? DynamicAdBenchmarkTest.class.getPackage().getName() : include)
+                // Forking would lose the Robolectric sandbox.
+                .forks(0)
+                .threads(1)
+                .warmupIterations(3)
+                .warmupTime(TimeValue.seconds(1))
+                .measurementIterations(5)
+                .measurementTime(TimeValue.seconds(1))
+                .shouldFailOnError(true);
+
+        String result = System.getProperty(PROPERTY_RESULT);
+        if (result != null) {
+            new File(result).getParentFile().mkdirs();
+            options.resultFormat(ResultFormatType.JSON).result(result);
+        }
+
+        final Runner runner = new Runner(options.build());
+        FutureTask<Collection<RunResult>> benchmarks = new FutureTask<>(
+                new Callable<Collection<RunResult>>() {
+            @Override
+            public Collection<RunResult> call() throws Exception {
+                return runner.run();
+            }
+        });
+
+        new Thread(benchmarks, "jmh-runner").start();
+        BenchmarkEnvironment.loop(benchmarks);
+    }
+}
@@ -0,0 +1,131 @@
+/*
+ * Copyright 2022-2025 Pranav Pandey
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.pranavpandey.android.dynamic.ads.benchmark;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import android.graphics.Color;
+import android.graphics.drawable.ColorDrawable;
+
+import com.google.android.gms.ads.nativead.NativeAd;
+import com.pranavpandey.android.dynamic.ads.factory.DynamicNativeAd;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks the native template inflation and binding along with the full ad request via
+ * the simulated backend.
+ *
+ * @see DynamicNativeAd#onCustomiseAd(boolean)
+ * @see DynamicNativeAd#onAdCreate()
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class NativeAdBenchmark {
+
+    /**
+     * Native ad to be customised.
+     */
+    private DynamicNativeAd mDynamicNativeAd;
+
+    /**
+     * Work to customise the native ad.
+     */
+    private Callable<Boolean> mCustomise;
+
+    /**
+     * Work to request the native ad.
+     */
+    private Callable<Boolean> mRequest;
+
+    /**
+     * Returns a native ad with the typical assets.
+     *
+     * @param starRating The optional star rating for the ad.
+     *
+     * @return The native ad with the typical assets.
+     */
+    public static NativeAd getNativeAd(Double starRating) {
+        NativeAd.Image icon = mock(NativeAd.Image.class);
+        when(icon.getDrawable()).thenReturn(new ColorDrawable(Color.RED));
+
+        NativeAd nativeAd = mock(NativeAd.class);
+        when(nativeAd.getHeadline()).thenReturn("Dynamic Ads");
+        when(nativeAd.getBody()).thenReturn("A GDPR-compliant library to show ads.");
+        when(nativeAd.getCallToAction()).thenReturn("Install");
+        when(nativeAd.getAdvertiser()).thenReturn("Pranav Pandey");
+        when(nativeAd.getStore()).thenReturn("Google Play");
+        when(nativeAd.getStarRating()).thenReturn(starRating);
+        when(nativeAd.getIcon()).thenReturn(icon);
+
+        return nativeAd;
+    }
+
+    @Setup
+    public void setup() {
+        mCustomise = new Callable<Boolean>() {
+            @Override
+            public Boolean call() {
+                mDynamicNativeAd.onCustomiseAd(false);
+
+                return mDynamicNativeAd.isAdLoaded();
+            }
+        };
+        mRequest = new Callable<Boolean>() {
+            @Override
+            public Boolean call() {
+                mDynamicNativeAd.onAdDestroy();
+                mDynamicNativeAd.onAdCreate();
+                BenchmarkEnvironment.getBackend().getClock().runAll();
+
+                return mDynamicNativeAd.isAdLoaded();
+            }
+        };
+
+        BenchmarkEnvironment.runOnMainThread(new Callable<Boolean>() {
+            @Override
+            public Boolean call() throws Exception {
+                mDynamicNativeAd = new DynamicNativeAd(BenchmarkAd.AD_UNIT_ID,
+                        R.layout.ada_benchmark_native, BenchmarkEnvironment.getAdListener(true));
+
+                // Load the ad via the simulated backend without going through the network.
+                return mRequest.call();
+            }
+        });
+    }
+
+    @Benchmark
+    public boolean customise() {
+        return BenchmarkEnvironment.runOnMainThread(mCustomise);
+    }
+
+    @Benchmark
+    public boolean request() {
+        return BenchmarkEnvironment.runOnMainThread(mRequest);
+    }
+}
@@ -0,0 +1,121 @@
+/*
+ * Copyright 2022-2025 Pranav Pandey
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.pranavpandey.android.dynamic.ads.benchmark;
+
+import androidx.annotation.NonNull;
+
+import com.pranavpandey.android.dynamic.ads.DynamicAds;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks the main thread dispatch of the ads.
+ * <p>Each invocation drains the main looper and fails if the ad has not been created.
+ *
+ * @see DynamicAds#postAd(com.pranavpandey.android.dynamic.ads.DynamicAd)
+ * @see DynamicAds#recreateAds()
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class SchedulerBenchmark {
+
+    /**
+     * Ad to be dispatched.
+     */
+    private BenchmarkAd mAd;
+
+    /**
+     * Work to post the ad.
+     */
+    private Callable<Long> mPost;
+
+    /**
+     * Work to queue and recreate the ad.
+     */
+    private Callable<Long> mRecreate;
+
+    @Setup
+    public void setup() {
+        mAd = new BenchmarkAd(BenchmarkEnvironment.getAdListener(true));
+        mPost = new Callable<Long>() {
+            @Override
+            public Long call() {
+                DynamicAds.getInstance().postAd(mAd);
+
+                return mAd.getCreateCount();
+            }
+        };
+        mRecreate = new Callable<Long>() {
+            @Override
+            public Long call() {
+                DynamicAds.getInstance().queueAd(mAd);
+                DynamicAds.getInstance().recreateAds();
+
+                return mAd.getCreateCount();
+            }
+        };
+
+        // Complete the simulated initialization before measuring.
+        BenchmarkEnvironment.runOnMainThread(new Callable<Long>() {
+            @Override
+            public Long call() throws Exception {
+                mPost.call();
+                BenchmarkEnvironment.getBackend().getClock().runAll();
+
+                return mAd.getCreateCount();
+            }
+        });
+    }
+
+    /**
+     * Run a dispatch on the main thread and verify that the ad has been created.
+     *
+     * @param dispatch The dispatch to be run.
+     *
+     * @return The number of times the ad has been created.
+     */
+    private long dispatch(@NonNull Callable<Long> dispatch) {
+        long count = mAd.getCreateCount();
+        BenchmarkEnvironment.runOnMainThread(dispatch);
+
+        if (mAd.getCreateCount() <= count) {
+            throw new IllegalStateException("The ad has not been created on the main thread.");
+        }
+
+        return mAd.getCreateCount();
+    }
+
+    @Benchmark
+    public long post() {
+        return dispatch(mPost);
+    }
+
+    @Benchmark
+    public long recreate() {
+        return dispatch(mRecreate);
+    }
+}
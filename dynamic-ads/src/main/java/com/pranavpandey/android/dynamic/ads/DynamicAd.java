@@ -84,6 +84,92 @@ public interface DynamicAd {
          * Default value for the event count.
          */
         long EVENT_COUNT = 8;
+
+        /**
+         * Default timeout in milliseconds for each consent stage.
+         */
+        long CONSENT_TIMEOUT = 5000;
+
+        /**
+         * Default number of retries for a failed consent stage.
+         */
+        int CONSENT_RETRIES = 2;
+
+        /**
+         * Default initial backoff in milliseconds to retry a failed consent stage.
+         * <p>It will be doubled for every retry.
+         */
+        long CONSENT_BACKOFF = 1000;
+    }
+
+    /**
+     * An interface to hold ad format constants.
+     */
+    @Retention(RetentionPolicy.SOURCE)
+    @interface Format {
+
+        /**
+         * Constant for the unknown ad format.
+         */
+        String UNKNOWN = "unknown";
+
+        /**
+         * Constant for the banner ad format.
+         */
+        String BANNER = "banner";
+
+        /**
+         * Constant for the native ad format.
+         */
+        String NATIVE = "native";
+
+        /**
+         * Constant for the interstitial ad format.
+         */
+        String INTERSTITIAL = "interstitial";
+
+        /**
+         * Constant for the rewarded ad format.
+         */
+        String REWARDED = "rewarded";
+
+        /**
+         * Constant for the rewarded interstitial ad format.
+         */
+        String REWARDED_INTERSTITIAL = "rewarded_interstitial";
+
+        /**
+         * Constant for the app open ad format.
+         */
+        String APP_OPEN = "app_open";
+    }
+
+    /**
+     * An interface to hold ad priority constants.
+     * <p>The queued ads will be created in the order of their priority.
+     */
+    @Retention(RetentionPolicy.SOURCE)
+    @interface Priority {
+
+        /**
+         * Constant for the low priority ads that can be preloaded later.
+         */
+        int LOW = 0;
+
+        /**
+         * Constant for the normal priority ads.
+         */
+        int NORMAL = 1;
+
+        /**
+         * Constant for the high priority ads that should be created first.
+         */
+        int HIGH = 2;
+
+        /**
+         * Constant for the critical ads that will not be deferred for the first frame.
+         */
+        int CRITICAL = 3;
     }
 
     /**
@@ -118,6 +204,30 @@ public interface DynamicAd {
      */
     @NonNull String getAdUnitId();
 
+    /**
+     * Returns the format of this ad.
+     * <p>It will be {@link Format#UNKNOWN} by default.
+     *
+     * @return The format of this ad.
+     *
+     * @see Format
+     */
+    default @NonNull String getAdFormat() {
+        return Format.UNKNOWN;
+    }
+
+    /**
+     * Returns the priority of this ad.
+     * <p>It will be {@link Priority#NORMAL} by default.
+     *
+     * @return The priority of this ad.
+     *
+     * @see Priority
+     */
+    default int getAdPriority() {
+        return Priority.NORMAL;
+    }
+
     /**
      * Returns the optional layout resource for this ad.
      *
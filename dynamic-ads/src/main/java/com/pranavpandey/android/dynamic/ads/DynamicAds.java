@@ -27,7 +27,6 @@ import androidx.annotation.NonNull;
 import androidx.annotation.Nullable;
 import androidx.annotation.RestrictTo;
 
-import com.google.android.gms.ads.MobileAds;
 import com.google.android.gms.ads.initialization.InitializationStatus;
 import com.google.android.gms.ads.initialization.OnInitializationCompleteListener;
 import com.google.android.ump.ConsentForm;
@@ -35,15 +34,47 @@ import com.google.android.ump.ConsentInformation;
 import com.google.android.ump.ConsentRequestParameters;
 import com.google.android.ump.FormError;
 import com.google.android.ump.UserMessagingPlatform;
+import com.pranavpandey.android.dynamic.ads.backend.DynamicAdBackend;
+import com.pranavpandey.android.dynamic.ads.backend.DynamicAdMobBackend;
+import com.pranavpandey.android.dynamic.ads.consent.DynamicAdConsent;
+import com.pranavpandey.android.dynamic.ads.device.DynamicAdDeviceProfile;
+import com.pranavpandey.android.dynamic.ads.event.DynamicAdEventStream;
 import com.pranavpandey.android.dynamic.ads.listener.BaseAdListener;
+import com.pranavpandey.android.dynamic.ads.metrics.DynamicAdFirstAdTimer;
+import com.pranavpandey.android.dynamic.ads.metrics.DynamicAdJankMonitor;
+import com.pranavpandey.android.dynamic.ads.metrics.DynamicAdMetrics;
+import com.pranavpandey.android.dynamic.ads.metrics.DynamicAdUnitStore;
+import com.pranavpandey.android.dynamic.ads.network.DynamicAdNetworkMonitor;
+import com.pranavpandey.android.dynamic.ads.placement.DynamicAdHedging;
+import com.pranavpandey.android.dynamic.ads.placement.DynamicAdPool;
+import com.pranavpandey.android.dynamic.ads.power.DynamicAdPowerPolicy;
+import com.pranavpandey.android.dynamic.ads.request.DynamicAdRequests;
+import com.pranavpandey.android.dynamic.ads.scheduler.DynamicAdDispatcher;
+import com.pranavpandey.android.dynamic.ads.scheduler.DynamicAdIdleScheduler;
+import com.pranavpandey.android.dynamic.ads.scheduler.DynamicAdLoadBudget;
+import com.pranavpandey.android.dynamic.ads.scheduler.DynamicAdRateLimiter;
+import com.pranavpandey.android.dynamic.ads.scheduler.DynamicAdStartup;
+import com.pranavpandey.android.dynamic.ads.util.DynamicAdTrace;
+import com.pranavpandey.android.dynamic.ads.view.DynamicAdPrewarm;
 import com.pranavpandey.android.dynamic.preferences.DynamicPreferences;
 
-import java.util.HashSet;
+import java.io.File;
+import java.io.PrintWriter;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import java.util.WeakHashMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 /**
  * Helper class to handle the ads related operations including the consent information.
  * <p>It must be initialized once before accessing its methods.
+ * <p>The state is safe to be accessed from any thread, only the work that requires the main
+ * thread like the consent form and creating the ads will be posted on it.
  */
 public class DynamicAds {
 
@@ -51,7 +82,12 @@ public class DynamicAds {
      * Singleton instance of {@link DynamicAds}.
      */
     @SuppressLint("StaticFieldLeak")
-    private static DynamicAds sInstance;
+    private static volatile DynamicAds sInstance;
+
+    /**
+     * Lock to update the ad event count atomically.
+     */
+    private static final Object EVENT_LOCK = new Object();
 
     /**
      * Context to retrieve the resources.
@@ -61,37 +97,175 @@ public class DynamicAds {
     /**
      * Custom consent request parameters required to load the consent information.
      */
-    private ConsentRequestParameters mConsentRequestParameters;
+    private volatile ConsentRequestParameters mConsentRequestParameters;
 
     /**
      * Consent information if available.
      */
-    private ConsentInformation mConsentInformation;
+    private volatile ConsentInformation mConsentInformation;
 
     /**
      * Consent form if available.
      */
-    private ConsentForm mConsentForm;
+    private volatile ConsentForm mConsentForm;
+
+    /**
+     * Evaluator to decide the ad requests from the stored TCF data.
+     */
+    private volatile DynamicAdConsent mAdConsent;
+
+    /**
+     * Monitor to suspend the ads while there is no network.
+     */
+    private volatile DynamicAdNetworkMonitor mNetworkMonitor;
+
+    /**
+     * Policy to reduce the ad work according to the power state.
+     */
+    private volatile DynamicAdPowerPolicy mPowerPolicy;
+
+    /**
+     * Profile to adjust the ad work according to the device class.
+     */
+    private volatile DynamicAdDeviceProfile mDeviceProfile;
 
     /**
      * {@code true} if the consent for is visible.
      */
-    private boolean mConsentFormVisible;
+    private volatile boolean mConsentFormVisible;
+
+    /**
+     * Timeout in milliseconds for each consent stage.
+     */
+    private volatile long mConsentTimeout;
+
+    /**
+     * Number of retries for a failed consent stage.
+     */
+    private volatile int mConsentRetries;
+
+    /**
+     * Initial backoff in milliseconds to retry a failed consent stage.
+     */
+    private volatile long mConsentBackoff;
+
+    /**
+     * Id of the current consent stage to ignore the stale callbacks.
+     * <p>The consent stages are always handled on the main thread, the backend callbacks are
+     * posted to it before accessing this state.
+     */
+    private int mConsentRequest;
+
+    /**
+     * Number of retries for the current consent stage.
+     */
+    private int mConsentAttempt;
+
+    /**
+     * Runnable to end the current consent stage after the timeout.
+     */
+    private Runnable mConsentTimeoutCallback;
 
     /**
      * Backup ads to be reloaded.
      */
-    private Set<DynamicAd> mBackupAds;
+    private final Set<DynamicAd> mBackupAds;
+
+    /**
+     * Ads initialized by this instance for the diagnostics.
+     * <p>They are weakly referenced so that the destroyed hosts can be collected.
+     */
+    private final Set<DynamicAd> mAds;
 
     /**
      * Main thread handler to publish results.
      */
     private final Handler mHandler;
 
+    /**
+     * Metrics to record the ad performance.
+     */
+    private final DynamicAdMetrics mMetrics;
+
+    /**
+     * Monitor to attribute the janky frames to the ads.
+     */
+    private final DynamicAdJankMonitor mJankMonitor;
+
+    /**
+     * Timer to record the stages till the first ad is on screen.
+     */
+    private final DynamicAdFirstAdTimer mFirstAdTimer;
+
+    /**
+     * Stream to publish the ad events to the subscribers.
+     */
+    private final DynamicAdEventStream mEventStream;
+
+    /**
+     * Backend used to load the ads.
+     */
+    private volatile DynamicAdBackend mBackend;
+
+    /**
+     * Pool to keep the loaded ads that were not used.
+     */
+    private final DynamicAdPool mAdPool;
+
+    /**
+     * Hedging to send the hedged requests for the placements.
+     */
+    private final DynamicAdHedging mAdHedging;
+
+    /**
+     * Rate limiter to control how often the ads are requested.
+     */
+    private final DynamicAdRateLimiter mRateLimiter;
+
+    /**
+     * Budget to limit the number of ad loads in flight.
+     */
+    private final DynamicAdLoadBudget mLoadBudget;
+
+    /**
+     * Helper to hold the ad work till the first frame.
+     */
+    private final DynamicAdStartup mStartup;
+
+    /**
+     * Scheduler to run the preparatory ad work when the main looper is idle.
+     */
+    private final DynamicAdIdleScheduler mIdleScheduler;
+
+    /**
+     * Dispatcher to run the ad work on the main thread according to its priority.
+     */
+    private final DynamicAdDispatcher mDispatcher;
+
+    /**
+     * Helper to prewarm the WebView provider and a spare banner ad view.
+     */
+    private volatile DynamicAdPrewarm mPrewarm;
+
+    /**
+     * Store to persist the statistics for each ad unit across the app launches.
+     */
+    private volatile DynamicAdUnitStore mUnitStore;
+
+    /**
+     * Registry to keep the ad request templates.
+     */
+    private final DynamicAdRequests mAdRequests;
+
     /**
      * {@code true} if the mobile ads have been initialized.
      */
-    private boolean mInitialized;
+    private volatile boolean mInitialized;
+
+    /**
+     * {@code true} if the mobile ads initialization has been started.
+     */
+    private final AtomicBoolean mInitializing;
 
     /**
      * Making default constructor private so that it cannot be initialized without a context.
@@ -100,6 +274,25 @@ public class DynamicAds {
     @RestrictTo(RestrictTo.Scope.LIBRARY_GROUP)
     private DynamicAds() {
         this.mHandler = new Handler(Looper.getMainLooper());
+        this.mBackupAds = Collections.newSetFromMap(new ConcurrentHashMap<DynamicAd, Boolean>());
+        this.mAds = Collections.newSetFromMap(new WeakHashMap<DynamicAd, Boolean>());
+        this.mInitializing = new AtomicBoolean();
+        this.mMetrics = new DynamicAdMetrics();
+        this.mJankMonitor = new DynamicAdJankMonitor();
+        this.mEventStream = new DynamicAdEventStream();
+        this.mBackend = new DynamicAdMobBackend();
+        this.mFirstAdTimer = new DynamicAdFirstAdTimer(mBackend);
+        this.mAdPool = new DynamicAdPool();
+        this.mAdHedging = new DynamicAdHedging(mMetrics);
+        this.mRateLimiter = new DynamicAdRateLimiter(mBackend);
+        this.mLoadBudget = new DynamicAdLoadBudget(mBackend);
+        this.mStartup = new DynamicAdStartup(mMetrics);
+        this.mIdleScheduler = new DynamicAdIdleScheduler();
+        this.mDispatcher = new DynamicAdDispatcher(mIdleScheduler);
+        this.mAdRequests = new DynamicAdRequests();
+        this.mConsentTimeout = DynamicAd.Default.CONSENT_TIMEOUT;
+        this.mConsentRetries = DynamicAd.Default.CONSENT_RETRIES;
+        this.mConsentBackoff = DynamicAd.Default.CONSENT_BACKOFF;
     }
 
     /**
@@ -110,7 +303,62 @@ public class DynamicAds {
     private DynamicAds(@NonNull Context context) {
         this();
 
+        mFirstAdTimer.mark(DynamicAdFirstAdTimer.Stage.INITIALIZE);
         this.mContext = context;
+        this.mAdConsent = new DynamicAdConsent(context);
+        this.mDeviceProfile = DynamicAdDeviceProfile.detect(context);
+        this.mNetworkMonitor = new DynamicAdNetworkMonitor(context);
+        this.mPrewarm = new DynamicAdPrewarm(context);
+        this.mUnitStore = new DynamicAdUnitStore(new File(
+                context.getNoBackupFilesDir(), DynamicAdUnitStore.FILE_NAME));
+
+        // Map the persisted statistics off the main thread and restore the decisions from them.
+        new Thread(new Runnable() {
+            @Override
+            public void run() {
+                if (!mUnitStore.open()) {
+                    return;
+                }
+
+                Map<String, DynamicAdUnitStore.Record> records = mUnitStore.getRecords();
+                mAdHedging.restore(records);
+                mAdPool.restore(records);
+                mRateLimiter.restore(records);
+                mMetrics.setUnitStore(mUnitStore);
+            }
+        }, DynamicAdUnitStore.class.getSimpleName()).start();
+
+        mNetworkMonitor.start(new DynamicAdNetworkMonitor.OnNetworkChangeListener() {
+            @Override
+            public void onNetworkChanged(boolean connected, boolean metered) {
+                if (connected) {
+                    recreateAdsIfAllowed();
+                }
+            }
+        });
+
+        this.mPowerPolicy = new DynamicAdPowerPolicy(context);
+        mPowerPolicy.start(new DynamicAdPowerPolicy.OnLevelChangeListener() {
+            @Override
+            public void onLevelChanged(int level, int previous) {
+                updateAdPoolLimit();
+                onAdPowerLevelChanged(level);
+
+                if (level < previous) {
+                    recreateAdsIfAllowed();
+                }
+            }
+        });
+
+        updateAdPoolLimit();
+
+        // Parse the stored consent before the first ad needs it.
+        mIdleScheduler.post(new Runnable() {
+            @Override
+            public void run() {
+                getAdConsent().getDecision();
+            }
+        });
     }
 
     /**
@@ -136,13 +384,36 @@ public class DynamicAds {
      *
      * @return The singleton instance of {@link DynamicAds}.
      */
-    public static synchronized @NonNull DynamicAds getInstance() {
-        if (sInstance == null) {
-            throw new IllegalStateException(DynamicAds.class.getSimpleName() +
-                    " is not initialized, call initializeInstance(...) method first.");
+    public static @NonNull DynamicAds getInstance() {
+        DynamicAds instance = sInstance;
+        if (instance == null) {
+            synchronized (DynamicAds.class) {
+                instance = sInstance;
+
+                if (instance == null) {
+                    throw new IllegalStateException(DynamicAds.class.getSimpleName() +
+                            " is not initialized, call initializeInstance(...) method first.");
+                }
+            }
         }
 
-        return sInstance;
+        return instance;
+    }
+
+    /**
+     * This method will be called when the priority of a dynamic ad has been changed.
+     * <p>It will release the ad work held for the first frame if the ad has been raised to
+     * the critical priority.
+     *
+     * @param dynamicAd The dynamic ad whose priority has been changed.
+     *
+     * @see DynamicAdStartup#onPriorityChanged(DynamicAd)
+     */
+    static void onAdPriorityChanged(@NonNull DynamicAd dynamicAd) {
+        DynamicAds instance = sInstance;
+        if (instance != null) {
+            instance.getStartup().onPriorityChanged(dynamicAd);
+        }
     }
 
     /**
@@ -223,8 +494,10 @@ public class DynamicAds {
      * @see DynamicAd.Key#EVENT_COUNT
      */
     public static void setAdEventCount(long eventCount) {
-        DynamicPreferences.getInstance().save(DynamicAd.PREFS,
-                DynamicAd.Key.EVENT_COUNT, eventCount);
+        synchronized (EVENT_LOCK) {
+            DynamicPreferences.getInstance().save(DynamicAd.PREFS,
+                    DynamicAd.Key.EVENT_COUNT, eventCount);
+        }
     }
 
     /**
@@ -235,16 +508,21 @@ public class DynamicAds {
      * @see DynamicAd.Value#EVENT_COUNT
      */
     public static void resetAdEventCount() {
-        DynamicPreferences.getInstance().delete(DynamicAd.PREFS, DynamicAd.Key.EVENT_COUNT);
+        synchronized (EVENT_LOCK) {
+            DynamicPreferences.getInstance().delete(DynamicAd.PREFS, DynamicAd.Key.EVENT_COUNT);
+        }
     }
 
     /**
      * Increment the saved ad event count by one.
+     * <p>It is atomic so that it can be called from multiple threads.
      *
      * @see #setAdEventCount(long)
      */
     public static void onAdEvent() {
-        setAdEventCount(getAdEventCount() + 1);
+        synchronized (EVENT_LOCK) {
+            setAdEventCount(getAdEventCount() + 1);
+        }
     }
 
     /**
@@ -265,6 +543,231 @@ public class DynamicAds {
         return mHandler;
     }
 
+    /**
+     * Returns the metrics to record the ad performance.
+     *
+     * @return The metrics to record the ad performance.
+     *
+     * @see DynamicAdMetrics#getSnapshot()
+     */
+    public @NonNull DynamicAdMetrics getMetrics() {
+        return mMetrics;
+    }
+
+    /**
+     * Returns the monitor to attribute the janky frames to the ads.
+     *
+     * @return The monitor to attribute the janky frames to the ads.
+     *
+     * @see DynamicAdJankMonitor#getSnapshot()
+     */
+    public @NonNull DynamicAdJankMonitor getJankMonitor() {
+        return mJankMonitor;
+    }
+
+    /**
+     * Returns the timer to record the stages till the first ad is on screen.
+     *
+     * @return The timer to record the stages till the first ad is on screen.
+     *
+     * @see DynamicAdFirstAdTimer#setListener(DynamicAdFirstAdTimer.OnReportListener)
+     */
+    public @NonNull DynamicAdFirstAdTimer getFirstAdTimer() {
+        return mFirstAdTimer;
+    }
+
+    /**
+     * Returns the stream to publish the ad events to the subscribers.
+     *
+     * @return The stream to publish the ad events to the subscribers.
+     *
+     * @see DynamicAdEventStream#subscribe(DynamicAdEventStream.Subscriber)
+     */
+    public @NonNull DynamicAdEventStream getEventStream() {
+        return mEventStream;
+    }
+
+    /**
+     * Returns the pool to keep the loaded ads that were not used.
+     * <p>It keeps the ads that lose an auction for a placement so that they can be shown
+     * later instead of making a new request.
+     *
+     * @return The pool to keep the loaded ads that were not used.
+     *
+     * @see com.pranavpandey.android.dynamic.ads.placement.DynamicAdPlacement
+     */
+    public @NonNull DynamicAdPool getAdPool() {
+        return mAdPool;
+    }
+
+    /**
+     * Returns the hedging to send the hedged requests for the placements.
+     * <p>It can be used to tune the hedge delay and the hedge rate.
+     *
+     * @return The hedging to send the hedged requests for the placements.
+     *
+     * @see com.pranavpandey.android.dynamic.ads.placement.DynamicAdPlacement.Strategy#HEDGED
+     */
+    public @NonNull DynamicAdHedging getAdHedging() {
+        return mAdHedging;
+    }
+
+    /**
+     * Returns the rate limiter to control how often the ads are requested.
+     * <p>It can be used to tune the limits or to query its current state.
+     *
+     * @return The rate limiter to control how often the ads are requested.
+     *
+     * @see DynamicAdRateLimiter#getSnapshot()
+     */
+    public @NonNull DynamicAdRateLimiter getRateLimiter() {
+        return mRateLimiter;
+    }
+
+    /**
+     * Returns the budget to limit the number of ad loads in flight.
+     * <p>It can be used to tune the limit or to query its current state.
+     *
+     * @return The budget to limit the number of ad loads in flight.
+     *
+     * @see DynamicAdLoadBudget#getSnapshot()
+     */
+    public @NonNull DynamicAdLoadBudget getLoadBudget() {
+        return mLoadBudget;
+    }
+
+    /**
+     * Returns the helper to hold the ad work till the host window has drawn its first frame.
+     * <p>It can be enabled to improve the time to initial display.
+     *
+     * @return The helper to hold the ad work till the first frame.
+     *
+     * @see DynamicAdStartup#setEnabled(boolean)
+     */
+    public @NonNull DynamicAdStartup getStartup() {
+        return mStartup;
+    }
+
+    /**
+     * Returns the scheduler to run the preparatory ad work when the main looper is idle.
+     *
+     * @return The scheduler to run the preparatory ad work when the main looper is idle.
+     *
+     * @see DynamicAdIdleScheduler#getSnapshot()
+     */
+    public @NonNull DynamicAdIdleScheduler getIdleScheduler() {
+        return mIdleScheduler;
+    }
+
+    /**
+     * Returns the dispatcher to run the ad work on the main thread according to its priority.
+     *
+     * @return The dispatcher to run the ad work on the main thread according to its priority.
+     */
+    public @NonNull DynamicAdDispatcher getDispatcher() {
+        return mDispatcher;
+    }
+
+    /**
+     * Returns the helper to prewarm the WebView provider and a spare banner ad view.
+     *
+     * @return The helper to prewarm the WebView provider and a spare banner ad view.
+     *
+     * @see #prewarm(boolean)
+     */
+    public @NonNull DynamicAdPrewarm getPrewarm() {
+        return mPrewarm;
+    }
+
+    /**
+     * Returns the store to persist the statistics for each ad unit across the app launches.
+     * <p>Its records are kept separate from the metrics of the current process. They are
+     * read once it has been opened to restore the hedging delay, the ad units that should not
+     * be pooled and the ad units that had no fill recently.
+     *
+     * @return The store to persist the statistics for each ad unit.
+     *
+     * @see DynamicAdUnitStore#getRecord(String)
+     */
+    public @NonNull DynamicAdUnitStore getUnitStore() {
+        return mUnitStore;
+    }
+
+    /**
+     * Load the WebView provider and keep a spare ad view ready for the first banner ad.
+     * <p>It can be called when the app starts so that the first banner ad does not pay the
+     * one-time WebView cost while the screen is being opened.
+     *
+     * @param idle {@code true} to do it in the next idle slots, otherwise it will be done now
+     *             on the main thread.
+     */
+    public void prewarm(final boolean idle) {
+        if (idle) {
+            getPrewarm().prewarm(getIdleScheduler(), getBackend());
+        } else if (!isMainThread()) {
+            getDispatcher().post(DynamicAdDispatcher.Priority.NORMAL, new Runnable() {
+                @Override
+                public void run() {
+                    prewarm(false);
+                }
+            });
+        } else {
+            getPrewarm().prewarm(getBackend());
+        }
+    }
+
+    /**
+     * Returns the registry to keep the ad request templates.
+     * <p>It can be used to set the targeting for each ad unit or ad format.
+     *
+     * @return The registry to keep the ad request templates.
+     */
+    public @NonNull DynamicAdRequests getAdRequests() {
+        return mAdRequests;
+    }
+
+    /**
+     * Returns the backend used to load the ads.
+     *
+     * @return The backend used to load the ads.
+     */
+    public @NonNull DynamicAdBackend getBackend() {
+        return mBackend;
+    }
+
+    /**
+     * Sets the backend used to load the ads.
+     * <p>It should be set before requesting any ad, mostly useful to run the ad pipeline
+     * against a simulated network.
+     *
+     * @param backend The backend to be set, {@code null} to use the default backend.
+     *
+     * @see DynamicAdMobBackend
+     * @see com.pranavpandey.android.dynamic.ads.backend.DynamicSimulatedAdBackend
+     */
+    public void setBackend(@Nullable DynamicAdBackend backend) {
+        this.mBackend = backend != null ? backend : new DynamicAdMobBackend();
+        this.mInitialized = false;
+        this.mInitializing.set(false);
+
+        mRateLimiter.setBackend(mBackend);
+        mLoadBudget.setBackend(mBackend);
+        mFirstAdTimer.setBackend(mBackend);
+
+        if (mPrewarm != null) {
+            mPrewarm.clear();
+        }
+    }
+
+    /**
+     * Returns whether the current thread is the main thread.
+     *
+     * @return {@code true} if the current thread is the main thread.
+     */
+    public boolean isMainThread() {
+        return Looper.myLooper() == getHandler().getLooper();
+    }
+
     /**
      * Returns whether the mobile ads have been initialized.
      *
@@ -292,6 +795,63 @@ public class DynamicAds {
         return mConsentForm;
     }
 
+    /**
+     * Returns the evaluator to decide the ad requests from the stored TCF data.
+     *
+     * @return The evaluator to decide the ad requests from the stored TCF data.
+     */
+    public @NonNull DynamicAdConsent getAdConsent() {
+        return mAdConsent;
+    }
+
+    /**
+     * Returns the monitor to suspend the ads while there is no network.
+     *
+     * @return The monitor to suspend the ads while there is no network.
+     */
+    public @NonNull DynamicAdNetworkMonitor getNetworkMonitor() {
+        return mNetworkMonitor;
+    }
+
+    /**
+     * Returns the policy to reduce the ad work according to the power state.
+     *
+     * @return The policy to reduce the ad work according to the power state.
+     */
+    public @NonNull DynamicAdPowerPolicy getPowerPolicy() {
+        return mPowerPolicy;
+    }
+
+    /**
+     * Returns the profile to adjust the ad work according to the device class.
+     *
+     * @return The profile to adjust the ad work according to the device class.
+     */
+    public @NonNull DynamicAdDeviceProfile getDeviceProfile() {
+        return mDeviceProfile;
+    }
+
+    /**
+     * Sets the profile to adjust the ad work according to the device class.
+     *
+     * @param deviceProfile The profile to be set.
+     *                      <p>Use {@code null} to detect the profile for the current device.
+     */
+    public void setDeviceProfile(@Nullable DynamicAdDeviceProfile deviceProfile) {
+        this.mDeviceProfile = deviceProfile != null
+                ? deviceProfile : DynamicAdDeviceProfile.detect(getContext());
+
+        updateAdPoolLimit();
+    }
+
+    /**
+     * Update the preload pool limit from the device profile and the power policy.
+     */
+    private void updateAdPoolLimit() {
+        mAdPool.setLimit(Math.min(mDeviceProfile.getPoolCapacity(Integer.MAX_VALUE),
+                mPowerPolicy.getPoolCapacity(Integer.MAX_VALUE)));
+    }
+
     /**
      * Checks whether a consent information is available.
      *
@@ -343,6 +903,62 @@ public class DynamicAds {
         this.mConsentRequestParameters = consentRequestParameters;
     }
 
+    /**
+     * Returns the timeout for each consent stage.
+     *
+     * @return The timeout in milliseconds for each consent stage.
+     */
+    public long getConsentTimeout() {
+        return mConsentTimeout;
+    }
+
+    /**
+     * Set the timeout for each consent stage.
+     * <p>The stage will be retried or the fallback will be used after this timeout.
+     *
+     * @param consentTimeout The timeout in milliseconds to be set.
+     */
+    public void setConsentTimeout(long consentTimeout) {
+        this.mConsentTimeout = Math.max(0, consentTimeout);
+    }
+
+    /**
+     * Returns the number of retries for a failed consent stage.
+     *
+     * @return The number of retries for a failed consent stage.
+     */
+    public int getConsentRetries() {
+        return mConsentRetries;
+    }
+
+    /**
+     * Set the number of retries for a failed consent stage.
+     *
+     * @param consentRetries The number of retries to be set.
+     */
+    public void setConsentRetries(int consentRetries) {
+        this.mConsentRetries = Math.max(0, consentRetries);
+    }
+
+    /**
+     * Returns the initial backoff to retry a failed consent stage.
+     *
+     * @return The initial backoff in milliseconds to retry a failed consent stage.
+     */
+    public long getConsentBackoff() {
+        return mConsentBackoff;
+    }
+
+    /**
+     * Set the initial backoff to retry a failed consent stage.
+     * <p>It will be doubled for every retry.
+     *
+     * @param consentBackoff The initial backoff in milliseconds to be set.
+     */
+    public void setConsentBackoff(long consentBackoff) {
+        this.mConsentBackoff = Math.max(0, consentBackoff);
+    }
+
     /**
      * Returns the status of the consent information.
      *
@@ -388,17 +1004,41 @@ public class DynamicAds {
      */
     public void loadConsentInformation(final @Nullable BaseAdListener adListener,
             final boolean force) {
+        if (!isMainThread()) {
+            getDispatcher().post(DynamicAdDispatcher.Priority.NORMAL, new Runnable() {
+                @Override
+                public void run() {
+                    loadConsentInformation(adListener, force);
+                }
+            });
+
+            return;
+        }
+
         this.mConsentInformation = UserMessagingPlatform.getConsentInformation(getContext());
 
         if (getConsentInformation() == null || !(adListener instanceof Activity)) {
+            onConsentFallback();
             return;
         }
 
+        final int request = beginConsentStage(DynamicAdTrace.SECTION_CONSENT_INFO,
+                new Runnable() {
+                    @Override
+                    public void run() {
+                        onConsentFailure(adListener, force, false);
+                    }
+                });
         getConsentInformation().requestConsentInfoUpdate(
                 (Activity) adListener, getConsentRequestParameters(),
                 new ConsentInformation.OnConsentInfoUpdateSuccessListener() {
                     @Override
                     public void onConsentInfoUpdateSuccess() {
+                        if (!endConsentStage(DynamicAdTrace.SECTION_CONSENT_INFO, request)) {
+                            return;
+                        }
+
+                        mConsentAttempt = 0;
                         if (isConsentFormAvailable()) {
                             loadConsentForm(adListener, force);
                         } else {
@@ -407,7 +1047,13 @@ public class DynamicAds {
                     }},
                 new ConsentInformation.OnConsentInfoUpdateFailureListener() {
                     @Override
-                    public void onConsentInfoUpdateFailure(@NonNull FormError formError) { }
+                    public void onConsentInfoUpdateFailure(@NonNull FormError formError) {
+                        if (!endConsentStage(DynamicAdTrace.SECTION_CONSENT_INFO, request)) {
+                            return;
+                        }
+
+                        onConsentFailure(adListener, force, false);
+                    }
                 });
     }
 
@@ -418,14 +1064,38 @@ public class DynamicAds {
      * @param force {@code true} to always show the consent form.
      */
     public void loadConsentForm(final @Nullable BaseAdListener adListener, final boolean force) {
+        if (!isMainThread()) {
+            getDispatcher().post(DynamicAdDispatcher.Priority.NORMAL, new Runnable() {
+                @Override
+                public void run() {
+                    loadConsentForm(adListener, force);
+                }
+            });
+
+            return;
+        }
+
         if (adListener == null) {
+            onConsentFallback();
             return;
         }
 
+        final int request = beginConsentStage(DynamicAdTrace.SECTION_CONSENT_FORM,
+                new Runnable() {
+                    @Override
+                    public void run() {
+                        onConsentFailure(adListener, force, true);
+                    }
+                });
         UserMessagingPlatform.loadConsentForm(getContext(),
                 new UserMessagingPlatform.OnConsentFormLoadSuccessListener() {
             @Override
             public void onConsentFormLoadSuccess(@NonNull ConsentForm consentForm) {
+                if (!endConsentStage(DynamicAdTrace.SECTION_CONSENT_FORM, request)) {
+                    return;
+                }
+
+                mConsentAttempt = 0;
                 mConsentForm = consentForm;
 
                 if (isConsentRequired() || force) {
@@ -436,10 +1106,133 @@ public class DynamicAds {
             }
         }, new UserMessagingPlatform.OnConsentFormLoadFailureListener() {
             @Override
-            public void onConsentFormLoadFailure(@NonNull FormError formError) { }
+            public void onConsentFormLoadFailure(@NonNull FormError formError) {
+                if (!endConsentStage(DynamicAdTrace.SECTION_CONSENT_FORM, request)) {
+                    return;
+                }
+
+                onConsentFailure(adListener, force, true);
+            }
         });
     }
 
+    /**
+     * Begin a consent stage that will be ended after the consent timeout.
+     *
+     * @param section The trace section for the consent stage.
+     * @param onTimeout The runnable to be run if the consent stage times out.
+     *
+     * @return The id of the consent stage to ignore the stale callbacks.
+     */
+    private int beginConsentStage(final @NonNull String section,
+            final @NonNull Runnable onTimeout) {
+        if (mConsentTimeoutCallback != null) {
+            getBackend().cancel(mConsentTimeoutCallback);
+        }
+
+        final int request = ++mConsentRequest;
+        DynamicAdTrace.beginAsyncSection(section, 0);
+        mFirstAdTimer.mark(DynamicAdTrace.SECTION_CONSENT_FORM.equals(section)
+                ? DynamicAdFirstAdTimer.Stage.CONSENT_FORM
+                : DynamicAdFirstAdTimer.Stage.CONSENT_INFO);
+
+        mConsentTimeoutCallback = new Runnable() {
+            @Override
+            public void run() {
+                if (!isMainThread()) {
+                    getDispatcher().post(DynamicAdDispatcher.Priority.NORMAL, this);
+                    return;
+                }
+
+                if (endConsentStage(section, request)) {
+                    onTimeout.run();
+                }
+            }
+        };
+        getBackend().schedule(mConsentTimeoutCallback, getConsentTimeout());
+
+        return request;
+    }
+
+    /**
+     * End a consent stage if it is still the current one.
+     *
+     * @param section The trace section for the consent stage.
+     * @param request The id of the consent stage to be ended.
+     *
+     * @return {@code true} if the consent stage has been ended, otherwise {@code false} if it
+     *         is stale and the callback should be ignored.
+     */
+    private boolean endConsentStage(@NonNull String section, int request) {
+        if (request != mConsentRequest) {
+            return false;
+        }
+
+        mConsentRequest++;
+        if (mConsentTimeoutCallback != null) {
+            getBackend().cancel(mConsentTimeoutCallback);
+            mConsentTimeoutCallback = null;
+        }
+
+        DynamicAdTrace.endAsyncSection(section, 0);
+        mFirstAdTimer.mark(DynamicAdTrace.SECTION_CONSENT_FORM.equals(section)
+                ? DynamicAdFirstAdTimer.Stage.CONSENT_FORM_END
+                : DynamicAdFirstAdTimer.Stage.CONSENT_INFO_END);
+        return true;
+    }
+
+    /**
+     * This method will be called when a consent stage has been failed or timed out.
+     * <p>It will retry the stage with an exponential backoff and use the fallback after all
+     * the retries.
+     *
+     * @param adListener The dynamic ad lister to be used.
+     * @param force {@code true} to always show the consent form.
+     * @param form {@code true} if the consent form was being loaded.
+     */
+    private void onConsentFailure(final @Nullable BaseAdListener adListener,
+            final boolean force, final boolean form) {
+        if (mConsentAttempt >= getConsentRetries()) {
+            mConsentAttempt = 0;
+            onConsentFallback();
+
+            return;
+        }
+
+        final int request = mConsentRequest;
+        long delay = getConsentBackoff() << Math.min(mConsentAttempt, 16);
+        mConsentAttempt++;
+
+        getBackend().schedule(new Runnable() {
+            @Override
+            public void run() {
+                if (!isMainThread()) {
+                    getDispatcher().post(DynamicAdDispatcher.Priority.NORMAL, this);
+                    return;
+                }
+
+                if (request != mConsentRequest) {
+                    return;
+                }
+
+                if (form) {
+                    loadConsentForm(adListener, force);
+                } else {
+                    loadConsentInformation(adListener, force);
+                }
+            }
+        }, delay);
+    }
+
+    /**
+     * This method will be called when the consent could not be updated in time.
+     * <p>The queued ads will be recreated if the cached consent status or the stored TCF data
+     * allows it, otherwise they will be kept till the next consent update.
+     */
+    private void onConsentFallback() {
+        recreateAdsIfAllowed();
+    }
+
     /**
      * Try to show the consent form.
      *
@@ -450,34 +1243,67 @@ public class DynamicAds {
             return;
         }
 
-        getHandler().post(new Runnable() {
+        // The user is waiting on the consent form.
+        getDispatcher().post(DynamicAdDispatcher.Priority.CRITICAL, new Runnable() {
             @Override
             public void run() {
-                getConsentForm().show((Activity) adListener,
-                        new ConsentForm.OnConsentFormDismissedListener() {
-                    @Override
-                    public void onConsentFormDismissed(@Nullable FormError formError) {
-                        mConsentFormVisible = false;
-
-                        loadConsentForm(adListener, false);
-                    }
-                });
+                boolean traced = DynamicAdTrace.beginSection(
+                        DynamicAdTrace.SECTION_CONSENT_FORM);
+                try {
+                    getConsentForm().show((Activity) adListener,
+                            new ConsentForm.OnConsentFormDismissedListener() {
+                        @Override
+                        public void onConsentFormDismissed(@Nullable FormError formError) {
+                            mConsentFormVisible = false;
+
+                            loadConsentForm(adListener, false);
+                        }
+                    });
 
-                mConsentFormVisible = true;
+                    mConsentFormVisible = true;
+                } finally {
+                    DynamicAdTrace.endSection(traced);
+                }
             }
         });
     }
 
     /**
      * Try to initialize the mobile ads.
+     * <p>It will be held till the host window has drawn its first frame if the startup mode
+     * is enabled and the ad is not critical.
      *
      * @param dynamicAd The dynamic ad to be initialized.
      * @param adListener The dynamic ad lister to be used.
+     *
+     * @see #getStartup()
      */
-    public void initializeAd(@Nullable DynamicAd dynamicAd, @Nullable BaseAdListener adListener) {
+    public void initializeAd(final @Nullable DynamicAd dynamicAd,
+            final @Nullable BaseAdListener adListener) {
+        if (dynamicAd != null) {
+            synchronized (mAds) {
+                mAds.add(dynamicAd);
+            }
+        }
+
+        if (adListener != null && getStartup().defer(adListener.getAdContext(), dynamicAd,
+                new Runnable() {
+                    @Override
+                    public void run() {
+                        initializeAd(dynamicAd, adListener);
+                    }
+                })) {
+            return;
+        }
+
         if (!isConsentInformationAvailable()) {
-            queueAd(dynamicAd);
-            loadConsentInformation(adListener, false);
+            if (getAdConsent().canRequestAds()) {
+                loadConsentInformation(adListener, false);
+                postAd(dynamicAd);
+            } else {
+                queueAd(dynamicAd);
+                loadConsentInformation(adListener, false);
+            }
 
             return;
         }
@@ -486,7 +1312,8 @@ public class DynamicAds {
             showConsentForm(adListener);
         }
 
-        if (isConsentRequired() || !canRequestAds()) {
+        if (isConsentRequired() || !canRequestAds()
+                || getAdConsent().getDecision() == DynamicAdConsent.Decision.NONE) {
             return;
         }
 
@@ -495,49 +1322,114 @@ public class DynamicAds {
 
     /**
      * Try to create a dynamic ad on main thread.
+     * <p>It can be called from any thread and the mobile ads will be initialized only once.
+     * <p>The ad will be queued if it is suspended for the current network or power state.
+     * <p>The ad will be created according to its dispatch priority so that a full screen ad
+     * about to be shown is not blocked by the speculative ads.
      *
      * @param dynamicAd The dynamic ad to be created.
      *
      * @see DynamicAd#onAdCreate()
+     * @see DynamicAdDispatcher#getPriority(DynamicAd)
+     * @see DynamicAdNetworkMonitor#isSuspended(DynamicAd)
+     * @see DynamicAdPowerPolicy#isSuspended(DynamicAd)
      */
     public void postAd(@Nullable DynamicAd dynamicAd) {
         if (dynamicAd == null) {
             return;
         }
 
+        if (getNetworkMonitor().isSuspended(dynamicAd)
+                || getPowerPolicy().onDefer(dynamicAd)) {
+            queueAd(dynamicAd);
+            return;
+        }
+
+        mFirstAdTimer.mark(DynamicAdFirstAdTimer.Stage.POST);
+        boolean traced = DynamicAdTrace.beginSection(
+                DynamicAdTrace.SECTION_POST_AD, dynamicAd);
         try {
-            if (!isInitialized()) {
-                MobileAds.initialize(getContext(), new OnInitializationCompleteListener() {
+            if (!isInitialized() && mInitializing.compareAndSet(false, true)) {
+                mFirstAdTimer.mark(DynamicAdFirstAdTimer.Stage.SDK_INIT);
+                getBackend().initialize(getContext(), new OnInitializationCompleteListener() {
                     @Override
                     public void onInitializationComplete(
                             @NonNull InitializationStatus initializationStatus) {
                         mInitialized = true;
+                        mFirstAdTimer.mark(DynamicAdFirstAdTimer.Stage.SDK_INIT_END);
                     }
                 });
             }
 
-            MobileAds.setRequestConfiguration(dynamicAd.getAdRequestConfigurations());
+            getAdRequests().setRequestConfiguration(getBackend(),
+                    dynamicAd.getAdRequestConfigurations());
         } catch (Exception ignored) {
+            if (!isInitialized()) {
+                mInitializing.set(false);
+            }
         }
 
-        getHandler().post(new Runnable() {
+        try {
+            getDispatcher().post(DynamicAdDispatcher.getPriority(dynamicAd),
+                    dynamicAd, new Runnable() {
+                @Override
+                public void run() {
+                    createAd(dynamicAd);
+                }
+            });
+        } finally {
+            DynamicAdTrace.endSection(traced);
+        }
+    }
+
+    /**
+     * Try to create a dynamic ad when the main looper is idle.
+     * <p>It is useful to reload an ad that is not immediately visible, like a full screen ad
+     * after it has been dismissed.
+     *
+     * @param dynamicAd The dynamic ad to be created.
+     *
+     * @see #getIdleScheduler()
+     * @see #postAd(DynamicAd)
+     */
+    public void postAdWhenIdle(final @Nullable DynamicAd dynamicAd) {
+        if (dynamicAd == null) {
+            return;
+        }
+
+        getIdleScheduler().post(new Runnable() {
             @Override
             public void run() {
-                createAd(dynamicAd);
+                postAd(dynamicAd);
             }
         });
     }
 
     /**
      * Try to create a dynamic ad.
+     * <p>The ad will be queued if it has to request a new ad while the power policy defers it.
      *
      * @param dynamicAd The dynamic ad to be created.
      *
      * @see DynamicAd#onAdCreate()
+     * @see DynamicAdPowerPolicy#onDefer(DynamicAd)
      */
     public void createAd(@Nullable DynamicAd dynamicAd) {
-        if (dynamicAd != null) {
+        if (dynamicAd == null) {
+            return;
+        }
+
+        if (!dynamicAd.isAdLoaded() && getPowerPolicy().onDefer(dynamicAd)) {
+            queueAd(dynamicAd);
+            return;
+        }
+
+        boolean traced = DynamicAdTrace.beginSection(
+                DynamicAdTrace.SECTION_CREATE_AD, dynamicAd);
+        try {
             dynamicAd.onAdCreate();
+        } finally {
+            DynamicAdTrace.endSection(traced);
         }
     }
 
@@ -551,24 +1443,222 @@ public class DynamicAds {
             return;
         }
 
-        if (mBackupAds == null) {
-            mBackupAds = new HashSet<>();
-        }
-
         mBackupAds.add(dynamicAd);
     }
 
     /**
-     * Try to recreate all the queued ads.
+     * Try to recreate all the queued ads in the order of their priority.
+     *
+     * @see DynamicAd#getAdPriority()
      */
     public void recreateAds() {
-        if (mBackupAds == null) {
-            return;
+        if (!mBackupAds.isEmpty()) {
+            mFirstAdTimer.mark(DynamicAdFirstAdTimer.Stage.RECREATE);
+        }
+
+        List<DynamicAd> dynamicAds = new ArrayList<>(mBackupAds);
+        Collections.sort(dynamicAds, new Comparator<DynamicAd>() {
+            @Override
+            public int compare(DynamicAd first, DynamicAd second) {
+                return Integer.compare(second.getAdPriority(), first.getAdPriority());
+            }
+        });
+
+        for (DynamicAd dynamicAd : dynamicAds) {
+            if (mBackupAds.remove(dynamicAd)) {
+                postAd(dynamicAd);
+            }
+        }
+    }
+
+    /**
+     * Notify all the initialized ads on the main thread that the power policy level has been
+     * changed.
+     *
+     * @param level The current power policy level.
+     *
+     * @see DynamicBaseAd#onAdPowerLevelChanged(int)
+     */
+    private void onAdPowerLevelChanged(final @DynamicAdPowerPolicy.Level int level) {
+        final List<DynamicAd> dynamicAds;
+        synchronized (mAds) {
+            dynamicAds = new ArrayList<>(mAds);
+        }
+
+        getDispatcher().post(DynamicAdDispatcher.Priority.NORMAL, new Runnable() {
+            @Override
+            public void run() {
+                for (DynamicAd dynamicAd : dynamicAds) {
+                    if (dynamicAd instanceof DynamicBaseAd) {
+                        ((DynamicBaseAd) dynamicAd).onAdPowerLevelChanged(level);
+                    }
+                }
+            }
+        });
+    }
+
+    /**
+     * Try to recreate all the queued ads if the cached consent status or the stored TCF data
+     * allows it.
+     */
+    private void recreateAdsIfAllowed() {
+        if (canRequestAds() || getAdConsent().canRequestAds()) {
+            recreateAds();
         }
+    }
 
-        for (DynamicAd dynamicAd : mBackupAds) {
-            mBackupAds.remove(dynamicAd);
-            postAd(dynamicAd);
+    /**
+     * Returns the current state of the supplied dynamic ad for the diagnostics.
+     *
+     * @param dynamicAd The dynamic ad to be used.
+     * @param queued {@code true} if the ad is queued to be recreated.
+     *
+     * @return The current state of the supplied dynamic ad.
+     */
+    private @NonNull String getAdState(@NonNull DynamicAd dynamicAd, boolean queued) {
+        if (queued) {
+            return "queued";
+        } else if (dynamicAd instanceof DynamicBaseAd
+                && ((DynamicBaseAd) dynamicAd).isAdDeferred()) {
+            return "throttled";
+        } else if (getLoadBudget().isQueued(dynamicAd)) {
+            return "waiting for load budget";
+        } else if (dynamicAd instanceof DynamicBaseAd
+                && ((DynamicBaseAd) dynamicAd).isAdRequesting()) {
+            return "loading";
+        } else if (dynamicAd.isAdVisible()) {
+            return "visible";
+        } else if (dynamicAd.isAdLoaded()) {
+            return "loaded";
+        } else if (isConsentRequired()) {
+            return "blocked by consent";
+        } else if (!isInitialized()) {
+            return "waiting for initialization";
+        } else if (!dynamicAd.isAdAllowed()) {
+            return "not allowed";
         }
+
+        return "idle";
+    }
+
+    /**
+     * Print the current state of the pipeline and all the initialized ads.
+     * <p>It can be called from any thread, for example from the {@code dump()} method of an
+     * activity, and it never waits for the main thread so the ads are not paused. The values
+     * are read without synchronization and may be slightly stale.
+     *
+     * @param writer The writer to print the state.
+     *
+     * @see DynamicBaseAd#dump(PrintWriter, String)
+     */
+    public void dump(@NonNull PrintWriter writer) {
+        List<DynamicAd> queuedAds = new ArrayList<>(mBackupAds);
+        Collections.sort(queuedAds, new Comparator<DynamicAd>() {
+            @Override
+            public int compare(DynamicAd first, DynamicAd second) {
+                return Integer.compare(second.getAdPriority(), first.getAdPriority());
+            }
+        });
+
+        List<DynamicAd> dynamicAds;
+        synchronized (mAds) {
+            dynamicAds = new ArrayList<>(mAds);
+        }
+
+        writer.println("DynamicAds:");
+        writer.print("  initialized=");
+        writer.print(isInitialized());
+        writer.print(" initializing=");
+        writer.print(mInitializing.get());
+        writer.print(" backend=");
+        writer.println(getBackend().getClass().getSimpleName());
+
+        writer.println("  Consent:");
+        writer.print("    status=");
+        writer.print(getConsentStatus());
+        writer.print(" canRequestAds=");
+        writer.print(canRequestAds());
+        writer.print(" required=");
+        writer.print(isConsentRequired());
+        writer.print(" decision=");
+        writer.println(DynamicAdConsent.toString(getAdConsent().getDecision()));
+        writer.print("    informationAvailable=");
+        writer.print(isConsentInformationAvailable());
+        writer.print(" formAvailable=");
+        writer.print(isConsentFormAvailable());
+        writer.print(" formVisible=");
+        writer.println(isConsentFormVisible());
+        writer.print("    stage=");
+        writer.print(mConsentTimeoutCallback != null ? "pending" : "none");
+        writer.print(" attempt=");
+        writer.print(mConsentAttempt);
+        writer.print("/");
+        writer.print(getConsentRetries());
+        writer.print(" timeout=");
+        writer.print(getConsentTimeout());
+        writer.print("ms backoff=");
+        writer.print(getConsentBackoff());
+        writer.println("ms");
+
+        DynamicAdRateLimiter.Snapshot rateLimiter = getRateLimiter().getSnapshot();
+        DynamicAdLoadBudget.Snapshot loadBudget = getLoadBudget().getSnapshot();
+        writer.println("  Scheduler:");
+        writer.print("    rateLimiter globalTokens=");
+        writer.print(rateLimiter.getGlobalTokens());
+        writer.print(" pending=");
+        writer.print(rateLimiter.getPending());
+        writer.print(" deferred=");
+        writer.println(rateLimiter.getDeferred());
+        writer.print("    loadBudget limit=");
+        writer.print(loadBudget.getLimit());
+        writer.print(" inFlight=");
+        writer.print(loadBudget.getInFlight());
+        writer.print(" pending=");
+        writer.print(loadBudget.getPending());
+        writer.print(" timedOut=");
+        writer.println(loadBudget.getTimedOut());
+        writer.print("    dispatcher pending=");
+        writer.print(getDispatcher().getPending());
+        writer.print(" idle pending=");
+        writer.print(getIdleScheduler().getPending());
+        writer.print(" startup=");
+        writer.print(getStartup().isEnabled());
+        writer.print(" pool=");
+        writer.println(getAdPool().size());
+        writer.print("    network connected=");
+        writer.print(getNetworkMonitor().isConnected());
+        writer.print(" metered=");
+        writer.print(getNetworkMonitor().isMetered());
+        writer.print(" power level=");
+        writer.println(getPowerPolicy().getLevel());
+
+        writer.print("  Ads (");
+        writer.print(dynamicAds.size());
+        writer.println("):");
+        for (DynamicAd dynamicAd : dynamicAds) {
+            int position = queuedAds.indexOf(dynamicAd);
+
+            writer.print("    ");
+            writer.print(dynamicAd.getAdFormat());
+            writer.print(" ");
+            writer.print(dynamicAd.getAdUnitId());
+            writer.print(" priority=");
+            writer.print(dynamicAd.getAdPriority());
+            writer.print(" state=");
+            writer.print(getAdState(dynamicAd, position >= 0));
+            if (position >= 0) {
+                writer.print(" queue=");
+                writer.print(position + 1);
+                writer.print("/");
+                writer.print(queuedAds.size());
+            }
+            writer.println();
+
+            if (dynamicAd instanceof DynamicBaseAd) {
+                ((DynamicBaseAd) dynamicAd).dump(writer, "      ");
+            }
+        }
+
+        writer.flush();
     }
 }
@@ -16,44 +16,559 @@
 
 package com.pranavpandey.android.dynamic.ads;
 
-import android.annotation.SuppressLint;
-
 import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
 
 import com.google.android.gms.ads.AdRequest;
-import com.google.android.gms.ads.MobileAds;
+import com.google.android.gms.ads.LoadAdError;
 import com.google.android.gms.ads.RequestConfiguration;
+import com.pranavpandey.android.dynamic.ads.backend.DynamicAdBackend;
+import com.pranavpandey.android.dynamic.ads.backend.DynamicAdCallback;
+import com.pranavpandey.android.dynamic.ads.backend.DynamicAdLoader;
+import com.pranavpandey.android.dynamic.ads.event.DynamicAdEvent;
+import com.pranavpandey.android.dynamic.ads.event.DynamicAdEventStream;
+import com.pranavpandey.android.dynamic.ads.metrics.DynamicAdFirstAdTimer;
+import com.pranavpandey.android.dynamic.ads.metrics.DynamicAdMetrics;
+import com.pranavpandey.android.dynamic.ads.placement.DynamicAdPlacement;
+import com.pranavpandey.android.dynamic.ads.power.DynamicAdPowerPolicy;
+import com.pranavpandey.android.dynamic.ads.request.DynamicAdRequests;
+import com.pranavpandey.android.dynamic.ads.scheduler.DynamicAdLoadBudget;
+import com.pranavpandey.android.dynamic.ads.scheduler.DynamicAdRateLimiter;
+import com.pranavpandey.android.dynamic.ads.util.DynamicAdTrace;
+
+import java.io.PrintWriter;
 
 /**
  * An abstract class to implement a {@link DynamicAd}.
  */
 public abstract class DynamicBaseAd implements DynamicAd {
 
+    /**
+     * Constant for the ad that never expires.
+     */
+    public static final long AD_EXPIRY_NONE = 0;
+
+    /**
+     * Default expiry time in milliseconds for a loaded ad.
+     */
+    public static final long AD_EXPIRY_DEFAULT = 60 * 60 * 1000;
+
+    /**
+     * Constant for the time that has not been recorded yet.
+     * <p>A valid time can be {@code 0} for a clock starting from the zero epoch.
+     */
+    public static final long TIME_NONE = -1;
+
     /**
      * {@code true} if this add is visible to the user.
      */
     private boolean mAdVisible;
 
-    @SuppressLint("VisibleForTests")
+    /**
+     * Time at which the pending ad request was started.
+     */
+    private long mRequestTime;
+
+    /**
+     * Time at which the current ad was loaded.
+     */
+    private long mLoadTime;
+
+    /**
+     * Time at which the current ad was shown to the user.
+     */
+    private long mShowTime;
+
+    /**
+     * Error returned by the last failed ad request.
+     */
+    private volatile LoadAdError mLastError;
+
+    /**
+     * Time at which the last ad request was failed.
+     */
+    private long mErrorTime;
+
+    /**
+     * {@code true} if the async trace section for this ad has been started.
+     */
+    private boolean mTracing;
+
+    /**
+     * Optional placement to request this ad from multiple ad units.
+     */
+    private DynamicAdPlacement mAdPlacement;
+
+    /**
+     * {@code true} if the ad request has been deferred by the rate limiter.
+     */
+    private boolean mAdDeferred;
+
+    /**
+     * Request configuration built for this ad.
+     */
+    private RequestConfiguration mRequestConfiguration;
+
+    /**
+     * Backend request configuration from which the request configuration was built.
+     */
+    private RequestConfiguration mBaseRequestConfiguration;
+
+    /**
+     * Priority of this ad.
+     */
+    private volatile int mAdPriority;
+
+    /**
+     * Constructor to initialize an object of this class.
+     */
+    public DynamicBaseAd() {
+        this(Priority.NORMAL);
+    }
+
+    /**
+     * Constructor to initialize an object of this class.
+     *
+     * @param adPriority The default priority for this ad.
+     *
+     * @see Priority
+     */
+    protected DynamicBaseAd(int adPriority) {
+        this.mAdPriority = adPriority;
+        this.mRequestTime = TIME_NONE;
+        this.mLoadTime = TIME_NONE;
+        this.mShowTime = TIME_NONE;
+        this.mErrorTime = TIME_NONE;
+    }
+
+    /**
+     * Returns the ad request for this ad.
+     * <p>The non-personalized ads will be requested if the stored consent does not allow the
+     * personalized ads.
+     *
+     * @return The ad request for this ad.
+     *
+     * @see com.pranavpandey.android.dynamic.ads.consent.DynamicAdConsent#isNonPersonalized()
+     */
     @Override
     public @NonNull AdRequest getAdRequest() {
-        return new AdRequest.Builder().build();
+        boolean nonPersonalized = DynamicAds.getInstance().getAdConsent().isNonPersonalized();
+        DynamicAdPlacement adPlacement = getAdPlacement();
+        if (adPlacement != null && adPlacement.getRequestTemplate() != null) {
+            return adPlacement.getRequestTemplate().getAdRequest(nonPersonalized);
+        }
+
+        return DynamicAds.getInstance().getAdRequests().getAdRequest(
+                nonPersonalized, getAdUnitId(), getAdFormat());
     }
 
+    /**
+     * Returns the request configuration for this ad.
+     * <p>It will be built again only if the backend request configuration has been changed
+     * by the app.
+     *
+     * @return The request configuration for this ad.
+     */
     @Override
-    public @NonNull RequestConfiguration getAdRequestConfigurations() {
-        return MobileAds.getRequestConfiguration().toBuilder()
+    public synchronized @NonNull RequestConfiguration getAdRequestConfigurations() {
+        RequestConfiguration requestConfiguration = getBackend().getRequestConfiguration();
+        if (mRequestConfiguration != null
+                && (DynamicAdRequests.equals(requestConfiguration, mRequestConfiguration)
+                || DynamicAdRequests.equals(requestConfiguration, mBaseRequestConfiguration))) {
+            return mRequestConfiguration;
+        }
+
+        mBaseRequestConfiguration = requestConfiguration;
+        mRequestConfiguration = requestConfiguration.toBuilder()
                 .setTagForChildDirectedTreatment(
                         RequestConfiguration.TAG_FOR_CHILD_DIRECTED_TREATMENT_TRUE)
                 .setTagForUnderAgeOfConsent(
                         RequestConfiguration.TAG_FOR_UNDER_AGE_OF_CONSENT_TRUE)
                 .setMaxAdContentRating(RequestConfiguration.MAX_AD_CONTENT_RATING_G)
                 .build();
+
+        return mRequestConfiguration;
     }
 
     @Override
     public boolean isAdAllowed() {
-        return true;
+        return !DynamicAds.getInstance().getPowerPolicy().isSuspended(this);
+    }
+
+    /**
+     * Returns the backend to load this ad.
+     *
+     * @return The backend to load this ad.
+     */
+    protected @NonNull DynamicAdBackend getBackend() {
+        return DynamicAds.getInstance().getBackend();
+    }
+
+    /**
+     * Returns the metrics to record the performance of this ad.
+     *
+     * @return The metrics to record the performance of this ad.
+     */
+    protected @NonNull DynamicAdMetrics getMetrics() {
+        return DynamicAds.getInstance().getMetrics();
+    }
+
+    /**
+     * Returns the timer to record the stages till the first ad is on screen.
+     *
+     * @return The timer to record the stages till the first ad is on screen.
+     */
+    protected @NonNull DynamicAdFirstAdTimer getFirstAdTimer() {
+        return DynamicAds.getInstance().getFirstAdTimer();
+    }
+
+    /**
+     * Returns the stream to publish the events of this ad.
+     *
+     * @return The stream to publish the events of this ad.
+     */
+    protected @NonNull DynamicAdEventStream getEventStream() {
+        return DynamicAds.getInstance().getEventStream();
+    }
+
+    /**
+     * Publish an event for this ad.
+     *
+     * @param type The type of the event.
+     * @param adUnitId The ad unit id for the event.
+     * @param errorCode The error code for the failed ad request, otherwise
+     *                  {@link DynamicAdEvent#ERROR_NONE}.
+     *
+     * @see #getEventStream()
+     */
+    protected void publishAdEvent(@DynamicAdEvent.Type int type,
+            @NonNull String adUnitId, int errorCode) {
+        if (type == DynamicAdEvent.Type.IMPRESSION) {
+            // The ad trace section lasts till the ad impression is recorded.
+            onEndTrace();
+        }
+
+        DynamicAdEventStream eventStream = getEventStream();
+        if (eventStream.hasSubscribers()) {
+            eventStream.publish(type, this, adUnitId,
+                    getBackend().elapsedRealtime(), errorCode);
+        }
+    }
+
+    /**
+     * Publish an event for the ad unit of this ad.
+     *
+     * @param type The type of the event.
+     *
+     * @see #publishAdEvent(int, String, int)
+     */
+    protected void publishAdEvent(@DynamicAdEvent.Type int type) {
+        publishAdEvent(type, getAdUnitId(), DynamicAdEvent.ERROR_NONE);
+    }
+
+    /**
+     * Returns the time after which a loaded ad should not be shown anymore.
+     *
+     * @return The time in milliseconds after which a loaded ad should not be shown anymore.
+     *
+     * @see #AD_EXPIRY_NONE
+     * @see #AD_EXPIRY_DEFAULT
+     */
+    protected long getAdExpiryTime() {
+        return AD_EXPIRY_DEFAULT;
+    }
+
+    /**
+     * Checks whether the loaded ad has been expired.
+     *
+     * @return {@code true} if the loaded ad has been expired.
+     *
+     * @see #getAdExpiryTime()
+     */
+    public boolean isAdExpired() {
+        return mLoadTime != TIME_NONE && getAdExpiryTime() != AD_EXPIRY_NONE
+                && getBackend().elapsedRealtime() - mLoadTime > getAdExpiryTime();
+    }
+
+    /**
+     * Returns the optional placement to request this ad from multiple ad units.
+     *
+     * @return The optional placement to request this ad from multiple ad units.
+     */
+    public @Nullable DynamicAdPlacement getAdPlacement() {
+        return mAdPlacement;
+    }
+
+    /**
+     * Sets the optional placement to request this ad from multiple ad units.
+     * <p>It will be used from the next ad request.
+     *
+     * @param adPlacement The placement to be set, {@code null} to use the ad unit id.
+     */
+    public void setAdPlacement(@Nullable DynamicAdPlacement adPlacement) {
+        this.mAdPlacement = adPlacement;
+    }
+
+    @Override
+    public int getAdPriority() {
+        return mAdPriority;
+    }
+
+    /**
+     * Sets the priority of this ad.
+     * <p>The queued ads will be created in the order of their priority and the low priority
+     * video ads will not be preloaded on a metered network.
+     * <p>The ad work held for the first frame will be released at once if it has been raised
+     * to the critical priority.
+     *
+     * @param adPriority The priority to be set.
+     *
+     * @see Priority
+     * @see DynamicAds#getStartup()
+     */
+    public void setAdPriority(int adPriority) {
+        if (adPriority == mAdPriority) {
+            return;
+        }
+
+        this.mAdPriority = adPriority;
+        DynamicAds.onAdPriorityChanged(this);
+    }
+
+    /**
+     * Returns whether an ad request is in progress.
+     *
+     * @return {@code true} if an ad request is in progress.
+     */
+    public boolean isAdRequesting() {
+        return mRequestTime != TIME_NONE;
+    }
+
+    /**
+     * Returns the time at which the current ad was loaded.
+     *
+     * @return The time in milliseconds at which the current ad was loaded, {@link #TIME_NONE}
+     *         if there is no loaded ad.
+     */
+    public long getAdLoadTime() {
+        return mLoadTime;
+    }
+
+    /**
+     * Checks whether the ad request has been deferred by the rate limiter.
+     *
+     * @return {@code true} if the ad request has been deferred by the rate limiter.
+     */
+    public boolean isAdDeferred() {
+        return mAdDeferred;
+    }
+
+    /**
+     * Returns the error returned by the last failed ad request.
+     *
+     * @return The error returned by the last failed ad request, {@code null} if no request
+     *         has been failed yet.
+     */
+    public @Nullable LoadAdError getLastAdError() {
+        return mLastError;
+    }
+
+    /**
+     * This method will be called when a new ad has been requested.
+     */
+    protected void onAdRequested() {
+        mRequestTime = getBackend().elapsedRealtime();
+
+        onEndTrace();
+
+        if (DynamicAdTrace.isEnabled()) {
+            DynamicAdTrace.beginAsyncSection(DynamicAdTrace.SECTION_AD, this);
+            mTracing = true;
+        }
+    }
+
+    /**
+     * End the async trace section for this ad if it has been started.
+     */
+    private void onEndTrace() {
+        if (mTracing) {
+            DynamicAdTrace.endAsyncSection(DynamicAdTrace.SECTION_AD, this);
+            mTracing = false;
+        }
+    }
+
+    /**
+     * This method will be called when the requested ad has been loaded.
+     */
+    protected void onAdRequestLoaded() {
+        mLoadTime = getBackend().elapsedRealtime();
+        mRequestTime = TIME_NONE;
+
+        getFirstAdTimer().mark(DynamicAdFirstAdTimer.Stage.LOAD, this);
+    }
+
+    /**
+     * This method will be called when the requested ad has been failed to load.
+     *
+     * @param loadAdError The error returned by the ad request.
+     */
+    protected void onAdRequestFailed(@NonNull LoadAdError loadAdError) {
+        mRequestTime = TIME_NONE;
+        mErrorTime = getBackend().elapsedRealtime();
+        mLastError = loadAdError;
+
+        onEndTrace();
+    }
+
+    /**
+     * Request a new ad via the supplied loader and record its result.
+     * <p>It will request all the ad units of the placement if available, otherwise the
+     * ad unit of this ad. The loader will receive the final result after the metrics have
+     * been recorded for each ad unit.
+     * <p>The request will be deferred if it is over the rate limit and this ad will be
+     * created again once it can be requested. Each ad unit of the placement will be charged
+     * to the rate limiter before it is requested and skipped if it is over the limit.
+     *
+     * @param loader The loader to request the ad.
+     * @param <T> The type of the requested ad.
+     *
+     * @see #getAdPlacement()
+     * @see DynamicAds#getRateLimiter()
+     * @see #onAdRequested()
+     * @see #onAdRequestLoaded()
+     * @see #onAdRequestFailed(LoadAdError)
+     */
+    protected <T> void requestAd(final @NonNull DynamicAdLoader<T> loader) {
+        final DynamicAdRateLimiter rateLimiter = DynamicAds.getInstance().getRateLimiter();
+        final DynamicAdPlacement adPlacement = getAdPlacement();
+        String adUnitId = adPlacement != null
+                ? adPlacement.getAdUnitIds().get(0) : getAdUnitId();
+        if (adPlacement != null ? rateLimiter.getDelay(adUnitId) > 0
+                : !rateLimiter.tryAcquire(adUnitId)) {
+            mAdDeferred = true;
+            rateLimiter.defer(this, adUnitId, new Runnable() {
+                @Override
+                public void run() {
+                    mAdDeferred = false;
+                    DynamicAds.getInstance().postAd(DynamicBaseAd.this);
+                }
+            });
+
+            return;
+        }
+
+        final DynamicAdLoadBudget.Slot slot = DynamicAds.getInstance()
+                .getLoadBudget().obtain(this, getAdPriority());
+        final DynamicAdLoader<T> adLoader = new DynamicAdLoader<T>() {
+            @Override
+            public void onLoadAd(final @NonNull String adUnitId,
+                    final @NonNull DynamicAdCallback<T> callback) {
+                if (adPlacement != null && !rateLimiter.tryAcquire(adUnitId)) {
+                    // Skip the ad unit so that the auction can move to the next one.
+                    callback.onAdFailedToLoad(new LoadAdError(
+                            AdRequest.ERROR_CODE_INTERNAL_ERROR, "Rate limited.",
+                            DynamicAdRateLimiter.class.getName(), null, null));
+
+                    return;
+                }
+
+                final long requestTime = getBackend().elapsedRealtime();
+                getMetrics().onRequest(DynamicBaseAd.this, adUnitId);
+                publishAdEvent(DynamicAdEvent.Type.REQUESTED,
+                        adUnitId, DynamicAdEvent.ERROR_NONE);
+                getFirstAdTimer().mark(DynamicAdFirstAdTimer.Stage.REQUEST, DynamicBaseAd.this);
+
+                loader.onLoadAd(adUnitId, new DynamicAdCallback<T>() {
+                    /**
+                     * {@code true} if the result has been recorded.
+                     * <p>Banner ads may be refreshed later which should not be recorded
+                     * as a new request.
+                     */
+                    private boolean mRecorded;
+
+                    @Override
+                    public void onAdLoaded(@NonNull T ad) {
+                        if (!mRecorded) {
+                            mRecorded = true;
+                            getMetrics().onLoad(DynamicBaseAd.this, adUnitId,
+                                    getBackend().elapsedRealtime() - requestTime);
+                            publishAdEvent(DynamicAdEvent.Type.LOADED,
+                                    adUnitId, DynamicAdEvent.ERROR_NONE);
+                        }
+
+                        callback.onAdLoaded(ad);
+                    }
+
+                    @Override
+                    public void onAdFailedToLoad(@NonNull LoadAdError loadAdError) {
+                        if (!mRecorded) {
+                            mRecorded = true;
+                            getMetrics().onFailure(DynamicBaseAd.this,
+                                    adUnitId, loadAdError.getCode());
+                            publishAdEvent(DynamicAdEvent.Type.FAILED,
+                                    adUnitId, loadAdError.getCode());
+                        }
+
+                        callback.onAdFailedToLoad(loadAdError);
+                    }
+
+                    @Override
+                    public void onAdImpression() {
+                        publishAdEvent(DynamicAdEvent.Type.IMPRESSION, adUnitId,
+                                DynamicAdEvent.ERROR_NONE);
+                        callback.onAdImpression();
+                    }
+
+                    @Override
+                    public void onAdClicked() {
+                        publishAdEvent(DynamicAdEvent.Type.CLICK, adUnitId,
+                                DynamicAdEvent.ERROR_NONE);
+                        callback.onAdClicked();
+                    }
+                });
+            }
+
+            @Override
+            public void onAdLoaded(@NonNull T ad) {
+                slot.release();
+                onAdRequestLoaded();
+                loader.onAdLoaded(ad);
+            }
+
+            @Override
+            public void onAdFailedToLoad(@NonNull LoadAdError loadAdError) {
+                slot.release();
+                onAdRequestFailed(loadAdError);
+                loader.onAdFailedToLoad(loadAdError);
+            }
+        };
+
+        onAdRequested();
+
+        DynamicAds.getInstance().getLoadBudget().execute(slot, new Runnable() {
+            @Override
+            public void run() {
+                if (adPlacement != null) {
+                    adPlacement.requestAd(getBackend(), DynamicAds.getInstance().getAdPool(),
+                            DynamicAds.getInstance().getAdHedging(), getAdExpiryTime(),
+                            DynamicAds.getInstance().getDeviceProfile().getConcurrency(),
+                            adLoader);
+                } else {
+                    adLoader.onLoadAd(getAdUnitId(), adLoader);
+                }
+            }
+        });
+    }
+
+    /**
+     * This method will be called when the loaded ad has been expired before being shown.
+     * <p>It will destroy the expired ad so that a new one can be requested.
+     */
+    protected void onAdExpired() {
+        getMetrics().onExpire(this);
+        publishAdEvent(DynamicAdEvent.Type.EXPIRED);
+
+        onAdDestroy();
     }
 
     @Override
@@ -61,7 +576,14 @@ public abstract class DynamicBaseAd implements DynamicAd {
 
     @Override
     public void onPostAdLoaded(boolean loaded) {
-        populateAd();
+        getFirstAdTimer().mark(DynamicAdFirstAdTimer.Stage.POPULATE, this);
+        boolean traced = DynamicAdTrace.beginSection(
+                DynamicAdTrace.SECTION_POPULATE_AD, this);
+        try {
+            populateAd();
+        } finally {
+            DynamicAdTrace.endSection(traced);
+        }
     }
 
     @Override
@@ -78,11 +600,119 @@ public abstract class DynamicBaseAd implements DynamicAd {
      * @param adVisible {@code true} if this add is visible to the user.
      */
     public void setAdVisible(boolean adVisible) {
+        if (adVisible != mAdVisible) {
+            long time = getBackend().elapsedRealtime();
+            DynamicAds.getInstance().getJankMonitor().attribute(
+                    getAdListener().getAdContext(), this);
+
+            if (adVisible) {
+                mShowTime = time;
+                getMetrics().onShow(this, mLoadTime != TIME_NONE ? time - mLoadTime : 0);
+                getFirstAdTimer().onShow(this);
+                publishAdEvent(DynamicAdEvent.Type.SHOWN);
+            } else if (mShowTime != TIME_NONE) {
+                getMetrics().onHide(this, time - mShowTime);
+                publishAdEvent(DynamicAdEvent.Type.DISMISSED);
+                mShowTime = TIME_NONE;
+            }
+        }
+
         this.mAdVisible = adVisible;
     }
 
+    /**
+     * Print the current state of this ad for the diagnostics.
+     * <p>It reads the state without any synchronization so that the ad is never blocked,
+     * the values may be slightly stale.
+     *
+     * @param writer The writer to print the state.
+     * @param prefix The prefix for each line.
+     *
+     * @see DynamicAds#dump(PrintWriter)
+     */
+    public void dump(@NonNull PrintWriter writer, @NonNull String prefix) {
+        long time = getBackend().elapsedRealtime();
+        long requestTime = mRequestTime;
+        long loadTime = mLoadTime;
+        LoadAdError lastError = mLastError;
+        DynamicAdPlacement adPlacement = getAdPlacement();
+
+        writer.print(prefix);
+        writer.print("requesting=");
+        writer.print(requestTime != TIME_NONE);
+        if (requestTime != TIME_NONE) {
+            writer.print(" for=");
+            writer.print(time - requestTime);
+            writer.print("ms");
+        }
+        writer.print(" loaded=");
+        writer.print(isAdLoaded());
+        if (loadTime != TIME_NONE) {
+            writer.print(" age=");
+            writer.print(time - loadTime);
+            writer.print("ms expired=");
+            writer.print(isAdExpired());
+        }
+        writer.print(" visible=");
+        writer.println(isAdVisible());
+
+        writer.print(prefix);
+        writer.print("deferred=");
+        writer.print(mAdDeferred);
+        writer.print(" delay=");
+        writer.print(DynamicAds.getInstance().getRateLimiter().peekDelay(adPlacement != null
+                ? adPlacement.getAdUnitIds().get(0) : getAdUnitId()));
+        writer.print("ms budgetQueued=");
+        writer.print(DynamicAds.getInstance().getLoadBudget().isQueued(this));
+        writer.print(" expiry=");
+        writer.print(getAdExpiryTime());
+        writer.println("ms");
+
+        if (adPlacement != null) {
+            writer.print(prefix);
+            writer.print("placement=");
+            writer.println(adPlacement.getAdUnitIds());
+        }
+
+        writer.print(prefix);
+        writer.print("lastError=");
+        if (lastError != null) {
+            writer.print(lastError.getCode());
+            writer.print(" \"");
+            writer.print(lastError.getMessage());
+            writer.print("\" ");
+            writer.print(time - mErrorTime);
+            writer.println("ms ago");
+        } else {
+            writer.println("none");
+        }
+    }
+
+    /**
+     * This method will be called when the power policy level has been changed.
+     * <p>It can be used to adjust the ongoing ad work like the banner refresh.
+     *
+     * @param level The current power policy level.
+     *
+     * @see DynamicAdPowerPolicy#getLevel()
+     */
+    public void onAdPowerLevelChanged(@DynamicAdPowerPolicy.Level int level) { }
+
     @Override
     public void onAdDestroy() {
+        if (mAdDeferred) {
+            mAdDeferred = false;
+            DynamicAds.getInstance().getRateLimiter().cancel(this);
+        }
+
+        DynamicAds.getInstance().getLoadBudget().cancel(this);
+        DynamicAds.getInstance().getDispatcher().cancel(this);
+
         setAdVisible(false);
+        onEndTrace();
+
+        mRequestTime = TIME_NONE;
+        mLoadTime = TIME_NONE;
+        publishAdEvent(DynamicAdEvent.Type.DESTROYED);
     }
 }
@@ -0,0 +1,169 @@
+/*
+ * Copyright 2022-2025 Pranav Pandey
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.pranavpandey.android.dynamic.ads.backend;
+
+import android.content.Context;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import com.google.android.gms.ads.AdRequest;
+import com.google.android.gms.ads.AdView;
+import com.google.android.gms.ads.RequestConfiguration;
+import com.google.android.gms.ads.appopen.AppOpenAd;
+import com.google.android.gms.ads.initialization.OnInitializationCompleteListener;
+import com.google.android.gms.ads.interstitial.InterstitialAd;
+import com.google.android.gms.ads.nativead.NativeAd;
+import com.google.android.gms.ads.nativead.NativeAdOptions;
+import com.google.android.gms.ads.rewarded.RewardedAd;
+import com.google.android.gms.ads.rewardedinterstitial.RewardedInterstitialAd;
+
+/**
+ * An interface to implement the ad network used by the dynamic ads.
+ * <p>All the ad formats load their ads via the backend so that it can be replaced to run the
+ * ad pipeline under controlled conditions.
+ *
+ * @see DynamicAdMobBackend
+ * @see DynamicSimulatedAdBackend
+ */
+public interface DynamicAdBackend {
+
+    /**
+     * Returns the current time of this backend.
+     *
+     * @return The milliseconds since boot, including the time spent in sleep.
+     */
+    long elapsedRealtime();
+
+    /**
+     * Schedule a task according to the clock of this backend.
+     * <p>The thread running the task depends on the backend, the default backend runs it on
+     * the main thread while a virtual clock runs it on the thread that advances the clock.
+     *
+     * @param runnable The task to be run.
+     * @param delay The delay in milliseconds.
+     *
+     * @see #elapsedRealtime()
+     */
+    void schedule(@NonNull Runnable runnable, long delay);
+
+    /**
+     * Cancel a scheduled task if it is not run yet.
+     *
+     * @param runnable The task to be cancelled.
+     */
+    void cancel(@NonNull Runnable runnable);
+
+    /**
+     * Initialize the ad network.
+     *
+     * @param context The context to be used.
+     * @param listener The listener to be notified on completion.
+     */
+    void initialize(@NonNull Context context, @NonNull OnInitializationCompleteListener listener);
+
+    /**
+     * Returns the global request configuration.
+     *
+     * @return The global request configuration.
+     */
+    @NonNull RequestConfiguration getRequestConfiguration();
+
+    /**
+     * Set the global request configuration.
+     *
+     * @param requestConfiguration The request configuration to be set.
+     */
+    void setRequestConfiguration(@NonNull RequestConfiguration requestConfiguration);
+
+    /**
+     * Create a new banner ad view.
+     *
+     * @param context The context to be used.
+     *
+     * @return The new banner ad view.
+     */
+    @NonNull AdView createBannerAd(@NonNull Context context);
+
+    /**
+     * Load a banner ad into the supplied ad view.
+     *
+     * @param adView The ad view to load the ad.
+     * @param adRequest The ad request to be used.
+     * @param callback The callback to receive the result.
+     */
+    void loadBannerAd(@NonNull AdView adView, @NonNull AdRequest adRequest,
+            @NonNull DynamicAdCallback<AdView> callback);
+
+    /**
+     * Load a native ad.
+     *
+     * @param context The context to be used.
+     * @param adUnitId The ad unit id to be used.
+     * @param adRequest The ad request to be used.
+     * @param nativeAdOptions The optional native ad options to be used.
+     * @param callback The callback to receive the result.
+     */
+    void loadNativeAd(@NonNull Context context, @NonNull String adUnitId,
+            @NonNull AdRequest adRequest, @Nullable NativeAdOptions nativeAdOptions,
+            @NonNull DynamicAdCallback<NativeAd> callback);
+
+    /**
+     * Load an interstitial ad.
+     *
+     * @param context The context to be used.
+     * @param adUnitId The ad unit id to be used.
+     * @param adRequest The ad request to be used.
+     * @param callback The callback to receive the result.
+     */
+    void loadInterstitialAd(@NonNull Context context, @NonNull String adUnitId,
+            @NonNull AdRequest adRequest, @NonNull DynamicAdCallback<InterstitialAd> callback);
+
+    /**
+     * Load a rewarded ad.
+     *
+     * @param context The context to be used.
+     * @param adUnitId The ad unit id to be used.
+     * @param adRequest The ad request to be used.
+     * @param callback The callback to receive the result.
+     */
+    void loadRewardedAd(@NonNull Context context, @NonNull String adUnitId,
+            @NonNull AdRequest adRequest, @NonNull DynamicAdCallback<RewardedAd> callback);
+
+    /**
+     * Load a rewarded interstitial ad.
+     *
+     * @param context The context to be used.
+     * @param adUnitId The ad unit id to be used.
+     * @param adRequest The ad request to be used.
+     * @param callback The callback to receive the result.
+     */
+    void loadRewardedInterstitialAd(@NonNull Context context, @NonNull String adUnitId,
+            @NonNull AdRequest adRequest,
+            @NonNull DynamicAdCallback<RewardedInterstitialAd> callback);
+
+    /**
+     * Load an app open ad.
+     *
+     * @param context The context to be used.
+     * @param adUnitId The ad unit id to be used.
+     * @param adRequest The ad request to be used.
+     * @param callback The callback to receive the result.
+     */
+    void loadAppOpenAd(@NonNull Context context, @NonNull String adUnitId,
+            @NonNull AdRequest adRequest, @NonNull DynamicAdCallback<AppOpenAd> callback);
+}
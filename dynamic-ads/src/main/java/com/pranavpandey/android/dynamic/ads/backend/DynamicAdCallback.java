@@ -0,0 +1,53 @@
+/*
+ * Copyright 2022-2025 Pranav Pandey
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.pranavpandey.android.dynamic.ads.backend;
+
+import androidx.annotation.NonNull;
+
+import com.google.android.gms.ads.LoadAdError;
+
+/**
+ * An interface to receive the result of an ad request.
+ *
+ * @param <T> The type of the loaded ad.
+ */
+public interface DynamicAdCallback<T> {
+
+    /**
+     * This method will be called when the ad has been loaded.
+     *
+     * @param ad The loaded ad.
+     */
+    void onAdLoaded(@NonNull T ad);
+
+    /**
+     * This method will be called when the ad has been failed to load.
+     *
+     * @param loadAdError The error returned by the ad request.
+     */
+    void onAdFailedToLoad(@NonNull LoadAdError loadAdError);
+
+    /**
+     * This method will be called when an impression has been recorded for the loaded ad.
+     */
+    void onAdImpression();
+
+    /**
+     * This method will be called when the loaded ad has been clicked.
+     */
+    void onAdClicked();
+}
@@ -0,0 +1,49 @@
+/*
+ * Copyright 2022-2025 Pranav Pandey
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.pranavpandey.android.dynamic.ads.backend;
+
+import androidx.annotation.NonNull;
+
+import com.google.android.gms.ads.LoadAdError;
+
+/**
+ * A {@link DynamicAdCallback} that knows how to load an ad for an ad unit.
+ * <p>It allows the same ad to be requested from different ad units while receiving the final
+ * result at one place.
+ *
+ * @param <T> The type of the loaded ad.
+ */
+public abstract class DynamicAdLoader<T> implements DynamicAdCallback<T> {
+
+    /**
+     * This method will be called to load an ad for the supplied ad unit.
+     *
+     * @param adUnitId The ad unit id to be used.
+     * @param callback The callback to receive the result.
+     */
+    public abstract void onLoadAd(@NonNull String adUnitId,
+            @NonNull DynamicAdCallback<T> callback);
+
+    @Override
+    public void onAdFailedToLoad(@NonNull LoadAdError loadAdError) { }
+
+    @Override
+    public void onAdImpression() { }
+
+    @Override
+    public void onAdClicked() { }
+}
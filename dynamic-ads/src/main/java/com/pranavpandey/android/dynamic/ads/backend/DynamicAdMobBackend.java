@@ -0,0 +1,249 @@
+/*
+ * Copyright 2022-2025 Pranav Pandey
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.pranavpandey.android.dynamic.ads.backend;
+
+import android.content.Context;
+import android.os.Handler;
+import android.os.Looper;
+import android.os.SystemClock;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import com.google.android.gms.ads.AdListener;
+import com.google.android.gms.ads.AdLoader;
+import com.google.android.gms.ads.AdRequest;
+import com.google.android.gms.ads.AdView;
+import com.google.android.gms.ads.LoadAdError;
+import com.google.android.gms.ads.MobileAds;
+import com.google.android.gms.ads.RequestConfiguration;
+import com.google.android.gms.ads.appopen.AppOpenAd;
+import com.google.android.gms.ads.initialization.OnInitializationCompleteListener;
+import com.google.android.gms.ads.interstitial.InterstitialAd;
+import com.google.android.gms.ads.interstitial.InterstitialAdLoadCallback;
+import com.google.android.gms.ads.nativead.NativeAd;
+import com.google.android.gms.ads.nativead.NativeAdOptions;
+import com.google.android.gms.ads.rewarded.RewardedAd;
+import com.google.android.gms.ads.rewarded.RewardedAdLoadCallback;
+import com.google.android.gms.ads.rewardedinterstitial.RewardedInterstitialAd;
+import com.google.android.gms.ads.rewardedinterstitial.RewardedInterstitialAdLoadCallback;
+
+/**
+ * A {@link DynamicAdBackend} to load the ads from the Google Mobile Ads SDK.
+ * <p>It is the default backend used by the dynamic ads.
+ */
+public class DynamicAdMobBackend implements DynamicAdBackend {
+
+    /**
+     * Main thread handler to schedule the tasks.
+     */
+    private final Handler mHandler;
+
+    /**
+     * Constructor to initialize an object of this class.
+     */
+    public DynamicAdMobBackend() {
+        this.mHandler = new Handler(Looper.getMainLooper());
+    }
+
+    @Override
+    public long elapsedRealtime() {
+        return SystemClock.elapsedRealtime();
+    }
+
+    @Override
+    public void schedule(@NonNull Runnable runnable, long delay) {
+        mHandler.postDelayed(runnable, Math.max(0, delay));
+    }
+
+    @Override
+    public void cancel(@NonNull Runnable runnable) {
+        mHandler.removeCallbacks(runnable);
+    }
+
+    @Override
+    public void initialize(@NonNull Context context,
+            @NonNull OnInitializationCompleteListener listener) {
+        MobileAds.initialize(context, listener);
+    }
+
+    @Override
+    public @NonNull RequestConfiguration getRequestConfiguration() {
+        return MobileAds.getRequestConfiguration();
+    }
+
+    @Override
+    public void setRequestConfiguration(@NonNull RequestConfiguration requestConfiguration) {
+        MobileAds.setRequestConfiguration(requestConfiguration);
+    }
+
+    @Override
+    public @NonNull AdView createBannerAd(@NonNull Context context) {
+        return new AdView(context);
+    }
+
+    @Override
+    public void loadBannerAd(final @NonNull AdView adView, @NonNull AdRequest adRequest,
+            final @NonNull DynamicAdCallback<AdView> callback) {
+        adView.setAdListener(new AdListener() {
+            @Override
+            public void onAdFailedToLoad(@NonNull LoadAdError loadAdError) {
+                callback.onAdFailedToLoad(loadAdError);
+            }
+
+            @Override
+            public void onAdLoaded() {
+                callback.onAdLoaded(adView);
+            }
+
+            @Override
+            public void onAdImpression() {
+                callback.onAdImpression();
+            }
+
+            @Override
+            public void onAdClicked() {
+                callback.onAdClicked();
+            }
+        });
+
+        adView.loadAd(adRequest);
+    }
+
+    @Override
+    public void loadNativeAd(@NonNull Context context, @NonNull String adUnitId,
+            @NonNull AdRequest adRequest, @Nullable NativeAdOptions nativeAdOptions,
+            final @NonNull DynamicAdCallback<NativeAd> callback) {
+        AdLoader.Builder builder = new AdLoader.Builder(context, adUnitId)
+                .forNativeAd(new NativeAd.OnNativeAdLoadedListener() {
+                    @Override
+                    public void onNativeAdLoaded(@NonNull NativeAd nativeAd) {
+                        callback.onAdLoaded(nativeAd);
+                    }
+                }).withAdListener(new AdListener() {
+                    @Override
+                    public void onAdFailedToLoad(@NonNull LoadAdError loadAdError) {
+                        super.onAdFailedToLoad(loadAdError);
+
+                        callback.onAdFailedToLoad(loadAdError);
+                    }
+
+                    @Override
+                    public void onAdImpression() {
+                        super.onAdImpression();
+
+                        callback.onAdImpression();
+                    }
+
+                    @Override
+                    public void onAdClicked() {
+                        super.onAdClicked();
+
+                        callback.onAdClicked();
+                    }
+                });
+
+        if (nativeAdOptions != null) {
+            builder.withNativeAdOptions(nativeAdOptions);
+        }
+
+        builder.build().loadAd(adRequest);
+    }
+
+    @Override
+    public void loadInterstitialAd(@NonNull Context context, @NonNull String adUnitId,
+            @NonNull AdRequest adRequest,
+            final @NonNull DynamicAdCallback<InterstitialAd> callback) {
+        InterstitialAd.load(context, adUnitId, adRequest, new InterstitialAdLoadCallback() {
+            @Override
+            public void onAdFailedToLoad(@NonNull LoadAdError loadAdError) {
+                super.onAdFailedToLoad(loadAdError);
+
+                callback.onAdFailedToLoad(loadAdError);
+            }
+
+            @Override
+            public void onAdLoaded(@NonNull InterstitialAd interstitialAd) {
+                super.onAdLoaded(interstitialAd);
+
+                callback.onAdLoaded(interstitialAd);
+            }
+        });
+    }
+
+    @Override
+    public void loadRewardedAd(@NonNull Context context, @NonNull String adUnitId,
+            @NonNull AdRequest adRequest, final @NonNull DynamicAdCallback<RewardedAd> callback) {
+        RewardedAd.load(context, adUnitId, adRequest, new RewardedAdLoadCallback() {
+            @Override
+            public void onAdFailedToLoad(@NonNull LoadAdError loadAdError) {
+                super.onAdFailedToLoad(loadAdError);
+
+                callback.onAdFailedToLoad(loadAdError);
+            }
+
+            @Override
+            public void onAdLoaded(@NonNull RewardedAd rewardedAd) {
+                super.onAdLoaded(rewardedAd);
+
+                callback.onAdLoaded(rewardedAd);
+            }
+        });
+    }
+
+    @Override
+    public void loadRewardedInterstitialAd(@NonNull Context context, @NonNull String adUnitId,
+            @NonNull AdRequest adRequest,
+            final @NonNull DynamicAdCallback<RewardedInterstitialAd> callback) {
+        RewardedInterstitialAd.load(context, adUnitId, adRequest,
+                new RewardedInterstitialAdLoadCallback() {
+            @Override
+            public void onAdFailedToLoad(@NonNull LoadAdError loadAdError) {
+                super.onAdFailedToLoad(loadAdError);
+
+                callback.onAdFailedToLoad(loadAdError);
+            }
+
+            @Override
+            public void onAdLoaded(@NonNull RewardedInterstitialAd rewardedInterstitialAd) {
+                super.onAdLoaded(rewardedInterstitialAd);
+
+                callback.onAdLoaded(rewardedInterstitialAd);
+            }
+        });
+    }
+
+    @Override
+    public void loadAppOpenAd(@NonNull Context context, @NonNull String adUnitId,
+            @NonNull AdRequest adRequest, final @NonNull DynamicAdCallback<AppOpenAd> callback) {
+        AppOpenAd.load(context, adUnitId, adRequest, new AppOpenAd.AppOpenAdLoadCallback() {
+            @Override
+            public void onAdFailedToLoad(@NonNull LoadAdError loadAdError) {
+                super.onAdFailedToLoad(loadAdError);
+
+                callback.onAdFailedToLoad(loadAdError);
+            }
+
+            @Override
+            public void onAdLoaded(@NonNull AppOpenAd appOpenAd) {
+                super.onAdLoaded(appOpenAd);
+
+                callback.onAdLoaded(appOpenAd);
+            }
+        });
+    }
+}
@@ -0,0 +1,634 @@
+/*
+ * Copyright 2022-2025 Pranav Pandey
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.pranavpandey.android.dynamic.ads.backend;
+
+import android.content.Context;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import com.google.android.gms.ads.AdRequest;
+import com.google.android.gms.ads.AdView;
+import com.google.android.gms.ads.LoadAdError;
+import com.google.android.gms.ads.RequestConfiguration;
+import com.google.android.gms.ads.appopen.AppOpenAd;
+import com.google.android.gms.ads.initialization.AdapterStatus;
+import com.google.android.gms.ads.initialization.InitializationStatus;
+import com.google.android.gms.ads.initialization.OnInitializationCompleteListener;
+import com.google.android.gms.ads.interstitial.InterstitialAd;
+import com.google.android.gms.ads.nativead.NativeAd;
+import com.google.android.gms.ads.nativead.NativeAdOptions;
+import com.google.android.gms.ads.rewarded.RewardedAd;
+import com.google.android.gms.ads.rewardedinterstitial.RewardedInterstitialAd;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A {@link DynamicAdBackend} to simulate an ad network locally.
+ * <p>Every ad request will be completed on a {@link DynamicVirtualClock} after a latency
+ * sampled from a seeded random so that the same run can be reproduced offline to test the
+ * ad pipeline under load.
+ */
+public class DynamicSimulatedAdBackend implements DynamicAdBackend {
+
+    /**
+     * Error domain used by the simulated errors.
+     */
+    public static final String ERROR_DOMAIN = "com.pranavpandey.android.dynamic.ads.simulated";
+
+    /**
+     * Virtual clock used by this backend.
+     */
+    private final DynamicVirtualClock mClock;
+
+    /**
+     * Seeded random used by this backend.
+     */
+    private final Random mRandom;
+
+    /**
+     * Factory to create the loaded ads.
+     */
+    private final AdFactory mAdFactory;
+
+    /**
+     * Profiles for each ad unit.
+     */
+    private final Map<String, Profile> mProfiles;
+
+    /**
+     * Number of ad requests for each ad unit.
+     */
+    private final ConcurrentHashMap<String, AtomicLong> mRequests;
+
+    /**
+     * Profile used by the ad units without a profile.
+     */
+    private Profile mDefaultProfile;
+
+    /**
+     * Latency to initialize this backend.
+     */
+    private Latency mInitializationLatency;
+
+    /**
+     * Global request configuration set for this backend.
+     */
+    private RequestConfiguration mRequestConfiguration;
+
+    /**
+     * Constructor to initialize an object of this class.
+     *
+     * @param clock The virtual clock to be used.
+     * @param seed The seed for the random to be used.
+     * @param adFactory The factory to create the loaded ads.
+     */
+    public DynamicSimulatedAdBackend(@NonNull DynamicVirtualClock clock,
+            long seed, @NonNull AdFactory adFactory) {
+        this.mClock = clock;
+        this.mRandom = new Random(seed);
+        this.mAdFactory = adFactory;
+        this.mProfiles = new ConcurrentHashMap<>();
+        this.mRequests = new ConcurrentHashMap<>();
+        this.mDefaultProfile = new Profile.Builder().build();
+        this.mInitializationLatency = Latency.fixed(0);
+    }
+
+    /**
+     * Returns the virtual clock used by this backend.
+     *
+     * @return The virtual clock used by this backend.
+     */
+    public @NonNull DynamicVirtualClock getClock() {
+        return mClock;
+    }
+
+    /**
+     * Set the profile used by the ad units without a profile.
+     *
+     * @param profile The profile to be set.
+     *
+     * @return The {@link DynamicSimulatedAdBackend} object to allow for chaining of calls to
+     *         set methods.
+     */
+    public @NonNull DynamicSimulatedAdBackend setDefaultProfile(@NonNull Profile profile) {
+        this.mDefaultProfile = profile;
+
+        return this;
+    }
+
+    /**
+     * Set the profile for an ad unit.
+     *
+     * @param adUnitId The ad unit id to be used.
+     * @param profile The profile to be set.
+     *
+     * @return The {@link DynamicSimulatedAdBackend} object to allow for chaining of calls to
+     *         set methods.
+     */
+    public @NonNull DynamicSimulatedAdBackend setProfile(@NonNull String adUnitId,
+            @NonNull Profile profile) {
+        mProfiles.put(adUnitId, profile);
+
+        return this;
+    }
+
+    /**
+     * Returns the profile for an ad unit.
+     *
+     * @param adUnitId The ad unit id to be used.
+     *
+     * @return The profile for an ad unit.
+     */
+    public @NonNull Profile getProfile(@NonNull String adUnitId) {
+        Profile profile = mProfiles.get(adUnitId);
+
+        return profile != null ? profile : mDefaultProfile;
+    }
+
+    /**
+     * Set the latency to initialize this backend.
+     *
+     * @param latency The latency to be set.
+     *
+     * @return The {@link DynamicSimulatedAdBackend} object to allow for chaining of calls to
+     *         set methods.
+     */
+    public @NonNull DynamicSimulatedAdBackend setInitializationLatency(
+            @NonNull Latency latency) {
+        this.mInitializationLatency = latency;
+
+        return this;
+    }
+
+    /**
+     * Returns the number of ad requests for an ad unit.
+     *
+     * @param adUnitId The ad unit id to be used.
+     *
+     * @return The number of ad requests for an ad unit.
+     */
+    public long getRequestCount(@NonNull String adUnitId) {
+        AtomicLong requests = mRequests.get(adUnitId);
+
+        return requests != null ? requests.get() : 0;
+    }
+
+    /**
+     * Returns the number of ad requests for all the ad units.
+     *
+     * @return The number of ad requests for all the ad units.
+     */
+    public long getRequestCount() {
+        long count = 0;
+        for (AtomicLong requests : mRequests.values()) {
+            count += requests.get();
+        }
+
+        return count;
+    }
+
+    @Override
+    public long elapsedRealtime() {
+        return mClock.now();
+    }
+
+    @Override
+    public void schedule(@NonNull Runnable runnable, long delay) {
+        mClock.schedule(delay, runnable);
+    }
+
+    @Override
+    public void cancel(@NonNull Runnable runnable) {
+        mClock.cancel(runnable);
+    }
+
+    @Override
+    public void initialize(@NonNull Context context,
+            final @NonNull OnInitializationCompleteListener listener) {
+        long latency;
+        synchronized (mRandom) {
+            latency = mInitializationLatency.sample(mRandom);
+        }
+
+        mClock.schedule(latency, new Runnable() {
+            @Override
+            public void run() {
+                listener.onInitializationComplete(new InitializationStatus() {
+                    @Override
+                    public @NonNull Map<String, AdapterStatus> getAdapterStatusMap() {
+                        return Collections.emptyMap();
+                    }
+                });
+            }
+        });
+    }
+
+    @Override
+    public @NonNull RequestConfiguration getRequestConfiguration() {
+        if (mRequestConfiguration == null) {
+            mRequestConfiguration = new RequestConfiguration.Builder().build();
+        }
+
+        return mRequestConfiguration;
+    }
+
+    @Override
+    public void setRequestConfiguration(@NonNull RequestConfiguration requestConfiguration) {
+        this.mRequestConfiguration = requestConfiguration;
+    }
+
+    @Override
+    public @NonNull AdView createBannerAd(@NonNull Context context) {
+        return new AdView(context);
+    }
+
+    @Override
+    public void loadBannerAd(@NonNull AdView adView, @NonNull AdRequest adRequest,
+            @NonNull DynamicAdCallback<AdView> callback) {
+        String adUnitId = adView.getAdUnitId();
+
+        load(AdView.class, adUnitId != null ? adUnitId : "", adView, callback);
+    }
+
+    @Override
+    public void loadNativeAd(@NonNull Context context, @NonNull String adUnitId,
+            @NonNull AdRequest adRequest, @Nullable NativeAdOptions nativeAdOptions,
+            @NonNull DynamicAdCallback<NativeAd> callback) {
+        load(NativeAd.class, adUnitId, null, callback);
+    }
+
+    @Override
+    public void loadInterstitialAd(@NonNull Context context, @NonNull String adUnitId,
+            @NonNull AdRequest adRequest, @NonNull DynamicAdCallback<InterstitialAd> callback) {
+        load(InterstitialAd.class, adUnitId, null, callback);
+    }
+
+    @Override
+    public void loadRewardedAd(@NonNull Context context, @NonNull String adUnitId,
+            @NonNull AdRequest adRequest, @NonNull DynamicAdCallback<RewardedAd> callback) {
+        load(RewardedAd.class, adUnitId, null, callback);
+    }
+
+    @Override
+    public void loadRewardedInterstitialAd(@NonNull Context context, @NonNull String adUnitId,
+            @NonNull AdRequest adRequest,
+            @NonNull DynamicAdCallback<RewardedInterstitialAd> callback) {
+        load(RewardedInterstitialAd.class, adUnitId, null, callback);
+    }
+
+    @Override
+    public void loadAppOpenAd(@NonNull Context context, @NonNull String adUnitId,
+            @NonNull AdRequest adRequest, @NonNull DynamicAdCallback<AppOpenAd> callback) {
+        load(AppOpenAd.class, adUnitId, null, callback);
+    }
+
+    /**
+     * Simulate an ad request according to the profile of the ad unit.
+     *
+     * @param type The type of the requested ad.
+     * @param adUnitId The ad unit id to be used.
+     * @param ad The optional ad to be loaded, otherwise it will be created by the ad factory.
+     * @param callback The callback to receive the result.
+     * @param <T> The type of the requested ad.
+     */
+    private <T> void load(final @NonNull Class<T> type, final @NonNull String adUnitId,
+            final @Nullable T ad, final @NonNull DynamicAdCallback<T> callback) {
+        AtomicLong requests = mRequests.get(adUnitId);
+        if (requests == null) {
+            AtomicLong newRequests = new AtomicLong();
+            requests = mRequests.putIfAbsent(adUnitId, newRequests);
+
+            if (requests == null) {
+                requests = newRequests;
+            }
+        }
+        requests.incrementAndGet();
+
+        Profile profile = getProfile(adUnitId);
+        final long latency;
+        final int errorCode;
+        synchronized (mRandom) {
+            latency = profile.getLatency().sample(mRandom);
+            errorCode = mRandom.nextFloat() < profile.getFillRate()
+                    ? Profile.ERROR_NONE : profile.getErrorCode(mRandom);
+        }
+
+        mClock.schedule(latency, new Runnable() {
+            @Override
+            public void run() {
+                T loadedAd = null;
+                if (errorCode == Profile.ERROR_NONE) {
+                    loadedAd = ad != null ? ad : mAdFactory.createAd(type, adUnitId);
+                }
+
+                if (loadedAd != null) {
+                    callback.onAdLoaded(loadedAd);
+                } else {
+                    callback.onAdFailedToLoad(getError(errorCode != Profile.ERROR_NONE
+                            ? errorCode : AdRequest.ERROR_CODE_INTERNAL_ERROR));
+                }
+            }
+        });
+    }
+
+    /**
+     * Returns the simulated error for the supplied error code.
+     *
+     * @param errorCode The error code to be used.
+     *
+     * @return The simulated error for the supplied error code.
+     */
+    public static @NonNull LoadAdError getError(int errorCode) {
+        return new LoadAdError(errorCode, "Simulated error: " + errorCode,
+                ERROR_DOMAIN, null, null);
+    }
+
+    /**
+     * Factory to create the ads loaded by the simulated backend.
+     */
+    public interface AdFactory {
+
+        /**
+         * Create an ad of the requested type.
+         *
+         * @param type The type of the requested ad.
+         * @param adUnitId The ad unit id to be used.
+         * @param <T> The type of the requested ad.
+         *
+         * @return The ad of the requested type, otherwise {@code null} to fail the request.
+         */
+        @Nullable <T> T createAd(@NonNull Class<T> type, @NonNull String adUnitId);
+    }
+
+    /**
+     * Distribution of the simulated latency.
+     */
+    public abstract static class Latency {
+
+        /**
+         * Returns a latency sampled from this distribution.
+         *
+         * @param random The random to be used.
+         *
+         * @return The latency sampled from this distribution in milliseconds.
+         */
+        public abstract long sample(@NonNull Random random);
+
+        /**
+         * Returns a fixed latency.
+         *
+         * @param latency The latency in milliseconds.
+         *
+         * @return The fixed latency.
+         */
+        public static @NonNull Latency fixed(final long latency) {
+            return new Latency() {
+                @Override
+                public long sample(@NonNull Random random) {
+                    return latency;
+                }
+            };
+        }
+
+        /**
+         * Returns a latency distributed uniformly between the supplied values.
+         *
+         * @param min The minimum latency in milliseconds.
+         * @param max The maximum latency in milliseconds.
+         *
+         * @return The latency distributed uniformly between the supplied values.
+         */
+        public static @NonNull Latency uniform(final long min, final long max) {
+            return new Latency() {
+                @Override
+                public long sample(@NonNull Random random) {
+                    return min + (long) (random.nextDouble() * Math.max(0, max - min));
+                }
+            };
+        }
+
+        /**
+         * Returns a log-normally distributed latency that has a long tail like the real
+         * network requests.
+         *
+         * @param median The median latency in milliseconds.
+         * @param sigma The standard deviation of the underlying normal distribution.
+         *
+         * @return The log-normally distributed latency.
+         */
+        public static @NonNull Latency logNormal(final long median, final double sigma) {
+            return new Latency() {
+                @Override
+                public long sample(@NonNull Random random) {
+                    return Math.round(median * Math.exp(sigma * random.nextGaussian()));
+                }
+            };
+        }
+    }
+
+    /**
+     * Network profile of an ad unit used by the simulated backend.
+     */
+    public static class Profile {
+
+        /**
+         * Constant for the successful ad request.
+         */
+        static final int ERROR_NONE = -1;
+
+        /**
+         * Default fill rate for the ad requests.
+         */
+        public static final float DEFAULT_FILL_RATE = 0.9f;
+
+        /**
+         * Default median latency for the ad requests.
+         */
+        public static final long DEFAULT_LATENCY = 500;
+
+        /**
+         * Latency of the ad requests.
+         */
+        private final Latency mLatency;
+
+        /**
+         * Fill rate of the ad requests.
+         */
+        private final float mFillRate;
+
+        /**
+         * Error codes returned by the failed ad requests.
+         */
+        private final int[] mErrorCodes;
+
+        /**
+         * Cumulative weights of the error codes.
+         */
+        private final int[] mErrorWeights;
+
+        /**
+         * Constructor to initialize an object of this class.
+         *
+         * @param builder The builder to be used.
+         */
+        private Profile(@NonNull Builder builder) {
+            this.mLatency = builder.mLatency;
+            this.mFillRate = builder.mFillRate;
+
+            int size = builder.mErrorCodes.size();
+            this.mErrorCodes = new int[size];
+            this.mErrorWeights = new int[size];
+
+            int weight = 0;
+            int i = 0;
+            for (Map.Entry<Integer, Integer> entry : builder.mErrorCodes.entrySet()) {
+                mErrorCodes[i] = entry.getKey();
+                mErrorWeights[i] = weight += entry.getValue();
+                i++;
+            }
+        }
+
+        /**
+         * Returns the latency of the ad requests.
+         *
+         * @return The latency of the ad requests.
+         */
+        public @NonNull Latency getLatency() {
+            return mLatency;
+        }
+
+        /**
+         * Returns the fill rate of the ad requests.
+         *
+         * @return The fill rate of the ad requests in the range {@code 0-1}.
+         */
+        public float getFillRate() {
+            return mFillRate;
+        }
+
+        /**
+         * Returns a weighted error code for a failed ad request.
+         *
+         * @param random The random to be used.
+         *
+         * @return The weighted error code for a failed ad request.
+         */
+        int getErrorCode(@NonNull Random random) {
+            if (mErrorCodes.length == 0) {
+                return AdRequest.ERROR_CODE_NO_FILL;
+            }
+
+            int weight = random.nextInt(mErrorWeights[mErrorWeights.length - 1]);
+            for (int i = 0; i < mErrorWeights.length; i++) {
+                if (weight < mErrorWeights[i]) {
+                    return mErrorCodes[i];
+                }
+            }
+
+            return mErrorCodes[mErrorCodes.length - 1];
+        }
+
+        /**
+         * Builder to create a {@link Profile}.
+         */
+        public static class Builder {
+
+            /**
+             * Latency of the ad requests.
+             */
+            private Latency mLatency;
+
+            /**
+             * Fill rate of the ad requests.
+             */
+            private float mFillRate;
+
+            /**
+             * Weights for each error code.
+             */
+            private final Map<Integer, Integer> mErrorCodes;
+
+            /**
+             * Constructor to initialize an object of this class.
+             */
+            public Builder() {
+                this.mLatency = Latency.logNormal(DEFAULT_LATENCY, 0.5);
+                this.mFillRate = DEFAULT_FILL_RATE;
+                this.mErrorCodes = new LinkedHashMap<>();
+            }
+
+            /**
+             * Set the latency of the ad requests.
+             *
+             * @param latency The latency to be set.
+             *
+             * @return The {@link Builder} object to allow for chaining of calls to set methods.
+             */
+            public @NonNull Builder setLatency(@NonNull Latency latency) {
+                this.mLatency = latency;
+
+                return this;
+            }
+
+            /**
+             * Set the fill rate of the ad requests.
+             *
+             * @param fillRate The fill rate to be set in the range {@code 0-1}.
+             *
+             * @return The {@link Builder} object to allow for chaining of calls to set methods.
+             */
+            public @NonNull Builder setFillRate(float fillRate) {
+                this.mFillRate = Math.max(0f, Math.min(1f, fillRate));
+
+                return this;
+            }
+
+            /**
+             * Add an error code to be returned by the failed ad requests.
+             * <p>The {@link AdRequest#ERROR_CODE_NO_FILL} will be used if no error code
+             * is added.
+             *
+             * @param errorCode The error code to be added.
+             * @param weight The relative weight of the error code.
+             *
+             * @return The {@link Builder} object to allow for chaining of calls to set methods.
+             */
+            public @NonNull Builder addError(int errorCode, int weight) {
+                if (weight > 0) {
+                    mErrorCodes.put(errorCode, weight);
+                }
+
+                return this;
+            }
+
+            /**
+             * Create a new profile with the supplied parameters.
+             *
+             * @return The new profile with the supplied parameters.
+             */
+            public @NonNull Profile build() {
+                return new Profile(this);
+            }
+        }
+    }
+}
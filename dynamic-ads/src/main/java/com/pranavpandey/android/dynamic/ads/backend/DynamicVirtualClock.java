@@ -0,0 +1,221 @@
+/*
+ * Copyright 2022-2025 Pranav Pandey
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.pranavpandey.android.dynamic.ads.backend;
+
+import androidx.annotation.NonNull;
+
+import java.util.Iterator;
+import java.util.PriorityQueue;
+
+/**
+ * A virtual clock to run the scheduled tasks deterministically.
+ * <p>The time only moves when it is advanced explicitly and all the due tasks will be run on
+ * the calling thread in the order of their scheduled time.
+ */
+public class DynamicVirtualClock {
+
+    /**
+     * Current time of this clock in milliseconds.
+     */
+    private long mTime;
+
+    /**
+     * Sequence to keep the order of the tasks scheduled at the same time.
+     */
+    private long mSequence;
+
+    /**
+     * Tasks scheduled on this clock.
+     */
+    private final PriorityQueue<Task> mTasks;
+
+    /**
+     * Constructor to initialize an object of this class.
+     */
+    public DynamicVirtualClock() {
+        this(0);
+    }
+
+    /**
+     * Constructor to initialize an object of this class.
+     *
+     * @param time The initial time in milliseconds.
+     */
+    public DynamicVirtualClock(long time) {
+        this.mTime = time;
+        this.mTasks = new PriorityQueue<>();
+    }
+
+    /**
+     * Returns the current time of this clock.
+     *
+     * @return The current time of this clock in milliseconds.
+     */
+    public synchronized long now() {
+        return mTime;
+    }
+
+    /**
+     * Returns the number of tasks waiting to be run.
+     *
+     * @return The number of tasks waiting to be run.
+     */
+    public synchronized int getPendingCount() {
+        return mTasks.size();
+    }
+
+    /**
+     * Schedule a task to be run after the supplied delay.
+     *
+     * @param delay The delay in milliseconds.
+     * @param runnable The task to be run.
+     */
+    public synchronized void schedule(long delay, @NonNull Runnable runnable) {
+        mTasks.add(new Task(mTime + Math.max(0, delay), mSequence++, runnable));
+    }
+
+    /**
+     * Cancel all the scheduled tasks for the supplied runnable.
+     *
+     * @param runnable The runnable to be cancelled.
+     */
+    public synchronized void cancel(@NonNull Runnable runnable) {
+        Iterator<Task> iterator = mTasks.iterator();
+        while (iterator.hasNext()) {
+            if (iterator.next().mRunnable == runnable) {
+                iterator.remove();
+            }
+        }
+    }
+
+    /**
+     * Returns the next task due till the supplied time and move the clock to its time.
+     *
+     * @param time The time to be used.
+     *
+     * @return The next task due till the supplied time, otherwise {@code null}.
+     */
+    private synchronized Task next(long time) {
+        Task task = mTasks.peek();
+        if (task == null || task.mTime > time) {
+            return null;
+        }
+
+        mTime = Math.max(mTime, task.mTime);
+        return mTasks.poll();
+    }
+
+    /**
+     * Advance this clock and run all the tasks due in the meantime.
+     * <p>Tasks scheduled by the running tasks will also be run if they are due.
+     *
+     * @param duration The duration in milliseconds to advance this clock.
+     *
+     * @return The number of tasks that have been run.
+     */
+    public int advance(long duration) {
+        long time;
+        synchronized (this) {
+            time = mTime + Math.max(0, duration);
+        }
+
+        int count = 0;
+        Task task;
+        while ((task = next(time)) != null) {
+            task.mRunnable.run();
+            count++;
+        }
+
+        synchronized (this) {
+            mTime = Math.max(mTime, time);
+        }
+
+        return count;
+    }
+
+    /**
+     * Run the next scheduled task after moving this clock to its time.
+     *
+     * @return {@code true} if a task has been run.
+     */
+    public boolean runNext() {
+        Task task = next(Long.MAX_VALUE);
+        if (task == null) {
+            return false;
+        }
+
+        task.mRunnable.run();
+        return true;
+    }
+
+    /**
+     * Run all the scheduled tasks till there are no more tasks left.
+     *
+     * @return The number of tasks that have been run.
+     */
+    public int runAll() {
+        int count = 0;
+        while (runNext()) {
+            count++;
+        }
+
+        return count;
+    }
+
+    /**
+     * A task scheduled on the virtual clock.
+     */
+    private static class Task implements Comparable<Task> {
+
+        /**
+         * Time at which this task should be run.
+         */
+        private final long mTime;
+
+        /**
+         * Sequence in which this task was scheduled.
+         */
+        private final long mSequence;
+
+        /**
+         * Runnable for this task.
+         */
+        private final Runnable mRunnable;
+
+        /**
+         * Constructor to initialize an object of this class.
+         *
+         * @param time The time at which this task should be run.
+         * @param sequence The sequence in which this task was scheduled.
+         * @param runnable The runnable for this task.
+         */
+        Task(long time, long sequence, @NonNull Runnable runnable) {
+            this.mTime = time;
+            this.mSequence = sequence;
+            this.mRunnable = runnable;
+        }
+
+        @Override
+        public int compareTo(@NonNull Task task) {
+            if (mTime != task.mTime) {
+                return mTime < task.mTime ? -1 : 1;
+            }
+
+            return Long.compare(mSequence, task.mSequence);
+        }
+    }
+}
@@ -0,0 +1,448 @@
+/*
+ * Copyright 2022-2025 Pranav Pandey
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.pranavpandey.android.dynamic.ads.consent;
+
+import android.content.Context;
+import android.content.SharedPreferences;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import com.pranavpandey.android.dynamic.ads.DynamicAd;
+
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.util.BitSet;
+
+/**
+ * Helper class to evaluate the IAB TCF consent stored by the consent management platform.
+ * <p>The purpose and vendor bit strings are parsed once from the default shared preferences
+ * and cached until any of the {@code IABTCF_} keys changes, so the ad requests can be decided
+ * immediately without waiting for the consent information update.
+ */
+public class DynamicAdConsent {
+
+    /**
+     * Google Advertising Products vendor id in the global vendor list.
+     */
+    public static final int VENDOR_GOOGLE = 755;
+
+    /**
+     * Prefix for the TCF shared preferences keys.
+     */
+    public static final String PREFIX = "IABTCF_";
+
+    /**
+     * Purpose to store and/or access information on a device.
+     */
+    public static final int PURPOSE_STORAGE = 1;
+
+    /**
+     * Purpose to select basic ads.
+     */
+    public static final int PURPOSE_BASIC_ADS = 2;
+
+    /**
+     * Purpose to create a personalised ads profile.
+     */
+    public static final int PURPOSE_ADS_PROFILE = 3;
+
+    /**
+     * Purpose to select personalised ads.
+     */
+    public static final int PURPOSE_PERSONALISED_ADS = 4;
+
+    /**
+     * Purpose to measure ad performance.
+     */
+    public static final int PURPOSE_MEASURE_ADS = 7;
+
+    /**
+     * Purpose to apply market research to generate audience insights.
+     */
+    public static final int PURPOSE_MARKET_RESEARCH = 9;
+
+    /**
+     * Purpose to develop and improve products.
+     */
+    public static final int PURPOSE_IMPROVE_PRODUCTS = 10;
+
+    /**
+     * Network extras key to request the non-personalized ads.
+     */
+    public static final String EXTRA_NPA = "npa";
+
+    /**
+     * Purposes that require either a consent or a legitimate interest for any ad.
+     */
+    private static final int[] PURPOSES_BASIC = { PURPOSE_BASIC_ADS,
+            PURPOSE_MEASURE_ADS, PURPOSE_MARKET_RESEARCH, PURPOSE_IMPROVE_PRODUCTS };
+
+    /**
+     * Constant for the ad request decisions.
+     */
+    @Retention(RetentionPolicy.SOURCE)
+    public @interface Decision {
+
+        /**
+         * Constant when the TCF data is not available.
+         * <p>The consent information must be used to decide the ad request.
+         */
+        int UNKNOWN = -1;
+
+        /**
+         * Constant when the ads should not be requested.
+         */
+        int NONE = 0;
+
+        /**
+         * Constant to request the limited ads without any storage access.
+         */
+        int LIMITED = 1;
+
+        /**
+         * Constant to request the non-personalized ads.
+         */
+        int NON_PERSONALIZED = 2;
+
+        /**
+         * Constant to request the personalized ads.
+         */
+        int PERSONALIZED = 3;
+    }
+
+    /**
+     * Default shared preferences used by the consent management platform.
+     */
+    private final SharedPreferences mSharedPreferences;
+
+    /**
+     * Listener to invalidate the cached decision when the TCF data changes.
+     * <p>It must be strongly referenced as the shared preferences keep a weak reference.
+     */
+    private final SharedPreferences.OnSharedPreferenceChangeListener mListener;
+
+    /**
+     * Purpose consents parsed from the TCF data.
+     */
+    private final BitSet mPurposeConsents;
+
+    /**
+     * Purpose legitimate interests parsed from the TCF data.
+     */
+    private final BitSet mPurposeLegitimateInterests;
+
+    /**
+     * Vendor consents parsed from the TCF data.
+     */
+    private final BitSet mVendorConsents;
+
+    /**
+     * Vendor legitimate interests parsed from the TCF data.
+     */
+    private final BitSet mVendorLegitimateInterests;
+
+    /**
+     * Raw TCF strings used to parse the cached bit sets.
+     */
+    private final String[] mRaw;
+
+    /**
+     * {@code true} if the TCF data has been changed since the last evaluation.
+     */
+    private volatile boolean mInvalid;
+
+    /**
+     * Cached decision for the ad requests.
+     */
+    private volatile @Decision int mDecision;
+
+    /**
+     * Number of times the TCF data has been evaluated.
+     */
+    private volatile int mEvaluations;
+
+    /**
+     * Constructor to initialize an object of this class.
+     *
+     * @param context The context to retrieve the default shared preferences.
+     */
+    public DynamicAdConsent(@NonNull Context context) {
+        this(context.getSharedPreferences(context.getPackageName()
+                + "_preferences", Context.MODE_PRIVATE));
+    }
+
+    /**
+     * Constructor to initialize an object of this class.
+     *
+     * @param sharedPreferences The shared preferences to read the TCF data.
+     */
+    public DynamicAdConsent(@NonNull SharedPreferences sharedPreferences) {
+        this.mSharedPreferences = sharedPreferences;
+        this.mPurposeConsents = new BitSet();
+        this.mPurposeLegitimateInterests = new BitSet();
+        this.mVendorConsents = new BitSet();
+        this.mVendorLegitimateInterests = new BitSet();
+        this.mRaw = new String[4];
+        this.mInvalid = true;
+        this.mDecision = Decision.UNKNOWN;
+        this.mListener = new SharedPreferences.OnSharedPreferenceChangeListener() {
+            @Override
+            public void onSharedPreferenceChanged(
+                    SharedPreferences sharedPreferences, @Nullable String key) {
+                if (key == null || key.startsWith(PREFIX)) {
+                    invalidate();
+                }
+            }
+        };
+
+        mSharedPreferences.registerOnSharedPreferenceChangeListener(mListener);
+    }
+
+    /**
+     * Invalidate the cached decision so that it will be evaluated again on next access.
+     */
+    public void invalidate() {
+        mInvalid = true;
+    }
+
+    /**
+     * Returns the number of times the TCF data has been evaluated.
+     *
+     * @return The number of times the TCF data has been evaluated.
+     */
+    public int getEvaluations() {
+        return mEvaluations;
+    }
+
+    /**
+     * Returns the decision for the ad requests.
+     * <p>It will be evaluated again only if the TCF data has been changed.
+     *
+     * @return The decision for the ad requests.
+     */
+    public synchronized @Decision int getDecision() {
+        if (mInvalid) {
+            evaluate();
+        }
+
+        return mDecision;
+    }
+
+    /**
+     * Checks whether the ads can be requested according to the TCF data.
+     *
+     * @return {@code true} if the ads can be requested according to the TCF data.
+     *         <p>It will be {@code false} if the TCF data is not available.
+     */
+    public boolean canRequestAds() {
+        return getDecision() > Decision.NONE;
+    }
+
+    /**
+     * Checks whether only the non-personalized ads can be requested according to the TCF data.
+     * <p>It will be {@code true} for the limited ads as they are never personalized.
+     *
+     * @return {@code true} if only the non-personalized ads can be requested.
+     *
+     * @see Decision#LIMITED
+     * @see Decision#NON_PERSONALIZED
+     */
+    public boolean isNonPersonalized() {
+        int decision = getDecision();
+
+        return decision == Decision.LIMITED || decision == Decision.NON_PERSONALIZED;
+    }
+
+    /**
+     * Checks whether the TCF data is available to decide the ad requests.
+     *
+     * @return {@code true} if the TCF data is available to decide the ad requests.
+     */
+    public boolean isAvailable() {
+        return getDecision() != Decision.UNKNOWN;
+    }
+
+    /**
+     * Checks whether the consent has been given for the supplied purpose.
+     *
+     * @param purpose The purpose id to be checked.
+     *
+     * @return {@code true} if the consent has been given for the supplied purpose.
+     */
+    public synchronized boolean hasPurposeConsent(int purpose) {
+        if (mInvalid) {
+            evaluate();
+        }
+
+        return purpose > 0 && mPurposeConsents.get(purpose - 1);
+    }
+
+    /**
+     * Checks whether the consent has been given for the supplied vendor.
+     *
+     * @param vendor The vendor id to be checked.
+     *
+     * @return {@code true} if the consent has been given for the supplied vendor.
+     */
+    public synchronized boolean hasVendorConsent(int vendor) {
+        if (mInvalid) {
+            evaluate();
+        }
+
+        return vendor > 0 && mVendorConsents.get(vendor - 1);
+    }
+
+    /**
+     * Evaluate the TCF data if it has been changed since the last evaluation.
+     */
+    private synchronized void evaluate() {
+        if (!mInvalid) {
+            return;
+        }
+
+        mInvalid = false;
+        mEvaluations++;
+
+        int gdprApplies = getGdprApplies();
+        if (gdprApplies < 0) {
+            mDecision = Decision.UNKNOWN;
+            return;
+        } else if (gdprApplies == 0) {
+            mDecision = Decision.PERSONALIZED;
+            return;
+        }
+
+        parse(0, DynamicAd.IABTCF_PurposeConsents, mPurposeConsents);
+        parse(1, DynamicAd.IABTCF_PurposeLegitimateInterests, mPurposeLegitimateInterests);
+        parse(2, DynamicAd.IABTCF_VendorConsents, mVendorConsents);
+        parse(3, DynamicAd.IABTCF_VendorLegitimateInterests, mVendorLegitimateInterests);
+
+        mDecision = decide();
+    }
+
+    /**
+     * Returns the decision for the parsed TCF data when GDPR applies.
+     *
+     * @return The decision for the parsed TCF data when GDPR applies.
+     */
+    private @Decision int decide() {
+        if (!mVendorConsents.get(VENDOR_GOOGLE - 1)
+                && !mVendorLegitimateInterests.get(VENDOR_GOOGLE - 1)) {
+            return Decision.NONE;
+        }
+
+        for (int purpose : PURPOSES_BASIC) {
+            if (!mPurposeConsents.get(purpose - 1)
+                    && !mPurposeLegitimateInterests.get(purpose - 1)) {
+                return Decision.NONE;
+            }
+        }
+
+        if (!mPurposeConsents.get(PURPOSE_STORAGE - 1)
+                || !mVendorConsents.get(VENDOR_GOOGLE - 1)) {
+            return Decision.LIMITED;
+        }
+
+        if (mPurposeConsents.get(PURPOSE_ADS_PROFILE - 1)
+                && mPurposeConsents.get(PURPOSE_PERSONALISED_ADS - 1)) {
+            return Decision.PERSONALIZED;
+        }
+
+        return Decision.NON_PERSONALIZED;
+    }
+
+    /**
+     * Returns whether the GDPR applies according to the TCF data.
+     *
+     * @return {@code 1} if the GDPR applies, {@code 0} if it does not apply or {@code -1} if
+     *         the TCF data is not available.
+     */
+    private int getGdprApplies() {
+        if (!mSharedPreferences.contains(DynamicAd.IABTCF_gdprApplies)) {
+            return -1;
+        }
+
+        try {
+            return mSharedPreferences.getInt(DynamicAd.IABTCF_gdprApplies, -1);
+        } catch (ClassCastException e) {
+            try {
+                String gdprApplies = mSharedPreferences.getString(
+                        DynamicAd.IABTCF_gdprApplies, null);
+
+                return gdprApplies != null ? Integer.parseInt(gdprApplies) : -1;
+            } catch (Exception ignored) {
+                return -1;
+            }
+        }
+    }
+
+    /**
+     * Parse a TCF bit string into the supplied bit set if it has been changed.
+     *
+     * @param index The index of the cached raw string.
+     * @param key The shared preferences key to be parsed.
+     * @param bits The bit set to store the parsed value.
+     */
+    private void parse(int index, @NonNull String key, @NonNull BitSet bits) {
+        String value;
+        try {
+            value = mSharedPreferences.getString(key, "");
+        } catch (ClassCastException ignored) {
+            value = "";
+        }
+
+        if (value == null) {
+            value = "";
+        }
+
+        if (value.equals(mRaw[index])) {
+            return;
+        }
+
+        mRaw[index] = value;
+        bits.clear();
+
+        for (int i = 0; i < value.length(); i++) {
+            if (value.charAt(i) == '1') {
+                bits.set(i);
+            }
+        }
+    }
+
+    /**
+     * Returns a readable name for the supplied decision.
+     *
+     * @param decision The decision to be used.
+     *
+     * @return A readable name for the supplied decision.
+     */
+    public static @NonNull String toString(@Decision int decision) {
+        switch (decision) {
+            case Decision.NONE:
+                return "none";
+            case Decision.LIMITED:
+                return "limited";
+            case Decision.NON_PERSONALIZED:
+                return "non_personalized";
+            case Decision.PERSONALIZED:
+                return "personalized";
+            default:
+                return "unknown";
+        }
+    }
+}
@@ -0,0 +1,214 @@
+/*
+ * Copyright 2022-2025 Pranav Pandey
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.pranavpandey.android.dynamic.ads.device;
+
+import android.app.ActivityManager;
+import android.content.Context;
+import android.os.Build;
+
+import androidx.annotation.LayoutRes;
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import com.pranavpandey.android.dynamic.ads.R;
+import com.pranavpandey.android.dynamic.ads.placement.DynamicAdPlacement;
+
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+
+/**
+ * Profile to adjust the ad work according to the device class.
+ * <p>It is detected once from the low RAM status, memory class and media performance class,
+ * and can be extended or replaced to override any of the decisions.
+ */
+public class DynamicAdDeviceProfile {
+
+    /**
+     * Constant to let the SDK refresh the banner ads.
+     */
+    public static final long REFRESH_DEFAULT = 0;
+
+    /**
+     * Banner refresh interval in milliseconds for the low end devices.
+     */
+    public static final long REFRESH_LOW = 120000;
+
+    /**
+     * Memory class in megabytes below which a device is considered low end.
+     */
+    public static final int MEMORY_CLASS_LOW = 128;
+
+    /**
+     * Memory class in megabytes from which a device is considered high end.
+     */
+    public static final int MEMORY_CLASS_HIGH = 256;
+
+    /**
+     * Media performance class from which a device is considered high end.
+     */
+    public static final int PERFORMANCE_CLASS_HIGH = Build.VERSION_CODES.R;
+
+    /**
+     * Constant for the device classes.
+     */
+    @Retention(RetentionPolicy.SOURCE)
+    public @interface Tier {
+
+        /**
+         * Constant for the low end devices.
+         */
+        int LOW = 0;
+
+        /**
+         * Constant for the mid range devices.
+         */
+        int MEDIUM = 1;
+
+        /**
+         * Constant for the high end devices.
+         */
+        int HIGH = 2;
+    }
+
+    /**
+     * Class of this device.
+     */
+    private final @Tier int mTier;
+
+    /**
+     * Constructor to initialize an object of this class.
+     *
+     * @param tier The class of the device.
+     */
+    public DynamicAdDeviceProfile(@Tier int tier) {
+        this.mTier = tier;
+    }
+
+    /**
+     * Detect the profile for the current device.
+     *
+     * @param context The context to retrieve the activity manager.
+     *
+     * @return The profile for the current device.
+     */
+    public static @NonNull DynamicAdDeviceProfile detect(@Nullable Context context) {
+        ActivityManager activityManager = context != null ? (ActivityManager)
+                context.getSystemService(Context.ACTIVITY_SERVICE) : null;
+        if (activityManager == null) {
+            return new DynamicAdDeviceProfile(Tier.MEDIUM);
+        }
+
+        return new DynamicAdDeviceProfile(getTier(activityManager.isLowRamDevice(),
+                activityManager.getMemoryClass(), Build.VERSION.SDK_INT >= Build.VERSION_CODES.S
+                        ? Build.VERSION.MEDIA_PERFORMANCE_CLASS : 0));
+    }
+
+    /**
+     * Returns the device class for the supplied parameters.
+     *
+     * @param lowRam {@code true} if it is a low RAM device.
+     * @param memoryClass The memory class in megabytes.
+     * @param performanceClass The media performance class, {@code 0} if not declared.
+     *
+     * @return The device class for the supplied parameters.
+     */
+    public static @Tier int getTier(boolean lowRam, int memoryClass, int performanceClass) {
+        if (lowRam || memoryClass < MEMORY_CLASS_LOW) {
+            return Tier.LOW;
+        } else if (performanceClass >= PERFORMANCE_CLASS_HIGH
+                || memoryClass >= MEMORY_CLASS_HIGH) {
+            return Tier.HIGH;
+        }
+
+        return Tier.MEDIUM;
+    }
+
+    /**
+     * Returns the class of this device.
+     *
+     * @return The class of this device.
+     *
+     * @see Tier
+     */
+    public @Tier int getTier() {
+        return mTier;
+    }
+
+    /**
+     * Returns whether this is a low end device.
+     *
+     * @return {@code true} if this is a low end device.
+     */
+    public boolean isLowEnd() {
+        return getTier() <= Tier.LOW;
+    }
+
+    /**
+     * Returns the default layout for the native ads.
+     * <p>The low end devices will use a lighter layout without the media view.
+     *
+     * @return The default layout for the native ads.
+     */
+    public @LayoutRes int getNativeLayoutRes() {
+        return isLowEnd() ? R.layout.ada_native_lite : R.layout.ada_native;
+    }
+
+    /**
+     * Returns the maximum number of concurrent requests for a placement.
+     *
+     * @return The maximum number of concurrent requests for a placement.
+     */
+    public int getConcurrency() {
+        switch (getTier()) {
+            case Tier.LOW:
+                return 1;
+            case Tier.MEDIUM:
+                return 2;
+            default:
+                return DynamicAdPlacement.CONCURRENCY_UNLIMITED;
+        }
+    }
+
+    /**
+     * Returns the number of ads to be kept in the preload pool for each ad unit.
+     *
+     * @param capacity The configured capacity of the preload pool.
+     *
+     * @return The number of ads to be kept in the preload pool for each ad unit.
+     */
+    public int getPoolCapacity(int capacity) {
+        switch (getTier()) {
+            case Tier.LOW:
+                return 0;
+            case Tier.MEDIUM:
+                return Math.min(capacity, 1);
+            default:
+                return capacity;
+        }
+    }
+
+    /**
+     * Returns the interval to refresh the banner ads.
+     *
+     * @return The interval in milliseconds to refresh the banner ads.
+     *
+     * @see #REFRESH_DEFAULT
+     */
+    public long getRefreshInterval() {
+        return isLowEnd() ? REFRESH_LOW : REFRESH_DEFAULT;
+    }
+}
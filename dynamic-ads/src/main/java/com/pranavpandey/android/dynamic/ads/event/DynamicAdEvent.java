@@ -0,0 +1,233 @@
+/*
+ * Copyright 2022-2025 Pranav Pandey
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.pranavpandey.android.dynamic.ads.event;
+
+import androidx.annotation.NonNull;
+
+import com.pranavpandey.android.dynamic.ads.DynamicAd;
+
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+
+/**
+ * A typed event published by the dynamic ads.
+ * <p>The events are preallocated and reused by the {@link DynamicAdEventStream} so it must be
+ * copied if it is required after the subscriber has returned.
+ */
+public class DynamicAdEvent {
+
+    /**
+     * An interface to hold the event type constants.
+     */
+    @Retention(RetentionPolicy.SOURCE)
+    public @interface Type {
+
+        /**
+         * Constant for the ad requested from an ad unit.
+         */
+        int REQUESTED = 0;
+
+        /**
+         * Constant for the ad loaded from an ad unit.
+         */
+        int LOADED = 1;
+
+        /**
+         * Constant for the ad failed to load from an ad unit.
+         */
+        int FAILED = 2;
+
+        /**
+         * Constant for the recorded ad impression.
+         */
+        int IMPRESSION = 3;
+
+        /**
+         * Constant for the ad clicked by the user.
+         */
+        int CLICK = 4;
+
+        /**
+         * Constant for the ad shown to the user.
+         */
+        int SHOWN = 5;
+
+        /**
+         * Constant for the ad hidden or dismissed by the user.
+         */
+        int DISMISSED = 6;
+
+        /**
+         * Constant for the loaded ad expired before being shown.
+         */
+        int EXPIRED = 7;
+
+        /**
+         * Constant for the destroyed ad.
+         */
+        int DESTROYED = 8;
+    }
+
+    /**
+     * Constant for no error code.
+     */
+    public static final int ERROR_NONE = -1;
+
+    /**
+     * Sequence number of this event, {@code -1} if it has not been published yet.
+     */
+    private long mSequence;
+
+    /**
+     * Type of this event.
+     */
+    private @Type int mType;
+
+    /**
+     * Format of the ad.
+     */
+    private String mAdFormat;
+
+    /**
+     * Ad unit id of the ad.
+     */
+    private String mAdUnitId;
+
+    /**
+     * Time of this event in milliseconds.
+     */
+    private long mTime;
+
+    /**
+     * Error code for the failed ad request.
+     */
+    private int mErrorCode;
+
+    /**
+     * Constructor to initialize an object of this class.
+     */
+    public DynamicAdEvent() {
+        this.mSequence = -1;
+        this.mErrorCode = ERROR_NONE;
+    }
+
+    /**
+     * Sets the data for this event.
+     *
+     * @param sequence The sequence number to be set.
+     * @param type The type to be set.
+     * @param adFormat The ad format to be set.
+     * @param adUnitId The ad unit id to be set.
+     * @param time The time in milliseconds to be set.
+     * @param errorCode The error code to be set.
+     */
+    void set(long sequence, @Type int type, @NonNull String adFormat,
+            @NonNull String adUnitId, long time, int errorCode) {
+        this.mSequence = sequence;
+        this.mType = type;
+        this.mAdFormat = adFormat;
+        this.mAdUnitId = adUnitId;
+        this.mTime = time;
+        this.mErrorCode = errorCode;
+    }
+
+    /**
+     * Copy the data from the supplied event.
+     *
+     * @param event The event to be copied.
+     */
+    void set(@NonNull DynamicAdEvent event) {
+        set(event.mSequence, event.mType, event.mAdFormat,
+                event.mAdUnitId, event.mTime, event.mErrorCode);
+    }
+
+    /**
+     * Returns the sequence number of this event.
+     * <p>It can be used to detect the events dropped by a slow subscriber.
+     *
+     * @return The sequence number of this event.
+     */
+    public long getSequence() {
+        return mSequence;
+    }
+
+    /**
+     * Returns the type of this event.
+     *
+     * @return The type of this event.
+     */
+    public @Type int getType() {
+        return mType;
+    }
+
+    /**
+     * Returns the format of the ad.
+     *
+     * @return The format of the ad.
+     *
+     * @see DynamicAd.Format
+     */
+    public @NonNull String getAdFormat() {
+        return mAdFormat;
+    }
+
+    /**
+     * Returns the ad unit id of the ad.
+     *
+     * @return The ad unit id of the ad.
+     */
+    public @NonNull String getAdUnitId() {
+        return mAdUnitId;
+    }
+
+    /**
+     * Returns the time of this event.
+     *
+     * @return The time of this event in milliseconds.
+     */
+    public long getTime() {
+        return mTime;
+    }
+
+    /**
+     * Returns the error code for the failed ad request.
+     *
+     * @return The error code for the failed ad request, otherwise {@link #ERROR_NONE}.
+     */
+    public int getErrorCode() {
+        return mErrorCode;
+    }
+
+    /**
+     * Returns a copy of this event that can be kept after the subscriber has returned.
+     *
+     * @return A copy of this event.
+     */
+    public @NonNull DynamicAdEvent copy() {
+        DynamicAdEvent event = new DynamicAdEvent();
+        event.set(this);
+
+        return event;
+    }
+
+    @Override
+    public @NonNull String toString() {
+        return "DynamicAdEvent{sequence=" + mSequence + ", type=" + mType
+                + ", format=" + mAdFormat + ", adUnitId=" + mAdUnitId
+                + ", time=" + mTime + ", errorCode=" + mErrorCode + "}";
+    }
+}
@@ -0,0 +1,308 @@
+/*
+ * Copyright 2022-2025 Pranav Pandey
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.pranavpandey.android.dynamic.ads.event;
+
+import android.os.Handler;
+import android.os.HandlerThread;
+
+import androidx.annotation.NonNull;
+
+import com.pranavpandey.android.dynamic.ads.DynamicAd;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A stream to publish the ad events to any number of subscribers.
+ * <p>The events are written into a preallocated ring buffer and delivered on a background
+ * thread so that publishing an event never allocates or waits for the subscribers. Events will
+ * be dropped if the subscribers cannot keep up with the capacity of the buffer.
+ */
+public class DynamicAdEventStream {
+
+    /**
+     * Default capacity of the ring buffer.
+     */
+    public static final int DEFAULT_CAPACITY = 256;
+
+    /**
+     * Listener to receive the published ad events.
+     */
+    public interface Subscriber {
+
+        /**
+         * This method will be called on a background thread for each published event.
+         * <p>The event will be reused after this method returns, use
+         * {@link DynamicAdEvent#copy()} to keep it.
+         *
+         * @param event The published event.
+         */
+        void onAdEvent(@NonNull DynamicAdEvent event);
+    }
+
+    /**
+     * Empty array to avoid allocation when there are no subscribers.
+     */
+    private static final Subscriber[] EMPTY = new Subscriber[0];
+
+    /**
+     * Preallocated events for the ring buffer.
+     */
+    private final DynamicAdEvent[] mEvents;
+
+    /**
+     * Mask to find the index of a sequence in the ring buffer.
+     */
+    private final int mMask;
+
+    /**
+     * Sequence to be claimed by the next published event.
+     */
+    private final AtomicLong mNext;
+
+    /**
+     * Number of events dropped because the subscribers could not keep up.
+     */
+    private final AtomicLong mDropped;
+
+    /**
+     * {@code true} if the delivery has been scheduled.
+     */
+    private final AtomicBoolean mScheduled;
+
+    /**
+     * Event delivered to the subscribers so that the buffer can be written meanwhile.
+     */
+    private final DynamicAdEvent mEvent;
+
+    /**
+     * Runnable to deliver the published events.
+     */
+    private final Runnable mDeliverRunnable;
+
+    /**
+     * Sequence of the next event to be delivered.
+     * <p>It is only accessed on the delivery thread.
+     */
+    private long mCursor;
+
+    /**
+     * Current subscribers of this stream.
+     */
+    private volatile Subscriber[] mSubscribers;
+
+    /**
+     * Handler to deliver the events on a background thread.
+     * <p>It is created before adding the first subscriber.
+     */
+    private volatile Handler mHandler;
+
+    /**
+     * Constructor to initialize an object of this class.
+     */
+    public DynamicAdEventStream() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    /**
+     * Constructor to initialize an object of this class.
+     *
+     * @param capacity The capacity of the ring buffer.
+     *                 <p>It will be rounded up to the next power of two.
+     */
+    public DynamicAdEventStream(int capacity) {
+        int size = Integer.highestOneBit(Math.max(2, capacity) - 1) << 1;
+
+        this.mEvents = new DynamicAdEvent[size];
+        this.mMask = size - 1;
+        this.mNext = new AtomicLong();
+        this.mDropped = new AtomicLong();
+        this.mScheduled = new AtomicBoolean();
+        this.mEvent = new DynamicAdEvent();
+        this.mSubscribers = EMPTY;
+        this.mDeliverRunnable = new Runnable() {
+            @Override
+            public void run() {
+                deliver();
+            }
+        };
+
+        for (int i = 0; i < size; i++) {
+            mEvents[i] = new DynamicAdEvent();
+        }
+    }
+
+    /**
+     * Returns the capacity of the ring buffer.
+     *
+     * @return The capacity of the ring buffer.
+     */
+    public int getCapacity() {
+        return mEvents.length;
+    }
+
+    /**
+     * Returns the number of events dropped because the subscribers could not keep up.
+     *
+     * @return The number of dropped events.
+     */
+    public long getDropped() {
+        return mDropped.get();
+    }
+
+    /**
+     * Returns the number of published events.
+     *
+     * @return The number of published events.
+     */
+    public long getPublished() {
+        return mNext.get();
+    }
+
+    /**
+     * Returns whether this stream has any subscriber.
+     *
+     * @return {@code true} if this stream has any subscriber.
+     */
+    public boolean hasSubscribers() {
+        return mSubscribers.length > 0;
+    }
+
+    /**
+     * Add a subscriber to receive the events published after this call.
+     *
+     * @param subscriber The subscriber to be added.
+     */
+    public synchronized void subscribe(@NonNull Subscriber subscriber) {
+        for (Subscriber current : mSubscribers) {
+            if (current == subscriber) {
+                return;
+            }
+        }
+
+        Subscriber[] subscribers = new Subscriber[mSubscribers.length + 1];
+        System.arraycopy(mSubscribers, 0, subscribers, 0, mSubscribers.length);
+        subscribers[mSubscribers.length] = subscriber;
+
+        getHandler();
+        mSubscribers = subscribers;
+    }
+
+    /**
+     * Remove a subscriber from this stream.
+     *
+     * @param subscriber The subscriber to be removed.
+     */
+    public synchronized void unsubscribe(@NonNull Subscriber subscriber) {
+        for (int i = 0; i < mSubscribers.length; i++) {
+            if (mSubscribers[i] == subscriber) {
+                Subscriber[] subscribers = new Subscriber[mSubscribers.length - 1];
+                System.arraycopy(mSubscribers, 0, subscribers, 0, i);
+                System.arraycopy(mSubscribers, i + 1, subscribers, i, subscribers.length - i);
+
+                mSubscribers = subscribers.length > 0 ? subscribers : EMPTY;
+                return;
+            }
+        }
+    }
+
+    /**
+     * Publish an event for the supplied dynamic ad.
+     * <p>It does nothing if there are no subscribers.
+     *
+     * @param type The type of the event.
+     * @param dynamicAd The dynamic ad to be used.
+     * @param adUnitId The ad unit id for the event.
+     * @param time The time of the event in milliseconds.
+     * @param errorCode The error code for the failed ad request, otherwise
+     *                  {@link DynamicAdEvent#ERROR_NONE}.
+     */
+    public void publish(@DynamicAdEvent.Type int type, @NonNull DynamicAd dynamicAd,
+            @NonNull String adUnitId, long time, int errorCode) {
+        if (mSubscribers.length == 0) {
+            return;
+        }
+
+        long sequence = mNext.getAndIncrement();
+        DynamicAdEvent event = mEvents[(int) (sequence & mMask)];
+        synchronized (event) {
+            event.set(sequence, type, dynamicAd.getAdFormat(), adUnitId, time, errorCode);
+        }
+
+        if (mScheduled.compareAndSet(false, true)) {
+            mHandler.post(mDeliverRunnable);
+        }
+    }
+
+    /**
+     * Deliver all the published events to the subscribers.
+     * <p>It will skip the events which have been overwritten before being delivered.
+     */
+    private void deliver() {
+        mScheduled.set(false);
+
+        long next;
+        while (mCursor < (next = mNext.get())) {
+            if (next - mCursor > mEvents.length) {
+                mDropped.addAndGet(next - mEvents.length - mCursor);
+                mCursor = next - mEvents.length;
+            }
+
+            DynamicAdEvent event = mEvents[(int) (mCursor & mMask)];
+            synchronized (event) {
+                if (event.getSequence() < mCursor) {
+                    // The event is still being written and will be delivered again.
+                    return;
+                }
+
+                if (event.getSequence() == mCursor) {
+                    mEvent.set(event);
+                }
+            }
+
+            if (mEvent.getSequence() != mCursor) {
+                mDropped.incrementAndGet();
+                mCursor++;
+                continue;
+            }
+
+            mCursor++;
+            for (Subscriber subscriber : mSubscribers) {
+                try {
+                    subscriber.onAdEvent(mEvent);
+                } catch (Exception ignored) {
+                }
+            }
+        }
+    }
+
+    /**
+     * Returns the handler to deliver the events.
+     *
+     * @return The handler to deliver the events.
+     */
+    private synchronized @NonNull Handler getHandler() {
+        if (mHandler == null) {
+            HandlerThread thread = new HandlerThread(getClass().getSimpleName());
+            thread.start();
+
+            mHandler = new Handler(thread.getLooper());
+        }
+
+        return mHandler;
+    }
+}
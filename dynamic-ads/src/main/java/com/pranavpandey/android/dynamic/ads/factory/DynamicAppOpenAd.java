@@ -22,12 +22,14 @@ import androidx.annotation.Nullable;
 
 import com.google.android.gms.ads.AdError;
 import com.google.android.gms.ads.FullScreenContentCallback;
-import com.google.android.gms.ads.LoadAdError;
 import com.google.android.gms.ads.appopen.AppOpenAd;
 import com.google.android.ump.ConsentForm;
 import com.google.android.ump.ConsentInformation;
 import com.pranavpandey.android.dynamic.ads.DynamicAds;
 import com.pranavpandey.android.dynamic.ads.DynamicBaseAd;
+import com.pranavpandey.android.dynamic.ads.backend.DynamicAdCallback;
+import com.pranavpandey.android.dynamic.ads.backend.DynamicAdLoader;
+import com.pranavpandey.android.dynamic.ads.event.DynamicAdEvent;
 import com.pranavpandey.android.dynamic.ads.listener.factory.AppOpenAdListener;
 
 /**
@@ -35,6 +37,11 @@ import com.pranavpandey.android.dynamic.ads.listener.factory.AppOpenAdListener;
  */
 public class DynamicAppOpenAd extends DynamicBaseAd {
 
+    /**
+     * Expiry time in milliseconds for a loaded app open ad.
+     */
+    public static final long AD_EXPIRY_APP_OPEN = 4 * 60 * 60 * 1000;
+
     /**
      * Ad unit id used by this ad.
      */
@@ -71,6 +78,16 @@ public class DynamicAppOpenAd extends DynamicBaseAd {
         return mAdUnitId;
     }
 
+    @Override
+    public @NonNull String getAdFormat() {
+        return Format.APP_OPEN;
+    }
+
+    @Override
+    protected long getAdExpiryTime() {
+        return AD_EXPIRY_APP_OPEN;
+    }
+
     @Override
     public @LayoutRes int getAdLayoutRes() {
         return LAYOUT_RES_NONE;
@@ -107,6 +124,8 @@ public class DynamicAppOpenAd extends DynamicBaseAd {
             @Override
             public void onAdClicked() {
                 super.onAdClicked();
+
+                publishAdEvent(DynamicAdEvent.Type.CLICK);
             }
 
             @Override
@@ -114,7 +133,7 @@ public class DynamicAppOpenAd extends DynamicBaseAd {
                 super.onAdDismissedFullScreenContent();
 
                 onAdDestroy();
-                onAdCreate();
+                DynamicAds.getInstance().postAdWhenIdle(DynamicAppOpenAd.this);
             }
 
             @Override
@@ -127,6 +146,8 @@ public class DynamicAppOpenAd extends DynamicBaseAd {
             @Override
             public void onAdImpression() {
                 super.onAdImpression();
+
+                publishAdEvent(DynamicAdEvent.Type.IMPRESSION);
             }
 
             @Override
@@ -151,24 +172,27 @@ public class DynamicAppOpenAd extends DynamicBaseAd {
         }
 
         if (isAdLoaded()) {
-            onCustomiseAd(true);
-            onPostAdLoaded(true);
+            if (!isAdExpired()) {
+                onCustomiseAd(true);
+                onPostAdLoaded(true);
 
-            return;
+                return;
+            }
+
+            onAdExpired();
         }
 
         try {
-            AppOpenAd.load(getAdListener().getAdContext(), getAdUnitId(), getAdRequest(),
-                    new AppOpenAd.AppOpenAdLoadCallback() {
+            requestAd(new DynamicAdLoader<AppOpenAd>() {
                 @Override
-                public void onAdFailedToLoad(@NonNull LoadAdError loadAdError) {
-                    super.onAdFailedToLoad(loadAdError);
+                public void onLoadAd(@NonNull String adUnitId,
+                        @NonNull DynamicAdCallback<AppOpenAd> callback) {
+                    getBackend().loadAppOpenAd(getAdListener().getAdContext(), adUnitId,
+                            getAdRequest(), callback);
                 }
 
                 @Override
                 public void onAdLoaded(@NonNull AppOpenAd appOpenAd) {
-                    super.onAdLoaded(appOpenAd);
-
                     mAppOpenAd = appOpenAd;
 
                     mAppOpenAd.setFullScreenContentCallback(getFullScreenContentCallback());
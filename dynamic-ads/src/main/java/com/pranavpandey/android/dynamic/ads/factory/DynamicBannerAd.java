@@ -20,7 +20,6 @@ import androidx.annotation.LayoutRes;
 import androidx.annotation.NonNull;
 import androidx.annotation.Nullable;
 
-import com.google.android.gms.ads.AdListener;
 import com.google.android.gms.ads.AdSize;
 import com.google.android.gms.ads.AdView;
 import com.google.android.gms.ads.LoadAdError;
@@ -28,7 +27,12 @@ import com.google.android.ump.ConsentForm;
 import com.google.android.ump.ConsentInformation;
 import com.pranavpandey.android.dynamic.ads.DynamicAds;
 import com.pranavpandey.android.dynamic.ads.DynamicBaseAd;
+import com.pranavpandey.android.dynamic.ads.backend.DynamicAdCallback;
+import com.pranavpandey.android.dynamic.ads.backend.DynamicAdLoader;
+import com.pranavpandey.android.dynamic.ads.device.DynamicAdDeviceProfile;
 import com.pranavpandey.android.dynamic.ads.listener.factory.BannerAdListener;
+import com.pranavpandey.android.dynamic.ads.placement.DynamicAdPlacement;
+import com.pranavpandey.android.dynamic.ads.power.DynamicAdPowerPolicy;
 import com.pranavpandey.android.dynamic.ads.util.DynamicAdUtils;
 
 /**
@@ -51,15 +55,44 @@ public class DynamicBannerAd extends DynamicBaseAd {
      */
     private AdView mAdView;
 
+    /**
+     * Runnable to refresh the banner ad after the refresh interval.
+     */
+    private final Runnable mRefreshRunnable;
+
+    /**
+     * {@code true} if the banner refresh has been scheduled.
+     */
+    private boolean mRefreshScheduled;
+
+    /**
+     * {@code true} if the banner ad has been paused by the host.
+     */
+    private boolean mAdPaused;
+
     /**
      * Constructor to initialize an object of this class.
+     * <p>The banner ad is usually visible on the current screen so it will have the
+     * {@link Priority#HIGH} priority by default.
      *
      * @param adUnitId The ad unit id to be used.
      * @param dynamicAdListener The banner ad listener to be used.
      */
     public DynamicBannerAd(@NonNull String adUnitId, @NonNull BannerAdListener dynamicAdListener) {
+        super(Priority.HIGH);
+
         this.mAdUnitId = adUnitId;
         this.mBannerAdListener = dynamicAdListener;
+        this.mRefreshRunnable = new Runnable() {
+            @Override
+            public void run() {
+                mRefreshScheduled = false;
+
+                if (isAdLoaded() && isAdVisible()) {
+                    onRefreshAd();
+                }
+            }
+        };
 
         if (getAdListener().isAdEnabled()) {
             onInitialize();
@@ -71,11 +104,33 @@ public class DynamicBannerAd extends DynamicBaseAd {
         return mAdUnitId;
     }
 
+    @Override
+    public @NonNull String getAdFormat() {
+        return Format.BANNER;
+    }
+
+    @Override
+    protected long getAdExpiryTime() {
+        return AD_EXPIRY_NONE;
+    }
+
     @Override
     public @LayoutRes int getAdLayoutRes() {
         return LAYOUT_RES_NONE;
     }
 
+    /**
+     * Returns the interval to refresh the banner ad.
+     *
+     * @return The interval in milliseconds to refresh the banner ad.
+     *
+     * @see DynamicAdDeviceProfile#getRefreshInterval()
+     * @see DynamicAdDeviceProfile#REFRESH_DEFAULT
+     */
+    protected long getAdRefreshInterval() {
+        return DynamicAds.getInstance().getDeviceProfile().getRefreshInterval();
+    }
+
     @Override
     public @NonNull BannerAdListener getAdListener() {
         return mBannerAdListener;
@@ -115,7 +170,7 @@ public class DynamicBannerAd extends DynamicBaseAd {
      * @see #getAdSize()
      */
     protected void onSetAdSize() {
-        if (!isAdLoaded()) {
+        if (mAdView == null) {
             return;
         }
 
@@ -125,6 +180,16 @@ public class DynamicBannerAd extends DynamicBaseAd {
         }
     }
 
+    /**
+     * The ad view loads and refreshes its own ad unit so the placement is not supported.
+     *
+     * @return Always {@code null} for the banner ad.
+     */
+    @Override
+    public @Nullable DynamicAdPlacement getAdPlacement() {
+        return null;
+    }
+
     @Override
     public void onAdCreate() {
         if (!getAdListener().isAdEnabled()) {
@@ -141,36 +206,60 @@ public class DynamicBannerAd extends DynamicBaseAd {
             if (isAdLoaded()) {
                 onCustomiseAd(true);
                 onPostAdLoaded(true);
+                onUpdateRefresh();
 
                 return;
             }
 
-            mAdView = new AdView(getAdListener().getAdContext());
-            mAdView.setAdUnitId(getAdUnitId());
+            if (isAdRequesting()) {
+                return;
+            }
 
-            onSetAdSize();
+            // Keep the ad view of a deferred request so that it can be loaded later.
+            if (mAdView == null) {
+                // Use the prewarmed ad view if available to avoid the one-time WebView cost.
+                mAdView = DynamicAds.getInstance().getPrewarm().take(
+                        getBackend(), getAdListener().getAdContext());
+                if (mAdView == null) {
+                    mAdView = getBackend().createBannerAd(getAdListener().getAdContext());
+                }
+                mAdView.setAdUnitId(getAdUnitId());
+
+                onSetAdSize();
+            }
+
+            requestAd(new DynamicAdLoader<AdView>() {
+                @Override
+                public void onLoadAd(@NonNull String adUnitId,
+                        @NonNull DynamicAdCallback<AdView> callback) {
+                    getBackend().loadBannerAd(mAdView, getAdRequest(), callback);
+                }
 
-            mAdView.setAdListener(new AdListener() {
                 @Override
-                public void onAdFailedToLoad(@NonNull LoadAdError adError) {
+                public void onAdFailedToLoad(@NonNull LoadAdError loadAdError) {
                     onAdDestroy();
                 }
 
                 @Override
-                public void onAdLoaded() {
+                public void onAdLoaded(@NonNull AdView adView) {
                     onCustomiseAd(false);
                     onPostAdLoaded(false);
+                    onUpdateRefresh();
                 }
             });
-
-            mAdView.loadAd(getAdRequest());
         } catch (Exception ignored) {
         }
     }
 
+    /**
+     * The ad view is created before the ad request is admitted, so the banner ad will be
+     * loaded only after its ad view has loaded an ad.
+     *
+     * @return {@code true} if the ad view has loaded an ad.
+     */
     @Override
     public boolean isAdLoaded() {
-        return mAdView != null;
+        return mAdView != null && getAdLoadTime() != TIME_NONE;
     }
 
     @Override
@@ -191,10 +280,89 @@ public class DynamicBannerAd extends DynamicBaseAd {
             return;
         }
 
+        mAdPaused = false;
+
         if (!getAdListener().isAdEnabled()) {
             onAdDestroy();
         } else {
+            onUpdateRefresh();
+        }
+    }
+
+    @Override
+    public void onAdPowerLevelChanged(@DynamicAdPowerPolicy.Level int level) {
+        if (isAdLoaded() && !mAdPaused) {
+            onUpdateRefresh();
+        }
+    }
+
+    /**
+     * Resume or pause the automatic refresh of the banner ad according to the power policy.
+     * <p>The refresh interval will be lengthened from the reduced level by refreshing the
+     * banner ad manually.
+     *
+     * @see DynamicAdPowerPolicy#isRefreshAllowed()
+     * @see DynamicAdPowerPolicy#getRefreshInterval(long)
+     */
+    protected void onUpdateRefresh() {
+        if (!isAdLoaded()) {
+            return;
+        }
+
+        cancelRefresh();
+
+        DynamicAdPowerPolicy powerPolicy = DynamicAds.getInstance().getPowerPolicy();
+        long refreshInterval = powerPolicy.getRefreshInterval(getAdRefreshInterval());
+        if (!powerPolicy.isRefreshAllowed()) {
+            mAdView.pause();
+            powerPolicy.onRefreshPaused();
+        } else if (refreshInterval == DynamicAdDeviceProfile.REFRESH_DEFAULT) {
             mAdView.resume();
+        } else {
+            // Pause the automatic refresh and refresh it manually after the interval.
+            mAdView.pause();
+
+            mRefreshScheduled = true;
+            getBackend().schedule(mRefreshRunnable, refreshInterval);
+        }
+    }
+
+    /**
+     * Refresh the banner ad after the refresh interval.
+     * <p>It will be requested like a new ad so that the refresh is charged to the rate limiter
+     * and the load budget, and a deferred refresh will be scheduled again once this ad is
+     * created again.
+     *
+     * @see #requestAd(DynamicAdLoader)
+     */
+    protected void onRefreshAd() {
+        requestAd(new DynamicAdLoader<AdView>() {
+            @Override
+            public void onLoadAd(@NonNull String adUnitId,
+                    @NonNull DynamicAdCallback<AdView> callback) {
+                mAdView.resume();
+                getBackend().loadBannerAd(mAdView, getAdRequest(), callback);
+            }
+
+            @Override
+            public void onAdLoaded(@NonNull AdView adView) {
+                onUpdateRefresh();
+            }
+
+            @Override
+            public void onAdFailedToLoad(@NonNull LoadAdError loadAdError) {
+                onUpdateRefresh();
+            }
+        });
+    }
+
+    /**
+     * Cancel the scheduled banner refresh.
+     */
+    private void cancelRefresh() {
+        if (mRefreshScheduled) {
+            mRefreshScheduled = false;
+            getBackend().cancel(mRefreshRunnable);
         }
     }
 
@@ -204,6 +372,8 @@ public class DynamicBannerAd extends DynamicBaseAd {
             return;
         }
 
+        mAdPaused = true;
+        cancelRefresh();
         mAdView.pause();
     }
 
@@ -211,10 +381,11 @@ public class DynamicBannerAd extends DynamicBaseAd {
     public void onAdDestroy() {
         super.onAdDestroy();
 
-        if (!isAdLoaded()) {
+        if (mAdView == null) {
             return;
         }
 
+        cancelRefresh();
         mAdView.destroy();
         try {
             if (getAdListener().getAdContainer() != null
@@ -26,13 +26,14 @@ import androidx.annotation.Nullable;
 
 import com.google.android.gms.ads.AdError;
 import com.google.android.gms.ads.FullScreenContentCallback;
-import com.google.android.gms.ads.LoadAdError;
 import com.google.android.gms.ads.interstitial.InterstitialAd;
-import com.google.android.gms.ads.interstitial.InterstitialAdLoadCallback;
 import com.google.android.ump.ConsentForm;
 import com.google.android.ump.ConsentInformation;
 import com.pranavpandey.android.dynamic.ads.DynamicAds;
 import com.pranavpandey.android.dynamic.ads.DynamicBaseAd;
+import com.pranavpandey.android.dynamic.ads.backend.DynamicAdCallback;
+import com.pranavpandey.android.dynamic.ads.backend.DynamicAdLoader;
+import com.pranavpandey.android.dynamic.ads.event.DynamicAdEvent;
 import com.pranavpandey.android.dynamic.ads.listener.factory.InterstitialAdListener;
 import com.pranavpandey.android.dynamic.preferences.DynamicPreferences;
 
@@ -96,6 +97,11 @@ public class DynamicInterstitialAd extends DynamicBaseAd
         return mAdUnitId;
     }
 
+    @Override
+    public @NonNull String getAdFormat() {
+        return Format.INTERSTITIAL;
+    }
+
     @Override
     public @LayoutRes int getAdLayoutRes() {
         return LAYOUT_RES_NONE;
@@ -132,6 +138,8 @@ public class DynamicInterstitialAd extends DynamicBaseAd
             @Override
             public void onAdClicked() {
                 super.onAdClicked();
+
+                publishAdEvent(DynamicAdEvent.Type.CLICK);
             }
 
             @Override
@@ -139,7 +147,7 @@ public class DynamicInterstitialAd extends DynamicBaseAd
                 super.onAdDismissedFullScreenContent();
 
                 onAdDestroy();
-                onAdCreate();
+                DynamicAds.getInstance().postAdWhenIdle(DynamicInterstitialAd.this);
             }
 
             @Override
@@ -152,6 +160,8 @@ public class DynamicInterstitialAd extends DynamicBaseAd
             @Override
             public void onAdImpression() {
                 super.onAdImpression();
+
+                publishAdEvent(DynamicAdEvent.Type.IMPRESSION);
             }
 
             @Override
@@ -177,25 +187,28 @@ public class DynamicInterstitialAd extends DynamicBaseAd
         }
 
         if (isAdLoaded()) {
-            onCustomiseAd(true);
-            onPostAdLoaded(true);
+            if (!isAdExpired()) {
+                onCustomiseAd(true);
+                onPostAdLoaded(true);
 
-            return;
+                return;
+            }
+
+            onAdExpired();
         }
 
         if (isAdAllowed()) {
             try {
-                InterstitialAd.load(getAdListener().getAdContext(), getAdUnitId(),
-                        getAdRequest(), new InterstitialAdLoadCallback() {
+                requestAd(new DynamicAdLoader<InterstitialAd>() {
                     @Override
-                    public void onAdFailedToLoad(@NonNull LoadAdError loadAdError) {
-                        super.onAdFailedToLoad(loadAdError);
+                    public void onLoadAd(@NonNull String adUnitId,
+                            @NonNull DynamicAdCallback<InterstitialAd> callback) {
+                        getBackend().loadInterstitialAd(getAdListener().getAdContext(), adUnitId,
+                                getAdRequest(), callback);
                     }
 
                     @Override
                     public void onAdLoaded(@NonNull InterstitialAd interstitialAd) {
-                        super.onAdLoaded(interstitialAd);
-
                         mInterstitialAd = interstitialAd;
 
                         mInterstitialAd.setFullScreenContentCallback(
@@ -212,7 +225,7 @@ public class DynamicInterstitialAd extends DynamicBaseAd
 
     @Override
     public boolean isAdAllowed() {
-        return getAdListener().getAdEventCount() >= mEventCount;
+        return super.isAdAllowed() && getAdListener().getAdEventCount() >= mEventCount;
     }
 
     @Override
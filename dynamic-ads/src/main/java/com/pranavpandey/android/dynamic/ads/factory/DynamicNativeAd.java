@@ -16,9 +16,12 @@
 
 package com.pranavpandey.android.dynamic.ads.factory;
 
+import android.graphics.drawable.Drawable;
+import android.net.Uri;
 import android.text.TextUtils;
 import android.view.LayoutInflater;
 import android.view.View;
+import android.view.ViewGroup;
 import android.widget.Button;
 import android.widget.ImageView;
 import android.widget.RatingBar;
@@ -28,23 +31,56 @@ import androidx.annotation.LayoutRes;
 import androidx.annotation.NonNull;
 import androidx.annotation.Nullable;
 
-import com.google.android.gms.ads.AdLoader;
+import com.google.android.gms.ads.MediaContent;
+import com.google.android.gms.ads.VideoOptions;
 import com.google.android.gms.ads.nativead.MediaView;
 import com.google.android.gms.ads.nativead.NativeAd;
+import com.google.android.gms.ads.nativead.NativeAdOptions;
 import com.google.android.gms.ads.nativead.NativeAdView;
 import com.google.android.ump.ConsentForm;
 import com.google.android.ump.ConsentInformation;
 import com.pranavpandey.android.dynamic.ads.DynamicAds;
 import com.pranavpandey.android.dynamic.ads.DynamicBaseAd;
 import com.pranavpandey.android.dynamic.ads.R;
+import com.pranavpandey.android.dynamic.ads.backend.DynamicAdCallback;
+import com.pranavpandey.android.dynamic.ads.backend.DynamicAdLoader;
+import com.pranavpandey.android.dynamic.ads.image.DynamicAdImageLoader;
 import com.pranavpandey.android.dynamic.ads.listener.factory.NativeAdListener;
+import com.pranavpandey.android.dynamic.ads.power.DynamicAdPowerPolicy;
+import com.pranavpandey.android.dynamic.ads.util.DynamicAdTrace;
 import com.pranavpandey.android.dynamic.ads.util.DynamicAdUtils;
 
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.util.List;
+
 /**
  * A {@link DynamicBaseAd} to show a {@link NativeAd} dynamically throughout the app.
  */
 public class DynamicNativeAd extends DynamicBaseAd {
 
+    /**
+     * An interface to hold the native ad video constants.
+     */
+    @Retention(RetentionPolicy.SOURCE)
+    public @interface Video {
+
+        /**
+         * Constant to use the default video options.
+         */
+        int DEFAULT = 0;
+
+        /**
+         * Constant to start the video muted.
+         */
+        int MUTED = 1;
+
+        /**
+         * Constant to not show the media view so that the video will never be played.
+         */
+        int NONE = 2;
+    }
+
     /**
      * Ad unit id used by this ad.
      */
@@ -65,6 +101,11 @@ public class DynamicNativeAd extends DynamicBaseAd {
      */
     private View mParentView;
 
+    /**
+     * Ad layout inflated when the main looper was idle.
+     */
+    private View mPreparedView;
+
     /**
      * Ad view used by the native ad.
      */
@@ -75,6 +116,26 @@ public class DynamicNativeAd extends DynamicBaseAd {
      */
     private NativeAd mNativeAd;
 
+    /**
+     * Media aspect ratio requested for the native ad.
+     */
+    private int mMediaAspectRatio;
+
+    /**
+     * AdChoices placement requested for the native ad.
+     */
+    private int mAdChoicesPlacement;
+
+    /**
+     * Video option requested for the native ad.
+     */
+    private int mVideo;
+
+    /**
+     * Optional image loader to load the image assets through an app-side pipeline.
+     */
+    private DynamicAdImageLoader mImageLoader;
+
     /**
      * Constructor to initialize an object of this class.
      *
@@ -98,6 +159,9 @@ public class DynamicNativeAd extends DynamicBaseAd {
         this.mAdUnitId = adUnitId;
         this.mAdLayoutRes = adLayoutRes;
         this.mNativeAdListener = dynamicAdListener;
+        this.mMediaAspectRatio = NativeAdOptions.NATIVE_MEDIA_ASPECT_RATIO_UNKNOWN;
+        this.mAdChoicesPlacement = NativeAdOptions.ADCHOICES_TOP_RIGHT;
+        this.mVideo = Video.DEFAULT;
 
         if (getAdListener().isAdEnabled()) {
             onInitialize();
@@ -109,13 +173,18 @@ public class DynamicNativeAd extends DynamicBaseAd {
         return mAdUnitId;
     }
 
+    @Override
+    public @NonNull String getAdFormat() {
+        return Format.NATIVE;
+    }
+
     @Override
     public @LayoutRes int getAdLayoutRes() {
         if (mAdLayoutRes == LAYOUT_RES_NONE) {
             try {
                 Class.forName(CLASS_DYNAMIC_WIDGET);
 
-                return R.layout.ada_native;
+                return DynamicAds.getInstance().getDeviceProfile().getNativeLayoutRes();
             } catch(Exception ignored) {
             }
         }
@@ -132,6 +201,29 @@ public class DynamicNativeAd extends DynamicBaseAd {
     public void onInitialize() {
         DynamicAds.initializeInstance(getAdListener().getAdContext());
         DynamicAds.getInstance().initializeAd(this, getAdListener());
+        DynamicAds.getInstance().getIdleScheduler().post(new Runnable() {
+            @Override
+            public void run() {
+                onPrepareAd();
+            }
+        });
+    }
+
+    /**
+     * Inflate the ad layout in advance so that it is not inflated while binding the ad.
+     * <p>It will be called when the main looper is idle.
+     */
+    protected void onPrepareAd() {
+        if (mPreparedView != null || mParentView != null
+                || getAdLayoutRes() == LAYOUT_RES_NONE) {
+            return;
+        }
+
+        try {
+            mPreparedView = LayoutInflater.from(getAdListener().getAdContext())
+                    .inflate(getAdLayoutRes(), null);
+        } catch (Exception ignored) {
+        }
     }
 
     @Override
@@ -144,6 +236,174 @@ public class DynamicNativeAd extends DynamicBaseAd {
         return DynamicAds.getInstance().getConsentForm();
     }
 
+    /**
+     * Returns the media aspect ratio requested for the native ad.
+     *
+     * @return The media aspect ratio requested for the native ad.
+     */
+    public int getMediaAspectRatio() {
+        return mMediaAspectRatio;
+    }
+
+    /**
+     * Sets the media aspect ratio requested for the native ad.
+     *
+     * @param mediaAspectRatio The media aspect ratio to be set.
+     *
+     * @see NativeAdOptions#NATIVE_MEDIA_ASPECT_RATIO_ANY
+     */
+    public void setMediaAspectRatio(int mediaAspectRatio) {
+        this.mMediaAspectRatio = mediaAspectRatio;
+    }
+
+    /**
+     * Returns the AdChoices placement requested for the native ad.
+     *
+     * @return The AdChoices placement requested for the native ad.
+     */
+    public int getAdChoicesPlacement() {
+        return mAdChoicesPlacement;
+    }
+
+    /**
+     * Sets the AdChoices placement requested for the native ad.
+     *
+     * @param adChoicesPlacement The AdChoices placement to be set.
+     *
+     * @see NativeAdOptions#ADCHOICES_TOP_RIGHT
+     */
+    public void setAdChoicesPlacement(int adChoicesPlacement) {
+        this.mAdChoicesPlacement = adChoicesPlacement;
+    }
+
+    /**
+     * Returns the video option requested for the native ad.
+     *
+     * @return The video option requested for the native ad.
+     *
+     * @see Video
+     */
+    public int getVideo() {
+        return mVideo;
+    }
+
+    /**
+     * Sets the video option requested for the native ad.
+     *
+     * @param video The video option to be set.
+     *
+     * @see Video
+     */
+    public void setVideo(int video) {
+        this.mVideo = video;
+    }
+
+    /**
+     * Returns the optional image loader to load the image assets.
+     *
+     * @return The optional image loader to load the image assets.
+     */
+    public @Nullable DynamicAdImageLoader getImageLoader() {
+        return mImageLoader;
+    }
+
+    /**
+     * Sets the optional image loader to load the image assets.
+     * <p>The native ad will return only the image URLs so that the images can be loaded at
+     * the size of their views instead of the full-size drawables decoded by the SDK.
+     *
+     * @param imageLoader The image loader to be set.
+     *
+     * @see NativeAdOptions.Builder#setReturnUrlsForImageAssets(boolean)
+     */
+    public void setImageLoader(@Nullable DynamicAdImageLoader imageLoader) {
+        this.mImageLoader = imageLoader;
+    }
+
+    /**
+     * Returns the optional options to request the native ad.
+     * <p>The video will start muted if it is not allowed by the power policy.
+     *
+     * @return The optional options to request the native ad.
+     *
+     * @see DynamicAdPowerPolicy#isVideoAllowed()
+     */
+    protected @Nullable NativeAdOptions getNativeAdOptions() {
+        int video = getVideo();
+        if (video != Video.NONE) {
+            DynamicAdPowerPolicy powerPolicy = DynamicAds.getInstance().getPowerPolicy();
+            if (!powerPolicy.isVideoAllowed()) {
+                powerPolicy.onVideoDisabled();
+                video = Video.MUTED;
+            }
+        }
+
+        if (video == Video.DEFAULT && getImageLoader() == null
+                && getMediaAspectRatio() == NativeAdOptions.NATIVE_MEDIA_ASPECT_RATIO_UNKNOWN
+                && getAdChoicesPlacement() == NativeAdOptions.ADCHOICES_TOP_RIGHT) {
+            return null;
+        }
+
+        NativeAdOptions.Builder builder = new NativeAdOptions.Builder()
+                .setMediaAspectRatio(getMediaAspectRatio())
+                .setAdChoicesPlacement(getAdChoicesPlacement())
+                .setReturnUrlsForImageAssets(getImageLoader() != null);
+
+        if (video != Video.DEFAULT) {
+            builder.setVideoOptions(new VideoOptions.Builder().setStartMuted(true).build());
+        }
+
+        return builder.build();
+    }
+
+    /**
+     * Returns the target size of the supplied view to load an image.
+     *
+     * @param view The view to be used.
+     * @param width {@code true} to return the width, otherwise the height.
+     *
+     * @return The target size of the supplied view in pixels, {@code 0} if it is not fixed.
+     */
+    protected int getImageSize(@Nullable View view, boolean width) {
+        if (view == null) {
+            return 0;
+        }
+
+        ViewGroup.LayoutParams params = view.getLayoutParams();
+        int size = params != null ? (width ? params.width : params.height) : 0;
+        if (size > 0) {
+            return size;
+        }
+
+        size = width ? view.getWidth() : view.getHeight();
+        if (size <= 0 && width) {
+            size = view.getResources().getDisplayMetrics().widthPixels;
+        }
+
+        return Math.max(0, size);
+    }
+
+    /**
+     * Load the supplied image asset through the image loader.
+     *
+     * @param image The image asset to be loaded.
+     * @param view The view to be used to calculate the target size.
+     * @param callback The callback to receive the loaded image.
+     *
+     * @return {@code true} if the image will be loaded through the image loader.
+     */
+    protected boolean loadImage(@Nullable NativeAd.Image image, @Nullable View view,
+            @NonNull DynamicAdImageLoader.Callback callback) {
+        DynamicAdImageLoader imageLoader = getImageLoader();
+        if (imageLoader == null || image == null || image.getUri() == null || view == null) {
+            return false;
+        }
+
+        imageLoader.loadImage(image.getUri(), getImageSize(view, true),
+                getImageSize(view, false), callback);
+        return true;
+    }
+
     @Override
     public void onAdCreate() {
         if (!getAdListener().isAdEnabled()) {
@@ -158,22 +418,32 @@ public class DynamicNativeAd extends DynamicBaseAd {
 
         try {
             if (isAdLoaded()) {
-                onCustomiseAd(true);
-                onPostAdLoaded(true);
-                
-                return;
-            }
+                if (!isAdExpired()) {
+                    onCustomiseAd(true);
+                    onPostAdLoaded(true);
+
+                    return;
+                }
 
-            new AdLoader.Builder(getAdListener().getAdContext(), getAdUnitId())
-                    .forNativeAd(new NativeAd.OnNativeAdLoadedListener() {
-                        @Override
-                        public void onNativeAdLoaded(@NonNull NativeAd nativeAd) {
-                            mNativeAd = nativeAd;
+                onAdExpired();
+            }
 
-                            onCustomiseAd(false);
-                            onPostAdLoaded(false);
-                        }
-                    }).build().loadAd(getAdRequest());
+            requestAd(new DynamicAdLoader<NativeAd>() {
+                @Override
+                public void onLoadAd(@NonNull String adUnitId,
+                        @NonNull DynamicAdCallback<NativeAd> callback) {
+                    getBackend().loadNativeAd(getAdListener().getAdContext(), adUnitId,
+                            getAdRequest(), getNativeAdOptions(), callback);
+                }
+
+                @Override
+                public void onAdLoaded(@NonNull NativeAd nativeAd) {
+                    mNativeAd = nativeAd;
+
+                    onCustomiseAd(false);
+                    onPostAdLoaded(false);
+                }
+            });
         } catch (Exception ignored) {
         }
     }
@@ -186,8 +456,29 @@ public class DynamicNativeAd extends DynamicBaseAd {
             return;
         }
 
-        mParentView = LayoutInflater.from(getAdListener().getAdContext())
-                .inflate(getAdLayoutRes(), null);
+        DynamicAds.getInstance().getJankMonitor().attribute(
+                getAdListener().getAdContext(), this);
+        boolean traced = DynamicAdTrace.beginSection(
+                DynamicAdTrace.SECTION_CUSTOMISE_AD, this);
+        try {
+            onBindAd();
+        } finally {
+            DynamicAdTrace.endSection(traced);
+        }
+    }
+
+    /**
+     * Inflate the ad layout and bind the loaded native ad to its views.
+     */
+    protected void onBindAd() {
+        if (mPreparedView != null) {
+            mParentView = mPreparedView;
+            mPreparedView = null;
+        } else {
+            mParentView = LayoutInflater.from(getAdListener().getAdContext())
+                    .inflate(getAdLayoutRes(), null);
+        }
+
         if ((mAdView = mParentView.findViewById(R.id.ada_native_ad)) == null) {
             return;
         }
@@ -213,9 +504,15 @@ public class DynamicNativeAd extends DynamicBaseAd {
 
         mAdView.setCallToActionView(callToActionView);
         mAdView.setHeadlineView(primaryView);
-        mAdView.setMediaView(mediaView);
         mAdView.setBodyView(bodyView);
 
+        if (getVideo() != Video.NONE) {
+            mAdView.setMediaView(mediaView);
+            onBindMedia(mediaView);
+        } else {
+            DynamicAdUtils.setVisibility(mediaView, View.GONE);
+        }
+
         DynamicAdUtils.set(bodyView, body);
         DynamicAdUtils.setVisibility(secondaryView, View.VISIBLE);
 
@@ -243,10 +540,82 @@ public class DynamicNativeAd extends DynamicBaseAd {
             DynamicAdUtils.setVisibility(ratingBar, View.GONE);
         }
 
-        if (icon != null) {
-            DynamicAdUtils.set(iconView, icon.getDrawable());
-        } else {
+        if (icon == null) {
             DynamicAdUtils.setVisibility(iconView, View.GONE);
+        } else if (icon.getDrawable() != null || !loadImage(icon, iconView,
+                new ImageCallback(mNativeAd, iconView, null))) {
+            DynamicAdUtils.set(iconView, icon.getDrawable());
+        }
+    }
+
+    /**
+     * Load the main image for the media view if the native ad returns only the image URLs.
+     *
+     * @param mediaView The media view to be used.
+     */
+    protected void onBindMedia(@Nullable MediaView mediaView) {
+        MediaContent mediaContent = mNativeAd.getMediaContent();
+        if (mediaView == null || mediaContent == null || mediaContent.hasVideoContent()
+                || mediaContent.getMainImage() != null) {
+            return;
+        }
+
+        List<NativeAd.Image> images = mNativeAd.getImages();
+        if (images != null && !images.isEmpty()) {
+            loadImage(images.get(0), mediaView, new ImageCallback(mNativeAd, null, mediaView));
+        }
+    }
+
+    /**
+     * A {@link DynamicAdImageLoader.Callback} to set the loaded image if the native ad is
+     * still bound to its view.
+     */
+    private class ImageCallback implements DynamicAdImageLoader.Callback {
+
+        /**
+         * Native ad requested the image.
+         */
+        private final NativeAd mRequestAd;
+
+        /**
+         * Optional image view to set the loaded image.
+         */
+        private final ImageView mImageView;
+
+        /**
+         * Optional media view to set the loaded image.
+         */
+        private final MediaView mMediaView;
+
+        /**
+         * Constructor to initialize an object of this class.
+         *
+         * @param nativeAd The native ad requested the image.
+         * @param imageView The optional image view to set the loaded image.
+         * @param mediaView The optional media view to set the loaded image.
+         */
+        ImageCallback(@NonNull NativeAd nativeAd, @Nullable ImageView imageView,
+                @Nullable MediaView mediaView) {
+            this.mRequestAd = nativeAd;
+            this.mImageView = imageView;
+            this.mMediaView = mediaView;
+        }
+
+        @Override
+        public void onImageLoaded(@NonNull Uri uri, @Nullable Drawable drawable) {
+            if (mNativeAd != mRequestAd) {
+                return;
+            }
+
+            if (mImageView != null) {
+                DynamicAdUtils.set(mImageView, drawable);
+            }
+
+            MediaContent mediaContent = mRequestAd.getMediaContent();
+            if (mMediaView != null && mediaContent != null && drawable != null) {
+                mediaContent.setMainImage(drawable);
+                mMediaView.setMediaContent(mediaContent);
+            }
         }
     }
 
@@ -265,6 +634,13 @@ public class DynamicNativeAd extends DynamicBaseAd {
 
 
         mAdView.setNativeAd(mNativeAd);
+
+        MediaContent mediaContent = mNativeAd.getMediaContent();
+        if (mediaContent != null && mediaContent.hasVideoContent()
+                && !DynamicAds.getInstance().getPowerPolicy().isVideoAllowed()) {
+            mediaContent.getVideoController().pause();
+        }
+
         getAdListener().onAdDisplay(mNativeAd, mParentView, mAdView);
         setAdVisible(true);
     }
@@ -278,7 +654,7 @@ public class DynamicNativeAd extends DynamicBaseAd {
         if (!getAdListener().isAdEnabled()) {
             onAdDestroy();
         } else {
-            onAdCreate();
+            DynamicAds.getInstance().createAd(this);
         }
     }
 
@@ -289,6 +665,7 @@ public class DynamicNativeAd extends DynamicBaseAd {
     public void onAdDestroy() {
         super.onAdDestroy();
 
+        mPreparedView = null;
         if (mNativeAd != null) {
             mNativeAd.destroy();
             mNativeAd = null;
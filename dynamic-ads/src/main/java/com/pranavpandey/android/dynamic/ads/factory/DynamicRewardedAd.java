@@ -22,14 +22,15 @@ import androidx.annotation.Nullable;
 
 import com.google.android.gms.ads.AdError;
 import com.google.android.gms.ads.FullScreenContentCallback;
-import com.google.android.gms.ads.LoadAdError;
 import com.google.android.gms.ads.rewarded.RewardedAd;
-import com.google.android.gms.ads.rewarded.RewardedAdLoadCallback;
 import com.google.android.gms.ads.rewarded.ServerSideVerificationOptions;
 import com.google.android.ump.ConsentForm;
 import com.google.android.ump.ConsentInformation;
 import com.pranavpandey.android.dynamic.ads.DynamicAds;
 import com.pranavpandey.android.dynamic.ads.DynamicBaseAd;
+import com.pranavpandey.android.dynamic.ads.backend.DynamicAdCallback;
+import com.pranavpandey.android.dynamic.ads.backend.DynamicAdLoader;
+import com.pranavpandey.android.dynamic.ads.event.DynamicAdEvent;
 import com.pranavpandey.android.dynamic.ads.listener.factory.RewardedAdListener;
 
 /**
@@ -73,6 +74,11 @@ public class DynamicRewardedAd extends DynamicBaseAd {
         return mAdUnitId;
     }
 
+    @Override
+    public @NonNull String getAdFormat() {
+        return Format.REWARDED;
+    }
+
     @Override
     public @LayoutRes int getAdLayoutRes() {
         return LAYOUT_RES_NONE;
@@ -118,6 +124,8 @@ public class DynamicRewardedAd extends DynamicBaseAd {
             @Override
             public void onAdClicked() {
                 super.onAdClicked();
+
+                publishAdEvent(DynamicAdEvent.Type.CLICK);
             }
 
             @Override
@@ -125,7 +133,7 @@ public class DynamicRewardedAd extends DynamicBaseAd {
                 super.onAdDismissedFullScreenContent();
 
                 onAdDestroy();
-                onAdCreate();
+                DynamicAds.getInstance().postAdWhenIdle(DynamicRewardedAd.this);
             }
 
             @Override
@@ -138,6 +146,8 @@ public class DynamicRewardedAd extends DynamicBaseAd {
             @Override
             public void onAdImpression() {
                 super.onAdImpression();
+
+                publishAdEvent(DynamicAdEvent.Type.IMPRESSION);
             }
 
             @Override
@@ -162,24 +172,27 @@ public class DynamicRewardedAd extends DynamicBaseAd {
         }
 
         if (isAdLoaded()) {
-            onCustomiseAd(true);
-            onPostAdLoaded(true);
+            if (!isAdExpired()) {
+                onCustomiseAd(true);
+                onPostAdLoaded(true);
 
-            return;
+                return;
+            }
+
+            onAdExpired();
         }
 
         try {
-            RewardedAd.load(getAdListener().getAdContext(), getAdUnitId(),
-                    getAdRequest(), new RewardedAdLoadCallback() {
+            requestAd(new DynamicAdLoader<RewardedAd>() {
                 @Override
-                public void onAdFailedToLoad(@NonNull LoadAdError loadAdError) {
-                    super.onAdFailedToLoad(loadAdError);
+                public void onLoadAd(@NonNull String adUnitId,
+                        @NonNull DynamicAdCallback<RewardedAd> callback) {
+                    getBackend().loadRewardedAd(getAdListener().getAdContext(), adUnitId,
+                            getAdRequest(), callback);
                 }
 
                 @Override
                 public void onAdLoaded(@NonNull RewardedAd rewardedAd) {
-                    super.onAdLoaded(rewardedAd);
-
                     mRewardedAd = rewardedAd;
 
                     if (getServerSideVerificationOptions() != null) {
@@ -22,14 +22,15 @@ import androidx.annotation.Nullable;
 
 import com.google.android.gms.ads.AdError;
 import com.google.android.gms.ads.FullScreenContentCallback;
-import com.google.android.gms.ads.LoadAdError;
 import com.google.android.gms.ads.rewarded.ServerSideVerificationOptions;
 import com.google.android.gms.ads.rewardedinterstitial.RewardedInterstitialAd;
-import com.google.android.gms.ads.rewardedinterstitial.RewardedInterstitialAdLoadCallback;
 import com.google.android.ump.ConsentForm;
 import com.google.android.ump.ConsentInformation;
 import com.pranavpandey.android.dynamic.ads.DynamicAds;
 import com.pranavpandey.android.dynamic.ads.DynamicBaseAd;
+import com.pranavpandey.android.dynamic.ads.backend.DynamicAdCallback;
+import com.pranavpandey.android.dynamic.ads.backend.DynamicAdLoader;
+import com.pranavpandey.android.dynamic.ads.event.DynamicAdEvent;
 import com.pranavpandey.android.dynamic.ads.listener.factory.RewardedInterstitialAdListener;
 
 /**
@@ -74,6 +75,11 @@ public class DynamicRewardedInterstitialAd extends DynamicBaseAd {
         return mAdUnitId;
     }
 
+    @Override
+    public @NonNull String getAdFormat() {
+        return Format.REWARDED_INTERSTITIAL;
+    }
+
     @Override
     public @LayoutRes int getAdLayoutRes() {
         return LAYOUT_RES_NONE;
@@ -119,6 +125,8 @@ public class DynamicRewardedInterstitialAd extends DynamicBaseAd {
             @Override
             public void onAdClicked() {
                 super.onAdClicked();
+
+                publishAdEvent(DynamicAdEvent.Type.CLICK);
             }
 
             @Override
@@ -126,7 +134,7 @@ public class DynamicRewardedInterstitialAd extends DynamicBaseAd {
                 super.onAdDismissedFullScreenContent();
 
                 onAdDestroy();
-                onAdCreate();
+                DynamicAds.getInstance().postAdWhenIdle(DynamicRewardedInterstitialAd.this);
             }
 
             @Override
@@ -139,6 +147,8 @@ public class DynamicRewardedInterstitialAd extends DynamicBaseAd {
             @Override
             public void onAdImpression() {
                 super.onAdImpression();
+
+                publishAdEvent(DynamicAdEvent.Type.IMPRESSION);
             }
 
             @Override
@@ -163,24 +173,27 @@ public class DynamicRewardedInterstitialAd extends DynamicBaseAd {
         }
 
         if (isAdLoaded()) {
-            onCustomiseAd(true);
-            onPostAdLoaded(true);
+            if (!isAdExpired()) {
+                onCustomiseAd(true);
+                onPostAdLoaded(true);
 
-            return;
+                return;
+            }
+
+            onAdExpired();
         }
 
         try {
-            RewardedInterstitialAd.load(getAdListener().getAdContext(), getAdUnitId(),
-                    getAdRequest(), new RewardedInterstitialAdLoadCallback() {
+            requestAd(new DynamicAdLoader<RewardedInterstitialAd>() {
                 @Override
-                public void onAdFailedToLoad(@NonNull LoadAdError loadAdError) {
-                    super.onAdFailedToLoad(loadAdError);
+                public void onLoadAd(@NonNull String adUnitId,
+                        @NonNull DynamicAdCallback<RewardedInterstitialAd> callback) {
+                    getBackend().loadRewardedInterstitialAd(getAdListener().getAdContext(),
+                            adUnitId, getAdRequest(), callback);
                 }
 
                 @Override
                 public void onAdLoaded(@NonNull RewardedInterstitialAd rewardedInterstitialAd) {
-                    super.onAdLoaded(rewardedInterstitialAd);
-
                     mRewardedInterstitialAd = rewardedInterstitialAd;
 
                     if (getServerSideVerificationOptions() != null) {
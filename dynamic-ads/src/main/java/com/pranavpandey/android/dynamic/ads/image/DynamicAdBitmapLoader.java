@@ -0,0 +1,292 @@
+/*
+ * Copyright 2022-2025 Pranav Pandey
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.pranavpandey.android.dynamic.ads.image;
+
+import android.content.ContentResolver;
+import android.content.Context;
+import android.content.res.Resources;
+import android.graphics.Bitmap;
+import android.graphics.BitmapFactory;
+import android.graphics.drawable.BitmapDrawable;
+import android.net.Uri;
+import android.os.Handler;
+import android.os.Looper;
+import android.util.LruCache;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * A {@link DynamicAdImageLoader} to decode the images at their target size and keep them in a
+ * memory cache.
+ * <p>The images are downloaded on a small background pool and decoded with the largest
+ * sample size that still covers the target size.
+ */
+public class DynamicAdBitmapLoader implements DynamicAdImageLoader {
+
+    /**
+     * Number of threads used to load the images.
+     */
+    public static final int THREADS = 2;
+
+    /**
+     * Timeout in milliseconds to connect or read an image.
+     */
+    public static final int TIMEOUT = 10000;
+
+    /**
+     * Fraction of the maximum memory used by the image cache.
+     */
+    public static final int CACHE_FRACTION = 32;
+
+    /**
+     * Resources used to create the drawables.
+     */
+    private final Resources mResources;
+
+    /**
+     * Content resolver used to open the local images.
+     */
+    private final ContentResolver mContentResolver;
+
+    /**
+     * Memory cache for the decoded images.
+     */
+    private final LruCache<String, Bitmap> mCache;
+
+    /**
+     * Executor used to load the images.
+     */
+    private final ExecutorService mExecutor;
+
+    /**
+     * Handler used to deliver the loaded images.
+     */
+    private final Handler mHandler;
+
+    /**
+     * Constructor to initialize an object of this class.
+     *
+     * @param context The context to be used.
+     */
+    public DynamicAdBitmapLoader(@NonNull Context context) {
+        this(context, (int) Math.min(Integer.MAX_VALUE,
+                Runtime.getRuntime().maxMemory() / 1024 / CACHE_FRACTION));
+    }
+
+    /**
+     * Constructor to initialize an object of this class.
+     *
+     * @param context The context to be used.
+     * @param cacheSize The maximum size of the image cache in kilobytes.
+     */
+    public DynamicAdBitmapLoader(@NonNull Context context, int cacheSize) {
+        this.mResources = context.getApplicationContext().getResources();
+        this.mContentResolver = context.getApplicationContext().getContentResolver();
+        this.mCache = new LruCache<String, Bitmap>(Math.max(1, cacheSize)) {
+            @Override
+            protected int sizeOf(String key, Bitmap bitmap) {
+                return Math.max(1, bitmap.getByteCount() / 1024);
+            }
+        };
+        this.mExecutor = Executors.newFixedThreadPool(THREADS);
+        this.mHandler = new Handler(Looper.getMainLooper());
+    }
+
+    /**
+     * Returns the cache key for the supplied image.
+     *
+     * @param uri The uri of the image.
+     * @param width The target width in pixels.
+     * @param height The target height in pixels.
+     *
+     * @return The cache key for the supplied image.
+     */
+    private static @NonNull String getKey(@NonNull Uri uri, int width, int height) {
+        return uri + "@" + width + "x" + height;
+    }
+
+    /**
+     * Returns the largest power of two sample size that keeps the image at least as large as
+     * the target size.
+     *
+     * @param width The original width in pixels.
+     * @param height The original height in pixels.
+     * @param targetWidth The target width in pixels, {@code 0} to use the original width.
+     * @param targetHeight The target height in pixels, {@code 0} to use the original height.
+     *
+     * @return The sample size to decode the image.
+     */
+    public static int getSampleSize(int width, int height, int targetWidth, int targetHeight) {
+        int sampleSize = 1;
+        if (targetWidth <= 0 && targetHeight <= 0) {
+            return sampleSize;
+        }
+
+        while ((targetWidth <= 0 || width / (sampleSize * 2) >= targetWidth)
+                && (targetHeight <= 0 || height / (sampleSize * 2) >= targetHeight)) {
+            sampleSize *= 2;
+        }
+
+        return sampleSize;
+    }
+
+    @Override
+    public void loadImage(final @NonNull Uri uri, final int width, final int height,
+            final @NonNull Callback callback) {
+        final String key = getKey(uri, width, height);
+        Bitmap bitmap = mCache.get(key);
+        if (bitmap != null) {
+            callback.onImageLoaded(uri, new BitmapDrawable(mResources, bitmap));
+
+            return;
+        }
+
+        mExecutor.execute(new Runnable() {
+            @Override
+            public void run() {
+                final Bitmap bitmap = decode(uri, width, height);
+                if (bitmap != null) {
+                    mCache.put(key, bitmap);
+                }
+
+                mHandler.post(new Runnable() {
+                    @Override
+                    public void run() {
+                        callback.onImageLoaded(uri, bitmap != null
+                                ? new BitmapDrawable(mResources, bitmap) : null);
+                    }
+                });
+            }
+        });
+    }
+
+    /**
+     * Decode the supplied image at the target size.
+     *
+     * @param uri The uri of the image.
+     * @param width The target width in pixels, {@code 0} to use the original width.
+     * @param height The target height in pixels, {@code 0} to use the original height.
+     *
+     * @return The decoded image, {@code null} if it has been failed to load.
+     */
+    protected @Nullable Bitmap decode(@NonNull Uri uri, int width, int height) {
+        try {
+            byte[] data = read(uri);
+            if (data == null) {
+                return null;
+            }
+
+            BitmapFactory.Options options = new BitmapFactory.Options();
+            options.inJustDecodeBounds = true;
+            BitmapFactory.decodeByteArray(data, 0, data.length, options);
+            if (options.outWidth <= 0 || options.outHeight <= 0) {
+                return null;
+            }
+
+            options.inSampleSize = getSampleSize(options.outWidth,
+                    options.outHeight, width, height);
+            options.inJustDecodeBounds = false;
+            Bitmap bitmap = BitmapFactory.decodeByteArray(data, 0, data.length, options);
+            if (bitmap == null || width <= 0 || height <= 0) {
+                return bitmap;
+            }
+
+            float scale = Math.max((float) width / bitmap.getWidth(),
+                    (float) height / bitmap.getHeight());
+            if (scale >= 1f) {
+                return bitmap;
+            }
+
+            Bitmap scaled = Bitmap.createScaledBitmap(bitmap,
+                    Math.max(1, Math.round(bitmap.getWidth() * scale)),
+                    Math.max(1, Math.round(bitmap.getHeight() * scale)), true);
+            if (scaled != bitmap) {
+                bitmap.recycle();
+            }
+
+            return scaled;
+        } catch (Exception | OutOfMemoryError ignored) {
+            return null;
+        }
+    }
+
+    /**
+     * Read the raw data for the supplied image.
+     *
+     * @param uri The uri of the image.
+     *
+     * @return The raw data for the supplied image.
+     *
+     * @throws IOException If the image cannot be read.
+     */
+    protected @Nullable byte[] read(@NonNull Uri uri) throws IOException {
+        String scheme = uri.getScheme();
+        HttpURLConnection connection = null;
+        InputStream inputStream = null;
+
+        try {
+            if ("http".equalsIgnoreCase(scheme) || "https".equalsIgnoreCase(scheme)) {
+                connection = (HttpURLConnection) new URL(uri.toString()).openConnection();
+                connection.setConnectTimeout(TIMEOUT);
+                connection.setReadTimeout(TIMEOUT);
+                inputStream = connection.getInputStream();
+            } else {
+                inputStream = mContentResolver.openInputStream(uri);
+            }
+
+            if (inputStream == null) {
+                return null;
+            }
+
+            ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+            byte[] buffer = new byte[8192];
+            int read;
+            while ((read = inputStream.read(buffer)) != -1) {
+                outputStream.write(buffer, 0, read);
+            }
+
+            return outputStream.toByteArray();
+        } finally {
+            if (inputStream != null) {
+                try {
+                    inputStream.close();
+                } catch (IOException ignored) {
+                }
+            }
+
+            if (connection != null) {
+                connection.disconnect();
+            }
+        }
+    }
+
+    /**
+     * Clear all the cached images.
+     */
+    public void clear() {
+        mCache.evictAll();
+    }
+}
@@ -0,0 +1,56 @@
+/*
+ * Copyright 2022-2025 Pranav Pandey
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.pranavpandey.android.dynamic.ads.image;
+
+import android.graphics.drawable.Drawable;
+import android.net.Uri;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+/**
+ * An interface to load the native ad images through an app-side image pipeline.
+ * <p>It will be used when the native ad is requested to return only the image URLs so that
+ * the images can be downsampled and cached at the size of their views.
+ */
+public interface DynamicAdImageLoader {
+
+    /**
+     * Load the image for the supplied uri.
+     * <p>The callback must be invoked on the main thread.
+     *
+     * @param uri The uri of the image to be loaded.
+     * @param width The target width in pixels, {@code 0} to use the original width.
+     * @param height The target height in pixels, {@code 0} to use the original height.
+     * @param callback The callback to receive the loaded image.
+     */
+    void loadImage(@NonNull Uri uri, int width, int height, @NonNull Callback callback);
+
+    /**
+     * An interface to receive the loaded image.
+     */
+    interface Callback {
+
+        /**
+         * This method will be called when the image has been loaded.
+         *
+         * @param uri The uri of the loaded image.
+         * @param drawable The loaded image, {@code null} if it has been failed to load.
+         */
+        void onImageLoaded(@NonNull Uri uri, @Nullable Drawable drawable);
+    }
+}
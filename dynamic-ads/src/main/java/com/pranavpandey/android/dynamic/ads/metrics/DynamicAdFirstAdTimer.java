@@ -0,0 +1,464 @@
+/*
+ * Copyright 2022-2025 Pranav Pandey
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.pranavpandey.android.dynamic.ads.metrics;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import com.pranavpandey.android.dynamic.ads.DynamicAd;
+import com.pranavpandey.android.dynamic.ads.DynamicBaseAd;
+import com.pranavpandey.android.dynamic.ads.backend.DynamicAdBackend;
+
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.WeakHashMap;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Helper class to time the stages from the app start till the first ad is on screen.
+ * <p>Only the first occurrence of each stage is recorded for a cold start so that marking a
+ * stage costs a single array read once it has been recorded. The request, load and populate
+ * stages are kept for each ad and reported for the ad that is shown first.
+ */
+public class DynamicAdFirstAdTimer {
+
+    /**
+     * An interface to hold the stage constants.
+     */
+    @Retention(RetentionPolicy.SOURCE)
+    public @interface Stage {
+
+        /**
+         * Constant for the ads initialization.
+         */
+        int INITIALIZE = 0;
+
+        /**
+         * Constant for the consent information update request.
+         */
+        int CONSENT_INFO = 1;
+
+        /**
+         * Constant for the consent information update result.
+         */
+        int CONSENT_INFO_END = 2;
+
+        /**
+         * Constant for the consent form load request.
+         */
+        int CONSENT_FORM = 3;
+
+        /**
+         * Constant for the consent form load result.
+         */
+        int CONSENT_FORM_END = 4;
+
+        /**
+         * Constant to recreate the queued ads.
+         */
+        int RECREATE = 5;
+
+        /**
+         * Constant to post an ad for creation.
+         */
+        int POST = 6;
+
+        /**
+         * Constant for the mobile ads initialization request.
+         */
+        int SDK_INIT = 7;
+
+        /**
+         * Constant for the mobile ads initialization result.
+         */
+        int SDK_INIT_END = 8;
+
+        /**
+         * Constant for the ad request sent to the network.
+         */
+        int REQUEST = 9;
+
+        /**
+         * Constant for the loaded ad.
+         */
+        int LOAD = 10;
+
+        /**
+         * Constant to populate the loaded ad.
+         */
+        int POPULATE = 11;
+
+        /**
+         * Constant for the ad on screen.
+         */
+        int SHOW = 12;
+    }
+
+    /**
+     * Number of stages.
+     */
+    public static final int STAGES = Stage.SHOW + 1;
+
+    /**
+     * Listener to receive the time to first ad report.
+     */
+    public interface OnReportListener {
+
+        /**
+         * This method will be called when the first ad is on screen.
+         *
+         * @param report The time to first ad report.
+         */
+        void onReport(@NonNull Report report);
+    }
+
+    /**
+     * Constant for the stage that has not been recorded.
+     */
+    public static final long TIME_NONE = DynamicBaseAd.TIME_NONE;
+
+    /**
+     * Time in milliseconds for each stage, {@link #TIME_NONE} if it has not been recorded.
+     */
+    private final AtomicLongArray mTimes;
+
+    /**
+     * Time in milliseconds for the ad stages of each ad till the first ad is on screen.
+     * <p>The ads are weakly referenced so that the destroyed ads can be collected.
+     */
+    private final Map<DynamicAd, long[]> mAdTimes;
+
+    /**
+     * Backend to retrieve the time for each stage.
+     */
+    private volatile DynamicAdBackend mBackend;
+
+    /**
+     * Time to first ad report once the first ad is on screen.
+     */
+    private volatile Report mReport;
+
+    /**
+     * Listener to receive the time to first ad report.
+     */
+    private volatile OnReportListener mListener;
+
+    /**
+     * Constructor to initialize an object of this class.
+     *
+     * @param backend The backend to retrieve the time for each stage.
+     */
+    public DynamicAdFirstAdTimer(@NonNull DynamicAdBackend backend) {
+        this.mBackend = backend;
+        this.mTimes = new AtomicLongArray(STAGES);
+        this.mAdTimes = new WeakHashMap<>();
+
+        for (int i = 0; i < STAGES; i++) {
+            mTimes.set(i, TIME_NONE);
+        }
+    }
+
+    /**
+     * Sets the backend to retrieve the time for each stage.
+     * <p>The recorded stages will be restarted from the initialization as they cannot be
+     * compared with the new clock.
+     *
+     * @param backend The backend to be set.
+     */
+    public void setBackend(@NonNull DynamicAdBackend backend) {
+        this.mBackend = backend;
+
+        if (mReport != null || mTimes.get(Stage.INITIALIZE) == TIME_NONE) {
+            return;
+        }
+
+        synchronized (mAdTimes) {
+            mAdTimes.clear();
+        }
+
+        for (int i = 0; i < STAGES; i++) {
+            mTimes.set(i, TIME_NONE);
+        }
+
+        mark(Stage.INITIALIZE);
+    }
+
+    /**
+     * Returns the current time used to mark the stages.
+     *
+     * @return The current time in milliseconds.
+     */
+    public long now() {
+        return mBackend.elapsedRealtime();
+    }
+
+    /**
+     * Mark a stage if it has not been recorded yet.
+     *
+     * @param stage The stage to be marked.
+     *
+     * @see Stage
+     */
+    public void mark(int stage) {
+        if (mTimes.get(stage) == TIME_NONE) {
+            mTimes.compareAndSet(stage, TIME_NONE, now());
+        }
+    }
+
+    /**
+     * Mark an ad stage for the supplied ad if it has not been recorded yet.
+     * <p>The ad stages are kept for each ad and reported only for the first ad on screen.
+     *
+     * @param stage The ad stage to be marked.
+     * @param dynamicAd The dynamic ad to be used.
+     *
+     * @see Stage#REQUEST
+     * @see Stage#LOAD
+     * @see Stage#POPULATE
+     */
+    public void mark(int stage, @NonNull DynamicAd dynamicAd) {
+        if (mReport != null) {
+            return;
+        }
+
+        synchronized (mAdTimes) {
+            long[] times = mAdTimes.get(dynamicAd);
+            if (times == null) {
+                times = new long[STAGES];
+                Arrays.fill(times, TIME_NONE);
+                mAdTimes.put(dynamicAd, times);
+            }
+
+            if (times[stage] == TIME_NONE) {
+                times[stage] = now();
+            }
+        }
+    }
+
+    /**
+     * Mark the first ad on screen and publish the report.
+     * <p>The ad stages will be reported for this ad only.
+     *
+     * @param dynamicAd The dynamic ad on screen.
+     */
+    public void onShow(@NonNull DynamicAd dynamicAd) {
+        if (mReport != null || !mTimes.compareAndSet(Stage.SHOW, TIME_NONE, now())) {
+            return;
+        }
+
+        long[] times = new long[STAGES];
+        for (int i = 0; i < STAGES; i++) {
+            times[i] = mTimes.get(i);
+        }
+
+        synchronized (mAdTimes) {
+            long[] adTimes = mAdTimes.get(dynamicAd);
+            if (adTimes != null) {
+                for (int i = 0; i < STAGES; i++) {
+                    if (adTimes[i] != TIME_NONE) {
+                        times[i] = adTimes[i];
+                    }
+                }
+            }
+
+            mAdTimes.clear();
+        }
+
+        Report report = new Report(times, dynamicAd.getAdFormat(), dynamicAd.getAdUnitId());
+        mReport = report;
+
+        OnReportListener listener = mListener;
+        if (listener != null) {
+            listener.onReport(report);
+        }
+    }
+
+    /**
+     * Returns the time to first ad report.
+     *
+     * @return The time to first ad report, {@code null} if no ad has been shown yet.
+     */
+    public @Nullable Report getReport() {
+        return mReport;
+    }
+
+    /**
+     * Sets the listener to receive the time to first ad report.
+     * <p>It will be called immediately if the report is already available.
+     *
+     * @param listener The listener to be set.
+     */
+    public void setListener(@Nullable OnReportListener listener) {
+        this.mListener = listener;
+
+        Report report = mReport;
+        if (listener != null && report != null) {
+            listener.onReport(report);
+        }
+    }
+
+    /**
+     * An immutable report for the time to first ad.
+     */
+    public static class Report {
+
+        /**
+         * Time in milliseconds for each stage, {@link #TIME_NONE} if it was not recorded.
+         */
+        private final long[] mTimes;
+
+        /**
+         * Format of the first ad.
+         */
+        private final String mAdFormat;
+
+        /**
+         * Ad unit id of the first ad.
+         */
+        private final String mAdUnitId;
+
+        /**
+         * Constructor to initialize an object of this class.
+         *
+         * @param times The time in milliseconds for each stage.
+         * @param adFormat The format of the first ad.
+         * @param adUnitId The ad unit id of the first ad.
+         */
+        public Report(@NonNull long[] times, @NonNull String adFormat,
+                @NonNull String adUnitId) {
+            this.mTimes = times;
+            this.mAdFormat = adFormat;
+            this.mAdUnitId = adUnitId;
+        }
+
+        /**
+         * Returns the time for the supplied stage.
+         *
+         * @param stage The stage to be used.
+         *
+         * @return The time in milliseconds for the supplied stage, {@link #TIME_NONE} if it was
+         *         not recorded.
+         *
+         * @see Stage
+         */
+        public long getTime(int stage) {
+            return mTimes[stage];
+        }
+
+        /**
+         * Returns the duration between two stages.
+         *
+         * @param from The stage to start from.
+         * @param to The stage to end at.
+         *
+         * @return The duration in milliseconds between two stages, {@code 0} if any of them
+         *         was not recorded.
+         */
+        public long getDuration(int from, int to) {
+            if (mTimes[from] == TIME_NONE || mTimes[to] == TIME_NONE) {
+                return 0;
+            }
+
+            return Math.max(0, mTimes[to] - mTimes[from]);
+        }
+
+        /**
+         * Returns the format of the first ad.
+         *
+         * @return The format of the first ad.
+         */
+        public @NonNull String getAdFormat() {
+            return mAdFormat;
+        }
+
+        /**
+         * Returns the ad unit id of the first ad.
+         *
+         * @return The ad unit id of the first ad.
+         */
+        public @NonNull String getAdUnitId() {
+            return mAdUnitId;
+        }
+
+        /**
+         * Returns the time from the ads initialization till the first ad is on screen.
+         *
+         * @return The time in milliseconds till the first ad is on screen.
+         */
+        public long getTotal() {
+            return getDuration(Stage.INITIALIZE, Stage.SHOW);
+        }
+
+        /**
+         * Returns the time from the ads initialization till the first ad could be posted.
+         * <p>It includes the consent information and form as the ads are queued till then.
+         *
+         * @return The time in milliseconds spent in the consent stages.
+         */
+        public long getConsent() {
+            return getDuration(Stage.INITIALIZE, Stage.POST);
+        }
+
+        /**
+         * Returns the time to initialize the mobile ads.
+         * <p>It runs in parallel to the other stages.
+         *
+         * @return The time in milliseconds to initialize the mobile ads.
+         */
+        public long getSdkInit() {
+            return getDuration(Stage.SDK_INIT, Stage.SDK_INIT_END);
+        }
+
+        /**
+         * Returns the time from posting the first ad till its request was sent.
+         * <p>It includes the main thread queue, rate limiter and load budget.
+         *
+         * @return The time in milliseconds spent in the queues.
+         */
+        public long getQueueing() {
+            return getDuration(Stage.POST, Stage.REQUEST);
+        }
+
+        /**
+         * Returns the time from sending the first request till an ad was loaded.
+         *
+         * @return The time in milliseconds spent on the network.
+         */
+        public long getNetwork() {
+            return getDuration(Stage.REQUEST, Stage.LOAD);
+        }
+
+        /**
+         * Returns the time from loading the first ad till it was on screen.
+         *
+         * @return The time in milliseconds spent to render the ad.
+         */
+        public long getRender() {
+            return getDuration(Stage.LOAD, Stage.SHOW);
+        }
+
+        @Override
+        public @NonNull String toString() {
+            return "total=" + getTotal() + "ms, consent=" + getConsent()
+                    + "ms, sdkInit=" + getSdkInit() + "ms, queueing=" + getQueueing()
+                    + "ms, network=" + getNetwork() + "ms, render=" + getRender()
+                    + "ms, format=" + getAdFormat() + ", adUnitId=" + getAdUnitId();
+        }
+    }
+}
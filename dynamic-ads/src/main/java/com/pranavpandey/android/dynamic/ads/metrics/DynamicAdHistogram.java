@@ -0,0 +1,329 @@
+/*
+ * Copyright 2022-2025 Pranav Pandey
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.pranavpandey.android.dynamic.ads.metrics;
+
+import androidx.annotation.NonNull;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * A fixed-size histogram to record the durations in milliseconds.
+ * <p>It uses four linear sub-buckets for every power of two so that recording a value never
+ * allocates and the relative error stays within 25%.
+ */
+public class DynamicAdHistogram {
+
+    /**
+     * Number of sub-buckets for every power of two.
+     */
+    private static final int SUB_BUCKETS = 4;
+
+    /**
+     * Total number of buckets used by this histogram.
+     * <p>It covers the values up to {@code 2^21} milliseconds (~35 minutes), larger values
+     * will be recorded in the last bucket.
+     */
+    public static final int BUCKETS = 80;
+
+    /**
+     * Counts for each bucket.
+     */
+    private final AtomicLongArray mCounts;
+
+    /**
+     * Total number of recorded values.
+     */
+    private final AtomicLong mCount;
+
+    /**
+     * Sum of all the recorded values.
+     */
+    private final AtomicLong mSum;
+
+    /**
+     * Maximum recorded value.
+     */
+    private final AtomicLong mMax;
+
+    /**
+     * Constructor to initialize an object of this class.
+     */
+    public DynamicAdHistogram() {
+        this.mCounts = new AtomicLongArray(BUCKETS);
+        this.mCount = new AtomicLong();
+        this.mSum = new AtomicLong();
+        this.mMax = new AtomicLong();
+    }
+
+    /**
+     * Returns the bucket index for the supplied value.
+     *
+     * @param value The value to be used.
+     *
+     * @return The bucket index for the supplied value.
+     */
+    public static int getBucket(long value) {
+        if (value < SUB_BUCKETS) {
+            return (int) Math.max(0, value);
+        }
+
+        int exponent = 63 - Long.numberOfLeadingZeros(value);
+        int bucket = (exponent - 1) * SUB_BUCKETS
+                + (int) ((value >>> (exponent - 2)) & (SUB_BUCKETS - 1));
+
+        return Math.min(bucket, BUCKETS - 1);
+    }
+
+    /**
+     * Returns the lowest value that can be recorded in the supplied bucket.
+     *
+     * @param bucket The bucket index to be used.
+     *
+     * @return The lowest value that can be recorded in the supplied bucket.
+     */
+    public static long getBucketLowerBound(int bucket) {
+        if (bucket < SUB_BUCKETS) {
+            return bucket;
+        }
+
+        int exponent = bucket / SUB_BUCKETS + 1;
+        return (long) (SUB_BUCKETS + bucket % SUB_BUCKETS) << (exponent - 2);
+    }
+
+    /**
+     * Returns the highest value that can be recorded in the supplied bucket.
+     *
+     * @param bucket The bucket index to be used.
+     *
+     * @return The highest value that can be recorded in the supplied bucket.
+     */
+    public static long getBucketUpperBound(int bucket) {
+        if (bucket >= BUCKETS - 1) {
+            return Long.MAX_VALUE;
+        }
+
+        return getBucketLowerBound(bucket + 1) - 1;
+    }
+
+    /**
+     * Record a value in this histogram.
+     *
+     * @param value The value to be recorded.
+     */
+    public void record(long value) {
+        if (value < 0) {
+            return;
+        }
+
+        mCounts.incrementAndGet(getBucket(value));
+        mCount.incrementAndGet();
+        mSum.addAndGet(value);
+
+        long max;
+        while (value > (max = mMax.get())) {
+            if (mMax.compareAndSet(max, value)) {
+                break;
+            }
+        }
+    }
+
+    /**
+     * Returns the total number of recorded values.
+     *
+     * @return The total number of recorded values.
+     */
+    public long getCount() {
+        return mCount.get();
+    }
+
+    /**
+     * Returns the estimated value at the supplied percentile without creating a snapshot.
+     * <p>It may be slightly inaccurate while the values are being recorded.
+     *
+     * @param percentile The percentile to be used in the range {@code 0-100}.
+     *
+     * @return The estimated value at the supplied percentile.
+     *
+     * @see Snapshot#getPercentile(double)
+     */
+    public long getPercentile(double percentile) {
+        long count = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            count += mCounts.get(i);
+        }
+
+        if (count <= 0) {
+            return 0;
+        }
+
+        long max = mMax.get();
+        long rank = Math.max(1, (long) Math.ceil(
+                Math.max(0, Math.min(100, percentile)) / 100d * count));
+        long seen = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            if ((seen += mCounts.get(i)) >= rank) {
+                return Math.min(getBucketUpperBound(i), max);
+            }
+        }
+
+        return max;
+    }
+
+    /**
+     * Clear all the recorded values.
+     */
+    public void reset() {
+        for (int i = 0; i < BUCKETS; i++) {
+            mCounts.set(i, 0);
+        }
+
+        mCount.set(0);
+        mSum.set(0);
+        mMax.set(0);
+    }
+
+    /**
+     * Returns an immutable snapshot of this histogram.
+     *
+     * @return An immutable snapshot of this histogram.
+     */
+    public @NonNull Snapshot getSnapshot() {
+        long[] counts = new long[BUCKETS];
+        long count = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            counts[i] = mCounts.get(i);
+            count += counts[i];
+        }
+
+        return new Snapshot(counts, count, mSum.get(), mMax.get());
+    }
+
+    /**
+     * An immutable snapshot of the {@link DynamicAdHistogram}.
+     */
+    public static class Snapshot {
+
+        /**
+         * Counts for each bucket.
+         */
+        private final long[] mCounts;
+
+        /**
+         * Total number of recorded values.
+         */
+        private final long mCount;
+
+        /**
+         * Sum of all the recorded values.
+         */
+        private final long mSum;
+
+        /**
+         * Maximum recorded value.
+         */
+        private final long mMax;
+
+        /**
+         * Constructor to initialize an object of this class.
+         *
+         * @param counts The counts for each bucket.
+         * @param count The total number of recorded values.
+         * @param sum The sum of all the recorded values.
+         * @param max The maximum recorded value.
+         */
+        public Snapshot(@NonNull long[] counts, long count, long sum, long max) {
+            this.mCounts = counts;
+            this.mCount = count;
+            this.mSum = sum;
+            this.mMax = max;
+        }
+
+        /**
+         * Returns the total number of recorded values.
+         *
+         * @return The total number of recorded values.
+         */
+        public long getCount() {
+            return mCount;
+        }
+
+        /**
+         * Returns the count for the supplied bucket.
+         *
+         * @param bucket The bucket index to be used.
+         *
+         * @return The count for the supplied bucket.
+         */
+        public long getCount(int bucket) {
+            return mCounts[bucket];
+        }
+
+        /**
+         * Returns the sum of all the recorded values.
+         *
+         * @return The sum of all the recorded values.
+         */
+        public long getSum() {
+            return mSum;
+        }
+
+        /**
+         * Returns the maximum recorded value.
+         *
+         * @return The maximum recorded value.
+         */
+        public long getMax() {
+            return mMax;
+        }
+
+        /**
+         * Returns the mean of all the recorded values.
+         *
+         * @return The mean of all the recorded values.
+         */
+        public long getMean() {
+            return mCount > 0 ? mSum / mCount : 0;
+        }
+
+        /**
+         * Returns the estimated value at the supplied percentile.
+         *
+         * @param percentile The percentile to be used in the range {@code 0-100}.
+         *
+         * @return The estimated value at the supplied percentile.
+         *         <p>It will be the upper bound of the matching bucket limited to the
+         *         maximum recorded value.
+         */
+        public long getPercentile(double percentile) {
+            if (mCount <= 0) {
+                return 0;
+            }
+
+            long rank = (long) Math.ceil(Math.max(0, Math.min(100, percentile))
+                    / 100d * mCount);
+            long seen = 0;
+            for (int i = 0; i < mCounts.length; i++) {
+                if ((seen += mCounts[i]) >= Math.max(1, rank)) {
+                    return Math.min(getBucketUpperBound(i), mMax);
+                }
+            }
+
+            return mMax;
+        }
+    }
+}
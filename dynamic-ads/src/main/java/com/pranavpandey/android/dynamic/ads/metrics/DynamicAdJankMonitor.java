@@ -0,0 +1,606 @@
+/*
+ * Copyright 2022-2025 Pranav Pandey
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.pranavpandey.android.dynamic.ads.metrics;
+
+import android.annotation.TargetApi;
+import android.app.Activity;
+import android.content.Context;
+import android.os.Build;
+import android.os.Handler;
+import android.os.HandlerThread;
+import android.os.Looper;
+import android.os.SystemClock;
+import android.view.Display;
+import android.view.FrameMetrics;
+import android.view.Window;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import com.pranavpandey.android.dynamic.ads.DynamicAd;
+import com.pranavpandey.android.dynamic.ads.util.DynamicAdUtils;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.WeakHashMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Helper class to attribute the janky frames to the ads.
+ * <p>A short attribution window is opened for the host window whenever an ad is attached,
+ * shown, hidden or bound and its frames are attributed to the ad unit and ad format. It uses
+ * the frame metrics available on API 24 and above, it will do nothing on older versions.
+ */
+public class DynamicAdJankMonitor {
+
+    /**
+     * Default duration in milliseconds of the attribution window.
+     */
+    public static final long DEFAULT_WINDOW = 1000;
+
+    /**
+     * Default refresh rate used if it cannot be retrieved from the display.
+     */
+    public static final float DEFAULT_REFRESH_RATE = 60f;
+
+    /**
+     * Main thread handler to register the frame metrics listeners.
+     */
+    private final Handler mHandler;
+
+    /**
+     * Monitors for each host window.
+     */
+    private final Map<Window, Monitor> mMonitors;
+
+    /**
+     * Statistics for each ad unit.
+     */
+    private final ConcurrentHashMap<String, Stats> mUnits;
+
+    /**
+     * Statistics for each ad format.
+     */
+    private final ConcurrentHashMap<String, Stats> mFormats;
+
+    /**
+     * Background handler to receive the frame metrics.
+     */
+    private Handler mFrameHandler;
+
+    /**
+     * Duration in milliseconds of the attribution window.
+     */
+    private volatile long mWindow;
+
+    /**
+     * {@code true} to attribute the janky frames.
+     */
+    private volatile boolean mEnabled;
+
+    /**
+     * Constructor to initialize an object of this class.
+     */
+    public DynamicAdJankMonitor() {
+        this.mHandler = new Handler(Looper.getMainLooper());
+        this.mMonitors = new WeakHashMap<>();
+        this.mUnits = new ConcurrentHashMap<>();
+        this.mFormats = new ConcurrentHashMap<>();
+        this.mWindow = DEFAULT_WINDOW;
+        this.mEnabled = true;
+    }
+
+    /**
+     * Returns whether the janky frames will be attributed to the ads.
+     *
+     * @return {@code true} if the janky frames will be attributed to the ads.
+     */
+    public boolean isEnabled() {
+        return mEnabled;
+    }
+
+    /**
+     * Sets whether the janky frames will be attributed to the ads.
+     *
+     * @param enabled {@code true} to attribute the janky frames.
+     */
+    public void setEnabled(boolean enabled) {
+        this.mEnabled = enabled;
+    }
+
+    /**
+     * Returns the duration in milliseconds of the attribution window.
+     *
+     * @return The duration in milliseconds of the attribution window.
+     */
+    public long getWindow() {
+        return mWindow;
+    }
+
+    /**
+     * Sets the duration in milliseconds of the attribution window.
+     *
+     * @param window The duration to be set.
+     */
+    public void setWindow(long window) {
+        this.mWindow = window;
+    }
+
+    /**
+     * Returns the statistics for the supplied key.
+     *
+     * @param stats The map to retrieve the statistics.
+     * @param key The key to be used.
+     *
+     * @return The statistics for the supplied key.
+     */
+    private static @NonNull Stats get(@NonNull ConcurrentHashMap<String, Stats> stats,
+            @NonNull String key) {
+        Stats adStats = stats.get(key);
+        if (adStats == null) {
+            Stats newStats = new Stats();
+            adStats = stats.putIfAbsent(key, newStats);
+
+            if (adStats == null) {
+                adStats = newStats;
+            }
+        }
+
+        return adStats;
+    }
+
+    /**
+     * Open an attribution window for the host of the supplied ad.
+     * <p>The frames will be attributed to the most recent ad if the windows overlap.
+     *
+     * @param context The context of the host.
+     * @param dynamicAd The dynamic ad to be attributed.
+     */
+    public void attribute(final @Nullable Context context, final @NonNull DynamicAd dynamicAd) {
+        if (!isEnabled() || Build.VERSION.SDK_INT < Build.VERSION_CODES.N) {
+            return;
+        }
+
+        if (Looper.myLooper() != mHandler.getLooper()) {
+            mHandler.post(new Runnable() {
+                @Override
+                public void run() {
+                    attribute(context, dynamicAd);
+                }
+            });
+
+            return;
+        }
+
+        Activity activity = DynamicAdUtils.getActivity(context);
+        if (activity == null || activity.getWindow() == null) {
+            return;
+        }
+
+        Window window = activity.getWindow();
+        Monitor monitor = mMonitors.get(window);
+        if (monitor == null) {
+            monitor = new Monitor(window);
+            mMonitors.put(window, monitor);
+        }
+
+        monitor.open(dynamicAd.getAdUnitId(), dynamicAd.getAdFormat(),
+                SystemClock.uptimeMillis() + getWindow());
+    }
+
+    /**
+     * Record a frame rendered while an ad was attributed.
+     *
+     * @param adUnitId The attributed ad unit id.
+     * @param format The attributed ad format.
+     * @param duration The total duration of the frame in nanoseconds.
+     * @param budget The frame budget in nanoseconds.
+     * @param dropped The number of frames dropped since the last frame.
+     */
+    public void onFrame(@NonNull String adUnitId, @NonNull String format,
+            long duration, long budget, int dropped) {
+        get(mUnits, adUnitId).onFrame(duration, budget, dropped);
+        get(mFormats, format).onFrame(duration, budget, dropped);
+    }
+
+    /**
+     * Clear all the recorded statistics.
+     */
+    public void reset() {
+        for (Stats stats : mUnits.values()) {
+            stats.reset();
+        }
+
+        for (Stats stats : mFormats.values()) {
+            stats.reset();
+        }
+    }
+
+    /**
+     * Returns an immutable snapshot of the recorded statistics.
+     *
+     * @return An immutable snapshot of the recorded statistics.
+     */
+    public @NonNull Snapshot getSnapshot() {
+        return new Snapshot(getSnapshot(mUnits), getSnapshot(mFormats));
+    }
+
+    /**
+     * Returns an immutable snapshot of the supplied statistics.
+     *
+     * @param stats The statistics to be used.
+     *
+     * @return An immutable snapshot of the supplied statistics.
+     */
+    private static @NonNull Map<String, Stats.Snapshot> getSnapshot(
+            @NonNull Map<String, Stats> stats) {
+        Map<String, Stats.Snapshot> snapshot = new HashMap<>();
+        for (Map.Entry<String, Stats> entry : stats.entrySet()) {
+            snapshot.put(entry.getKey(), entry.getValue().getSnapshot());
+        }
+
+        return Collections.unmodifiableMap(snapshot);
+    }
+
+    /**
+     * Returns the display of the supplied window.
+     *
+     * @param window The window to be used.
+     *
+     * @return The display of the supplied window, otherwise {@code null}.
+     */
+    @SuppressWarnings("deprecation")
+    private static @Nullable Display getDisplay(@NonNull Window window) {
+        if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.R) {
+            return window.getContext().getDisplay();
+        }
+
+        return window.getWindowManager().getDefaultDisplay();
+    }
+
+    /**
+     * Returns the handler to receive the frame metrics.
+     *
+     * @return The handler to receive the frame metrics.
+     */
+    private synchronized @NonNull Handler getFrameHandler() {
+        if (mFrameHandler == null) {
+            HandlerThread thread = new HandlerThread(getClass().getSimpleName());
+            thread.start();
+
+            mFrameHandler = new Handler(thread.getLooper());
+        }
+
+        return mFrameHandler;
+    }
+
+    /**
+     * A monitor to receive the frame metrics for a host window.
+     */
+    @TargetApi(Build.VERSION_CODES.N)
+    private class Monitor implements Window.OnFrameMetricsAvailableListener, Runnable {
+
+        /**
+         * Host window to be monitored.
+         */
+        private final Window mWindow;
+
+        /**
+         * Frame budget in nanoseconds for the host window.
+         */
+        private final long mBudget;
+
+        /**
+         * Attributed ad unit id.
+         */
+        private volatile String mAdUnitId;
+
+        /**
+         * Attributed ad format.
+         */
+        private volatile String mFormat;
+
+        /**
+         * Uptime in milliseconds at which the attribution window will be closed.
+         */
+        private volatile long mUntil;
+
+        /**
+         * {@code true} if the frame metrics listener has been registered.
+         */
+        private boolean mRegistered;
+
+        /**
+         * Constructor to initialize an object of this class.
+         *
+         * @param window The host window to be monitored.
+         */
+        Monitor(@NonNull Window window) {
+            this.mWindow = window;
+
+            float refreshRate = DEFAULT_REFRESH_RATE;
+            try {
+                Display display = getDisplay(window);
+                if (display != null) {
+                    refreshRate = display.getRefreshRate();
+                }
+            } catch (Exception ignored) {
+            }
+
+            this.mBudget = (long) (TimeUnit.SECONDS.toNanos(1)
+                    / (refreshRate > 0 ? refreshRate : DEFAULT_REFRESH_RATE));
+        }
+
+        /**
+         * Open the attribution window for an ad.
+         *
+         * @param adUnitId The ad unit id to be attributed.
+         * @param format The ad format to be attributed.
+         * @param until The uptime in milliseconds at which the window will be closed.
+         */
+        void open(@NonNull String adUnitId, @NonNull String format, long until) {
+            mAdUnitId = adUnitId;
+            mFormat = format;
+            mUntil = until;
+
+            mHandler.removeCallbacks(this);
+            mHandler.postDelayed(this, Math.max(0, until - SystemClock.uptimeMillis()));
+
+            if (!mRegistered) {
+                try {
+                    mWindow.addOnFrameMetricsAvailableListener(this, getFrameHandler());
+                    mRegistered = true;
+                } catch (Exception ignored) {
+                }
+            }
+        }
+
+        @Override
+        public void onFrameMetricsAvailable(Window window, FrameMetrics frameMetrics,
+                int dropCountSinceLastInvocation) {
+            String adUnitId = mAdUnitId;
+            String format = mFormat;
+            if (adUnitId == null || format == null || SystemClock.uptimeMillis() > mUntil) {
+                return;
+            }
+
+            onFrame(adUnitId, format, frameMetrics.getMetric(FrameMetrics.TOTAL_DURATION),
+                    mBudget, dropCountSinceLastInvocation);
+        }
+
+        @Override
+        public void run() {
+            // Close the attribution window and stop receiving the frame metrics.
+            if (SystemClock.uptimeMillis() < mUntil) {
+                return;
+            }
+
+            if (mRegistered) {
+                try {
+                    mWindow.removeOnFrameMetricsAvailableListener(this);
+                } catch (Exception ignored) {
+                }
+
+                mRegistered = false;
+            }
+
+            mMonitors.remove(mWindow);
+        }
+    }
+
+    /**
+     * Frame statistics for an ad unit or an ad format.
+     */
+    public static class Stats {
+
+        /**
+         * Number of attributed frames.
+         */
+        private final AtomicLong mFrames;
+
+        /**
+         * Number of attributed frames that exceeded the frame budget.
+         */
+        private final AtomicLong mJankyFrames;
+
+        /**
+         * Number of frames dropped while attributed.
+         */
+        private final AtomicLong mDroppedFrames;
+
+        /**
+         * Durations in milliseconds of the janky frames.
+         */
+        private final DynamicAdHistogram mJankyDuration;
+
+        /**
+         * Constructor to initialize an object of this class.
+         */
+        public Stats() {
+            this.mFrames = new AtomicLong();
+            this.mJankyFrames = new AtomicLong();
+            this.mDroppedFrames = new AtomicLong();
+            this.mJankyDuration = new DynamicAdHistogram();
+        }
+
+        /**
+         * This method will be called when an attributed frame has been rendered.
+         *
+         * @param duration The total duration of the frame in nanoseconds.
+         * @param budget The frame budget in nanoseconds.
+         * @param dropped The number of frames dropped since the last frame.
+         */
+        public void onFrame(long duration, long budget, int dropped) {
+            mFrames.incrementAndGet();
+            mDroppedFrames.addAndGet(Math.max(0, dropped));
+
+            if (duration > budget) {
+                mJankyFrames.incrementAndGet();
+                mJankyDuration.record(TimeUnit.NANOSECONDS.toMillis(duration));
+            }
+        }
+
+        /**
+         * Clear all the recorded statistics.
+         */
+        public void reset() {
+            mFrames.set(0);
+            mJankyFrames.set(0);
+            mDroppedFrames.set(0);
+            mJankyDuration.reset();
+        }
+
+        /**
+         * Returns an immutable snapshot of these statistics.
+         *
+         * @return An immutable snapshot of these statistics.
+         */
+        public @NonNull Snapshot getSnapshot() {
+            return new Snapshot(mFrames.get(), mJankyFrames.get(),
+                    mDroppedFrames.get(), mJankyDuration.getSnapshot());
+        }
+
+        /**
+         * An immutable snapshot of the {@link Stats}.
+         */
+        public static class Snapshot {
+
+            /**
+             * Number of attributed frames.
+             */
+            private final long mFrames;
+
+            /**
+             * Number of attributed frames that exceeded the frame budget.
+             */
+            private final long mJankyFrames;
+
+            /**
+             * Number of frames dropped while attributed.
+             */
+            private final long mDroppedFrames;
+
+            /**
+             * Durations in milliseconds of the janky frames.
+             */
+            private final DynamicAdHistogram.Snapshot mJankyDuration;
+
+            /**
+             * Constructor to initialize an object of this class.
+             *
+             * @param frames The number of attributed frames.
+             * @param jankyFrames The number of attributed frames that exceeded the budget.
+             * @param droppedFrames The number of frames dropped while attributed.
+             * @param jankyDuration The durations in milliseconds of the janky frames.
+             */
+            public Snapshot(long frames, long jankyFrames, long droppedFrames,
+                    @NonNull DynamicAdHistogram.Snapshot jankyDuration) {
+                this.mFrames = frames;
+                this.mJankyFrames = jankyFrames;
+                this.mDroppedFrames = droppedFrames;
+                this.mJankyDuration = jankyDuration;
+            }
+
+            /**
+             * Returns the number of attributed frames.
+             *
+             * @return The number of attributed frames.
+             */
+            public long getFrames() {
+                return mFrames;
+            }
+
+            /**
+             * Returns the number of attributed frames that exceeded the frame budget.
+             *
+             * @return The number of attributed frames that exceeded the frame budget.
+             */
+            public long getJankyFrames() {
+                return mJankyFrames;
+            }
+
+            /**
+             * Returns the number of frames dropped while attributed.
+             *
+             * @return The number of frames dropped while attributed.
+             */
+            public long getDroppedFrames() {
+                return mDroppedFrames;
+            }
+
+            /**
+             * Returns the durations in milliseconds of the janky frames.
+             *
+             * @return The durations in milliseconds of the janky frames.
+             */
+            public @NonNull DynamicAdHistogram.Snapshot getJankyDuration() {
+                return mJankyDuration;
+            }
+        }
+    }
+
+    /**
+     * An immutable snapshot of the {@link DynamicAdJankMonitor}.
+     */
+    public static class Snapshot {
+
+        /**
+         * Statistics for each ad unit.
+         */
+        private final Map<String, Stats.Snapshot> mUnits;
+
+        /**
+         * Statistics for each ad format.
+         */
+        private final Map<String, Stats.Snapshot> mFormats;
+
+        /**
+         * Constructor to initialize an object of this class.
+         *
+         * @param units The statistics for each ad unit.
+         * @param formats The statistics for each ad format.
+         */
+        public Snapshot(@NonNull Map<String, Stats.Snapshot> units,
+                @NonNull Map<String, Stats.Snapshot> formats) {
+            this.mUnits = units;
+            this.mFormats = formats;
+        }
+
+        /**
+         * Returns the statistics for each ad unit.
+         *
+         * @return The statistics for each ad unit.
+         */
+        public @NonNull Map<String, Stats.Snapshot> getUnits() {
+            return mUnits;
+        }
+
+        /**
+         * Returns the statistics for each ad format.
+         *
+         * @return The statistics for each ad format.
+         *
+         * @see DynamicAd.Format
+         */
+        public @NonNull Map<String, Stats.Snapshot> getFormats() {
+            return mFormats;
+        }
+    }
+}
@@ -0,0 +1,414 @@
+/*
+ * Copyright 2022-2025 Pranav Pandey
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.pranavpandey.android.dynamic.ads.metrics;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import com.pranavpandey.android.dynamic.ads.DynamicAd;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Helper class to record the ad performance metrics for each ad unit and ad format.
+ * <p>Recording a metric does not allocate once the statistics for an ad unit are available.
+ */
+public class DynamicAdMetrics {
+
+    /**
+     * Statistics for each ad unit.
+     */
+    private final ConcurrentHashMap<String, DynamicAdStats> mUnits;
+
+    /**
+     * Statistics for each ad format.
+     */
+    private final ConcurrentHashMap<String, DynamicAdStats> mFormats;
+
+    /**
+     * Time to the first frame of the host windows while the ad work was held.
+     */
+    private final DynamicAdHistogram mFirstFrameHeld;
+
+    /**
+     * Time to the first frame of the host windows while the ad work was not held.
+     */
+    private final DynamicAdHistogram mFirstFrameDirect;
+
+    /**
+     * Number of ad work held till the first frame.
+     */
+    private final AtomicLong mHeldWork;
+
+    /**
+     * Optional store to persist the statistics for each ad unit.
+     */
+    private volatile DynamicAdUnitStore mUnitStore;
+
+    /**
+     * Constructor to initialize an object of this class.
+     */
+    public DynamicAdMetrics() {
+        this.mUnits = new ConcurrentHashMap<>();
+        this.mFormats = new ConcurrentHashMap<>();
+        this.mFirstFrameHeld = new DynamicAdHistogram();
+        this.mFirstFrameDirect = new DynamicAdHistogram();
+        this.mHeldWork = new AtomicLong();
+    }
+
+    /**
+     * Returns the statistics for the supplied key.
+     *
+     * @param stats The map to retrieve the statistics.
+     * @param key The key to be used.
+     *
+     * @return The statistics for the supplied key.
+     */
+    private static @NonNull DynamicAdStats get(
+            @NonNull ConcurrentHashMap<String, DynamicAdStats> stats, @NonNull String key) {
+        DynamicAdStats adStats = stats.get(key);
+        if (adStats == null) {
+            DynamicAdStats newStats = new DynamicAdStats();
+            adStats = stats.putIfAbsent(key, newStats);
+
+            if (adStats == null) {
+                adStats = newStats;
+            }
+        }
+
+        return adStats;
+    }
+
+    /**
+     * Returns the live statistics for the supplied ad unit.
+     *
+     * @param adUnitId The ad unit id to be used.
+     *
+     * @return The live statistics for the supplied ad unit.
+     */
+    public @NonNull DynamicAdStats getUnitStats(@NonNull String adUnitId) {
+        return get(mUnits, adUnitId);
+    }
+
+    /**
+     * Returns the live statistics for the supplied ad format.
+     *
+     * @param format The ad format to be used.
+     *
+     * @return The live statistics for the supplied ad format.
+     *
+     * @see DynamicAd.Format
+     */
+    public @NonNull DynamicAdStats getFormatStats(@NonNull String format) {
+        return get(mFormats, format);
+    }
+
+    /**
+     * Returns the optional store to persist the statistics for each ad unit.
+     *
+     * @return The optional store to persist the statistics for each ad unit.
+     */
+    public @Nullable DynamicAdUnitStore getUnitStore() {
+        return mUnitStore;
+    }
+
+    /**
+     * Sets the store to persist the statistics for each ad unit.
+     * <p>The later updates will be forwarded to the store while the statistics returned by
+     * this metrics will only describe the current process.
+     *
+     * @param unitStore The store to be set.
+     */
+    public void setUnitStore(@Nullable DynamicAdUnitStore unitStore) {
+        this.mUnitStore = unitStore;
+    }
+
+    /**
+     * This method will be called when an ad has been requested.
+     *
+     * @param dynamicAd The dynamic ad to be used.
+     */
+    public void onRequest(@NonNull DynamicAd dynamicAd) {
+        onRequest(dynamicAd, dynamicAd.getAdUnitId());
+    }
+
+    /**
+     * This method will be called when an ad has been requested from an ad unit.
+     *
+     * @param dynamicAd The dynamic ad to be used.
+     * @param adUnitId The requested ad unit id.
+     */
+    public void onRequest(@NonNull DynamicAd dynamicAd, @NonNull String adUnitId) {
+        getUnitStats(adUnitId).onRequest();
+        getFormatStats(dynamicAd.getAdFormat()).onRequest();
+
+        DynamicAdUnitStore unitStore = mUnitStore;
+        if (unitStore != null) {
+            unitStore.onRequest(adUnitId);
+        }
+    }
+
+    /**
+     * This method will be called when an ad has been loaded.
+     *
+     * @param dynamicAd The dynamic ad to be used.
+     * @param latency The latency from the ad request in milliseconds.
+     */
+    public void onLoad(@NonNull DynamicAd dynamicAd, long latency) {
+        onLoad(dynamicAd, dynamicAd.getAdUnitId(), latency);
+    }
+
+    /**
+     * This method will be called when an ad has been loaded from an ad unit.
+     *
+     * @param dynamicAd The dynamic ad to be used.
+     * @param adUnitId The requested ad unit id.
+     * @param latency The latency from the ad request in milliseconds.
+     */
+    public void onLoad(@NonNull DynamicAd dynamicAd, @NonNull String adUnitId, long latency) {
+        getUnitStats(adUnitId).onLoad(latency);
+        getFormatStats(dynamicAd.getAdFormat()).onLoad(latency);
+
+        DynamicAdUnitStore unitStore = mUnitStore;
+        if (unitStore != null) {
+            unitStore.onLoad(adUnitId, latency);
+        }
+    }
+
+    /**
+     * This method will be called when an ad request has been failed.
+     *
+     * @param dynamicAd The dynamic ad to be used.
+     * @param errorCode The error code returned by the ad request.
+     */
+    public void onFailure(@NonNull DynamicAd dynamicAd, int errorCode) {
+        onFailure(dynamicAd, dynamicAd.getAdUnitId(), errorCode);
+    }
+
+    /**
+     * This method will be called when an ad request has been failed for an ad unit.
+     *
+     * @param dynamicAd The dynamic ad to be used.
+     * @param adUnitId The requested ad unit id.
+     * @param errorCode The error code returned by the ad request.
+     */
+    public void onFailure(@NonNull DynamicAd dynamicAd, @NonNull String adUnitId,
+            int errorCode) {
+        getUnitStats(adUnitId).onFailure(errorCode);
+        getFormatStats(dynamicAd.getAdFormat()).onFailure(errorCode);
+
+        DynamicAdUnitStore unitStore = mUnitStore;
+        if (unitStore != null) {
+            unitStore.onFailure(adUnitId, errorCode);
+        }
+    }
+
+    /**
+     * This method will be called when a loaded ad has been expired.
+     *
+     * @param dynamicAd The dynamic ad to be used.
+     */
+    public void onExpire(@NonNull DynamicAd dynamicAd) {
+        getUnitStats(dynamicAd.getAdUnitId()).onExpire();
+        getFormatStats(dynamicAd.getAdFormat()).onExpire();
+
+        DynamicAdUnitStore unitStore = mUnitStore;
+        if (unitStore != null) {
+            unitStore.onExpire(dynamicAd.getAdUnitId());
+        }
+    }
+
+    /**
+     * This method will be called when an ad has been shown to the user.
+     *
+     * @param dynamicAd The dynamic ad to be used.
+     * @param latency The latency from the loaded ad in milliseconds.
+     */
+    public void onShow(@NonNull DynamicAd dynamicAd, long latency) {
+        getUnitStats(dynamicAd.getAdUnitId()).onShow(latency);
+        getFormatStats(dynamicAd.getAdFormat()).onShow(latency);
+
+        DynamicAdUnitStore unitStore = mUnitStore;
+        if (unitStore != null) {
+            unitStore.onShow(dynamicAd.getAdUnitId());
+        }
+    }
+
+    /**
+     * This method will be called when an ad has been hidden from the user.
+     *
+     * @param dynamicAd The dynamic ad to be used.
+     * @param duration The time for which the ad was visible in milliseconds.
+     */
+    public void onHide(@NonNull DynamicAd dynamicAd, long duration) {
+        getUnitStats(dynamicAd.getAdUnitId()).onHide(duration);
+        getFormatStats(dynamicAd.getAdFormat()).onHide(duration);
+    }
+
+    /**
+     * This method will be called when a host window has drawn its first frame.
+     *
+     * @param duration The time from the first ad work for the window in milliseconds.
+     * @param held The number of ad work held till the first frame.
+     * @param enabled {@code true} if the ad work was being held till the first frame.
+     */
+    public void onFirstFrame(long duration, int held, boolean enabled) {
+        (enabled ? mFirstFrameHeld : mFirstFrameDirect).record(duration);
+        mHeldWork.addAndGet(held);
+    }
+
+    /**
+     * Clear all the recorded metrics.
+     */
+    public void reset() {
+        for (DynamicAdStats stats : mUnits.values()) {
+            stats.reset();
+        }
+
+        for (DynamicAdStats stats : mFormats.values()) {
+            stats.reset();
+        }
+
+        mFirstFrameHeld.reset();
+        mFirstFrameDirect.reset();
+        mHeldWork.set(0);
+    }
+
+    /**
+     * Returns an immutable snapshot of the recorded metrics.
+     *
+     * @return An immutable snapshot of the recorded metrics.
+     */
+    public @NonNull Snapshot getSnapshot() {
+        return new Snapshot(getSnapshot(mUnits), getSnapshot(mFormats),
+                mFirstFrameHeld.getSnapshot(), mFirstFrameDirect.getSnapshot(), mHeldWork.get());
+    }
+
+    /**
+     * Returns an immutable snapshot of the supplied statistics.
+     *
+     * @param stats The statistics to be used.
+     *
+     * @return An immutable snapshot of the supplied statistics.
+     */
+    private static @NonNull Map<String, DynamicAdStats.Snapshot> getSnapshot(
+            @NonNull Map<String, DynamicAdStats> stats) {
+        Map<String, DynamicAdStats.Snapshot> snapshot = new HashMap<>();
+        for (Map.Entry<String, DynamicAdStats> entry : stats.entrySet()) {
+            snapshot.put(entry.getKey(), entry.getValue().getSnapshot());
+        }
+
+        return Collections.unmodifiableMap(snapshot);
+    }
+
+    /**
+     * An immutable snapshot of the {@link DynamicAdMetrics}.
+     */
+    public static class Snapshot {
+
+        /**
+         * Statistics for each ad unit.
+         */
+        private final Map<String, DynamicAdStats.Snapshot> mUnits;
+
+        /**
+         * Statistics for each ad format.
+         */
+        private final Map<String, DynamicAdStats.Snapshot> mFormats;
+
+        /**
+         * Time to the first frame of the host windows while the ad work was held.
+         */
+        private final DynamicAdHistogram.Snapshot mFirstFrameHeld;
+
+        /**
+         * Time to the first frame of the host windows while the ad work was not held.
+         */
+        private final DynamicAdHistogram.Snapshot mFirstFrameDirect;
+
+        /**
+         * Number of ad work held till the first frame.
+         */
+        private final long mHeldWork;
+
+        /**
+         * Constructor to initialize an object of this class.
+         *
+         * @param units The statistics for each ad unit.
+         * @param formats The statistics for each ad format.
+         * @param firstFrameHeld The time to the first frame while the ad work was held.
+         * @param firstFrameDirect The time to the first frame while the ad work was not held.
+         * @param heldWork The number of ad work held till the first frame.
+         */
+        public Snapshot(@NonNull Map<String, DynamicAdStats.Snapshot> units,
+                @NonNull Map<String, DynamicAdStats.Snapshot> formats,
+                @NonNull DynamicAdHistogram.Snapshot firstFrameHeld,
+                @NonNull DynamicAdHistogram.Snapshot firstFrameDirect, long heldWork) {
+            this.mUnits = units;
+            this.mFormats = formats;
+            this.mFirstFrameHeld = firstFrameHeld;
+            this.mFirstFrameDirect = firstFrameDirect;
+            this.mHeldWork = heldWork;
+        }
+
+        /**
+         * Returns the statistics for each ad unit.
+         *
+         * @return The statistics for each ad unit.
+         */
+        public @NonNull Map<String, DynamicAdStats.Snapshot> getUnits() {
+            return mUnits;
+        }
+
+        /**
+         * Returns the statistics for each ad format.
+         *
+         * @return The statistics for each ad format.
+         *
+         * @see DynamicAd.Format
+         */
+        public @NonNull Map<String, DynamicAdStats.Snapshot> getFormats() {
+            return mFormats;
+        }
+
+        /**
+         * Returns the time to the first frame of the host windows.
+         * <p>It can be compared for both the modes to measure the effect of holding the ad
+         * work on the time to initial display.
+         *
+         * @param held {@code true} to return the time while the ad work was held.
+         *
+         * @return The time to the first frame of the host windows.
+         */
+        public @NonNull DynamicAdHistogram.Snapshot getFirstFrame(boolean held) {
+            return held ? mFirstFrameHeld : mFirstFrameDirect;
+        }
+
+        /**
+         * Returns the number of ad work held till the first frame.
+         *
+         * @return The number of ad work held till the first frame.
+         */
+        public long getHeldWork() {
+            return mHeldWork;
+        }
+    }
+}
@@ -0,0 +1,373 @@
+/*
+ * Copyright 2022-2025 Pranav Pandey
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.pranavpandey.android.dynamic.ads.metrics;
+
+import androidx.annotation.NonNull;
+
+import com.google.android.gms.ads.LoadAdError;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Performance statistics for an ad unit or an ad format.
+ */
+public class DynamicAdStats {
+
+    /**
+     * Number of error codes tracked separately.
+     * <p>Any error code outside this range will be counted in the last slot.
+     */
+    public static final int ERROR_CODES = 16;
+
+    /**
+     * Number of ad requests.
+     */
+    private final AtomicLong mRequests;
+
+    /**
+     * Number of loaded ads.
+     */
+    private final AtomicLong mLoads;
+
+    /**
+     * Number of failed ad requests.
+     */
+    private final AtomicLong mFailures;
+
+    /**
+     * Number of loaded ads that expired before being shown.
+     */
+    private final AtomicLong mExpirations;
+
+    /**
+     * Number of shown ads.
+     */
+    private final AtomicLong mShows;
+
+    /**
+     * Failure counts for each error code.
+     *
+     * @see LoadAdError#getCode()
+     */
+    private final AtomicLongArray mErrors;
+
+    /**
+     * Latency from the ad request to the loaded ad.
+     */
+    private final DynamicAdHistogram mLoadLatency;
+
+    /**
+     * Latency from the loaded ad to the shown ad.
+     */
+    private final DynamicAdHistogram mShowLatency;
+
+    /**
+     * Time for which the ad was visible to the user.
+     */
+    private final DynamicAdHistogram mScreenTime;
+
+    /**
+     * Constructor to initialize an object of this class.
+     */
+    public DynamicAdStats() {
+        this.mRequests = new AtomicLong();
+        this.mLoads = new AtomicLong();
+        this.mFailures = new AtomicLong();
+        this.mExpirations = new AtomicLong();
+        this.mShows = new AtomicLong();
+        this.mErrors = new AtomicLongArray(ERROR_CODES);
+        this.mLoadLatency = new DynamicAdHistogram();
+        this.mShowLatency = new DynamicAdHistogram();
+        this.mScreenTime = new DynamicAdHistogram();
+    }
+
+    /**
+     * This method will be called when an ad has been requested.
+     */
+    public void onRequest() {
+        mRequests.incrementAndGet();
+    }
+
+    /**
+     * This method will be called when an ad has been loaded.
+     *
+     * @param latency The latency from the ad request in milliseconds.
+     */
+    public void onLoad(long latency) {
+        mLoads.incrementAndGet();
+        mLoadLatency.record(latency);
+    }
+
+    /**
+     * This method will be called when an ad request has been failed.
+     *
+     * @param errorCode The error code returned by the ad request.
+     *
+     * @see LoadAdError#getCode()
+     */
+    public void onFailure(int errorCode) {
+        mFailures.incrementAndGet();
+        mErrors.incrementAndGet(errorCode >= 0 && errorCode < ERROR_CODES
+                ? errorCode : ERROR_CODES - 1);
+    }
+
+    /**
+     * This method will be called when a loaded ad has been expired.
+     */
+    public void onExpire() {
+        mExpirations.incrementAndGet();
+    }
+
+    /**
+     * This method will be called when an ad has been shown to the user.
+     *
+     * @param latency The latency from the loaded ad in milliseconds.
+     */
+    public void onShow(long latency) {
+        mShows.incrementAndGet();
+        mShowLatency.record(latency);
+    }
+
+    /**
+     * This method will be called when an ad has been hidden from the user.
+     *
+     * @param duration The time for which the ad was visible in milliseconds.
+     */
+    public void onHide(long duration) {
+        mScreenTime.record(duration);
+    }
+
+    /**
+     * Returns the histogram for the latency from the ad request to the loaded ad.
+     *
+     * @return The histogram for the latency from the ad request to the loaded ad.
+     */
+    public @NonNull DynamicAdHistogram getLoadLatency() {
+        return mLoadLatency;
+    }
+
+    /**
+     * Clear all the recorded statistics.
+     */
+    public void reset() {
+        mRequests.set(0);
+        mLoads.set(0);
+        mFailures.set(0);
+        mExpirations.set(0);
+        mShows.set(0);
+
+        for (int i = 0; i < ERROR_CODES; i++) {
+            mErrors.set(i, 0);
+        }
+
+        mLoadLatency.reset();
+        mShowLatency.reset();
+        mScreenTime.reset();
+    }
+
+    /**
+     * Returns an immutable snapshot of these statistics.
+     *
+     * @return An immutable snapshot of these statistics.
+     */
+    public @NonNull Snapshot getSnapshot() {
+        long[] errors = new long[ERROR_CODES];
+        for (int i = 0; i < ERROR_CODES; i++) {
+            errors[i] = mErrors.get(i);
+        }
+
+        return new Snapshot(mRequests.get(), mLoads.get(), mFailures.get(),
+                mExpirations.get(), mShows.get(), errors, mLoadLatency.getSnapshot(),
+                mShowLatency.getSnapshot(), mScreenTime.getSnapshot());
+    }
+
+    /**
+     * An immutable snapshot of the {@link DynamicAdStats}.
+     */
+    public static class Snapshot {
+
+        /**
+         * Number of ad requests.
+         */
+        private final long mRequests;
+
+        /**
+         * Number of loaded ads.
+         */
+        private final long mLoads;
+
+        /**
+         * Number of failed ad requests.
+         */
+        private final long mFailures;
+
+        /**
+         * Number of loaded ads that expired before being shown.
+         */
+        private final long mExpirations;
+
+        /**
+         * Number of shown ads.
+         */
+        private final long mShows;
+
+        /**
+         * Failure counts for each error code.
+         */
+        private final long[] mErrors;
+
+        /**
+         * Latency from the ad request to the loaded ad.
+         */
+        private final DynamicAdHistogram.Snapshot mLoadLatency;
+
+        /**
+         * Latency from the loaded ad to the shown ad.
+         */
+        private final DynamicAdHistogram.Snapshot mShowLatency;
+
+        /**
+         * Time for which the ad was visible to the user.
+         */
+        private final DynamicAdHistogram.Snapshot mScreenTime;
+
+        /**
+         * Constructor to initialize an object of this class.
+         *
+         * @param requests The number of ad requests.
+         * @param loads The number of loaded ads.
+         * @param failures The number of failed ad requests.
+         * @param expirations The number of loaded ads that expired before being shown.
+         * @param shows The number of shown ads.
+         * @param errors The failure counts for each error code.
+         * @param loadLatency The latency from the ad request to the loaded ad.
+         * @param showLatency The latency from the loaded ad to the shown ad.
+         * @param screenTime The time for which the ad was visible to the user.
+         */
+        public Snapshot(long requests, long loads, long failures, long expirations,
+                long shows, @NonNull long[] errors,
+                @NonNull DynamicAdHistogram.Snapshot loadLatency,
+                @NonNull DynamicAdHistogram.Snapshot showLatency,
+                @NonNull DynamicAdHistogram.Snapshot screenTime) {
+            this.mRequests = requests;
+            this.mLoads = loads;
+            this.mFailures = failures;
+            this.mExpirations = expirations;
+            this.mShows = shows;
+            this.mErrors = errors;
+            this.mLoadLatency = loadLatency;
+            this.mShowLatency = showLatency;
+            this.mScreenTime = screenTime;
+        }
+
+        /**
+         * Returns the number of ad requests.
+         *
+         * @return The number of ad requests.
+         */
+        public long getRequests() {
+            return mRequests;
+        }
+
+        /**
+         * Returns the number of loaded ads.
+         *
+         * @return The number of loaded ads.
+         */
+        public long getLoads() {
+            return mLoads;
+        }
+
+        /**
+         * Returns the number of failed ad requests.
+         *
+         * @return The number of failed ad requests.
+         */
+        public long getFailures() {
+            return mFailures;
+        }
+
+        /**
+         * Returns the number of failed ad requests for the supplied error code.
+         *
+         * @param errorCode The error code to be used.
+         *
+         * @return The number of failed ad requests for the supplied error code.
+         *
+         * @see LoadAdError#getCode()
+         */
+        public long getFailures(int errorCode) {
+            return mErrors[errorCode >= 0 && errorCode < ERROR_CODES
+                    ? errorCode : ERROR_CODES - 1];
+        }
+
+        /**
+         * Returns the number of loaded ads that expired before being shown.
+         *
+         * @return The number of loaded ads that expired before being shown.
+         */
+        public long getExpirations() {
+            return mExpirations;
+        }
+
+        /**
+         * Returns the number of shown ads.
+         *
+         * @return The number of shown ads.
+         */
+        public long getShows() {
+            return mShows;
+        }
+
+        /**
+         * Returns the fill rate for the ad requests.
+         *
+         * @return The fill rate for the ad requests in the range {@code 0-1}.
+         */
+        public float getFillRate() {
+            return mRequests > 0 ? Math.min(1f, (float) mLoads / mRequests) : 0f;
+        }
+
+        /**
+         * Returns the latency from the ad request to the loaded ad.
+         *
+         * @return The latency from the ad request to the loaded ad.
+         */
+        public @NonNull DynamicAdHistogram.Snapshot getLoadLatency() {
+            return mLoadLatency;
+        }
+
+        /**
+         * Returns the latency from the loaded ad to the shown ad.
+         *
+         * @return The latency from the loaded ad to the shown ad.
+         */
+        public @NonNull DynamicAdHistogram.Snapshot getShowLatency() {
+            return mShowLatency;
+        }
+
+        /**
+         * Returns the time for which the ad was visible to the user.
+         *
+         * @return The time for which the ad was visible to the user.
+         */
+        public @NonNull DynamicAdHistogram.Snapshot getScreenTime() {
+            return mScreenTime;
+        }
+    }
+}
@@ -0,0 +1,578 @@
+/*
+ * Copyright 2022-2025 Pranav Pandey
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.pranavpandey.android.dynamic.ads.metrics;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import com.google.android.gms.ads.AdRequest;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * A small persistent store to keep the rolling performance statistics for each ad unit
+ * across the app launches.
+ * <p>It uses a memory-mapped file with a fixed-size binary record for each ad unit so that an
+ * update is a few memory writes and the kernel persists them even if the process is killed.
+ * The counters are halved once the requests reach the rolling window so that the recent
+ * behavior is preferred.
+ */
+public class DynamicAdUnitStore {
+
+    /**
+     * Default name of the store file.
+     */
+    public static final String FILE_NAME = "dynamic-ads-units.bin";
+
+    /**
+     * Maximum number of ad units kept in the store.
+     */
+    public static final int MAX_UNITS = 64;
+
+    /**
+     * Number of requests after which all the counters will be halved.
+     */
+    public static final int WINDOW = 1000;
+
+    /**
+     * Magic number to identify the store file.
+     */
+    private static final int MAGIC = 0x44415553;
+
+    /**
+     * Version of the record layout.
+     */
+    private static final int VERSION = 1;
+
+    /**
+     * Size of the file header in bytes.
+     */
+    private static final int HEADER_SIZE = 16;
+
+    /**
+     * Offset of the number of records in the file header.
+     */
+    private static final int HEADER_COUNT = 8;
+
+    /**
+     * Maximum size of the ad unit id in bytes.
+     */
+    private static final int ID_SIZE = 62;
+
+    /**
+     * Offset of the counters in a record.
+     */
+    private static final int REQUESTS = 64;
+
+    /**
+     * Offset of the number of loaded ads in a record.
+     */
+    private static final int LOADS = REQUESTS + 8;
+
+    /**
+     * Offset of the number of failed requests in a record.
+     */
+    private static final int FAILURES = LOADS + 8;
+
+    /**
+     * Offset of the number of expired ads in a record.
+     */
+    private static final int EXPIRATIONS = FAILURES + 8;
+
+    /**
+     * Offset of the number of shown ads in a record.
+     */
+    private static final int SHOWS = EXPIRATIONS + 8;
+
+    /**
+     * Offset of the last no fill time in a record.
+     */
+    private static final int LAST_NO_FILL = SHOWS + 8;
+
+    /**
+     * Offset of the sum of the load latency in a record.
+     */
+    private static final int LATENCY_SUM = LAST_NO_FILL + 8;
+
+    /**
+     * Offset of the maximum load latency in a record.
+     */
+    private static final int LATENCY_MAX = LATENCY_SUM + 8;
+
+    /**
+     * Offset of the load latency buckets in a record.
+     */
+    private static final int LATENCY_BUCKETS = LATENCY_MAX + 8;
+
+    /**
+     * Size of a record in bytes.
+     */
+    private static final int RECORD_SIZE = LATENCY_BUCKETS + DynamicAdHistogram.BUCKETS * 4;
+
+    /**
+     * Charset to encode the ad unit ids.
+     */
+    private static final Charset CHARSET = Charset.forName("UTF-8");
+
+    /**
+     * File to store the records.
+     */
+    private final File mFile;
+
+    /**
+     * Offset of the record for each ad unit.
+     */
+    private final Map<String, Integer> mOffsets;
+
+    /**
+     * Memory-mapped buffer for the store file.
+     */
+    private ByteBuffer mBuffer;
+
+    /**
+     * Constructor to initialize an object of this class.
+     *
+     * @param file The file to store the records.
+     */
+    public DynamicAdUnitStore(@NonNull File file) {
+        this.mFile = file;
+        this.mOffsets = new HashMap<>();
+    }
+
+    /**
+     * Returns the file to store the records.
+     *
+     * @return The file to store the records.
+     */
+    public @NonNull File getFile() {
+        return mFile;
+    }
+
+    /**
+     * Map the store file and read the existing records.
+     * <p>It performs the disk I/O so it should be called on a background thread. The updates
+     * will be ignored till the store has been opened.
+     *
+     * @return {@code true} if the store has been opened successfully.
+     */
+    public synchronized boolean open() {
+        if (mBuffer != null) {
+            return true;
+        }
+
+        long size = HEADER_SIZE + (long) MAX_UNITS * RECORD_SIZE;
+        try (RandomAccessFile file = new RandomAccessFile(mFile, "rw")) {
+            ByteBuffer buffer = file.getChannel().map(FileChannel.MapMode.READ_WRITE, 0, size);
+
+            int count = buffer.getInt(HEADER_COUNT);
+            if (buffer.getInt(0) != MAGIC || buffer.getInt(4) != VERSION
+                    || count < 0 || count > MAX_UNITS) {
+                for (int i = 0; i < size; i++) {
+                    buffer.put(i, (byte) 0);
+                }
+
+                buffer.putInt(0, MAGIC);
+                buffer.putInt(4, VERSION);
+                count = 0;
+            }
+
+            for (int i = 0; i < count; i++) {
+                int offset = HEADER_SIZE + i * RECORD_SIZE;
+                byte[] id = new byte[Math.min(ID_SIZE, Math.max(0, buffer.getShort(offset)))];
+                for (int j = 0; j < id.length; j++) {
+                    id[j] = buffer.get(offset + 2 + j);
+                }
+
+                mOffsets.put(new String(id, CHARSET), offset);
+            }
+
+            buffer.putInt(HEADER_COUNT, mOffsets.size());
+            mBuffer = buffer;
+        } catch (IOException | RuntimeException ignored) {
+            mOffsets.clear();
+        }
+
+        return mBuffer != null;
+    }
+
+    /**
+     * Returns whether the store has been opened.
+     *
+     * @return {@code true} if the store has been opened.
+     */
+    public synchronized boolean isOpen() {
+        return mBuffer != null;
+    }
+
+    /**
+     * Returns the record offset for the supplied ad unit.
+     *
+     * @param adUnitId The ad unit id to be used.
+     * @param create {@code true} to create a new record if it does not exist.
+     *
+     * @return The record offset for the supplied ad unit, otherwise {@code -1} if it is not
+     *         available.
+     */
+    private int getOffset(@NonNull String adUnitId, boolean create) {
+        if (mBuffer == null) {
+            return -1;
+        }
+
+        Integer offset = mOffsets.get(adUnitId);
+        if (offset != null) {
+            return offset;
+        }
+
+        byte[] id = adUnitId.getBytes(CHARSET);
+        if (!create || id.length > ID_SIZE || mOffsets.size() >= MAX_UNITS) {
+            return -1;
+        }
+
+        int newOffset = HEADER_SIZE + mOffsets.size() * RECORD_SIZE;
+        for (int i = 0; i < RECORD_SIZE; i++) {
+            mBuffer.put(newOffset + i, (byte) 0);
+        }
+
+        mBuffer.putShort(newOffset, (short) id.length);
+        for (int i = 0; i < id.length; i++) {
+            mBuffer.put(newOffset + 2 + i, id[i]);
+        }
+
+        mOffsets.put(adUnitId, newOffset);
+        mBuffer.putInt(HEADER_COUNT, mOffsets.size());
+
+        return newOffset;
+    }
+
+    /**
+     * Increment a counter in the supplied record.
+     *
+     * @param offset The record offset to be used.
+     * @param field The field offset of the counter.
+     */
+    private void increment(int offset, int field) {
+        mBuffer.putLong(offset + field, mBuffer.getLong(offset + field) + 1);
+    }
+
+    /**
+     * This method will be called when an ad has been requested from an ad unit.
+     * <p>All the counters of the ad unit will be halved once the requests reach the
+     * {@link #WINDOW}.
+     *
+     * @param adUnitId The requested ad unit id.
+     */
+    public synchronized void onRequest(@NonNull String adUnitId) {
+        int offset = getOffset(adUnitId, true);
+        if (offset < 0) {
+            return;
+        }
+
+        increment(offset, REQUESTS);
+        if (mBuffer.getLong(offset + REQUESTS) < WINDOW) {
+            return;
+        }
+
+        for (int field = REQUESTS; field <= SHOWS; field += 8) {
+            mBuffer.putLong(offset + field, mBuffer.getLong(offset + field) / 2);
+        }
+
+        mBuffer.putLong(offset + LATENCY_SUM, mBuffer.getLong(offset + LATENCY_SUM) / 2);
+        for (int i = 0; i < DynamicAdHistogram.BUCKETS; i++) {
+            int bucket = offset + LATENCY_BUCKETS + i * 4;
+            mBuffer.putInt(bucket, mBuffer.getInt(bucket) / 2);
+        }
+    }
+
+    /**
+     * This method will be called when an ad has been loaded from an ad unit.
+     *
+     * @param adUnitId The requested ad unit id.
+     * @param latency The latency from the ad request in milliseconds.
+     */
+    public synchronized void onLoad(@NonNull String adUnitId, long latency) {
+        int offset = getOffset(adUnitId, true);
+        if (offset < 0 || latency < 0) {
+            return;
+        }
+
+        increment(offset, LOADS);
+        mBuffer.putLong(offset + LATENCY_SUM, mBuffer.getLong(offset + LATENCY_SUM) + latency);
+        mBuffer.putLong(offset + LATENCY_MAX,
+                Math.max(mBuffer.getLong(offset + LATENCY_MAX), latency));
+
+        int bucket = offset + LATENCY_BUCKETS + DynamicAdHistogram.getBucket(latency) * 4;
+        mBuffer.putInt(bucket, mBuffer.getInt(bucket) + 1);
+    }
+
+    /**
+     * This method will be called when an ad request has been failed for an ad unit.
+     *
+     * @param adUnitId The requested ad unit id.
+     * @param errorCode The error code returned by the ad request.
+     */
+    public synchronized void onFailure(@NonNull String adUnitId, int errorCode) {
+        int offset = getOffset(adUnitId, true);
+        if (offset < 0) {
+            return;
+        }
+
+        increment(offset, FAILURES);
+        if (errorCode == AdRequest.ERROR_CODE_NO_FILL) {
+            mBuffer.putLong(offset + LAST_NO_FILL, System.currentTimeMillis());
+        }
+    }
+
+    /**
+     * This method will be called when a loaded ad has been expired before being shown.
+     *
+     * @param adUnitId The ad unit id of the expired ad.
+     */
+    public synchronized void onExpire(@NonNull String adUnitId) {
+        int offset = getOffset(adUnitId, true);
+        if (offset >= 0) {
+            increment(offset, EXPIRATIONS);
+        }
+    }
+
+    /**
+     * This method will be called when an ad has been shown to the user.
+     *
+     * @param adUnitId The ad unit id of the shown ad.
+     */
+    public synchronized void onShow(@NonNull String adUnitId) {
+        int offset = getOffset(adUnitId, true);
+        if (offset >= 0) {
+            increment(offset, SHOWS);
+        }
+    }
+
+    /**
+     * Returns the stored record for the supplied ad unit.
+     *
+     * @param adUnitId The ad unit id to be used.
+     *
+     * @return The stored record for the supplied ad unit, otherwise {@code null} if it is
+     *         not available.
+     */
+    public synchronized @Nullable Record getRecord(@NonNull String adUnitId) {
+        int offset = getOffset(adUnitId, false);
+        if (offset < 0) {
+            return null;
+        }
+
+        long[] counts = new long[DynamicAdHistogram.BUCKETS];
+        long count = 0;
+        for (int i = 0; i < counts.length; i++) {
+            counts[i] = mBuffer.getInt(offset + LATENCY_BUCKETS + i * 4);
+            count += counts[i];
+        }
+
+        return new Record(mBuffer.getLong(offset + REQUESTS), mBuffer.getLong(offset + LOADS),
+                mBuffer.getLong(offset + FAILURES), mBuffer.getLong(offset + EXPIRATIONS),
+                mBuffer.getLong(offset + SHOWS), mBuffer.getLong(offset + LAST_NO_FILL),
+                new DynamicAdHistogram.Snapshot(counts, count,
+                        mBuffer.getLong(offset + LATENCY_SUM),
+                        mBuffer.getLong(offset + LATENCY_MAX)));
+    }
+
+    /**
+     * Returns the stored records for all the ad units.
+     *
+     * @return The stored records for all the ad units.
+     */
+    public synchronized @NonNull Map<String, Record> getRecords() {
+        Map<String, Record> records = new HashMap<>();
+        for (String adUnitId : mOffsets.keySet()) {
+            Record record = getRecord(adUnitId);
+            if (record != null) {
+                records.put(adUnitId, record);
+            }
+        }
+
+        return Collections.unmodifiableMap(records);
+    }
+
+    /**
+     * Remove all the stored records.
+     */
+    public synchronized void clear() {
+        if (mBuffer == null) {
+            return;
+        }
+
+        for (int i = HEADER_SIZE; i < mBuffer.capacity(); i++) {
+            mBuffer.put(i, (byte) 0);
+        }
+
+        mOffsets.clear();
+        mBuffer.putInt(HEADER_COUNT, 0);
+    }
+
+    /**
+     * An immutable record of the rolling statistics for an ad unit.
+     */
+    public static class Record {
+
+        /**
+         * Number of ad requests.
+         */
+        private final long mRequests;
+
+        /**
+         * Number of loaded ads.
+         */
+        private final long mLoads;
+
+        /**
+         * Number of failed ad requests.
+         */
+        private final long mFailures;
+
+        /**
+         * Number of loaded ads that expired before being shown.
+         */
+        private final long mExpirations;
+
+        /**
+         * Number of shown ads.
+         */
+        private final long mShows;
+
+        /**
+         * Wall clock time of the last no fill.
+         */
+        private final long mLastNoFillTime;
+
+        /**
+         * Latency from the ad request to the loaded ad.
+         */
+        private final DynamicAdHistogram.Snapshot mLoadLatency;
+
+        /**
+         * Constructor to initialize an object of this class.
+         *
+         * @param requests The number of ad requests.
+         * @param loads The number of loaded ads.
+         * @param failures The number of failed ad requests.
+         * @param expirations The number of loaded ads that expired before being shown.
+         * @param shows The number of shown ads.
+         * @param lastNoFillTime The wall clock time of the last no fill.
+         * @param loadLatency The latency from the ad request to the loaded ad.
+         */
+        public Record(long requests, long loads, long failures, long expirations,
+                long shows, long lastNoFillTime,
+                @NonNull DynamicAdHistogram.Snapshot loadLatency) {
+            this.mRequests = requests;
+            this.mLoads = loads;
+            this.mFailures = failures;
+            this.mExpirations = expirations;
+            this.mShows = shows;
+            this.mLastNoFillTime = lastNoFillTime;
+            this.mLoadLatency = loadLatency;
+        }
+
+        /**
+         * Returns the number of ad requests.
+         *
+         * @return The number of ad requests.
+         */
+        public long getRequests() {
+            return mRequests;
+        }
+
+        /**
+         * Returns the number of loaded ads.
+         *
+         * @return The number of loaded ads.
+         */
+        public long getLoads() {
+            return mLoads;
+        }
+
+        /**
+         * Returns the number of failed ad requests.
+         *
+         * @return The number of failed ad requests.
+         */
+        public long getFailures() {
+            return mFailures;
+        }
+
+        /**
+         * Returns the number of loaded ads that expired before being shown.
+         *
+         * @return The number of loaded ads that expired before being shown.
+         */
+        public long getExpirations() {
+            return mExpirations;
+        }
+
+        /**
+         * Returns the number of shown ads.
+         *
+         * @return The number of shown ads.
+         */
+        public long getShows() {
+            return mShows;
+        }
+
+        /**
+         * Returns the wall clock time of the last no fill.
+         *
+         * @return The wall clock time in milliseconds of the last no fill, {@code 0} if there
+         *         is no such failure.
+         */
+        public long getLastNoFillTime() {
+            return mLastNoFillTime;
+        }
+
+        /**
+         * Returns the latency from the ad request to the loaded ad.
+         *
+         * @return The latency from the ad request to the loaded ad.
+         */
+        public @NonNull DynamicAdHistogram.Snapshot getLoadLatency() {
+            return mLoadLatency;
+        }
+
+        /**
+         * Returns the fill rate for the ad requests.
+         *
+         * @return The fill rate for the ad requests in the range {@code 0-1}.
+         */
+        public float getFillRate() {
+            return mRequests > 0 ? Math.min(1f, (float) mLoads / mRequests) : 0f;
+        }
+
+        /**
+         * Returns the ratio of the loaded ads that expired before being shown.
+         *
+         * @return The ratio of the loaded ads that expired in the range {@code 0-1}.
+         */
+        public float getExpiryWaste() {
+            return mLoads > 0 ? Math.min(1f, (float) mExpirations / mLoads) : 0f;
+        }
+    }
+}
@@ -0,0 +1,284 @@
+/*
+ * Copyright 2022-2025 Pranav Pandey
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.pranavpandey.android.dynamic.ads.network;
+
+import android.annotation.SuppressLint;
+import android.content.Context;
+import android.net.ConnectivityManager;
+import android.net.Network;
+import android.net.NetworkCapabilities;
+import android.net.NetworkRequest;
+import android.os.Build;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import com.pranavpandey.android.dynamic.ads.DynamicAd;
+
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Helper class to monitor the network connectivity for the ad requests.
+ * <p>The ads will be suspended while there is no validated network and the large video ads
+ * will not be preloaded on a metered network.
+ */
+public class DynamicAdNetworkMonitor {
+
+    /**
+     * Listener to get the callbacks when the network state changes.
+     */
+    public interface OnNetworkChangeListener {
+
+        /**
+         * This method will be called when the network state has been changed.
+         *
+         * @param connected {@code true} if a validated network is available.
+         * @param metered {@code true} if all the available networks are metered.
+         */
+        void onNetworkChanged(boolean connected, boolean metered);
+    }
+
+    /**
+     * Connectivity manager to register the network callback.
+     */
+    private final ConnectivityManager mConnectivityManager;
+
+    /**
+     * Available networks along with their metered state.
+     */
+    private final ConcurrentHashMap<Network, Boolean> mNetworks;
+
+    /**
+     * Listener to get the callbacks when the network state changes.
+     */
+    private volatile OnNetworkChangeListener mListener;
+
+    /**
+     * {@code true} if a validated network is available.
+     */
+    private volatile boolean mConnected;
+
+    /**
+     * {@code true} if all the available networks are metered.
+     */
+    private volatile boolean mMetered;
+
+    /**
+     * {@code true} if the network callback has been registered.
+     */
+    private volatile boolean mMonitoring;
+
+    /**
+     * Callback to receive the network changes.
+     */
+    private final ConnectivityManager.NetworkCallback mNetworkCallback =
+            new ConnectivityManager.NetworkCallback() {
+        @Override
+        public void onCapabilitiesChanged(@NonNull Network network,
+                @NonNull NetworkCapabilities networkCapabilities) {
+            if (isValidated(networkCapabilities)) {
+                mNetworks.put(network, !networkCapabilities.hasCapability(
+                        NetworkCapabilities.NET_CAPABILITY_NOT_METERED));
+            } else {
+                mNetworks.remove(network);
+            }
+
+            update();
+        }
+
+        @Override
+        public void onLost(@NonNull Network network) {
+            mNetworks.remove(network);
+
+            update();
+        }
+    };
+
+    /**
+     * Constructor to initialize an object of this class.
+     * <p>It will assume an unmetered connection until the monitoring is started.
+     *
+     * @param context The context to retrieve the connectivity manager.
+     */
+    public DynamicAdNetworkMonitor(@Nullable Context context) {
+        this.mConnectivityManager = context != null ? (ConnectivityManager)
+                context.getSystemService(Context.CONNECTIVITY_SERVICE) : null;
+        this.mNetworks = new ConcurrentHashMap<>();
+        this.mConnected = true;
+        this.mMetered = false;
+    }
+
+    /**
+     * Checks whether the supplied network capabilities can be used for the ad requests.
+     *
+     * @param networkCapabilities The network capabilities to be checked.
+     *
+     * @return {@code true} if the supplied network capabilities can be used for the ad
+     *         requests.
+     */
+    private static boolean isValidated(@NonNull NetworkCapabilities networkCapabilities) {
+        if (!networkCapabilities.hasCapability(NetworkCapabilities.NET_CAPABILITY_INTERNET)) {
+            return false;
+        }
+
+        return Build.VERSION.SDK_INT < Build.VERSION_CODES.M || networkCapabilities
+                .hasCapability(NetworkCapabilities.NET_CAPABILITY_VALIDATED);
+    }
+
+    /**
+     * Start monitoring the network connectivity.
+     * <p>The ads will never be suspended if the monitoring cannot be started.
+     *
+     * @param listener The listener to get the callbacks when the network state changes.
+     */
+    @SuppressLint("MissingPermission")
+    public synchronized void start(@Nullable OnNetworkChangeListener listener) {
+        this.mListener = listener;
+
+        if (mMonitoring || mConnectivityManager == null) {
+            return;
+        }
+
+        try {
+            if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.M
+                    && mConnectivityManager.getActiveNetwork() == null) {
+                setState(false, false);
+            }
+
+            mConnectivityManager.registerNetworkCallback(new NetworkRequest.Builder()
+                    .addCapability(NetworkCapabilities.NET_CAPABILITY_INTERNET)
+                    .build(), mNetworkCallback);
+
+            mMonitoring = true;
+        } catch (Exception ignored) {
+        }
+    }
+
+    /**
+     * Stop monitoring the network connectivity.
+     * <p>It will assume an unmetered connection afterwards.
+     */
+    public synchronized void stop() {
+        if (mMonitoring && mConnectivityManager != null) {
+            try {
+                mConnectivityManager.unregisterNetworkCallback(mNetworkCallback);
+            } catch (Exception ignored) {
+            }
+        }
+
+        mMonitoring = false;
+        mNetworks.clear();
+        setState(true, false);
+    }
+
+    /**
+     * Update the network state from the available networks.
+     */
+    private void update() {
+        boolean metered = true;
+        for (Boolean networkMetered : mNetworks.values()) {
+            if (!networkMetered) {
+                metered = false;
+                break;
+            }
+        }
+
+        setState(!mNetworks.isEmpty(), !mNetworks.isEmpty() && metered);
+    }
+
+    /**
+     * Set the network state and notify the listener if it has been changed.
+     * <p>It can be used to override the network state when the monitoring is not started.
+     *
+     * @param connected {@code true} if a validated network is available.
+     * @param metered {@code true} if all the available networks are metered.
+     */
+    public void setState(boolean connected, boolean metered) {
+        boolean changed;
+        synchronized (this) {
+            changed = connected != mConnected || metered != mMetered;
+
+            mConnected = connected;
+            mMetered = metered;
+        }
+
+        OnNetworkChangeListener listener = mListener;
+        if (changed && listener != null) {
+            listener.onNetworkChanged(connected, metered);
+        }
+    }
+
+    /**
+     * Returns whether the network is being monitored.
+     *
+     * @return {@code true} if the network is being monitored.
+     */
+    public boolean isMonitoring() {
+        return mMonitoring;
+    }
+
+    /**
+     * Returns whether a validated network is available.
+     *
+     * @return {@code true} if a validated network is available.
+     */
+    public boolean isConnected() {
+        return mConnected;
+    }
+
+    /**
+     * Returns whether all the available networks are metered.
+     *
+     * @return {@code true} if all the available networks are metered.
+     */
+    public boolean isMetered() {
+        return mMetered;
+    }
+
+    /**
+     * Checks whether the supplied ad format can have the large video creatives.
+     *
+     * @param format The ad format to be checked.
+     *
+     * @return {@code true} if the supplied ad format can have the large video creatives.
+     *
+     * @see DynamicAd.Format
+     */
+    public static boolean isVideoFormat(@Nullable String format) {
+        return DynamicAd.Format.INTERSTITIAL.equals(format)
+                || DynamicAd.Format.REWARDED.equals(format)
+                || DynamicAd.Format.REWARDED_INTERSTITIAL.equals(format);
+    }
+
+    /**
+     * Checks whether the supplied ad should be suspended for the current network state.
+     * <p>All the ads will be suspended while offline and the low priority video ads will
+     * not be preloaded on a metered network.
+     *
+     * @param dynamicAd The dynamic ad to be checked.
+     *
+     * @return {@code true} if the supplied ad should be suspended.
+     */
+    public boolean isSuspended(@NonNull DynamicAd dynamicAd) {
+        if (!isConnected()) {
+            return true;
+        }
+
+        return isMetered() && dynamicAd.getAdPriority() <= DynamicAd.Priority.LOW
+                && isVideoFormat(dynamicAd.getAdFormat());
+    }
+}
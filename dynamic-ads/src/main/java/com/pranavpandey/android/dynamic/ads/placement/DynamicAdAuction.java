@@ -0,0 +1,468 @@
+/*
+ * Copyright 2022-2025 Pranav Pandey
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.pranavpandey.android.dynamic.ads.placement;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import com.google.android.gms.ads.AdRequest;
+import com.google.android.gms.ads.LoadAdError;
+import com.pranavpandey.android.dynamic.ads.backend.DynamicAdBackend;
+import com.pranavpandey.android.dynamic.ads.backend.DynamicAdCallback;
+import com.pranavpandey.android.dynamic.ads.backend.DynamicAdLoader;
+
+import java.util.List;
+
+/**
+ * An auction to request an ad from all the ad units of a {@link DynamicAdPlacement}.
+ * <p>It must be used on the main thread where the ad callbacks are delivered.
+ *
+ * @param <T> The type of the requested ad.
+ */
+public class DynamicAdAuction<T> {
+
+    /**
+     * Constant for the auction without a winner.
+     */
+    public static final int WINNER_NONE = -1;
+
+    /**
+     * Placement used by this auction.
+     */
+    private final DynamicAdPlacement mPlacement;
+
+    /**
+     * Backend to schedule the timeout.
+     */
+    private final DynamicAdBackend mBackend;
+
+    /**
+     * Pool to keep the unused ads.
+     */
+    private final DynamicAdPool mPool;
+
+    /**
+     * Hedging to send the hedged requests.
+     */
+    private final DynamicAdHedging mHedging;
+
+    /**
+     * Time in milliseconds after which a loaded ad should not be shown.
+     */
+    private final long mExpiry;
+
+    /**
+     * Loader to request the ad from each ad unit.
+     */
+    private final DynamicAdLoader<T> mLoader;
+
+    /**
+     * Loaded ads for each ad unit.
+     */
+    private final Object[] mAds;
+
+    /**
+     * {@code true} for the ad units that have been completed.
+     */
+    private final boolean[] mCompleted;
+
+    /**
+     * Runnable to pick the best available ad after the timeout.
+     */
+    private final Runnable mTimeout;
+
+    /**
+     * Runnable to send the hedged request.
+     */
+    private final Runnable mHedge;
+
+    /**
+     * Index of the next ad unit to be requested.
+     */
+    private int mNext;
+
+    /**
+     * Number of requests in flight.
+     */
+    private int mInFlight;
+
+    /**
+     * Number of ad units that are allowed to be requested.
+     */
+    private int mAllowed;
+
+    /**
+     * Maximum number of concurrent requests.
+     */
+    private final int mConcurrency;
+
+    /**
+     * Index of the highest priority ad unit with a loaded ad.
+     * <p>The lower priority ad units will not be requested as they cannot win anymore.
+     */
+    private int mBest;
+
+    /**
+     * Index of the winning ad unit.
+     */
+    private int mWinner;
+
+    /**
+     * {@code true} if this auction has been finished.
+     */
+    private boolean mFinished;
+
+    /**
+     * {@code true} if the timeout has been scheduled.
+     */
+    private boolean mTimeoutScheduled;
+
+    /**
+     * {@code true} if the hedged request has been scheduled.
+     */
+    private boolean mHedgeScheduled;
+
+    /**
+     * Last error returned by the ad units.
+     */
+    private LoadAdError mLoadAdError;
+
+    /**
+     * Constructor to initialize an object of this class.
+     *
+     * @param placement The placement to be used.
+     * @param backend The backend to schedule the timeout.
+     * @param pool The pool to keep the unused ads.
+     * @param hedging The hedging to send the hedged requests.
+     * @param expiry The time in milliseconds after which a loaded ad should not be shown.
+     * @param loader The loader to request the ad from each ad unit.
+     */
+    public DynamicAdAuction(@NonNull DynamicAdPlacement placement,
+            @NonNull DynamicAdBackend backend, @NonNull DynamicAdPool pool,
+            @NonNull DynamicAdHedging hedging, long expiry,
+            @NonNull DynamicAdLoader<T> loader) {
+        this(placement, backend, pool, hedging, expiry, placement.getConcurrency(), loader);
+    }
+
+    /**
+     * Constructor to initialize an object of this class.
+     *
+     * @param placement The placement to be used.
+     * @param backend The backend to schedule the timeout.
+     * @param pool The pool to keep the unused ads.
+     * @param hedging The hedging to send the hedged requests.
+     * @param expiry The time in milliseconds after which a loaded ad should not be shown.
+     * @param concurrency The maximum number of concurrent requests.
+     * @param loader The loader to request the ad from each ad unit.
+     */
+    public DynamicAdAuction(@NonNull DynamicAdPlacement placement,
+            @NonNull DynamicAdBackend backend, @NonNull DynamicAdPool pool,
+            @NonNull DynamicAdHedging hedging, long expiry, int concurrency,
+            @NonNull DynamicAdLoader<T> loader) {
+        this.mPlacement = placement;
+        this.mConcurrency = Math.max(1, concurrency);
+        this.mBackend = backend;
+        this.mPool = pool;
+        this.mHedging = hedging;
+        this.mExpiry = expiry;
+        this.mLoader = loader;
+        this.mAds = new Object[placement.getAdUnitIds().size()];
+        this.mCompleted = new boolean[mAds.length];
+        this.mAllowed = isHedged() ? 1 : mAds.length;
+        this.mBest = mAds.length;
+        this.mWinner = WINNER_NONE;
+        this.mTimeout = new Runnable() {
+            @Override
+            public void run() {
+                mTimeoutScheduled = false;
+
+                onTimeout();
+            }
+        };
+        this.mHedge = new Runnable() {
+            @Override
+            public void run() {
+                mHedgeScheduled = false;
+
+                onHedge();
+            }
+        };
+    }
+
+    /**
+     * Returns the placement used by this auction.
+     *
+     * @return The placement used by this auction.
+     */
+    public @NonNull DynamicAdPlacement getPlacement() {
+        return mPlacement;
+    }
+
+    /**
+     * Returns whether this auction has been finished.
+     *
+     * @return {@code true} if this auction has been finished.
+     */
+    public boolean isFinished() {
+        return mFinished;
+    }
+
+    /**
+     * Returns whether this auction sends the hedged requests.
+     *
+     * @return {@code true} if this auction sends the hedged requests.
+     *
+     * @see DynamicAdPlacement.Strategy#HEDGED
+     */
+    public boolean isHedged() {
+        return mPlacement.getStrategy() == DynamicAdPlacement.Strategy.HEDGED;
+    }
+
+    /**
+     * Returns the winning ad unit id.
+     *
+     * @return The winning ad unit id, otherwise {@code null}.
+     */
+    public @Nullable String getWinner() {
+        return mWinner != WINNER_NONE ? getAdUnitId(mWinner) : null;
+    }
+
+    /**
+     * Returns the ad unit id at the supplied index.
+     *
+     * @param index The index to be used.
+     *
+     * @return The ad unit id at the supplied index.
+     */
+    private @NonNull String getAdUnitId(int index) {
+        return mPlacement.getAdUnitIds().get(index);
+    }
+
+    /**
+     * Start this auction by using the pooled ads or requesting the ad units.
+     */
+    void start() {
+        List<String> adUnitIds = mPlacement.getAdUnitIds();
+        long time = mBackend.elapsedRealtime();
+        for (int i = 0; i < adUnitIds.size(); i++) {
+            T ad = mPool.poll(adUnitIds.get(i), time);
+
+            if (ad != null) {
+                mAds[i] = ad;
+                mBest = i;
+                onFinish(i);
+
+                return;
+            }
+        }
+
+        if (isHedged()) {
+            mHedging.onRequest();
+        }
+
+        onRequestNext();
+    }
+
+    /**
+     * Request the next ad units within the concurrency limit.
+     */
+    private void onRequestNext() {
+        boolean requested = false;
+        while (!mFinished && mInFlight < mConcurrency
+                && mNext < Math.min(mAllowed, mBest)) {
+            final int index = mNext++;
+            mInFlight++;
+
+            try {
+                mLoader.onLoadAd(getAdUnitId(index), new DynamicAdCallback<T>() {
+                    @Override
+                    public void onAdLoaded(@NonNull T ad) {
+                        onResult(index, ad, null);
+                    }
+
+                    @Override
+                    public void onAdFailedToLoad(@NonNull LoadAdError loadAdError) {
+                        onResult(index, null, loadAdError);
+                    }
+
+                    @Override
+                    public void onAdImpression() { }
+
+                    @Override
+                    public void onAdClicked() { }
+                });
+            } catch (Exception e) {
+                onResult(index, null, new LoadAdError(AdRequest.ERROR_CODE_INTERNAL_ERROR,
+                        String.valueOf(e.getMessage()), getClass().getName(), null, null));
+            }
+
+            requested = true;
+        }
+
+        if (requested && isHedged() && !mFinished && mNext < mBest) {
+            if (mHedgeScheduled) {
+                mBackend.cancel(mHedge);
+            }
+
+            mHedgeScheduled = true;
+            mBackend.schedule(mHedge, mHedging.getDelay(getAdUnitId(mNext - 1)));
+        }
+    }
+
+    /**
+     * This method will be called when the previous ad unit has not returned within its
+     * measured tail latency.
+     */
+    private void onHedge() {
+        if (mFinished || mNext >= mBest || !mHedging.onHedge()) {
+            return;
+        }
+
+        mAllowed = mNext + 1;
+        onRequestNext();
+    }
+
+    /**
+     * This method will be called when an ad unit has been completed.
+     *
+     * @param index The index of the ad unit.
+     * @param ad The loaded ad if successful.
+     * @param loadAdError The error if failed.
+     */
+    private void onResult(int index, @Nullable T ad, @Nullable LoadAdError loadAdError) {
+        if (mCompleted[index]) {
+            return;
+        }
+
+        mCompleted[index] = true;
+        mInFlight--;
+
+        if (mFinished) {
+            if (ad != null) {
+                mPool.offer(getAdUnitId(index), ad, mBackend.elapsedRealtime(), mExpiry);
+            }
+
+            return;
+        }
+
+        if (ad != null) {
+            mAds[index] = ad;
+            mBest = Math.min(mBest, index);
+        } else {
+            if (loadAdError != null) {
+                mLoadAdError = loadAdError;
+            }
+
+            if (isHedged() && mInFlight == 0) {
+                mAllowed = mNext + 1;
+            }
+        }
+
+        onEvaluate(false);
+        onRequestNext();
+
+        if (!mFinished && mInFlight == 0 && mNext >= mBest) {
+            onEvaluate(true);
+        }
+    }
+
+    /**
+     * Pick the winner according to the rule of the placement.
+     *
+     * @param force {@code true} to pick the best available ad without waiting for the higher
+     *              priority ad units.
+     */
+    private void onEvaluate(boolean force) {
+        int available = mBest < mAds.length ? mBest : WINNER_NONE;
+        if (available == WINNER_NONE) {
+            if (force) {
+                onFinish(WINNER_NONE);
+            }
+
+            return;
+        }
+
+        if (force || isHedged() || mPlacement.getRule() == DynamicAdPlacement.Rule.FIRST) {
+            onFinish(available);
+
+            return;
+        }
+
+        for (int i = 0; i < available; i++) {
+            if (!mCompleted[i]) {
+                if (!mTimeoutScheduled && mPlacement.getTimeout() > 0) {
+                    mTimeoutScheduled = true;
+                    mBackend.schedule(mTimeout, mPlacement.getTimeout());
+                }
+
+                return;
+            }
+        }
+
+        onFinish(available);
+    }
+
+    /**
+     * This method will be called when the timeout to wait for the higher priority ad units
+     * has been passed.
+     */
+    private void onTimeout() {
+        if (!mFinished) {
+            onEvaluate(true);
+        }
+    }
+
+    /**
+     * Finish this auction and deliver the result to the loader.
+     *
+     * @param winner The index of the winning ad unit.
+     */
+    @SuppressWarnings("unchecked")
+    private void onFinish(int winner) {
+        mFinished = true;
+        mWinner = winner;
+
+        if (mTimeoutScheduled) {
+            mTimeoutScheduled = false;
+            mBackend.cancel(mTimeout);
+        }
+
+        if (mHedgeScheduled) {
+            mHedgeScheduled = false;
+            mBackend.cancel(mHedge);
+        }
+
+        long time = mBackend.elapsedRealtime();
+        for (int i = 0; i < mAds.length; i++) {
+            if (i != winner && mAds[i] != null) {
+                mPool.offer(getAdUnitId(i), mAds[i], time, mExpiry);
+                mAds[i] = null;
+            }
+        }
+
+        if (winner != WINNER_NONE) {
+            T ad = (T) mAds[winner];
+            mAds[winner] = null;
+
+            mLoader.onAdLoaded(ad);
+        } else {
+            mLoader.onAdFailedToLoad(mLoadAdError != null ? mLoadAdError
+                    : new LoadAdError(AdRequest.ERROR_CODE_NO_FILL, "No fill.",
+                    getClass().getName(), null, null));
+        }
+    }
+}
@@ -0,0 +1,279 @@
+/*
+ * Copyright 2022-2025 Pranav Pandey
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.pranavpandey.android.dynamic.ads.placement;
+
+import androidx.annotation.NonNull;
+
+import com.pranavpandey.android.dynamic.ads.metrics.DynamicAdHistogram;
+import com.pranavpandey.android.dynamic.ads.metrics.DynamicAdMetrics;
+import com.pranavpandey.android.dynamic.ads.metrics.DynamicAdUnitStore;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Helper class to decide when and how often to send a hedged ad request.
+ * <p>A hedged request is sent to the next ad unit when the previous one has not returned
+ * within its measured tail latency, while the total number of hedged requests is capped by
+ * the hedge rate.
+ *
+ * @see DynamicAdPlacement.Strategy#HEDGED
+ */
+public class DynamicAdHedging {
+
+    /**
+     * Default percentile of the load latency to wait before sending a hedged request.
+     */
+    public static final double DEFAULT_PERCENTILE = 90;
+
+    /**
+     * Default delay in milliseconds before sending a hedged request when there are not
+     * enough samples for an ad unit.
+     */
+    public static final long DEFAULT_DELAY = 1000;
+
+    /**
+     * Minimum delay in milliseconds before sending a hedged request.
+     */
+    public static final long MIN_DELAY = 100;
+
+    /**
+     * Default number of samples required to use the measured latency.
+     */
+    public static final int DEFAULT_MIN_SAMPLES = 20;
+
+    /**
+     * Default maximum ratio of the hedged requests to the primary requests.
+     */
+    public static final float DEFAULT_RATE = 0.1f;
+
+    /**
+     * Metrics to measure the latency of each ad unit.
+     */
+    private final DynamicAdMetrics mMetrics;
+
+    /**
+     * Number of primary requests.
+     */
+    private final AtomicLong mRequests;
+
+    /**
+     * Number of hedged requests.
+     */
+    private final AtomicLong mHedges;
+
+    /**
+     * Persisted load latency for each ad unit from the previous app launches.
+     */
+    private volatile Map<String, DynamicAdHistogram.Snapshot> mPersistedLatency;
+
+    /**
+     * Percentile of the load latency to wait before sending a hedged request.
+     */
+    private volatile double mPercentile;
+
+    /**
+     * Delay before sending a hedged request when there are not enough samples.
+     */
+    private volatile long mDefaultDelay;
+
+    /**
+     * Number of samples required to use the measured latency.
+     */
+    private volatile int mMinSamples;
+
+    /**
+     * Maximum ratio of the hedged requests to the primary requests.
+     */
+    private volatile float mRate;
+
+    /**
+     * Constructor to initialize an object of this class.
+     *
+     * @param metrics The metrics to measure the latency of each ad unit.
+     */
+    public DynamicAdHedging(@NonNull DynamicAdMetrics metrics) {
+        this.mMetrics = metrics;
+        this.mRequests = new AtomicLong();
+        this.mHedges = new AtomicLong();
+        this.mPersistedLatency = Collections.emptyMap();
+        this.mPercentile = DEFAULT_PERCENTILE;
+        this.mDefaultDelay = DEFAULT_DELAY;
+        this.mMinSamples = DEFAULT_MIN_SAMPLES;
+        this.mRate = DEFAULT_RATE;
+    }
+
+    /**
+     * Restore the load latency for each ad unit from the previous app launches.
+     * <p>It will be used till there are enough samples in the current process.
+     *
+     * @param records The persisted records for each ad unit.
+     *
+     * @see DynamicAdUnitStore#getRecords()
+     */
+    public void restore(@NonNull Map<String, DynamicAdUnitStore.Record> records) {
+        Map<String, DynamicAdHistogram.Snapshot> persistedLatency = new HashMap<>();
+        for (Map.Entry<String, DynamicAdUnitStore.Record> entry : records.entrySet()) {
+            persistedLatency.put(entry.getKey(), entry.getValue().getLoadLatency());
+        }
+
+        this.mPersistedLatency = persistedLatency;
+    }
+
+    /**
+     * Returns the delay before sending a hedged request after the supplied ad unit.
+     * <p>The persisted latency will be used till there are enough samples in the current
+     * process.
+     *
+     * @param adUnitId The ad unit id of the pending request.
+     *
+     * @return The delay in milliseconds before sending a hedged request.
+     *
+     * @see #restore(Map)
+     */
+    public long getDelay(@NonNull String adUnitId) {
+        DynamicAdHistogram latency = mMetrics.getUnitStats(adUnitId).getLoadLatency();
+        if (latency.getCount() >= mMinSamples) {
+            return Math.max(MIN_DELAY, latency.getPercentile(mPercentile));
+        }
+
+        DynamicAdHistogram.Snapshot persistedLatency = mPersistedLatency.get(adUnitId);
+        if (persistedLatency != null && persistedLatency.getCount() >= mMinSamples) {
+            return Math.max(MIN_DELAY, persistedLatency.getPercentile(mPercentile));
+        }
+
+        return mDefaultDelay;
+    }
+
+    /**
+     * This method will be called when a primary request has been sent.
+     */
+    public void onRequest() {
+        mRequests.incrementAndGet();
+    }
+
+    /**
+     * Try to acquire the permission to send a hedged request.
+     *
+     * @return {@code true} if a hedged request can be sent within the hedge rate.
+     */
+    public boolean onHedge() {
+        long hedges;
+        do {
+            hedges = mHedges.get();
+
+            if (hedges + 1 > mRequests.get() * mRate) {
+                return false;
+            }
+        } while (!mHedges.compareAndSet(hedges, hedges + 1));
+
+        return true;
+    }
+
+    /**
+     * Returns the number of primary requests.
+     *
+     * @return The number of primary requests.
+     */
+    public long getRequestCount() {
+        return mRequests.get();
+    }
+
+    /**
+     * Returns the number of hedged requests.
+     *
+     * @return The number of hedged requests.
+     */
+    public long getHedgeCount() {
+        return mHedges.get();
+    }
+
+    /**
+     * Returns the percentile of the load latency to wait before sending a hedged request.
+     *
+     * @return The percentile of the load latency to wait before sending a hedged request.
+     */
+    public double getPercentile() {
+        return mPercentile;
+    }
+
+    /**
+     * Sets the percentile of the load latency to wait before sending a hedged request.
+     *
+     * @param percentile The percentile to be set in the range {@code 0-100}.
+     */
+    public void setPercentile(double percentile) {
+        this.mPercentile = Math.max(0, Math.min(100, percentile));
+    }
+
+    /**
+     * Returns the delay before sending a hedged request when there are not enough samples.
+     *
+     * @return The delay in milliseconds before sending a hedged request when there are not
+     *         enough samples.
+     */
+    public long getDefaultDelay() {
+        return mDefaultDelay;
+    }
+
+    /**
+     * Sets the delay before sending a hedged request when there are not enough samples.
+     *
+     * @param defaultDelay The delay in milliseconds to be set.
+     */
+    public void setDefaultDelay(long defaultDelay) {
+        this.mDefaultDelay = Math.max(MIN_DELAY, defaultDelay);
+    }
+
+    /**
+     * Returns the number of samples required to use the measured latency.
+     *
+     * @return The number of samples required to use the measured latency.
+     */
+    public int getMinSamples() {
+        return mMinSamples;
+    }
+
+    /**
+     * Sets the number of samples required to use the measured latency.
+     *
+     * @param minSamples The number of samples to be set.
+     */
+    public void setMinSamples(int minSamples) {
+        this.mMinSamples = Math.max(1, minSamples);
+    }
+
+    /**
+     * Returns the maximum ratio of the hedged requests to the primary requests.
+     *
+     * @return The maximum ratio of the hedged requests to the primary requests.
+     */
+    public float getRate() {
+        return mRate;
+    }
+
+    /**
+     * Sets the maximum ratio of the hedged requests to the primary requests.
+     *
+     * @param rate The ratio to be set in the range {@code 0-1}.
+     */
+    public void setRate(float rate) {
+        this.mRate = Math.max(0f, Math.min(1f, rate));
+    }
+}
@@ -0,0 +1,396 @@
+/*
+ * Copyright 2022-2025 Pranav Pandey
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.pranavpandey.android.dynamic.ads.placement;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import com.pranavpandey.android.dynamic.ads.backend.DynamicAdBackend;
+import com.pranavpandey.android.dynamic.ads.backend.DynamicAdLoader;
+import com.pranavpandey.android.dynamic.ads.request.DynamicAdRequestTemplate;
+
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * A placement to request the same ad from multiple ad units in parallel.
+ * <p>Ad units are ordered by their priority, generally from the highest to the lowest floor,
+ * so that the high floor units can still win while the low floor units reduce the time to fill.
+ */
+public class DynamicAdPlacement {
+
+    /**
+     * Constant for the unlimited concurrent requests.
+     */
+    public static final int CONCURRENCY_UNLIMITED = Integer.MAX_VALUE;
+
+    /**
+     * Constant for the auction without any timeout.
+     */
+    public static final long TIMEOUT_NONE = 0;
+
+    /**
+     * Default time in milliseconds to wait for the higher priority ad units once an ad is
+     * available from a lower priority ad unit.
+     */
+    public static final long TIMEOUT_DEFAULT = 1500;
+
+    /**
+     * An interface to hold the rule constants to pick the winner.
+     */
+    @Retention(RetentionPolicy.SOURCE)
+    public @interface Rule {
+
+        /**
+         * The first loaded ad will win.
+         */
+        int FIRST = 0;
+
+        /**
+         * The ad from the highest priority ad unit will win once all the higher priority ad
+         * units have been failed or timed out.
+         */
+        int BEST = 1;
+    }
+
+    /**
+     * An interface to hold the strategy constants to request the ad units.
+     */
+    @Retention(RetentionPolicy.SOURCE)
+    public @interface Strategy {
+
+        /**
+         * All the ad units will be requested at the same time within the concurrency limit.
+         */
+        int PARALLEL = 0;
+
+        /**
+         * The next ad unit will be requested only if the previous one has been failed or has
+         * not returned within its measured tail latency, and the first loaded ad will win.
+         *
+         * @see DynamicAdHedging
+         */
+        int HEDGED = 1;
+    }
+
+    /**
+     * Ordered ad unit ids used by this placement.
+     */
+    private final List<String> mAdUnitIds;
+
+    /**
+     * Strategy to request the ad units.
+     */
+    private final int mStrategy;
+
+    /**
+     * Maximum number of concurrent requests.
+     */
+    private final int mConcurrency;
+
+    /**
+     * Rule to pick the winner.
+     */
+    private final int mRule;
+
+    /**
+     * Time to wait for the higher priority ad units.
+     */
+    private final long mTimeout;
+
+    /**
+     * Optional template to build the ad requests.
+     */
+    private final DynamicAdRequestTemplate mRequestTemplate;
+
+    /**
+     * Constructor to initialize an object of this class.
+     *
+     * @param builder The builder to be used.
+     */
+    private DynamicAdPlacement(@NonNull Builder builder) {
+        this.mAdUnitIds = Collections.unmodifiableList(new ArrayList<>(builder.mAdUnitIds));
+        this.mStrategy = builder.mStrategy;
+        this.mConcurrency = builder.mConcurrency;
+        this.mRule = builder.mRule;
+        this.mTimeout = builder.mTimeout;
+        this.mRequestTemplate = builder.mRequestTemplate;
+    }
+
+    /**
+     * Returns the ordered ad unit ids used by this placement.
+     *
+     * @return The ordered ad unit ids used by this placement.
+     */
+    public @NonNull List<String> getAdUnitIds() {
+        return mAdUnitIds;
+    }
+
+    /**
+     * Returns the strategy to request the ad units.
+     *
+     * @return The strategy to request the ad units.
+     *
+     * @see Strategy
+     */
+    public int getStrategy() {
+        return mStrategy;
+    }
+
+    /**
+     * Returns the maximum number of concurrent requests.
+     *
+     * @return The maximum number of concurrent requests.
+     */
+    public int getConcurrency() {
+        return mConcurrency;
+    }
+
+    /**
+     * Returns the rule to pick the winner.
+     *
+     * @return The rule to pick the winner.
+     *
+     * @see Rule
+     */
+    public int getRule() {
+        return mRule;
+    }
+
+    /**
+     * Returns the time to wait for the higher priority ad units.
+     *
+     * @return The time in milliseconds to wait for the higher priority ad units once an ad
+     *         is available from a lower priority ad unit.
+     */
+    public long getTimeout() {
+        return mTimeout;
+    }
+
+    /**
+     * Returns the optional template to build the ad requests.
+     *
+     * @return The optional template to build the ad requests.
+     */
+    public @Nullable DynamicAdRequestTemplate getRequestTemplate() {
+        return mRequestTemplate;
+    }
+
+    /**
+     * Request an ad from this placement.
+     * <p>The pooled ads will be used first and the loaded ads that lose the auction will be
+     * added to the pool.
+     *
+     * @param backend The backend to schedule the timeout.
+     * @param pool The pool to keep the unused ads.
+     * @param hedging The hedging to send the hedged requests.
+     * @param expiry The time in milliseconds after which a loaded ad should not be shown.
+     * @param loader The loader to request the ad from each ad unit.
+     * @param <T> The type of the requested ad.
+     *
+     * @return The auction started for this request.
+     */
+    public @NonNull <T> DynamicAdAuction<T> requestAd(@NonNull DynamicAdBackend backend,
+            @NonNull DynamicAdPool pool, @NonNull DynamicAdHedging hedging, long expiry,
+            @NonNull DynamicAdLoader<T> loader) {
+        return requestAd(backend, pool, hedging, expiry, getConcurrency(), loader);
+    }
+
+    /**
+     * Request an ad from this placement with a lower concurrency limit.
+     *
+     * @param backend The backend to schedule the timeout.
+     * @param pool The pool to keep the unused ads.
+     * @param hedging The hedging to send the hedged requests.
+     * @param expiry The time in milliseconds after which a loaded ad should not be shown.
+     * @param concurrency The maximum number of concurrent requests, it will be limited to
+     *                    the concurrency of this placement.
+     * @param loader The loader to request the ad from each ad unit.
+     * @param <T> The type of the requested ad.
+     *
+     * @return The auction started for this request.
+     *
+     * @see #requestAd(DynamicAdBackend, DynamicAdPool, DynamicAdHedging, long,
+     *      DynamicAdLoader)
+     */
+    public @NonNull <T> DynamicAdAuction<T> requestAd(@NonNull DynamicAdBackend backend,
+            @NonNull DynamicAdPool pool, @NonNull DynamicAdHedging hedging, long expiry,
+            int concurrency, @NonNull DynamicAdLoader<T> loader) {
+        DynamicAdAuction<T> auction = new DynamicAdAuction<>(this, backend, pool, hedging,
+                expiry, Math.min(getConcurrency(), concurrency), loader);
+        auction.start();
+
+        return auction;
+    }
+
+    /**
+     * Builder to create a {@link DynamicAdPlacement}.
+     */
+    public static class Builder {
+
+        /**
+         * Ordered ad unit ids used by the placement.
+         */
+        private final List<String> mAdUnitIds;
+
+        /**
+         * Strategy to request the ad units.
+         */
+        private int mStrategy;
+
+        /**
+         * Maximum number of concurrent requests.
+         */
+        private int mConcurrency;
+
+        /**
+         * Rule to pick the winner.
+         */
+        private int mRule;
+
+        /**
+         * Time to wait for the higher priority ad units.
+         */
+        private long mTimeout;
+
+        /**
+         * Optional template to build the ad requests.
+         */
+        private DynamicAdRequestTemplate mRequestTemplate;
+
+        /**
+         * Constructor to initialize an object of this class.
+         *
+         * @param adUnitIds The ad unit ids ordered by their priority.
+         */
+        public Builder(@NonNull String... adUnitIds) {
+            this.mAdUnitIds = new ArrayList<>(Arrays.asList(adUnitIds));
+            this.mStrategy = Strategy.PARALLEL;
+            this.mConcurrency = CONCURRENCY_UNLIMITED;
+            this.mRule = Rule.BEST;
+            this.mTimeout = TIMEOUT_DEFAULT;
+        }
+
+        /**
+         * Add an ad unit with a priority lower than the existing ones.
+         *
+         * @param adUnitId The ad unit id to be added.
+         *
+         * @return The {@link Builder} object to allow for chaining of calls to set methods.
+         */
+        public @NonNull Builder addAdUnitId(@NonNull String adUnitId) {
+            mAdUnitIds.add(adUnitId);
+
+            return this;
+        }
+
+        /**
+         * Set the strategy to request the ad units.
+         *
+         * @param strategy The strategy to be set.
+         *
+         * @return The {@link Builder} object to allow for chaining of calls to set methods.
+         *
+         * @see Strategy
+         */
+        public @NonNull Builder setStrategy(int strategy) {
+            this.mStrategy = strategy;
+
+            return this;
+        }
+
+        /**
+         * Set the maximum number of concurrent requests.
+         *
+         * @param concurrency The maximum number of concurrent requests.
+         *
+         * @return The {@link Builder} object to allow for chaining of calls to set methods.
+         *
+         * @see #CONCURRENCY_UNLIMITED
+         */
+        public @NonNull Builder setConcurrency(int concurrency) {
+            this.mConcurrency = Math.max(1, concurrency);
+
+            return this;
+        }
+
+        /**
+         * Set the rule to pick the winner.
+         *
+         * @param rule The rule to be set.
+         *
+         * @see Rule
+         *
+         * @return The {@link Builder} object to allow for chaining of calls to set methods.
+         */
+        public @NonNull Builder setRule(int rule) {
+            this.mRule = rule;
+
+            return this;
+        }
+
+        /**
+         * Set the time to wait for the higher priority ad units.
+         *
+         * @param timeout The time in milliseconds to wait for the higher priority ad units
+         *                once an ad is available from a lower priority ad unit.
+         *
+         * @return The {@link Builder} object to allow for chaining of calls to set methods.
+         *
+         * @see #TIMEOUT_NONE
+         */
+        public @NonNull Builder setTimeout(long timeout) {
+            this.mTimeout = Math.max(TIMEOUT_NONE, timeout);
+
+            return this;
+        }
+
+        /**
+         * Set the template to build the ad requests for this placement.
+         *
+         * @param requestTemplate The template to be set.
+         *                        <p>Use {@code null} to use the registered templates.
+         *
+         * @return The {@link Builder} object to allow for chaining of calls to set methods.
+         *
+         * @see com.pranavpandey.android.dynamic.ads.DynamicAds#getAdRequests()
+         */
+        public @NonNull Builder setRequestTemplate(
+                @Nullable DynamicAdRequestTemplate requestTemplate) {
+            this.mRequestTemplate = requestTemplate;
+
+            return this;
+        }
+
+        /**
+         * Create a new placement with the supplied parameters.
+         *
+         * @return The new placement with the supplied parameters.
+         */
+        public @NonNull DynamicAdPlacement build() {
+            if (mAdUnitIds.isEmpty()) {
+                throw new IllegalStateException("At least one ad unit id is required.");
+            }
+
+            return new DynamicAdPlacement(this);
+        }
+    }
+}
@@ -0,0 +1,337 @@
+/*
+ * Copyright 2022-2025 Pranav Pandey
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.pranavpandey.android.dynamic.ads.placement;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import com.google.android.gms.ads.BaseAdView;
+import com.google.android.gms.ads.nativead.NativeAd;
+import com.pranavpandey.android.dynamic.ads.metrics.DynamicAdUnitStore;
+
+import java.util.ArrayDeque;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * A pool to keep the loaded ads that were not used so that they can be shown later.
+ * <p>Ads will be kept for each ad unit in the order they were loaded and the expired or
+ * evicted ads will be destroyed.
+ */
+public class DynamicAdPool {
+
+    /**
+     * Default number of ads to be kept for each ad unit.
+     */
+    public static final int DEFAULT_CAPACITY = 1;
+
+    /**
+     * Ratio of the loaded ads that expired before being shown after which an ad unit will
+     * not be pooled.
+     */
+    public static final float MAX_EXPIRY_WASTE = 0.5f;
+
+    /**
+     * Minimum number of persisted loads to trust the expiry waste of an ad unit.
+     */
+    public static final int MIN_LOADS = 10;
+
+    /**
+     * Pooled ads for each ad unit.
+     */
+    private final Map<String, ArrayDeque<Entry>> mAds;
+
+    /**
+     * Number of ads to be kept for each ad unit.
+     */
+    private int mCapacity;
+
+    /**
+     * Maximum number of ads to be kept for each ad unit regardless of the capacity.
+     */
+    private int mLimit;
+
+    /**
+     * Ad units that will not be pooled as their ads mostly expire before being shown.
+     */
+    private final Map<String, Boolean> mWasted;
+
+    /**
+     * Constructor to initialize an object of this class.
+     */
+    public DynamicAdPool() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    /**
+     * Constructor to initialize an object of this class.
+     *
+     * @param capacity The number of ads to be kept for each ad unit.
+     */
+    public DynamicAdPool(int capacity) {
+        this.mAds = new HashMap<>();
+        this.mWasted = new HashMap<>();
+        this.mCapacity = Math.max(0, capacity);
+        this.mLimit = Integer.MAX_VALUE;
+    }
+
+    /**
+     * Destroy an ad that will not be shown anymore.
+     *
+     * @param ad The ad to be destroyed.
+     */
+    public static void destroy(@Nullable Object ad) {
+        if (ad instanceof NativeAd) {
+            ((NativeAd) ad).destroy();
+        } else if (ad instanceof BaseAdView) {
+            ((BaseAdView) ad).destroy();
+        }
+    }
+
+    /**
+     * Returns the number of ads to be kept for each ad unit.
+     *
+     * @return The number of ads to be kept for each ad unit.
+     */
+    public synchronized int getCapacity() {
+        return mCapacity;
+    }
+
+    /**
+     * Sets the number of ads to be kept for each ad unit.
+     * <p>The extra ads will be destroyed.
+     *
+     * @param capacity The number of ads to be kept for each ad unit.
+     */
+    public synchronized void setCapacity(int capacity) {
+        this.mCapacity = Math.max(0, capacity);
+
+        trim();
+    }
+
+    /**
+     * Returns the maximum number of ads to be kept for each ad unit regardless of the capacity.
+     *
+     * @return The maximum number of ads to be kept for each ad unit regardless of the capacity.
+     */
+    public synchronized int getLimit() {
+        return mLimit;
+    }
+
+    /**
+     * Sets the maximum number of ads to be kept for each ad unit regardless of the capacity.
+     * <p>It can be used to temporarily shrink the pool, the extra ads will be destroyed.
+     *
+     * @param limit The maximum number of ads to be kept for each ad unit.
+     */
+    public synchronized void setLimit(int limit) {
+        this.mLimit = Math.max(0, limit);
+
+        trim();
+    }
+
+    /**
+     * Restore the expiry waste for each ad unit from the previous app launches.
+     * <p>The ad units whose loaded ads mostly expired before being shown will not be pooled.
+     *
+     * @param records The persisted records for each ad unit.
+     *
+     * @see #MAX_EXPIRY_WASTE
+     * @see DynamicAdUnitStore#getRecords()
+     */
+    public synchronized void restore(@NonNull Map<String, DynamicAdUnitStore.Record> records) {
+        mWasted.clear();
+        for (Map.Entry<String, DynamicAdUnitStore.Record> entry : records.entrySet()) {
+            DynamicAdUnitStore.Record record = entry.getValue();
+            if (record.getLoads() >= MIN_LOADS
+                    && record.getExpiryWaste() >= MAX_EXPIRY_WASTE) {
+                mWasted.put(entry.getKey(), true);
+            }
+        }
+
+        trim();
+    }
+
+    /**
+     * Returns the number of ads that can be kept for an ad unit right now.
+     *
+     * @param adUnitId The ad unit id to be used.
+     *
+     * @return The number of ads that can be kept for the ad unit right now.
+     */
+    private int getAvailableCapacity(@NonNull String adUnitId) {
+        return mWasted.containsKey(adUnitId) ? 0 : Math.min(mCapacity, mLimit);
+    }
+
+    /**
+     * Destroy the extra ads that are over the available capacity.
+     */
+    private void trim() {
+        for (Map.Entry<String, ArrayDeque<Entry>> entry : mAds.entrySet()) {
+            int capacity = getAvailableCapacity(entry.getKey());
+            ArrayDeque<Entry> ads = entry.getValue();
+            while (ads.size() > capacity) {
+                destroy(ads.pollFirst().mAd);
+            }
+        }
+    }
+
+    /**
+     * Add a loaded ad to this pool.
+     * <p>The oldest ad will be destroyed if the pool is full for the ad unit.
+     *
+     * @param adUnitId The ad unit id of the loaded ad.
+     * @param ad The loaded ad to be added.
+     * @param time The time at which the ad was loaded.
+     * @param expiry The time in milliseconds after which the ad should not be shown,
+     *               {@code 0} if it never expires.
+     */
+    public synchronized void offer(@NonNull String adUnitId, @NonNull Object ad,
+            long time, long expiry) {
+        int capacity = getAvailableCapacity(adUnitId);
+        if (capacity <= 0) {
+            destroy(ad);
+
+            return;
+        }
+
+        ArrayDeque<Entry> ads = mAds.get(adUnitId);
+        if (ads == null) {
+            mAds.put(adUnitId, ads = new ArrayDeque<>());
+        }
+
+        while (ads.size() >= capacity) {
+            destroy(ads.pollFirst().mAd);
+        }
+
+        ads.offerLast(new Entry(ad, time, expiry));
+    }
+
+    /**
+     * Retrieve and remove the oldest valid ad for an ad unit.
+     * <p>The expired ads will be destroyed.
+     *
+     * @param adUnitId The ad unit id to be used.
+     * @param time The current time to check the expiry.
+     * @param <T> The type of the pooled ad.
+     *
+     * @return The oldest valid ad for the ad unit, otherwise {@code null}.
+     */
+    @SuppressWarnings("unchecked")
+    public synchronized @Nullable <T> T poll(@NonNull String adUnitId, long time) {
+        ArrayDeque<Entry> ads = mAds.get(adUnitId);
+        if (ads == null) {
+            return null;
+        }
+
+        Entry entry;
+        while ((entry = ads.pollFirst()) != null) {
+            if (!entry.isExpired(time)) {
+                return (T) entry.mAd;
+            }
+
+            destroy(entry.mAd);
+        }
+
+        return null;
+    }
+
+    /**
+     * Returns the number of pooled ads for an ad unit.
+     *
+     * @param adUnitId The ad unit id to be used.
+     *
+     * @return The number of pooled ads for the ad unit.
+     */
+    public synchronized int size(@NonNull String adUnitId) {
+        ArrayDeque<Entry> ads = mAds.get(adUnitId);
+
+        return ads != null ? ads.size() : 0;
+    }
+
+    /**
+     * Returns the number of pooled ads for all the ad units.
+     *
+     * @return The number of pooled ads for all the ad units.
+     */
+    public synchronized int size() {
+        int size = 0;
+        for (ArrayDeque<Entry> ads : mAds.values()) {
+            size += ads.size();
+        }
+
+        return size;
+    }
+
+    /**
+     * Destroy and remove all the pooled ads.
+     */
+    public synchronized void clear() {
+        for (ArrayDeque<Entry> ads : mAds.values()) {
+            for (Entry entry : ads) {
+                destroy(entry.mAd);
+            }
+        }
+
+        mAds.clear();
+    }
+
+    /**
+     * An ad kept by the pool.
+     */
+    private static class Entry {
+
+        /**
+         * The pooled ad.
+         */
+        private final Object mAd;
+
+        /**
+         * Time at which the ad was loaded.
+         */
+        private final long mTime;
+
+        /**
+         * Time in milliseconds after which the ad should not be shown.
+         */
+        private final long mExpiry;
+
+        /**
+         * Constructor to initialize an object of this class.
+         *
+         * @param ad The pooled ad.
+         * @param time The time at which the ad was loaded.
+         * @param expiry The time in milliseconds after which the ad should not be shown.
+         */
+        Entry(@NonNull Object ad, long time, long expiry) {
+            this.mAd = ad;
+            this.mTime = time;
+            this.mExpiry = expiry;
+        }
+
+        /**
+         * Checks whether this ad has been expired.
+         *
+         * @param time The current time to be used.
+         *
+         * @return {@code true} if this ad has been expired.
+         */
+        boolean isExpired(long time) {
+            return mExpiry > 0 && time - mTime > mExpiry;
+        }
+    }
+}
@@ -0,0 +1,574 @@
+/*
+ * Copyright 2022-2025 Pranav Pandey
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.pranavpandey.android.dynamic.ads.power;
+
+import android.annotation.SuppressLint;
+import android.content.BroadcastReceiver;
+import android.content.Context;
+import android.content.Intent;
+import android.content.IntentFilter;
+import android.os.Build;
+import android.os.PowerManager;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import com.pranavpandey.android.dynamic.ads.DynamicAd;
+
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Policy to reduce the ad work according to the power save mode and the thermal status.
+ * <p>The work will be reduced step by step as the device gets warmer so that the ads do not
+ * add to the device heat.
+ */
+public class DynamicAdPowerPolicy {
+
+    /**
+     * Thermal status constant when the device is not throttled.
+     *
+     * @see PowerManager#THERMAL_STATUS_NONE
+     */
+    public static final int THERMAL_STATUS_NONE = 0;
+
+    /**
+     * Thermal status constant for the moderate throttling.
+     *
+     * @see PowerManager#THERMAL_STATUS_MODERATE
+     */
+    public static final int THERMAL_STATUS_MODERATE = 2;
+
+    /**
+     * Thermal status constant for the severe throttling.
+     *
+     * @see PowerManager#THERMAL_STATUS_SEVERE
+     */
+    public static final int THERMAL_STATUS_SEVERE = 3;
+
+    /**
+     * Thermal status constant for the critical throttling.
+     *
+     * @see PowerManager#THERMAL_STATUS_CRITICAL
+     */
+    public static final int THERMAL_STATUS_CRITICAL = 4;
+
+    /**
+     * Minimum banner refresh interval in milliseconds from the reduced level.
+     */
+    public static final long REFRESH_REDUCED = 120000;
+
+    /**
+     * Constant for the policy levels.
+     */
+    @Retention(RetentionPolicy.SOURCE)
+    public @interface Level {
+
+        /**
+         * Constant to do all the ad work.
+         */
+        int NORMAL = 0;
+
+        /**
+         * Constant to disable the video media and defer the low priority ads.
+         * <p>It will be used in the power save mode or for the moderate throttling.
+         */
+        int REDUCED = 1;
+
+        /**
+         * Constant to also pause the banner refresh and disable the preload pool.
+         * <p>It will be used for the severe throttling.
+         */
+        int MINIMAL = 2;
+
+        /**
+         * Constant to defer all the ads except the high priority ones.
+         * <p>It will be used for the critical throttling or worse.
+         */
+        int SUSPENDED = 3;
+    }
+
+    /**
+     * Listener to get the callbacks when the policy level changes.
+     */
+    public interface OnLevelChangeListener {
+
+        /**
+         * This method will be called when the policy level has been changed.
+         *
+         * @param level The current policy level.
+         * @param previous The previous policy level.
+         *
+         * @see Level
+         */
+        void onLevelChanged(@Level int level, @Level int previous);
+    }
+
+    /**
+     * Context to register the power save mode receiver.
+     */
+    private final Context mContext;
+
+    /**
+     * Power manager to read the power save mode and the thermal status.
+     */
+    private final PowerManager mPowerManager;
+
+    /**
+     * Listener to get the callbacks when the policy level changes.
+     */
+    private volatile OnLevelChangeListener mListener;
+
+    /**
+     * {@code true} if the power save mode is enabled.
+     */
+    private volatile boolean mPowerSaveMode;
+
+    /**
+     * Current thermal status of the device.
+     */
+    private volatile int mThermalStatus;
+
+    /**
+     * Current policy level.
+     */
+    private volatile @Level int mLevel;
+
+    /**
+     * {@code true} if the state is being monitored.
+     */
+    private volatile boolean mMonitoring;
+
+    /**
+     * Number of ads deferred by this policy.
+     */
+    private final AtomicLong mDeferred;
+
+    /**
+     * Number of native ads requested without the video media.
+     */
+    private final AtomicLong mVideoDisabled;
+
+    /**
+     * Number of times the banner refresh has been paused.
+     */
+    private final AtomicLong mRefreshPaused;
+
+    /**
+     * Receiver to get the power save mode changes.
+     */
+    private final BroadcastReceiver mPowerSaveReceiver = new BroadcastReceiver() {
+        @Override
+        public void onReceive(Context context, Intent intent) {
+            if (mPowerManager != null) {
+                setState(mPowerManager.isPowerSaveMode(), mThermalStatus);
+            }
+        }
+    };
+
+    /**
+     * Listener to get the thermal status changes.
+     */
+    private Object mThermalListener;
+
+    /**
+     * Constructor to initialize an object of this class.
+     * <p>It will assume the normal level until the monitoring is started.
+     *
+     * @param context The context to retrieve the power manager.
+     */
+    public DynamicAdPowerPolicy(@Nullable Context context) {
+        this.mContext = context;
+        this.mPowerManager = context != null
+                ? (PowerManager) context.getSystemService(Context.POWER_SERVICE) : null;
+        this.mThermalStatus = THERMAL_STATUS_NONE;
+        this.mLevel = Level.NORMAL;
+        this.mDeferred = new AtomicLong();
+        this.mVideoDisabled = new AtomicLong();
+        this.mRefreshPaused = new AtomicLong();
+    }
+
+    /**
+     * Returns the policy level for the supplied state.
+     *
+     * @param powerSaveMode {@code true} if the power save mode is enabled.
+     * @param thermalStatus The thermal status of the device.
+     *
+     * @return The policy level for the supplied state.
+     */
+    public static @Level int getLevel(boolean powerSaveMode, int thermalStatus) {
+        if (thermalStatus >= THERMAL_STATUS_CRITICAL) {
+            return Level.SUSPENDED;
+        } else if (thermalStatus >= THERMAL_STATUS_SEVERE) {
+            return Level.MINIMAL;
+        } else if (thermalStatus >= THERMAL_STATUS_MODERATE || powerSaveMode) {
+            return Level.REDUCED;
+        }
+
+        return Level.NORMAL;
+    }
+
+    /**
+     * Start monitoring the power save mode and the thermal status.
+     *
+     * @param listener The listener to get the callbacks when the policy level changes.
+     */
+    @SuppressLint({ "NewApi", "UnspecifiedRegisterReceiverFlag" })
+    public synchronized void start(@Nullable OnLevelChangeListener listener) {
+        this.mListener = listener;
+
+        if (mMonitoring || mContext == null || mPowerManager == null) {
+            return;
+        }
+
+        try {
+            mContext.registerReceiver(mPowerSaveReceiver,
+                    new IntentFilter(PowerManager.ACTION_POWER_SAVE_MODE_CHANGED));
+
+            if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.Q) {
+                PowerManager.OnThermalStatusChangedListener thermalListener =
+                        new PowerManager.OnThermalStatusChangedListener() {
+                    @Override
+                    public void onThermalStatusChanged(int status) {
+                        setState(mPowerSaveMode, status);
+                    }
+                };
+
+                mPowerManager.addThermalStatusListener(thermalListener);
+                mThermalListener = thermalListener;
+            }
+
+            mMonitoring = true;
+            setState(mPowerManager.isPowerSaveMode(),
+                    Build.VERSION.SDK_INT >= Build.VERSION_CODES.Q
+                            ? mPowerManager.getCurrentThermalStatus() : THERMAL_STATUS_NONE);
+        } catch (Exception ignored) {
+        }
+    }
+
+    /**
+     * Stop monitoring the power save mode and the thermal status.
+     * <p>It will use the normal level afterwards.
+     */
+    @SuppressLint("NewApi")
+    public synchronized void stop() {
+        if (mMonitoring) {
+            try {
+                mContext.unregisterReceiver(mPowerSaveReceiver);
+
+                if (mThermalListener != null) {
+                    mPowerManager.removeThermalStatusListener(
+                            (PowerManager.OnThermalStatusChangedListener) mThermalListener);
+                }
+            } catch (Exception ignored) {
+            }
+        }
+
+        mMonitoring = false;
+        mThermalListener = null;
+        setState(false, THERMAL_STATUS_NONE);
+    }
+
+    /**
+     * Set the power state and notify the listener if the policy level has been changed.
+     * <p>It can be used to override the power state when the monitoring is not started.
+     *
+     * @param powerSaveMode {@code true} if the power save mode is enabled.
+     * @param thermalStatus The thermal status of the device.
+     */
+    public void setState(boolean powerSaveMode, int thermalStatus) {
+        int level = getLevel(powerSaveMode, thermalStatus);
+        int previous;
+
+        synchronized (this) {
+            previous = mLevel;
+
+            mPowerSaveMode = powerSaveMode;
+            mThermalStatus = thermalStatus;
+            mLevel = level;
+        }
+
+        OnLevelChangeListener listener = mListener;
+        if (level != previous && listener != null) {
+            listener.onLevelChanged(level, previous);
+        }
+    }
+
+    /**
+     * Returns whether the state is being monitored.
+     *
+     * @return {@code true} if the state is being monitored.
+     */
+    public boolean isMonitoring() {
+        return mMonitoring;
+    }
+
+    /**
+     * Returns whether the power save mode is enabled.
+     *
+     * @return {@code true} if the power save mode is enabled.
+     */
+    public boolean isPowerSaveMode() {
+        return mPowerSaveMode;
+    }
+
+    /**
+     * Returns the current thermal status of the device.
+     *
+     * @return The current thermal status of the device.
+     */
+    public int getThermalStatus() {
+        return mThermalStatus;
+    }
+
+    /**
+     * Returns the current policy level.
+     *
+     * @return The current policy level.
+     *
+     * @see Level
+     */
+    public @Level int getLevel() {
+        return mLevel;
+    }
+
+    /**
+     * Checks whether the supplied ad should be deferred for the current policy level.
+     * <p>The low priority ads will be deferred from the reduced level and all the ads except
+     * the high priority ones from the suspended level.
+     *
+     * @param dynamicAd The dynamic ad to be checked.
+     *
+     * @return {@code true} if the supplied ad should be deferred.
+     */
+    public boolean isSuspended(@NonNull DynamicAd dynamicAd) {
+        int level = getLevel();
+        int priority = dynamicAd.getAdPriority();
+
+        return (level >= Level.SUSPENDED && priority < DynamicAd.Priority.HIGH)
+                || (level >= Level.REDUCED && priority <= DynamicAd.Priority.LOW);
+    }
+
+    /**
+     * Checks whether the supplied ad should be deferred and record the decision.
+     *
+     * @param dynamicAd The dynamic ad to be checked.
+     *
+     * @return {@code true} if the supplied ad has been deferred.
+     *
+     * @see #isSuspended(DynamicAd)
+     */
+    public boolean onDefer(@NonNull DynamicAd dynamicAd) {
+        if (!isSuspended(dynamicAd)) {
+            return false;
+        }
+
+        mDeferred.incrementAndGet();
+        return true;
+    }
+
+    /**
+     * Checks whether the video media is allowed for the native ads.
+     *
+     * @return {@code true} if the video media is allowed for the native ads.
+     */
+    public boolean isVideoAllowed() {
+        return getLevel() < Level.REDUCED;
+    }
+
+    /**
+     * This method will be called when a native ad has been requested without the video media.
+     */
+    public void onVideoDisabled() {
+        mVideoDisabled.incrementAndGet();
+    }
+
+    /**
+     * Checks whether the banner ads can refresh automatically.
+     *
+     * @return {@code true} if the banner ads can refresh automatically.
+     */
+    public boolean isRefreshAllowed() {
+        return getLevel() < Level.MINIMAL;
+    }
+
+    /**
+     * Returns the banner refresh interval for the current policy level.
+     * <p>It will be lengthened to at least {@link #REFRESH_REDUCED} from the reduced level.
+     *
+     * @param interval The configured refresh interval in milliseconds.
+     *
+     * @return The banner refresh interval in milliseconds for the current policy level.
+     *
+     * @see com.pranavpandey.android.dynamic.ads.device.DynamicAdDeviceProfile#REFRESH_DEFAULT
+     */
+    public long getRefreshInterval(long interval) {
+        if (getLevel() >= Level.REDUCED) {
+            return Math.max(interval, REFRESH_REDUCED);
+        }
+
+        return interval;
+    }
+
+    /**
+     * This method will be called when the banner refresh has been paused.
+     */
+    public void onRefreshPaused() {
+        mRefreshPaused.incrementAndGet();
+    }
+
+    /**
+     * Returns the number of ads to be kept in the preload pool for each ad unit.
+     *
+     * @param capacity The configured capacity of the preload pool.
+     *
+     * @return The number of ads to be kept in the preload pool for each ad unit.
+     */
+    public int getPoolCapacity(int capacity) {
+        int level = getLevel();
+        if (level >= Level.MINIMAL) {
+            return 0;
+        } else if (level >= Level.REDUCED) {
+            return Math.min(capacity, 1);
+        }
+
+        return capacity;
+    }
+
+    /**
+     * Returns an immutable snapshot of the decisions taken by this policy.
+     *
+     * @return An immutable snapshot of the decisions taken by this policy.
+     */
+    public @NonNull Snapshot getSnapshot() {
+        return new Snapshot(getLevel(), isPowerSaveMode(), getThermalStatus(),
+                mDeferred.get(), mVideoDisabled.get(), mRefreshPaused.get());
+    }
+
+    /**
+     * An immutable snapshot of the {@link DynamicAdPowerPolicy}.
+     */
+    public static class Snapshot {
+
+        /**
+         * Policy level at the time of this snapshot.
+         */
+        private final @Level int mLevel;
+
+        /**
+         * {@code true} if the power save mode was enabled.
+         */
+        private final boolean mPowerSaveMode;
+
+        /**
+         * Thermal status of the device.
+         */
+        private final int mThermalStatus;
+
+        /**
+         * Number of ads deferred by the policy.
+         */
+        private final long mDeferred;
+
+        /**
+         * Number of native ads requested without the video media.
+         */
+        private final long mVideoDisabled;
+
+        /**
+         * Number of times the banner refresh has been paused.
+         */
+        private final long mRefreshPaused;
+
+        /**
+         * Constructor to initialize an object of this class.
+         *
+         * @param level The policy level.
+         * @param powerSaveMode {@code true} if the power save mode was enabled.
+         * @param thermalStatus The thermal status of the device.
+         * @param deferred The number of ads deferred by the policy.
+         * @param videoDisabled The number of native ads requested without the video media.
+         * @param refreshPaused The number of times the banner refresh has been paused.
+         */
+        public Snapshot(@Level int level, boolean powerSaveMode, int thermalStatus,
+                long deferred, long videoDisabled, long refreshPaused) {
+            this.mLevel = level;
+            this.mPowerSaveMode = powerSaveMode;
+            this.mThermalStatus = thermalStatus;
+            this.mDeferred = deferred;
+            this.mVideoDisabled = videoDisabled;
+            this.mRefreshPaused = refreshPaused;
+        }
+
+        /**
+         * Returns the policy level.
+         *
+         * @return The policy level.
+         *
+         * @see Level
+         */
+        public @Level int getLevel() {
+            return mLevel;
+        }
+
+        /**
+         * Returns whether the power save mode was enabled.
+         *
+         * @return {@code true} if the power save mode was enabled.
+         */
+        public boolean isPowerSaveMode() {
+            return mPowerSaveMode;
+        }
+
+        /**
+         * Returns the thermal status of the device.
+         *
+         * @return The thermal status of the device.
+         */
+        public int getThermalStatus() {
+            return mThermalStatus;
+        }
+
+        /**
+         * Returns the number of ads deferred by the policy.
+         *
+         * @return The number of ads deferred by the policy.
+         */
+        public long getDeferred() {
+            return mDeferred;
+        }
+
+        /**
+         * Returns the number of native ads requested without the video media.
+         *
+         * @return The number of native ads requested without the video media.
+         */
+        public long getVideoDisabled() {
+            return mVideoDisabled;
+        }
+
+        /**
+         * Returns the number of times the banner refresh has been paused.
+         *
+         * @return The number of times the banner refresh has been paused.
+         */
+        public long getRefreshPaused() {
+            return mRefreshPaused;
+        }
+    }
+}
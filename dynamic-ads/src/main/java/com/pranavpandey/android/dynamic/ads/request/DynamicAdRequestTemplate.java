@@ -0,0 +1,335 @@
+/*
+ * Copyright 2022-2025 Pranav Pandey
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.pranavpandey.android.dynamic.ads.request;
+
+import android.annotation.SuppressLint;
+import android.os.Bundle;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import com.google.ads.mediation.admob.AdMobAdapter;
+import com.google.android.gms.ads.AdRequest;
+import com.google.android.gms.ads.mediation.MediationExtrasReceiver;
+import com.pranavpandey.android.dynamic.ads.consent.DynamicAdConsent;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * An immutable template to build the ad requests.
+ * <p>The ad request is built only once and reused for all the loads as it cannot be modified
+ * after it has been built.
+ */
+public class DynamicAdRequestTemplate {
+
+    /**
+     * Default template without any targeting.
+     */
+    public static final DynamicAdRequestTemplate DEFAULT = new Builder().build();
+
+    /**
+     * Keywords used by this template.
+     */
+    private final Set<String> mKeywords;
+
+    /**
+     * Content url used by this template.
+     */
+    private final String mContentUrl;
+
+    /**
+     * Neighboring content urls used by this template.
+     */
+    private final List<String> mNeighboringContentUrls;
+
+    /**
+     * Custom targeting used by this template.
+     */
+    private final Map<String, String> mCustomTargeting;
+
+    /**
+     * Network extras used by this template.
+     */
+    private final Map<Class<? extends MediationExtrasReceiver>, Bundle> mNetworkExtras;
+
+    /**
+     * Ad request built from this template.
+     */
+    private volatile AdRequest mAdRequest;
+
+    /**
+     * Non-personalized ad request built from this template.
+     */
+    private volatile AdRequest mNonPersonalizedAdRequest;
+
+    /**
+     * Constructor to initialize an object of this class.
+     *
+     * @param builder The builder to be used.
+     */
+    private DynamicAdRequestTemplate(@NonNull Builder builder) {
+        this.mKeywords = Collections.unmodifiableSet(
+                new LinkedHashSet<>(builder.mKeywords));
+        this.mContentUrl = builder.mContentUrl;
+        this.mNeighboringContentUrls = Collections.unmodifiableList(
+                new ArrayList<>(builder.mNeighboringContentUrls));
+        this.mCustomTargeting = Collections.unmodifiableMap(
+                new LinkedHashMap<>(builder.mCustomTargeting));
+        this.mNetworkExtras = Collections.unmodifiableMap(
+                new LinkedHashMap<>(builder.mNetworkExtras));
+    }
+
+    /**
+     * Returns the keywords used by this template.
+     *
+     * @return The keywords used by this template.
+     */
+    public @NonNull Set<String> getKeywords() {
+        return mKeywords;
+    }
+
+    /**
+     * Returns the content url used by this template.
+     *
+     * @return The content url used by this template.
+     */
+    public @Nullable String getContentUrl() {
+        return mContentUrl;
+    }
+
+    /**
+     * Returns the neighboring content urls used by this template.
+     *
+     * @return The neighboring content urls used by this template.
+     */
+    public @NonNull List<String> getNeighboringContentUrls() {
+        return mNeighboringContentUrls;
+    }
+
+    /**
+     * Returns the custom targeting used by this template.
+     *
+     * @return The custom targeting used by this template.
+     */
+    public @NonNull Map<String, String> getCustomTargeting() {
+        return mCustomTargeting;
+    }
+
+    /**
+     * Returns the ad request built from this template.
+     * <p>It will be built on the first access and reused afterwards.
+     *
+     * @return The ad request built from this template.
+     */
+    public @NonNull AdRequest getAdRequest() {
+        return getAdRequest(false);
+    }
+
+    /**
+     * Returns the ad request built from this template.
+     * <p>It will be built on the first access and reused afterwards.
+     *
+     * @param nonPersonalized {@code true} to request the non-personalized ads.
+     *
+     * @return The ad request built from this template.
+     *
+     * @see DynamicAdConsent#EXTRA_NPA
+     */
+    @SuppressLint("VisibleForTests")
+    public @NonNull AdRequest getAdRequest(boolean nonPersonalized) {
+        AdRequest adRequest = nonPersonalized ? mNonPersonalizedAdRequest : mAdRequest;
+        if (adRequest == null) {
+            synchronized (this) {
+                adRequest = nonPersonalized ? mNonPersonalizedAdRequest : mAdRequest;
+
+                if (adRequest == null && nonPersonalized) {
+                    AdRequest.Builder builder = toBuilder();
+                    Bundle extras = mNetworkExtras.get(AdMobAdapter.class);
+                    extras = extras != null ? new Bundle(extras) : new Bundle();
+                    extras.putString(DynamicAdConsent.EXTRA_NPA, "1");
+                    builder.addNetworkExtrasBundle(AdMobAdapter.class, extras);
+
+                    mNonPersonalizedAdRequest = adRequest = builder.build();
+                } else if (adRequest == null) {
+                    mAdRequest = adRequest = toBuilder().build();
+                }
+            }
+        }
+
+        return adRequest;
+    }
+
+    /**
+     * Returns a new ad request builder with the values of this template.
+     *
+     * @return A new ad request builder with the values of this template.
+     */
+    @SuppressLint("VisibleForTests")
+    public @NonNull AdRequest.Builder toBuilder() {
+        AdRequest.Builder builder = new AdRequest.Builder();
+
+        for (String keyword : mKeywords) {
+            builder.addKeyword(keyword);
+        }
+
+        if (mContentUrl != null) {
+            builder.setContentUrl(mContentUrl);
+        }
+
+        if (!mNeighboringContentUrls.isEmpty()) {
+            builder.setNeighboringContentUrls(mNeighboringContentUrls);
+        }
+
+        for (Map.Entry<String, String> entry : mCustomTargeting.entrySet()) {
+            builder.addCustomTargeting(entry.getKey(), entry.getValue());
+        }
+
+        for (Map.Entry<Class<? extends MediationExtrasReceiver>, Bundle> entry
+                : mNetworkExtras.entrySet()) {
+            builder.addNetworkExtrasBundle(entry.getKey(), new Bundle(entry.getValue()));
+        }
+
+        return builder;
+    }
+
+    /**
+     * Builder to create a {@link DynamicAdRequestTemplate}.
+     */
+    public static class Builder {
+
+        /**
+         * Keywords used by the template.
+         */
+        private final Set<String> mKeywords;
+
+        /**
+         * Content url used by the template.
+         */
+        private String mContentUrl;
+
+        /**
+         * Neighboring content urls used by the template.
+         */
+        private final List<String> mNeighboringContentUrls;
+
+        /**
+         * Custom targeting used by the template.
+         */
+        private final Map<String, String> mCustomTargeting;
+
+        /**
+         * Network extras used by the template.
+         */
+        private final Map<Class<? extends MediationExtrasReceiver>, Bundle> mNetworkExtras;
+
+        /**
+         * Constructor to initialize an object of this class.
+         */
+        public Builder() {
+            this.mKeywords = new LinkedHashSet<>();
+            this.mNeighboringContentUrls = new ArrayList<>();
+            this.mCustomTargeting = new LinkedHashMap<>();
+            this.mNetworkExtras = new LinkedHashMap<>();
+        }
+
+        /**
+         * Add a keyword for the targeting.
+         *
+         * @param keyword The keyword to be added.
+         *
+         * @return The {@link Builder} object to allow for chaining of calls to set methods.
+         */
+        public @NonNull Builder addKeyword(@NonNull String keyword) {
+            mKeywords.add(keyword);
+
+            return this;
+        }
+
+        /**
+         * Set the content url for the targeting.
+         *
+         * @param contentUrl The content url to be set.
+         *
+         * @return The {@link Builder} object to allow for chaining of calls to set methods.
+         */
+        public @NonNull Builder setContentUrl(@Nullable String contentUrl) {
+            this.mContentUrl = contentUrl;
+
+            return this;
+        }
+
+        /**
+         * Set the neighboring content urls for the targeting.
+         *
+         * @param neighboringContentUrls The neighboring content urls to be set.
+         *
+         * @return The {@link Builder} object to allow for chaining of calls to set methods.
+         */
+        public @NonNull Builder setNeighboringContentUrls(
+                @NonNull List<String> neighboringContentUrls) {
+            mNeighboringContentUrls.clear();
+            mNeighboringContentUrls.addAll(neighboringContentUrls);
+
+            return this;
+        }
+
+        /**
+         * Add a custom targeting key-value pair.
+         *
+         * @param key The key to be added.
+         * @param value The value to be added.
+         *
+         * @return The {@link Builder} object to allow for chaining of calls to set methods.
+         */
+        public @NonNull Builder addCustomTargeting(@NonNull String key, @NonNull String value) {
+            mCustomTargeting.put(key, value);
+
+            return this;
+        }
+
+        /**
+         * Add the extras for a mediation adapter.
+         *
+         * @param adapterClass The mediation adapter class.
+         * @param networkExtras The extras to be added.
+         *
+         * @return The {@link Builder} object to allow for chaining of calls to set methods.
+         */
+        public @NonNull Builder addNetworkExtrasBundle(
+                @NonNull Class<? extends MediationExtrasReceiver> adapterClass,
+                @NonNull Bundle networkExtras) {
+            mNetworkExtras.put(adapterClass, new Bundle(networkExtras));
+
+            return this;
+        }
+
+        /**
+         * Create a new template with the supplied parameters.
+         *
+         * @return The new template with the supplied parameters.
+         */
+        public @NonNull DynamicAdRequestTemplate build() {
+            return new DynamicAdRequestTemplate(this);
+        }
+    }
+}
@@ -0,0 +1,215 @@
+/*
+ * Copyright 2022-2025 Pranav Pandey
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.pranavpandey.android.dynamic.ads.request;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import com.google.android.gms.ads.AdRequest;
+import com.google.android.gms.ads.RequestConfiguration;
+import com.pranavpandey.android.dynamic.ads.backend.DynamicAdBackend;
+
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Registry to keep the ad request templates for each ad unit or ad format.
+ * <p>It also applies the request configuration only if its content has been changed.
+ */
+public class DynamicAdRequests {
+
+    /**
+     * Templates for each key.
+     */
+    private final ConcurrentHashMap<String, DynamicAdRequestTemplate> mTemplates;
+
+    /**
+     * Default template if there is no template for a key.
+     */
+    private volatile DynamicAdRequestTemplate mDefaultTemplate;
+
+    /**
+     * Last request configuration applied to the backend.
+     */
+    private RequestConfiguration mRequestConfiguration;
+
+    /**
+     * Backend on which the last request configuration was applied.
+     */
+    private DynamicAdBackend mBackend;
+
+    /**
+     * Number of times the request configuration has been applied.
+     */
+    private int mUpdates;
+
+    /**
+     * Constructor to initialize an object of this class.
+     */
+    public DynamicAdRequests() {
+        this.mTemplates = new ConcurrentHashMap<>();
+        this.mDefaultTemplate = DynamicAdRequestTemplate.DEFAULT;
+    }
+
+    /**
+     * Returns the default template if there is no template for a key.
+     *
+     * @return The default template if there is no template for a key.
+     */
+    public @NonNull DynamicAdRequestTemplate getDefaultTemplate() {
+        return mDefaultTemplate;
+    }
+
+    /**
+     * Set the default template if there is no template for a key.
+     *
+     * @param template The template to be set.
+     *                 <p>Use {@code null} to set the template without any targeting.
+     */
+    public void setDefaultTemplate(@Nullable DynamicAdRequestTemplate template) {
+        this.mDefaultTemplate = template != null ? template : DynamicAdRequestTemplate.DEFAULT;
+    }
+
+    /**
+     * Set the template for an ad unit or ad format.
+     *
+     * @param key The ad unit id or the ad format to be used.
+     * @param template The template to be set.
+     *                 <p>Use {@code null} to remove the template.
+     */
+    public void setTemplate(@NonNull String key, @Nullable DynamicAdRequestTemplate template) {
+        if (template != null) {
+            mTemplates.put(key, template);
+        } else {
+            mTemplates.remove(key);
+        }
+    }
+
+    /**
+     * Returns the template for an ad unit or ad format.
+     *
+     * @param key The ad unit id or the ad format to be used.
+     *
+     * @return The template for an ad unit or ad format if available.
+     */
+    public @Nullable DynamicAdRequestTemplate getTemplate(@NonNull String key) {
+        return mTemplates.get(key);
+    }
+
+    /**
+     * Returns the ad request for the supplied keys.
+     * <p>The first key with a template will be used, otherwise the default template.
+     *
+     * @param keys The ad unit ids or the ad formats ordered by their priority.
+     *
+     * @return The ad request for the supplied keys.
+     */
+    public @NonNull AdRequest getAdRequest(@NonNull String... keys) {
+        return getAdRequest(false, keys);
+    }
+
+    /**
+     * Returns the ad request for the supplied keys.
+     * <p>The first key with a template will be used, otherwise the default template.
+     *
+     * @param nonPersonalized {@code true} to request the non-personalized ads.
+     * @param keys The ad unit ids or the ad formats ordered by their priority.
+     *
+     * @return The ad request for the supplied keys.
+     *
+     * @see DynamicAdRequestTemplate#getAdRequest(boolean)
+     */
+    public @NonNull AdRequest getAdRequest(boolean nonPersonalized, @NonNull String... keys) {
+        for (String key : keys) {
+            DynamicAdRequestTemplate template = mTemplates.get(key);
+
+            if (template != null) {
+                return template.getAdRequest(nonPersonalized);
+            }
+        }
+
+        return mDefaultTemplate.getAdRequest(nonPersonalized);
+    }
+
+    /**
+     * Apply the request configuration on the supplied backend if its content has been changed
+     * since the last update.
+     *
+     * @param backend The backend to be used.
+     * @param requestConfiguration The request configuration to be applied.
+     *
+     * @return {@code true} if the request configuration has been applied.
+     */
+    public synchronized boolean setRequestConfiguration(@NonNull DynamicAdBackend backend,
+            @NonNull RequestConfiguration requestConfiguration) {
+        if (backend == mBackend && equals(requestConfiguration, mRequestConfiguration)) {
+            return false;
+        }
+
+        backend.setRequestConfiguration(requestConfiguration);
+        mBackend = backend;
+        mRequestConfiguration = requestConfiguration;
+        mUpdates++;
+
+        return true;
+    }
+
+    /**
+     * Returns the number of times the request configuration has been applied.
+     *
+     * @return The number of times the request configuration has been applied.
+     */
+    public synchronized int getUpdates() {
+        return mUpdates;
+    }
+
+    /**
+     * Checks whether the supplied request configurations have the same content.
+     *
+     * @param first The first request configuration to be compared.
+     * @param second The second request configuration to be compared.
+     *
+     * @return {@code true} if the supplied request configurations have the same content.
+     */
+    public static boolean equals(@Nullable RequestConfiguration first,
+            @Nullable RequestConfiguration second) {
+        if (first == second) {
+            return true;
+        } else if (first == null || second == null) {
+            return false;
+        }
+
+        return first.getTagForChildDirectedTreatment()
+                == second.getTagForChildDirectedTreatment()
+                && first.getTagForUnderAgeOfConsent() == second.getTagForUnderAgeOfConsent()
+                && equals(first.getMaxAdContentRating(), second.getMaxAdContentRating())
+                && equals(first.getTestDeviceIds(), second.getTestDeviceIds())
+                && equals(first.getPublisherPrivacyPersonalizationState(),
+                        second.getPublisherPrivacyPersonalizationState());
+    }
+
+    /**
+     * Checks whether the supplied objects are equal.
+     *
+     * @param first The first object to be compared.
+     * @param second The second object to be compared.
+     *
+     * @return {@code true} if the supplied objects are equal.
+     */
+    private static boolean equals(@Nullable Object first, @Nullable Object second) {
+        return first == null ? second == null : first.equals(second);
+    }
+}
@@ -0,0 +1,300 @@
+/*
+ * Copyright 2022-2025 Pranav Pandey
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.pranavpandey.android.dynamic.ads.scheduler;
+
+import android.os.Build;
+import android.os.Handler;
+import android.os.Looper;
+import android.os.Message;
+import android.os.SystemClock;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import com.pranavpandey.android.dynamic.ads.DynamicAd;
+
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+
+/**
+ * A dispatcher to run the ad work on the main thread according to its priority.
+ * <p>The critical work jumps the queue as an asynchronous message so that it is not blocked by
+ * the sync barriers, the normal work is posted as usual and the speculative work waits for an
+ * idle slot. The pending work can be cancelled by its token.
+ */
+public class DynamicAdDispatcher {
+
+    /**
+     * An interface to hold the dispatch priority constants.
+     */
+    @Retention(RetentionPolicy.SOURCE)
+    public @interface Priority {
+
+        /**
+         * Constant for the speculative work that can be deferred till the main looper is idle.
+         */
+        int SPECULATIVE = 0;
+
+        /**
+         * Constant for the normal work.
+         */
+        int NORMAL = 1;
+
+        /**
+         * Constant for the work that the user is waiting on.
+         */
+        int CRITICAL = 2;
+    }
+
+    /**
+     * Main thread handler to run the work.
+     */
+    private final Handler mHandler;
+
+    /**
+     * Idle scheduler to run the speculative work.
+     */
+    private final DynamicAdIdleScheduler mIdleScheduler;
+
+    /**
+     * Critical work waiting to be run.
+     */
+    private final Deque<Work> mCritical;
+
+    /**
+     * Speculative work waiting for an idle slot.
+     */
+    private final List<Work> mSpeculative;
+
+    /**
+     * Runnable to run all the critical work in order.
+     */
+    private final Runnable mDrain;
+
+    /**
+     * {@code true} if a message has been sent to run the critical work.
+     */
+    private boolean mDraining;
+
+    /**
+     * Constructor to initialize an object of this class.
+     *
+     * @param idleScheduler The idle scheduler to run the speculative work.
+     */
+    public DynamicAdDispatcher(@NonNull DynamicAdIdleScheduler idleScheduler) {
+        this.mHandler = new Handler(Looper.getMainLooper());
+        this.mIdleScheduler = idleScheduler;
+        this.mCritical = new ArrayDeque<>();
+        this.mSpeculative = new ArrayList<>();
+        this.mDrain = new Runnable() {
+            @Override
+            public void run() {
+                drain();
+            }
+        };
+    }
+
+    /**
+     * Checks whether the supplied ad format is shown in full screen.
+     *
+     * @param format The ad format to be checked.
+     *
+     * @return {@code true} if the supplied ad format is shown in full screen.
+     *
+     * @see DynamicAd.Format
+     */
+    public static boolean isFullScreenFormat(@Nullable String format) {
+        return DynamicAd.Format.INTERSTITIAL.equals(format)
+                || DynamicAd.Format.REWARDED.equals(format)
+                || DynamicAd.Format.REWARDED_INTERSTITIAL.equals(format)
+                || DynamicAd.Format.APP_OPEN.equals(format);
+    }
+
+    /**
+     * Returns the dispatch priority for the supplied ad.
+     * <p>A loaded full screen ad is about to be shown so it will be critical along with the
+     * critical ads, and the low priority ads will be speculative.
+     *
+     * @param dynamicAd The dynamic ad to be used.
+     *
+     * @return The dispatch priority for the supplied ad.
+     *
+     * @see DynamicAd.Priority
+     */
+    public static int getPriority(@NonNull DynamicAd dynamicAd) {
+        if (dynamicAd.getAdPriority() >= DynamicAd.Priority.CRITICAL
+                || (isFullScreenFormat(dynamicAd.getAdFormat()) && dynamicAd.isAdLoaded())) {
+            return Priority.CRITICAL;
+        }
+
+        return dynamicAd.getAdPriority() <= DynamicAd.Priority.LOW
+                ? Priority.SPECULATIVE : Priority.NORMAL;
+    }
+
+    /**
+     * Run a work on the main thread.
+     *
+     * @param priority The priority of the work.
+     * @param runnable The work to be run.
+     *
+     * @see Priority
+     */
+    public void post(int priority, @NonNull Runnable runnable) {
+        post(priority, null, runnable);
+    }
+
+    /**
+     * Run a work on the main thread.
+     *
+     * @param priority The priority of the work.
+     * @param token The optional token to cancel the work.
+     * @param runnable The work to be run.
+     *
+     * @see Priority
+     * @see #cancel(Object)
+     */
+    public void post(int priority, @Nullable Object token, @NonNull Runnable runnable) {
+        if (priority >= Priority.CRITICAL) {
+            synchronized (this) {
+                mCritical.addLast(new Work(token, runnable));
+
+                if (mDraining) {
+                    return;
+                }
+
+                mDraining = true;
+            }
+
+            Message message = Message.obtain(mHandler, mDrain);
+            if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.LOLLIPOP_MR1) {
+                message.setAsynchronous(true);
+            }
+
+            mHandler.sendMessageAtFrontOfQueue(message);
+        } else if (priority <= Priority.SPECULATIVE) {
+            final Work work = new Work(token, runnable);
+            synchronized (this) {
+                mSpeculative.add(work);
+            }
+
+            mIdleScheduler.post(new Runnable() {
+                @Override
+                public void run() {
+                    synchronized (DynamicAdDispatcher.this) {
+                        if (!mSpeculative.remove(work)) {
+                            return;
+                        }
+                    }
+
+                    work.mRunnable.run();
+                }
+            });
+        } else if (token != null) {
+            mHandler.postAtTime(runnable, token, SystemClock.uptimeMillis());
+        } else {
+            mHandler.post(runnable);
+        }
+    }
+
+    /**
+     * Cancel all the pending work for a token.
+     *
+     * @param token The token of the work.
+     */
+    public void cancel(@NonNull Object token) {
+        mHandler.removeCallbacksAndMessages(token);
+
+        synchronized (this) {
+            remove(mCritical, token);
+            remove(mSpeculative, token);
+        }
+    }
+
+    /**
+     * Remove the work for a token.
+     *
+     * @param works The works to be used.
+     * @param token The token of the work.
+     */
+    private static void remove(@NonNull Iterable<Work> works, @NonNull Object token) {
+        Iterator<Work> iterator = works.iterator();
+        while (iterator.hasNext()) {
+            if (iterator.next().mToken == token) {
+                iterator.remove();
+            }
+        }
+    }
+
+    /**
+     * Run all the critical work in order.
+     */
+    private void drain() {
+        while (true) {
+            Work work;
+            synchronized (this) {
+                if ((work = mCritical.pollFirst()) == null) {
+                    mDraining = false;
+
+                    return;
+                }
+            }
+
+            work.mRunnable.run();
+        }
+    }
+
+    /**
+     * Returns the number of pending critical and speculative work.
+     *
+     * @return The number of pending critical and speculative work.
+     */
+    public synchronized int getPending() {
+        return mCritical.size() + mSpeculative.size();
+    }
+
+    /**
+     * A work to be run by the dispatcher.
+     */
+    private static class Work {
+
+        /**
+         * Optional token to cancel the work.
+         */
+        private final Object mToken;
+
+        /**
+         * Work to be run.
+         */
+        private final Runnable mRunnable;
+
+        /**
+         * Constructor to initialize an object of this class.
+         *
+         * @param token The optional token to cancel the work.
+         * @param runnable The work to be run.
+         */
+        Work(@Nullable Object token, @NonNull Runnable runnable) {
+            this.mToken = token;
+            this.mRunnable = runnable;
+        }
+    }
+}
@@ -0,0 +1,354 @@
+/*
+ * Copyright 2022-2025 Pranav Pandey
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.pranavpandey.android.dynamic.ads.scheduler;
+
+import android.os.Handler;
+import android.os.Looper;
+import android.os.MessageQueue;
+import android.os.SystemClock;
+
+import androidx.annotation.NonNull;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+
+/**
+ * A scheduler to run the preparatory ad work when the main looper is idle.
+ * <p>Each idle slot has a strict time budget, the remaining tasks or a task with more work
+ * will be resumed in the next idle slot so that the work never competes with the frames.
+ */
+public class DynamicAdIdleScheduler implements MessageQueue.IdleHandler {
+
+    /**
+     * Default time budget in milliseconds for each idle slot.
+     */
+    public static final long DEFAULT_BUDGET = 4;
+
+    /**
+     * Maximum number of idle slots in a row to wake up the main looper immediately.
+     */
+    public static final int MAX_WAKE_UPS = 8;
+
+    /**
+     * Delay in milliseconds to wake up the main looper after the maximum wake-ups in a row.
+     * <p>It is around one frame so that a task with more work cannot spin the main thread.
+     */
+    public static final long WAKE_UP_DELAY = 16;
+
+    /**
+     * An interface to run the work in one or more idle slots.
+     */
+    public interface Task {
+
+        /**
+         * Run the work for this task till the supplied deadline.
+         *
+         * @param deadline The uptime in milliseconds by which this slot should be finished.
+         *
+         * @return {@code true} if the task has more work to be resumed in the next idle slot.
+         *
+         * @see SystemClock#uptimeMillis()
+         */
+        boolean run(long deadline);
+    }
+
+    /**
+     * Main thread handler to register the idle handler.
+     */
+    private final Handler mHandler;
+
+    /**
+     * Tasks waiting for an idle slot.
+     */
+    private final Deque<Task> mTasks;
+
+    /**
+     * Runnable to register the idle handler on the main thread.
+     */
+    private final Runnable mRegister;
+
+    /**
+     * Empty runnable to wake up the main looper for another idle slot.
+     */
+    private final Runnable mWakeUp;
+
+    /**
+     * Time budget in milliseconds for each idle slot.
+     */
+    private long mBudget;
+
+    /**
+     * {@code true} if the idle handler has been registered.
+     */
+    private boolean mRegistered;
+
+    /**
+     * Number of idle slots in a row that woke up the main looper.
+     */
+    private int mWakeUps;
+
+    /**
+     * Number of used idle slots.
+     */
+    private long mSlots;
+
+    /**
+     * Number of finished tasks.
+     */
+    private long mFinished;
+
+    /**
+     * Number of idle slots that exceeded the time budget.
+     */
+    private long mOverruns;
+
+    /**
+     * Constructor to initialize an object of this class.
+     */
+    public DynamicAdIdleScheduler() {
+        this.mHandler = new Handler(Looper.getMainLooper());
+        this.mTasks = new ArrayDeque<>();
+        this.mBudget = DEFAULT_BUDGET;
+        this.mRegister = new Runnable() {
+            @Override
+            public void run() {
+                Looper.myQueue().addIdleHandler(DynamicAdIdleScheduler.this);
+            }
+        };
+        this.mWakeUp = new Runnable() {
+            @Override
+            public void run() { }
+        };
+    }
+
+    /**
+     * Returns the time budget in milliseconds for each idle slot.
+     *
+     * @return The time budget in milliseconds for each idle slot.
+     */
+    public synchronized long getBudget() {
+        return mBudget;
+    }
+
+    /**
+     * Sets the time budget in milliseconds for each idle slot.
+     *
+     * @param budget The time budget to be set.
+     */
+    public synchronized void setBudget(long budget) {
+        this.mBudget = Math.max(1, budget);
+    }
+
+    /**
+     * Run a task in the next idle slots.
+     *
+     * @param task The task to be run.
+     */
+    public void post(@NonNull Task task) {
+        synchronized (this) {
+            mTasks.addLast(task);
+
+            if (mRegistered) {
+                return;
+            }
+
+            mRegistered = true;
+        }
+
+        mHandler.post(mRegister);
+    }
+
+    /**
+     * Run a work in the next idle slot.
+     *
+     * @param runnable The work to be run.
+     */
+    public void post(final @NonNull Runnable runnable) {
+        post(new Task() {
+            @Override
+            public boolean run(long deadline) {
+                runnable.run();
+
+                return false;
+            }
+        });
+    }
+
+    /**
+     * Remove a task waiting for an idle slot.
+     *
+     * @param task The task to be removed.
+     */
+    public synchronized void remove(@NonNull Task task) {
+        mTasks.remove(task);
+    }
+
+    /**
+     * Returns the number of tasks waiting for an idle slot.
+     *
+     * @return The number of tasks waiting for an idle slot.
+     */
+    public synchronized int getPending() {
+        return mTasks.size();
+    }
+
+    @Override
+    public boolean queueIdle() {
+        long start = SystemClock.uptimeMillis();
+        long deadline;
+        synchronized (this) {
+            deadline = start + mBudget;
+            mSlots++;
+        }
+
+        while (SystemClock.uptimeMillis() < deadline) {
+            Task task;
+            synchronized (this) {
+                if ((task = mTasks.pollFirst()) == null) {
+                    break;
+                }
+            }
+
+            boolean pending;
+            try {
+                pending = task.run(deadline);
+            } catch (Exception ignored) {
+                pending = false;
+            }
+
+            synchronized (this) {
+                if (pending) {
+                    mTasks.addFirst(task);
+                } else {
+                    mFinished++;
+                }
+            }
+        }
+
+        boolean registered;
+        int wakeUps;
+        synchronized (this) {
+            if (SystemClock.uptimeMillis() > deadline) {
+                mOverruns++;
+            }
+
+            mRegistered = registered = !mTasks.isEmpty();
+            wakeUps = registered ? ++mWakeUps : (mWakeUps = 0);
+        }
+
+        if (registered) {
+            // The idle handlers run only before the looper blocks, so wake it up to get
+            // another idle slot for the remaining tasks. Let it block for a frame after some
+            // slots in a row so that the pending tasks do not keep the main thread busy.
+            mHandler.removeCallbacks(mWakeUp);
+
+            if (wakeUps > MAX_WAKE_UPS) {
+                mHandler.postDelayed(mWakeUp, WAKE_UP_DELAY);
+            } else {
+                mHandler.post(mWakeUp);
+            }
+        }
+
+        return registered;
+    }
+
+    /**
+     * Returns an immutable snapshot of the current state.
+     *
+     * @return An immutable snapshot of the current state.
+     */
+    public synchronized @NonNull Snapshot getSnapshot() {
+        return new Snapshot(mTasks.size(), mSlots, mFinished, mOverruns);
+    }
+
+    /**
+     * An immutable snapshot of the {@link DynamicAdIdleScheduler}.
+     */
+    public static class Snapshot {
+
+        /**
+         * Number of tasks waiting for an idle slot.
+         */
+        private final int mPending;
+
+        /**
+         * Number of used idle slots.
+         */
+        private final long mSlots;
+
+        /**
+         * Number of finished tasks.
+         */
+        private final long mFinished;
+
+        /**
+         * Number of idle slots that exceeded the time budget.
+         */
+        private final long mOverruns;
+
+        /**
+         * Constructor to initialize an object of this class.
+         *
+         * @param pending The number of tasks waiting for an idle slot.
+         * @param slots The number of used idle slots.
+         * @param finished The number of finished tasks.
+         * @param overruns The number of idle slots that exceeded the time budget.
+         */
+        public Snapshot(int pending, long slots, long finished, long overruns) {
+            this.mPending = pending;
+            this.mSlots = slots;
+            this.mFinished = finished;
+            this.mOverruns = overruns;
+        }
+
+        /**
+         * Returns the number of tasks waiting for an idle slot.
+         *
+         * @return The number of tasks waiting for an idle slot.
+         */
+        public int getPending() {
+            return mPending;
+        }
+
+        /**
+         * Returns the number of used idle slots.
+         *
+         * @return The number of used idle slots.
+         */
+        public long getSlots() {
+            return mSlots;
+        }
+
+        /**
+         * Returns the number of finished tasks.
+         *
+         * @return The number of finished tasks.
+         */
+        public long getFinished() {
+            return mFinished;
+        }
+
+        /**
+         * Returns the number of idle slots that exceeded the time budget.
+         *
+         * @return The number of idle slots that exceeded the time budget.
+         */
+        public long getOverruns() {
+            return mOverruns;
+        }
+    }
+}
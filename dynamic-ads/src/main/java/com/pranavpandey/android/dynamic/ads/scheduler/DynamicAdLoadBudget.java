@@ -0,0 +1,521 @@
+/*
+ * Copyright 2022-2025 Pranav Pandey
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.pranavpandey.android.dynamic.ads.scheduler;
+
+import androidx.annotation.NonNull;
+
+import com.pranavpandey.android.dynamic.ads.DynamicAd;
+import com.pranavpandey.android.dynamic.ads.backend.DynamicAdBackend;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A budget to limit the number of ad loads that are in flight at the same time.
+ * <p>The loads over the limit will be queued in the order of their priority and started as
+ * the slots are released so that a screen creating several ads at once does not compete with
+ * its own startup work.
+ */
+public class DynamicAdLoadBudget {
+
+    /**
+     * Default number of ad loads that can be in flight at the same time.
+     */
+    public static final int DEFAULT_LIMIT = 2;
+
+    /**
+     * Default time in milliseconds after which an unfinished load will release its slot.
+     */
+    public static final long DEFAULT_TIMEOUT = 30000;
+
+    /**
+     * Backend to schedule the queued loads.
+     */
+    private DynamicAdBackend mBackend;
+
+    /**
+     * Queued loads in the order of their priority.
+     */
+    private final List<Slot> mPending;
+
+    /**
+     * Number of ad loads that can be in flight at the same time.
+     */
+    private int mLimit;
+
+    /**
+     * Time in milliseconds after which an unfinished load will release its slot.
+     */
+    private long mTimeout;
+
+    /**
+     * Number of ad loads currently in flight.
+     */
+    private int mInFlight;
+
+    /**
+     * Number of loads started without waiting.
+     */
+    private long mAdmitted;
+
+    /**
+     * Number of loads queued for a free slot.
+     */
+    private long mQueued;
+
+    /**
+     * Number of slots released after the timeout.
+     */
+    private long mTimedOut;
+
+    /**
+     * Constructor to initialize an object of this class.
+     *
+     * @param backend The backend to schedule the queued loads.
+     */
+    public DynamicAdLoadBudget(@NonNull DynamicAdBackend backend) {
+        this.mBackend = backend;
+        this.mPending = new ArrayList<>();
+        this.mLimit = DEFAULT_LIMIT;
+        this.mTimeout = DEFAULT_TIMEOUT;
+    }
+
+    /**
+     * Sets the backend to schedule the queued loads.
+     *
+     * @param backend The backend to be set.
+     */
+    public synchronized void setBackend(@NonNull DynamicAdBackend backend) {
+        this.mBackend = backend;
+    }
+
+    /**
+     * Returns the number of ad loads that can be in flight at the same time.
+     *
+     * @return The number of ad loads that can be in flight at the same time.
+     */
+    public synchronized int getLimit() {
+        return mLimit;
+    }
+
+    /**
+     * Sets the number of ad loads that can be in flight at the same time.
+     * <p>The queued loads will be started if the limit has been increased.
+     *
+     * @param limit The limit to be set, {@link Integer#MAX_VALUE} to not limit the loads.
+     */
+    public void setLimit(int limit) {
+        synchronized (this) {
+            this.mLimit = Math.max(1, limit);
+        }
+
+        dispatch();
+    }
+
+    /**
+     * Returns the time in milliseconds after which an unfinished load will release its slot.
+     *
+     * @return The time in milliseconds after which an unfinished load will release its slot.
+     */
+    public synchronized long getTimeout() {
+        return mTimeout;
+    }
+
+    /**
+     * Sets the time in milliseconds after which an unfinished load will release its slot.
+     *
+     * @param timeout The timeout to be set.
+     */
+    public synchronized void setTimeout(long timeout) {
+        this.mTimeout = timeout;
+    }
+
+    /**
+     * Returns the number of ad loads currently in flight.
+     *
+     * @return The number of ad loads currently in flight.
+     */
+    public synchronized int getInFlight() {
+        return mInFlight;
+    }
+
+    /**
+     * Returns a new slot to load an ad.
+     * <p>It must be started by calling {@link #execute(Slot, Runnable)} and released once the
+     * load has been finished.
+     *
+     * @param key The key to coalesce the queued loads.
+     * @param priority The priority of the load.
+     *
+     * @return A new slot to load an ad.
+     *
+     * @see DynamicAd.Priority
+     */
+    public @NonNull Slot obtain(@NonNull Object key, int priority) {
+        return new Slot(key, priority);
+    }
+
+    /**
+     * Start a load now if a slot is free, otherwise queue it till a slot is released.
+     * <p>A queued load for the same key will be replaced by this load.
+     *
+     * @param slot The slot to be used.
+     * @param request The request to start the load.
+     */
+    public void execute(@NonNull Slot slot, @NonNull Runnable request) {
+        synchronized (this) {
+            if (slot.mState != Slot.STATE_NEW) {
+                return;
+            }
+
+            slot.mRequest = request;
+            remove(slot.mKey);
+
+            if (mInFlight < mLimit && (mPending.isEmpty()
+                    || mPending.get(0).mPriority < slot.mPriority)) {
+                start(slot);
+                mAdmitted++;
+            } else {
+                int index = 0;
+                while (index < mPending.size()
+                        && mPending.get(index).mPriority >= slot.mPriority) {
+                    index++;
+                }
+
+                slot.mState = Slot.STATE_QUEUED;
+                mPending.add(index, slot);
+                mQueued++;
+
+                return;
+            }
+        }
+
+        request.run();
+    }
+
+    /**
+     * Cancel the queued load for a key.
+     *
+     * @param key The key of the queued load.
+     */
+    public synchronized void cancel(@NonNull Object key) {
+        remove(key);
+    }
+
+    /**
+     * Returns whether there is a queued load for a key.
+     *
+     * @param key The key of the queued load.
+     *
+     * @return {@code true} if there is a queued load for the key.
+     */
+    public synchronized boolean isQueued(@NonNull Object key) {
+        for (Slot slot : mPending) {
+            if (slot.mKey == key) {
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+    /**
+     * Remove the queued load for a key.
+     *
+     * @param key The key of the queued load.
+     */
+    private void remove(@NonNull Object key) {
+        for (int i = 0; i < mPending.size(); i++) {
+            Slot slot = mPending.get(i);
+            if (slot.mKey == key) {
+                slot.mState = Slot.STATE_RELEASED;
+                mPending.remove(i);
+
+                return;
+            }
+        }
+    }
+
+    /**
+     * Mark a slot as in flight and schedule its timeout.
+     *
+     * @param slot The slot to be started.
+     */
+    private void start(@NonNull Slot slot) {
+        slot.mState = Slot.STATE_RUNNING;
+        mInFlight++;
+        mBackend.schedule(slot.mTimeout, mTimeout);
+    }
+
+    /**
+     * Release a slot and start the queued loads.
+     *
+     * @param slot The slot to be released.
+     * @param timeout {@code true} if the slot has been released after the timeout.
+     */
+    private void release(@NonNull Slot slot, boolean timeout) {
+        synchronized (this) {
+            if (slot.mState != Slot.STATE_RUNNING) {
+                return;
+            }
+
+            slot.mState = Slot.STATE_RELEASED;
+            mInFlight--;
+
+            if (timeout) {
+                mTimedOut++;
+            } else {
+                mBackend.cancel(slot.mTimeout);
+            }
+        }
+
+        dispatch();
+    }
+
+    /**
+     * Start the queued loads while the slots are free.
+     */
+    private void dispatch() {
+        synchronized (this) {
+            while (mInFlight < mLimit && !mPending.isEmpty()) {
+                Slot slot = mPending.remove(0);
+                start(slot);
+
+                mBackend.schedule(slot, 0);
+            }
+        }
+    }
+
+    /**
+     * Returns an immutable snapshot of the current state.
+     *
+     * @return An immutable snapshot of the current state.
+     */
+    public synchronized @NonNull Snapshot getSnapshot() {
+        return new Snapshot(mLimit, mInFlight, mPending.size(), mAdmitted, mQueued, mTimedOut);
+    }
+
+    /**
+     * A slot to load an ad within the budget.
+     */
+    public class Slot implements Runnable {
+
+        /**
+         * Constant for the slot that has not been started.
+         */
+        private static final int STATE_NEW = 0;
+
+        /**
+         * Constant for the slot waiting for a free slot.
+         */
+        private static final int STATE_QUEUED = 1;
+
+        /**
+         * Constant for the slot that is in flight.
+         */
+        private static final int STATE_RUNNING = 2;
+
+        /**
+         * Constant for the slot that has been released or cancelled.
+         */
+        private static final int STATE_RELEASED = 3;
+
+        /**
+         * Key to coalesce the queued loads.
+         */
+        private final Object mKey;
+
+        /**
+         * Priority of the load.
+         */
+        private final int mPriority;
+
+        /**
+         * Runnable to release this slot after the timeout.
+         */
+        private final Runnable mTimeout;
+
+        /**
+         * Request to start the load.
+         */
+        private Runnable mRequest;
+
+        /**
+         * Current state of this slot.
+         */
+        private int mState;
+
+        /**
+         * Constructor to initialize an object of this class.
+         *
+         * @param key The key to coalesce the queued loads.
+         * @param priority The priority of the load.
+         */
+        Slot(@NonNull Object key, int priority) {
+            this.mKey = key;
+            this.mPriority = priority;
+            this.mState = STATE_NEW;
+            this.mTimeout = new Runnable() {
+                @Override
+                public void run() {
+                    DynamicAdLoadBudget.this.release(Slot.this, true);
+                }
+            };
+        }
+
+        /**
+         * Returns the priority of the load.
+         *
+         * @return The priority of the load.
+         */
+        public int getPriority() {
+            return mPriority;
+        }
+
+        /**
+         * Release this slot once the load has been finished.
+         * <p>It can be called multiple times, only the first call will release the slot.
+         */
+        public void release() {
+            DynamicAdLoadBudget.this.release(this, false);
+        }
+
+        @Override
+        public void run() {
+            Runnable request;
+            synchronized (DynamicAdLoadBudget.this) {
+                if (mState != STATE_RUNNING) {
+                    return;
+                }
+
+                request = mRequest;
+            }
+
+            request.run();
+        }
+    }
+
+    /**
+     * An immutable snapshot of the {@link DynamicAdLoadBudget}.
+     */
+    public static class Snapshot {
+
+        /**
+         * Number of ad loads that can be in flight at the same time.
+         */
+        private final int mLimit;
+
+        /**
+         * Number of ad loads in flight.
+         */
+        private final int mInFlight;
+
+        /**
+         * Number of queued ad loads.
+         */
+        private final int mPending;
+
+        /**
+         * Number of loads started without waiting.
+         */
+        private final long mAdmitted;
+
+        /**
+         * Number of loads queued for a free slot.
+         */
+        private final long mQueued;
+
+        /**
+         * Number of slots released after the timeout.
+         */
+        private final long mTimedOut;
+
+        /**
+         * Constructor to initialize an object of this class.
+         *
+         * @param limit The number of ad loads that can be in flight at the same time.
+         * @param inFlight The number of ad loads in flight.
+         * @param pending The number of queued ad loads.
+         * @param admitted The number of loads started without waiting.
+         * @param queued The number of loads queued for a free slot.
+         * @param timedOut The number of slots released after the timeout.
+         */
+        public Snapshot(int limit, int inFlight, int pending,
+                long admitted, long queued, long timedOut) {
+            this.mLimit = limit;
+            this.mInFlight = inFlight;
+            this.mPending = pending;
+            this.mAdmitted = admitted;
+            this.mQueued = queued;
+            this.mTimedOut = timedOut;
+        }
+
+        /**
+         * Returns the number of ad loads that can be in flight at the same time.
+         *
+         * @return The number of ad loads that can be in flight at the same time.
+         */
+        public int getLimit() {
+            return mLimit;
+        }
+
+        /**
+         * Returns the number of ad loads in flight.
+         *
+         * @return The number of ad loads in flight.
+         */
+        public int getInFlight() {
+            return mInFlight;
+        }
+
+        /**
+         * Returns the number of queued ad loads.
+         *
+         * @return The number of queued ad loads.
+         */
+        public int getPending() {
+            return mPending;
+        }
+
+        /**
+         * Returns the number of loads started without waiting.
+         *
+         * @return The number of loads started without waiting.
+         */
+        public long getAdmitted() {
+            return mAdmitted;
+        }
+
+        /**
+         * Returns the number of loads queued for a free slot.
+         *
+         * @return The number of loads queued for a free slot.
+         */
+        public long getQueued() {
+            return mQueued;
+        }
+
+        /**
+         * Returns the number of slots released after the timeout.
+         *
+         * @return The number of slots released after the timeout.
+         */
+        public long getTimedOut() {
+            return mTimedOut;
+        }
+    }
+}
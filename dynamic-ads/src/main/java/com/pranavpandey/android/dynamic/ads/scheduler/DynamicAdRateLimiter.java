@@ -0,0 +1,649 @@
+/*
+ * Copyright 2022-2025 Pranav Pandey
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.pranavpandey.android.dynamic.ads.scheduler;
+
+import androidx.annotation.NonNull;
+
+import com.pranavpandey.android.dynamic.ads.backend.DynamicAdBackend;
+import com.pranavpandey.android.dynamic.ads.metrics.DynamicAdUnitStore;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * A rate limiter to control how often the ads are requested from the network.
+ * <p>It uses a global token bucket along with a token bucket for each ad unit. The requests
+ * over the limit will be deferred till the tokens are available and the multiple deferred
+ * requests for the same key will be coalesced into a single request.
+ */
+public class DynamicAdRateLimiter {
+
+    /**
+     * Default number of requests that can be sent in a burst for all the ad units.
+     */
+    public static final int DEFAULT_GLOBAL_CAPACITY = 10;
+
+    /**
+     * Default number of requests per second for all the ad units.
+     */
+    public static final double DEFAULT_GLOBAL_RATE = 1;
+
+    /**
+     * Default number of requests that can be sent in a burst for an ad unit.
+     */
+    public static final int DEFAULT_UNIT_CAPACITY = 3;
+
+    /**
+     * Default number of requests per second for an ad unit.
+     */
+    public static final double DEFAULT_UNIT_RATE = 0.2;
+
+    /**
+     * Time in milliseconds since the last no fill within which an ad unit will start with an
+     * empty token bucket after the app launch.
+     */
+    public static final long NO_FILL_WINDOW = 5 * 60 * 1000;
+
+    /**
+     * Backend to retrieve the time and schedule the deferred requests.
+     */
+    private volatile DynamicAdBackend mBackend;
+
+    /**
+     * Global token bucket for all the ad units.
+     */
+    private final Bucket mGlobal;
+
+    /**
+     * Token buckets for each ad unit.
+     * <p>They are modified only with the lock but can be peeked without it.
+     */
+    private final Map<String, Bucket> mUnits;
+
+    /**
+     * Custom limits for the ad units.
+     */
+    private final Map<String, double[]> mUnitLimits;
+
+    /**
+     * Deferred requests for each key.
+     */
+    private final Map<Object, Deferred> mDeferred;
+
+    /**
+     * Number of requests for each ad unit capacity.
+     */
+    private int mUnitCapacity;
+
+    /**
+     * Number of requests per second for each ad unit.
+     */
+    private double mUnitRate;
+
+    /**
+     * Number of acquired requests.
+     */
+    private long mAcquired;
+
+    /**
+     * Number of deferred requests.
+     */
+    private long mDeferredCount;
+
+    /**
+     * Number of coalesced requests.
+     */
+    private long mCoalesced;
+
+    /**
+     * Constructor to initialize an object of this class.
+     *
+     * @param backend The backend to retrieve the time and schedule the deferred requests.
+     */
+    public DynamicAdRateLimiter(@NonNull DynamicAdBackend backend) {
+        this.mBackend = backend;
+        this.mGlobal = new Bucket(DEFAULT_GLOBAL_CAPACITY, DEFAULT_GLOBAL_RATE,
+                backend.elapsedRealtime());
+        this.mUnits = new ConcurrentHashMap<>();
+        this.mUnitLimits = new HashMap<>();
+        this.mDeferred = new HashMap<>();
+        this.mUnitCapacity = DEFAULT_UNIT_CAPACITY;
+        this.mUnitRate = DEFAULT_UNIT_RATE;
+    }
+
+    /**
+     * Sets the backend to retrieve the time and schedule the deferred requests.
+     * <p>All the buckets will be refilled.
+     *
+     * @param backend The backend to be set.
+     */
+    public synchronized void setBackend(@NonNull DynamicAdBackend backend) {
+        for (Deferred deferred : mDeferred.values()) {
+            mBackend.cancel(deferred);
+        }
+
+        this.mBackend = backend;
+        long time = backend.elapsedRealtime();
+
+        mGlobal.reset(time);
+        mUnits.clear();
+
+        for (Deferred deferred : mDeferred.values()) {
+            deferred.schedule(0);
+        }
+    }
+
+    /**
+     * Sets the limit for all the ad units.
+     *
+     * @param capacity The number of requests that can be sent in a burst.
+     * @param rate The number of requests per second.
+     */
+    public synchronized void setGlobalLimit(int capacity, double rate) {
+        mGlobal.setLimit(capacity, rate);
+    }
+
+    /**
+     * Sets the default limit for each ad unit.
+     *
+     * @param capacity The number of requests that can be sent in a burst.
+     * @param rate The number of requests per second.
+     */
+    public synchronized void setUnitLimit(int capacity, double rate) {
+        this.mUnitCapacity = capacity;
+        this.mUnitRate = rate;
+
+        for (Map.Entry<String, Bucket> entry : mUnits.entrySet()) {
+            if (!mUnitLimits.containsKey(entry.getKey())) {
+                entry.getValue().setLimit(capacity, rate);
+            }
+        }
+    }
+
+    /**
+     * Sets the limit for an ad unit.
+     *
+     * @param adUnitId The ad unit id to be used.
+     * @param capacity The number of requests that can be sent in a burst.
+     * @param rate The number of requests per second.
+     */
+    public synchronized void setUnitLimit(@NonNull String adUnitId, int capacity, double rate) {
+        mUnitLimits.put(adUnitId, new double[] { capacity, rate });
+        getBucket(adUnitId).setLimit(capacity, rate);
+    }
+
+    /**
+     * Returns the token bucket for an ad unit.
+     *
+     * @param adUnitId The ad unit id to be used.
+     *
+     * @return The token bucket for the ad unit.
+     */
+    private @NonNull Bucket getBucket(@NonNull String adUnitId) {
+        Bucket bucket = mUnits.get(adUnitId);
+        if (bucket == null) {
+            double[] limit = mUnitLimits.get(adUnitId);
+            bucket = limit != null
+                    ? new Bucket((int) limit[0], limit[1], mBackend.elapsedRealtime())
+                    : new Bucket(mUnitCapacity, mUnitRate, mBackend.elapsedRealtime());
+            mUnits.put(adUnitId, bucket);
+        }
+
+        return bucket;
+    }
+
+    /**
+     * Restore the last no fill time for each ad unit from the previous app launches.
+     * <p>An ad unit that had no fill within the {@link #NO_FILL_WINDOW} will start with an
+     * empty token bucket so that it is not requested in a burst right after the app launch.
+     *
+     * @param records The persisted records for each ad unit.
+     *
+     * @see DynamicAdUnitStore#getRecords()
+     */
+    public synchronized void restore(@NonNull Map<String, DynamicAdUnitStore.Record> records) {
+        long now = System.currentTimeMillis();
+        long time = mBackend.elapsedRealtime();
+
+        for (Map.Entry<String, DynamicAdUnitStore.Record> entry : records.entrySet()) {
+            long lastNoFillTime = entry.getValue().getLastNoFillTime();
+            if (lastNoFillTime > 0 && now - lastNoFillTime < NO_FILL_WINDOW
+                    && !mUnits.containsKey(entry.getKey())) {
+                getBucket(entry.getKey()).drain(time);
+            }
+        }
+    }
+
+    /**
+     * Try to acquire the permission to request an ad unit.
+     *
+     * @param adUnitId The ad unit id to be requested.
+     *
+     * @return {@code true} if the ad unit can be requested now.
+     */
+    public synchronized boolean tryAcquire(@NonNull String adUnitId) {
+        long time = mBackend.elapsedRealtime();
+        Bucket bucket = getBucket(adUnitId);
+
+        if (mGlobal.getDelay(time) > 0 || bucket.getDelay(time) > 0) {
+            return false;
+        }
+
+        mGlobal.acquire(time);
+        bucket.acquire(time);
+        mAcquired++;
+
+        return true;
+    }
+
+    /**
+     * Returns the delay after which an ad unit can be requested.
+     *
+     * @param adUnitId The ad unit id to be requested.
+     *
+     * @return The delay in milliseconds after which the ad unit can be requested.
+     */
+    public synchronized long getDelay(@NonNull String adUnitId) {
+        long time = mBackend.elapsedRealtime();
+
+        return Math.max(mGlobal.getDelay(time), getBucket(adUnitId).getDelay(time));
+    }
+
+    /**
+     * Returns the delay after which an ad unit can be requested without blocking the
+     * rate limiter.
+     * <p>It is useful for the diagnostics and does not create a token bucket for the ad unit
+     * that has never been requested, the value may be slightly stale.
+     *
+     * @param adUnitId The ad unit id to be requested.
+     *
+     * @return The delay in milliseconds after which the ad unit can be requested.
+     */
+    public long peekDelay(@NonNull String adUnitId) {
+        long time = mBackend.elapsedRealtime();
+        Bucket bucket = mUnits.get(adUnitId);
+
+        return Math.max(mGlobal.peekDelay(time), bucket != null ? bucket.peekDelay(time) : 0);
+    }
+
+    /**
+     * Defer a request till the ad unit can be requested.
+     * <p>If there is a deferred request for the same key then it will be replaced by this
+     * request without changing the schedule.
+     *
+     * @param key The key to coalesce the requests.
+     * @param adUnitId The ad unit id to be requested.
+     * @param request The request to be run later.
+     */
+    public synchronized void defer(@NonNull Object key, @NonNull String adUnitId,
+            @NonNull Runnable request) {
+        Deferred deferred = mDeferred.get(key);
+        if (deferred != null) {
+            deferred.mAdUnitId = adUnitId;
+            deferred.mRequest = request;
+            mCoalesced++;
+
+            return;
+        }
+
+        deferred = new Deferred(key, adUnitId, request);
+        mDeferred.put(key, deferred);
+        mDeferredCount++;
+
+        deferred.schedule(getDelay(adUnitId));
+    }
+
+    /**
+     * Cancel the deferred request for a key.
+     *
+     * @param key The key of the deferred request.
+     */
+    public synchronized void cancel(@NonNull Object key) {
+        Deferred deferred = mDeferred.remove(key);
+
+        if (deferred != null) {
+            mBackend.cancel(deferred);
+        }
+    }
+
+    /**
+     * Returns whether there is a deferred request for a key.
+     *
+     * @param key The key of the deferred request.
+     *
+     * @return {@code true} if there is a deferred request for the key.
+     */
+    public synchronized boolean isDeferred(@NonNull Object key) {
+        return mDeferred.containsKey(key);
+    }
+
+    /**
+     * Returns an immutable snapshot of the current state.
+     *
+     * @return An immutable snapshot of the current state.
+     */
+    public synchronized @NonNull Snapshot getSnapshot() {
+        long time = mBackend.elapsedRealtime();
+        Map<String, Double> units = new HashMap<>();
+        for (Map.Entry<String, Bucket> entry : mUnits.entrySet()) {
+            units.put(entry.getKey(), entry.getValue().getTokens(time));
+        }
+
+        return new Snapshot(mGlobal.getTokens(time), Collections.unmodifiableMap(units),
+                mDeferred.size(), mAcquired, mDeferredCount, mCoalesced);
+    }
+
+    /**
+     * A request deferred by the rate limiter.
+     */
+    private class Deferred implements Runnable {
+
+        /**
+         * Key to coalesce the requests.
+         */
+        private final Object mKey;
+
+        /**
+         * Ad unit id to be requested.
+         */
+        private String mAdUnitId;
+
+        /**
+         * Latest request to be run.
+         */
+        private Runnable mRequest;
+
+        /**
+         * Constructor to initialize an object of this class.
+         *
+         * @param key The key to coalesce the requests.
+         * @param adUnitId The ad unit id to be requested.
+         * @param request The request to be run.
+         */
+        Deferred(@NonNull Object key, @NonNull String adUnitId, @NonNull Runnable request) {
+            this.mKey = key;
+            this.mAdUnitId = adUnitId;
+            this.mRequest = request;
+        }
+
+        /**
+         * Schedule this request on the backend.
+         *
+         * @param delay The delay in milliseconds.
+         */
+        void schedule(long delay) {
+            mBackend.schedule(this, Math.max(1, delay));
+        }
+
+        @Override
+        public void run() {
+            Runnable request;
+            synchronized (DynamicAdRateLimiter.this) {
+                if (mDeferred.get(mKey) != this) {
+                    return;
+                }
+
+                long delay = getDelay(mAdUnitId);
+                if (delay > 0) {
+                    schedule(delay);
+
+                    return;
+                }
+
+                mDeferred.remove(mKey);
+                request = mRequest;
+            }
+
+            request.run();
+        }
+    }
+
+    /**
+     * A token bucket to limit the requests.
+     */
+    private static class Bucket {
+
+        /**
+         * Maximum number of tokens.
+         */
+        private volatile int mCapacity;
+
+        /**
+         * Number of tokens added per second.
+         */
+        private volatile double mRate;
+
+        /**
+         * Number of available tokens.
+         */
+        private volatile double mTokens;
+
+        /**
+         * Time at which the tokens were last updated.
+         */
+        private volatile long mTime;
+
+        /**
+         * Constructor to initialize an object of this class.
+         *
+         * @param capacity The maximum number of tokens.
+         * @param rate The number of tokens added per second.
+         * @param time The current time.
+         */
+        Bucket(int capacity, double rate, long time) {
+            setLimit(capacity, rate);
+            reset(time);
+        }
+
+        /**
+         * Sets the limit for this bucket.
+         *
+         * @param capacity The maximum number of tokens.
+         * @param rate The number of tokens added per second.
+         */
+        void setLimit(int capacity, double rate) {
+            this.mCapacity = Math.max(1, capacity);
+            this.mRate = Math.max(0.001, rate);
+            this.mTokens = Math.min(mTokens, mCapacity);
+        }
+
+        /**
+         * Fill this bucket to its capacity.
+         *
+         * @param time The current time.
+         */
+        void reset(long time) {
+            this.mTokens = mCapacity;
+            this.mTime = time;
+        }
+
+        /**
+         * Remove all the tokens from this bucket.
+         *
+         * @param time The current time.
+         */
+        void drain(long time) {
+            this.mTokens = 0;
+            this.mTime = time;
+        }
+
+        /**
+         * Returns the number of available tokens.
+         *
+         * @param time The current time.
+         *
+         * @return The number of available tokens.
+         */
+        double getTokens(long time) {
+            if (time > mTime) {
+                mTokens = Math.min(mCapacity, mTokens + (time - mTime) * mRate / 1000d);
+                mTime = time;
+            }
+
+            return mTokens;
+        }
+
+        /**
+         * Returns the delay after which a token will be available.
+         *
+         * @param time The current time.
+         *
+         * @return The delay in milliseconds after which a token will be available.
+         */
+        long getDelay(long time) {
+            double tokens = getTokens(time);
+
+            return tokens >= 1 ? 0 : (long) Math.ceil((1 - tokens) * 1000d / mRate);
+        }
+
+        /**
+         * Returns the delay after which a token will be available without updating this bucket.
+         *
+         * @param time The current time.
+         *
+         * @return The delay in milliseconds after which a token will be available.
+         */
+        long peekDelay(long time) {
+            double rate = mRate;
+            double tokens = Math.min(mCapacity,
+                    mTokens + Math.max(0, time - mTime) * rate / 1000d);
+
+            return tokens >= 1 ? 0 : (long) Math.ceil((1 - tokens) * 1000d / rate);
+        }
+
+        /**
+         * Consume a token from this bucket.
+         *
+         * @param time The current time.
+         */
+        void acquire(long time) {
+            mTokens = getTokens(time) - 1;
+        }
+    }
+
+    /**
+     * An immutable snapshot of the {@link DynamicAdRateLimiter}.
+     */
+    public static class Snapshot {
+
+        /**
+         * Available tokens for all the ad units.
+         */
+        private final double mGlobalTokens;
+
+        /**
+         * Available tokens for each ad unit.
+         */
+        private final Map<String, Double> mUnitTokens;
+
+        /**
+         * Number of pending deferred requests.
+         */
+        private final int mPending;
+
+        /**
+         * Number of acquired requests.
+         */
+        private final long mAcquired;
+
+        /**
+         * Number of deferred requests.
+         */
+        private final long mDeferred;
+
+        /**
+         * Number of coalesced requests.
+         */
+        private final long mCoalesced;
+
+        /**
+         * Constructor to initialize an object of this class.
+         *
+         * @param globalTokens The available tokens for all the ad units.
+         * @param unitTokens The available tokens for each ad unit.
+         * @param pending The number of pending deferred requests.
+         * @param acquired The number of acquired requests.
+         * @param deferred The number of deferred requests.
+         * @param coalesced The number of coalesced requests.
+         */
+        public Snapshot(double globalTokens, @NonNull Map<String, Double> unitTokens,
+                int pending, long acquired, long deferred, long coalesced) {
+            this.mGlobalTokens = globalTokens;
+            this.mUnitTokens = unitTokens;
+            this.mPending = pending;
+            this.mAcquired = acquired;
+            this.mDeferred = deferred;
+            this.mCoalesced = coalesced;
+        }
+
+        /**
+         * Returns the available tokens for all the ad units.
+         *
+         * @return The available tokens for all the ad units.
+         */
+        public double getGlobalTokens() {
+            return mGlobalTokens;
+        }
+
+        /**
+         * Returns the available tokens for each ad unit.
+         *
+         * @return The available tokens for each ad unit.
+         */
+        public @NonNull Map<String, Double> getUnitTokens() {
+            return mUnitTokens;
+        }
+
+        /**
+         * Returns the number of pending deferred requests.
+         *
+         * @return The number of pending deferred requests.
+         */
+        public int getPending() {
+            return mPending;
+        }
+
+        /**
+         * Returns the number of acquired requests.
+         *
+         * @return The number of acquired requests.
+         */
+        public long getAcquired() {
+            return mAcquired;
+        }
+
+        /**
+         * Returns the number of deferred requests.
+         *
+         * @return The number of deferred requests.
+         */
+        public long getDeferred() {
+            return mDeferred;
+        }
+
+        /**
+         * Returns the number of coalesced requests.
+         *
+         * @return The number of coalesced requests.
+         */
+        public long getCoalesced() {
+            return mCoalesced;
+        }
+    }
+}
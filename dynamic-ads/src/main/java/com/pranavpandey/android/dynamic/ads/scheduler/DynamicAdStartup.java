@@ -0,0 +1,389 @@
+/*
+ * Copyright 2022-2025 Pranav Pandey
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.pranavpandey.android.dynamic.ads.scheduler;
+
+import android.app.Activity;
+import android.content.Context;
+import android.os.Handler;
+import android.os.Looper;
+import android.os.SystemClock;
+import android.view.View;
+import android.view.ViewTreeObserver;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import com.pranavpandey.android.dynamic.ads.DynamicAd;
+import com.pranavpandey.android.dynamic.ads.metrics.DynamicAdMetrics;
+import com.pranavpandey.android.dynamic.ads.util.DynamicAdUtils;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.WeakHashMap;
+
+/**
+ * Helper class to hold the ad work till the host window has drawn its first frame.
+ * <p>The held work will be released in the order of its current priority and the critical ads
+ * will never be held. An ad raised to the critical priority will be released at once. The time to the first frame will be recorded in the metrics with and without
+ * holding the ad work so that its effect can be compared.
+ */
+public class DynamicAdStartup {
+
+    /**
+     * Default time in milliseconds after which the held work will be released even if the
+     * first frame has not been drawn.
+     */
+    public static final long DEFAULT_TIMEOUT = 5000;
+
+    /**
+     * Metrics to record the time to the first frame.
+     */
+    private final DynamicAdMetrics mMetrics;
+
+    /**
+     * Main thread handler to release the held work.
+     */
+    private final Handler mHandler;
+
+    /**
+     * Windows waiting for their first frame.
+     */
+    private final Map<View, Window> mWindows;
+
+    /**
+     * {@code true} to hold the ad work till the first frame.
+     */
+    private volatile boolean mEnabled;
+
+    /**
+     * Time in milliseconds after which the held work will be released.
+     */
+    private volatile long mTimeout;
+
+    /**
+     * Constructor to initialize an object of this class.
+     *
+     * @param metrics The metrics to record the time to the first frame.
+     */
+    public DynamicAdStartup(@NonNull DynamicAdMetrics metrics) {
+        this.mMetrics = metrics;
+        this.mHandler = new Handler(Looper.getMainLooper());
+        this.mWindows = new WeakHashMap<>();
+        this.mTimeout = DEFAULT_TIMEOUT;
+    }
+
+    /**
+     * Returns whether the ad work will be held till the first frame.
+     *
+     * @return {@code true} if the ad work will be held till the first frame.
+     */
+    public boolean isEnabled() {
+        return mEnabled;
+    }
+
+    /**
+     * Sets whether the ad work will be held till the first frame.
+     * <p>It should be enabled before creating any ad, the held work will be released at once if
+     * it has been disabled.
+     *
+     * @param enabled {@code true} to hold the ad work till the first frame.
+     */
+    public void setEnabled(boolean enabled) {
+        this.mEnabled = enabled;
+
+        if (!enabled) {
+            releaseAll();
+        }
+    }
+
+    /**
+     * Returns the time in milliseconds after which the held work will be released.
+     *
+     * @return The time in milliseconds after which the held work will be released.
+     */
+    public long getTimeout() {
+        return mTimeout;
+    }
+
+    /**
+     * Sets the time in milliseconds after which the held work will be released even if the
+     * first frame has not been drawn.
+     *
+     * @param timeout The timeout to be set.
+     */
+    public void setTimeout(long timeout) {
+        this.mTimeout = timeout;
+    }
+
+    /**
+     * Hold the ad work till the host window has drawn its first frame.
+     * <p>It will not be held for the critical ads, off the main thread, or if the host is not
+     * an activity or has already been drawn.
+     *
+     * @param context The context of the host.
+     * @param dynamicAd The dynamic ad to get the priority of the ad work.
+     * @param request The ad work to be held.
+     *
+     * @return {@code true} if the ad work has been held.
+     *
+     * @see DynamicAd.Priority#CRITICAL
+     * @see #onPriorityChanged(DynamicAd)
+     */
+    public boolean defer(@Nullable Context context, @Nullable DynamicAd dynamicAd,
+            @NonNull Runnable request) {
+        if (Looper.myLooper() != mHandler.getLooper()) {
+            return false;
+        }
+
+        Activity activity = DynamicAdUtils.getActivity(context);
+        if (activity == null || activity.getWindow() == null) {
+            return false;
+        }
+
+        View decorView = activity.getWindow().peekDecorView();
+        if (decorView == null || decorView.isLaidOut()) {
+            return false;
+        }
+
+        Window window = mWindows.get(decorView);
+        if (window == null) {
+            window = new Window(decorView);
+            mWindows.put(decorView, window);
+        }
+
+        if (!isEnabled() || getPriority(dynamicAd) >= DynamicAd.Priority.CRITICAL) {
+            return false;
+        }
+
+        window.add(dynamicAd, request);
+        return true;
+    }
+
+    /**
+     * This method will be called when the priority of an ad has been changed.
+     * <p>The held work for the supplied ad will be released at once if it has been raised to
+     * the critical priority, otherwise the new priority will be used when it is released.
+     *
+     * @param dynamicAd The dynamic ad whose priority has been changed.
+     */
+    public void onPriorityChanged(final @NonNull DynamicAd dynamicAd) {
+        if (getPriority(dynamicAd) < DynamicAd.Priority.CRITICAL) {
+            return;
+        }
+
+        if (Looper.myLooper() != mHandler.getLooper()) {
+            mHandler.post(new Runnable() {
+                @Override
+                public void run() {
+                    onPriorityChanged(dynamicAd);
+                }
+            });
+
+            return;
+        }
+
+        for (Window window : new ArrayList<>(mWindows.values())) {
+            window.release(dynamicAd);
+        }
+    }
+
+    /**
+     * Returns the current priority of the supplied ad.
+     *
+     * @param dynamicAd The dynamic ad to be used.
+     *
+     * @return The current priority of the supplied ad, {@link DynamicAd.Priority#NORMAL}
+     *         if it is {@code null}.
+     */
+    private static int getPriority(@Nullable DynamicAd dynamicAd) {
+        return dynamicAd != null ? dynamicAd.getAdPriority() : DynamicAd.Priority.NORMAL;
+    }
+
+    /**
+     * Release the held work for all the windows.
+     */
+    private void releaseAll() {
+        if (Looper.myLooper() != mHandler.getLooper()) {
+            mHandler.post(new Runnable() {
+                @Override
+                public void run() {
+                    releaseAll();
+                }
+            });
+
+            return;
+        }
+
+        for (Window window : new ArrayList<>(mWindows.values())) {
+            window.release();
+        }
+    }
+
+    /**
+     * A host window waiting for its first frame.
+     */
+    private class Window implements ViewTreeObserver.OnDrawListener, Runnable {
+
+        /**
+         * Decor view of the window.
+         */
+        private final View mDecorView;
+
+        /**
+         * Time at which the first ad work was seen for this window.
+         */
+        private final long mStartTime;
+
+        /**
+         * Held work in the order it was received.
+         */
+        private final List<Held> mHeld;
+
+        /**
+         * {@code true} if the first frame has been drawn.
+         */
+        private boolean mDrawn;
+
+        /**
+         * Constructor to initialize an object of this class.
+         *
+         * @param decorView The decor view of the window.
+         */
+        Window(@NonNull View decorView) {
+            this.mDecorView = decorView;
+            this.mStartTime = SystemClock.elapsedRealtime();
+            this.mHeld = new ArrayList<>();
+
+            decorView.getViewTreeObserver().addOnDrawListener(this);
+            mHandler.postDelayed(this, mTimeout);
+        }
+
+        /**
+         * Hold the ad work for this window.
+         *
+         * @param dynamicAd The dynamic ad to get the priority of the ad work.
+         * @param request The ad work to be held.
+         */
+        void add(@Nullable DynamicAd dynamicAd, @NonNull Runnable request) {
+            mHeld.add(new Held(dynamicAd, request));
+        }
+
+        /**
+         * Release the held work for the supplied ad without waiting for the first frame.
+         *
+         * @param dynamicAd The dynamic ad to release the held work.
+         */
+        void release(@NonNull DynamicAd dynamicAd) {
+            List<Held> released = new ArrayList<>();
+            for (Held work : mHeld) {
+                if (work.mDynamicAd == dynamicAd) {
+                    released.add(work);
+                }
+            }
+
+            mHeld.removeAll(released);
+            for (Held work : released) {
+                work.mRequest.run();
+            }
+        }
+
+        @Override
+        public void onDraw() {
+            if (mDrawn) {
+                return;
+            }
+
+            mDrawn = true;
+            mMetrics.onFirstFrame(SystemClock.elapsedRealtime() - mStartTime,
+                    mHeld.size(), isEnabled());
+
+            // The draw listener cannot be removed while dispatching the draw.
+            mHandler.removeCallbacks(this);
+            mHandler.postAtFrontOfQueue(new Runnable() {
+                @Override
+                public void run() {
+                    release();
+                }
+            });
+        }
+
+        @Override
+        public void run() {
+            release();
+        }
+
+        /**
+         * Stop waiting for the first frame and release the held work in the order of its
+         * current priority.
+         */
+        void release() {
+            if (mWindows.get(mDecorView) != this) {
+                return;
+            }
+
+            mWindows.remove(mDecorView);
+            mHandler.removeCallbacks(this);
+            if (mDecorView.getViewTreeObserver().isAlive()) {
+                mDecorView.getViewTreeObserver().removeOnDrawListener(this);
+            }
+
+            List<Held> held = new ArrayList<>(mHeld);
+            mHeld.clear();
+            Collections.sort(held, new Comparator<Held>() {
+                @Override
+                public int compare(Held first, Held second) {
+                    return Integer.compare(getPriority(second.mDynamicAd),
+                            getPriority(first.mDynamicAd));
+                }
+            });
+
+            for (Held work : held) {
+                work.mRequest.run();
+            }
+        }
+    }
+
+    /**
+     * An ad work held till the first frame.
+     */
+    private static class Held {
+
+        /**
+         * Dynamic ad to get the priority of the ad work.
+         */
+        private final DynamicAd mDynamicAd;
+
+        /**
+         * Ad work to be run.
+         */
+        private final Runnable mRequest;
+
+        /**
+         * Constructor to initialize an object of this class.
+         *
+         * @param dynamicAd The dynamic ad to get the priority of the ad work.
+         * @param request The ad work to be run.
+         */
+        Held(@Nullable DynamicAd dynamicAd, @NonNull Runnable request) {
+            this.mDynamicAd = dynamicAd;
+            this.mRequest = request;
+        }
+    }
+}
@@ -0,0 +1,220 @@
+/*
+ * Copyright 2022-2025 Pranav Pandey
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.pranavpandey.android.dynamic.ads.util;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import androidx.tracing.Trace;
+
+import com.pranavpandey.android.dynamic.ads.DynamicAd;
+
+/**
+ * Helper class to add the ad operations to the system traces.
+ * <p>All the section names are built only when tracing is enabled so that it has a negligible
+ * cost otherwise.
+ */
+public class DynamicAdTrace {
+
+    /**
+     * Prefix for all the trace sections.
+     */
+    public static final String PREFIX = "DynamicAds:";
+
+    /**
+     * Trace section for the consent information update.
+     */
+    public static final String SECTION_CONSENT_INFO = PREFIX + "consentInfo";
+
+    /**
+     * Trace section for the consent form.
+     */
+    public static final String SECTION_CONSENT_FORM = PREFIX + "consentForm";
+
+    /**
+     * Trace section for the ad request till impression.
+     */
+    public static final String SECTION_AD = PREFIX + "ad";
+
+    /**
+     * Trace section to post an ad.
+     */
+    public static final String SECTION_POST_AD = PREFIX + "postAd";
+
+    /**
+     * Trace section to create an ad.
+     */
+    public static final String SECTION_CREATE_AD = PREFIX + "createAd";
+
+    /**
+     * Trace section to customise an ad.
+     */
+    public static final String SECTION_CUSTOMISE_AD = PREFIX + "customiseAd";
+
+    /**
+     * Trace section to populate an ad.
+     */
+    public static final String SECTION_POPULATE_AD = PREFIX + "populateAd";
+
+    /**
+     * Trace section to calculate the ad size.
+     */
+    public static final String SECTION_AD_SIZE = PREFIX + "getAdSize";
+
+    /**
+     * Trace section to load the WebView provider in advance.
+     */
+    public static final String SECTION_PREWARM_WEB_VIEW = PREFIX + "prewarmWebView";
+
+    /**
+     * Trace section to create a spare ad view in advance.
+     */
+    public static final String SECTION_PREWARM_AD_VIEW = PREFIX + "prewarmAdView";
+
+    /**
+     * Returns whether the tracing is currently enabled.
+     *
+     * @return {@code true} if the tracing is currently enabled.
+     */
+    public static boolean isEnabled() {
+        return Trace.isEnabled();
+    }
+
+    /**
+     * Returns the section name for the supplied dynamic ad.
+     *
+     * @param section The section to be used.
+     * @param dynamicAd The dynamic ad to be used.
+     *
+     * @return The section name for the supplied dynamic ad.
+     */
+    public static @NonNull String getSectionName(@NonNull String section,
+            @Nullable DynamicAd dynamicAd) {
+        if (dynamicAd == null) {
+            return section;
+        }
+
+        return section + ":" + dynamicAd.getAdFormat() + ":" + dynamicAd.getAdUnitId();
+    }
+
+    /**
+     * Returns the cookie to identify the async section for the supplied dynamic ad.
+     *
+     * @param dynamicAd The dynamic ad to be used.
+     *
+     * @return The cookie to identify the async section for the supplied dynamic ad.
+     */
+    public static int getCookie(@Nullable DynamicAd dynamicAd) {
+        return System.identityHashCode(dynamicAd);
+    }
+
+    /**
+     * Begin a trace section.
+     * <p>It must be ended on the same thread by calling {@link #endSection(boolean)}.
+     *
+     * @param section The section to be used.
+     *
+     * @return {@code true} if the trace section has been started.
+     */
+    public static boolean beginSection(@NonNull String section) {
+        if (!isEnabled()) {
+            return false;
+        }
+
+        Trace.beginSection(section);
+        return true;
+    }
+
+    /**
+     * Begin a trace section for the supplied dynamic ad.
+     * <p>It must be ended on the same thread by calling {@link #endSection(boolean)}.
+     *
+     * @param section The section to be used.
+     * @param dynamicAd The dynamic ad to be used.
+     *
+     * @return {@code true} if the trace section has been started.
+     */
+    public static boolean beginSection(@NonNull String section, @Nullable DynamicAd dynamicAd) {
+        if (!isEnabled()) {
+            return false;
+        }
+
+        Trace.beginSection(getSectionName(section, dynamicAd));
+        return true;
+    }
+
+    /**
+     * End the last trace section started on this thread.
+     * <p>It does not depend on the current tracing state so that a section is always ended
+     * even if the tracing has been toggled in between.
+     *
+     * @param began The value returned by the matching {@code beginSection} call.
+     */
+    public static void endSection(boolean began) {
+        if (began) {
+            Trace.endSection();
+        }
+    }
+
+    /**
+     * Begin an async trace section that can be ended on any thread.
+     *
+     * @param section The section to be used.
+     * @param cookie The unique cookie to identify the section.
+     */
+    public static void beginAsyncSection(@NonNull String section, int cookie) {
+        if (isEnabled()) {
+            Trace.beginAsyncSection(section, cookie);
+        }
+    }
+
+    /**
+     * End an async trace section.
+     *
+     * @param section The section to be used.
+     * @param cookie The unique cookie to identify the section.
+     */
+    public static void endAsyncSection(@NonNull String section, int cookie) {
+        if (isEnabled()) {
+            Trace.endAsyncSection(section, cookie);
+        }
+    }
+
+    /**
+     * Begin an async trace section for the supplied dynamic ad.
+     *
+     * @param section The section to be used.
+     * @param dynamicAd The dynamic ad to be used.
+     */
+    public static void beginAsyncSection(@NonNull String section,
+            @Nullable DynamicAd dynamicAd) {
+        if (isEnabled()) {
+            Trace.beginAsyncSection(getSectionName(section, dynamicAd), getCookie(dynamicAd));
+        }
+    }
+
+    /**
+     * End an async trace section for the supplied dynamic ad.
+     *
+     * @param section The section to be used.
+     * @param dynamicAd The dynamic ad to be used.
+     */
+    public static void endAsyncSection(@NonNull String section, @Nullable DynamicAd dynamicAd) {
+        if (isEnabled()) {
+            Trace.endAsyncSection(getSectionName(section, dynamicAd), getCookie(dynamicAd));
+        }
+    }
+}
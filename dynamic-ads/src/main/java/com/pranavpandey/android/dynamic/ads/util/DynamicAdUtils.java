@@ -19,6 +19,7 @@ package com.pranavpandey.android.dynamic.ads.util;
 import android.annotation.SuppressLint;
 import android.app.Activity;
 import android.content.Context;
+import android.content.ContextWrapper;
 import android.content.pm.ActivityInfo;
 import android.graphics.Point;
 import android.graphics.drawable.Drawable;
@@ -46,6 +47,25 @@ public class DynamicAdUtils {
      */
     public static final float AD_SIZE_FACTOR = 4f;
 
+    /**
+     * Returns the activity for the supplied context.
+     *
+     * @param context The context to be used.
+     *
+     * @return The activity for the supplied context, {@code null} if it is not an activity.
+     */
+    public static @Nullable Activity getActivity(@Nullable Context context) {
+        while (context instanceof ContextWrapper) {
+            if (context instanceof Activity) {
+                return (Activity) context;
+            }
+
+            context = ((ContextWrapper) context).getBaseContext();
+        }
+
+        return null;
+    }
+
     /**
      * Returns the ad size for the supplied activity and container.
      *
@@ -63,6 +83,27 @@ public class DynamicAdUtils {
             return AdSize.FLUID;
         }
 
+        boolean traced = DynamicAdTrace.beginSection(DynamicAdTrace.SECTION_AD_SIZE);
+        try {
+            return getAnchoredAdSize(activity, container);
+        } finally {
+            DynamicAdTrace.endSection(traced);
+        }
+    }
+
+    /**
+     * Returns the anchored adaptive ad size for the supplied activity and container.
+     *
+     * @param activity The activity to calculate the ad size.
+     * @param container The ad container to be used.
+     *
+     * @return The anchored adaptive ad size for the supplied activity and container.
+     *
+     * @see AdSize#FLUID
+     */
+    @SuppressLint("VisibleForTests")
+    private static @NonNull AdSize getAnchoredAdSize(@NonNull Context activity,
+            @Nullable View container) {
         float density = DynamicWindowUtils.getDisplayDensity(activity);
         Point screenSize = DynamicWindowUtils.getAppUsableScreenSize(activity);
 
@@ -0,0 +1,234 @@
+/*
+ * Copyright 2022-2025 Pranav Pandey
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.pranavpandey.android.dynamic.ads.view;
+
+import android.content.Context;
+import android.content.MutableContextWrapper;
+import android.webkit.WebSettings;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import com.google.android.gms.ads.AdView;
+import com.pranavpandey.android.dynamic.ads.backend.DynamicAdBackend;
+import com.pranavpandey.android.dynamic.ads.scheduler.DynamicAdIdleScheduler;
+import com.pranavpandey.android.dynamic.ads.util.DynamicAdTrace;
+
+/**
+ * Helper class to prewarm the WebView provider and keep a spare {@link AdView} ready for the
+ * first banner ad.
+ * <p>The first banner ad otherwise pays the one-time cost to load the WebView provider on the
+ * main thread while the screen is being opened.
+ */
+public class DynamicAdPrewarm {
+
+    /**
+     * Application context used to create the spare ad view.
+     */
+    private final Context mContext;
+
+    /**
+     * Context wrapper used by the spare ad view so that it can be moved to the host.
+     */
+    private MutableContextWrapper mSpareContext;
+
+    /**
+     * Spare ad view ready for the first banner ad.
+     */
+    private AdView mSpareAdView;
+
+    /**
+     * Backend used to create the spare ad view.
+     */
+    private DynamicAdBackend mSpareBackend;
+
+    /**
+     * {@code true} if the WebView provider has been loaded.
+     */
+    private boolean mWebViewReady;
+
+    /**
+     * Number of times the spare ad view was taken by a banner ad.
+     */
+    private long mTaken;
+
+    /**
+     * Constructor to initialize an object of this class.
+     *
+     * @param context The context to be used.
+     */
+    public DynamicAdPrewarm(@NonNull Context context) {
+        this.mContext = context.getApplicationContext();
+    }
+
+    /**
+     * Returns whether the WebView provider has been loaded.
+     *
+     * @return {@code true} if the WebView provider has been loaded.
+     */
+    public synchronized boolean isWebViewReady() {
+        return mWebViewReady;
+    }
+
+    /**
+     * Returns whether a spare ad view is ready for the banner ad.
+     *
+     * @return {@code true} if a spare ad view is ready for the banner ad.
+     */
+    public synchronized boolean hasSpareAdView() {
+        return mSpareAdView != null;
+    }
+
+    /**
+     * Returns the number of times the spare ad view was taken by a banner ad.
+     *
+     * @return The number of times the spare ad view was taken by a banner ad.
+     */
+    public synchronized long getTaken() {
+        return mTaken;
+    }
+
+    /**
+     * Load the WebView provider if it has not been loaded yet.
+     * <p>It must be called on the main thread.
+     */
+    public void prewarmWebView() {
+        synchronized (this) {
+            if (mWebViewReady) {
+                return;
+            }
+
+            mWebViewReady = true;
+        }
+
+        boolean traced = DynamicAdTrace.beginSection(DynamicAdTrace.SECTION_PREWARM_WEB_VIEW);
+        try {
+            WebSettings.getDefaultUserAgent(mContext);
+        } catch (Exception ignored) {
+        } finally {
+            DynamicAdTrace.endSection(traced);
+        }
+    }
+
+    /**
+     * Create a spare ad view if there is none for the supplied backend.
+     * <p>It must be called on the main thread.
+     *
+     * @param backend The backend to create the ad view.
+     */
+    public void prewarmAdView(@NonNull DynamicAdBackend backend) {
+        synchronized (this) {
+            if (mSpareAdView != null && mSpareBackend == backend) {
+                return;
+            }
+        }
+
+        clear();
+
+        boolean traced = DynamicAdTrace.beginSection(DynamicAdTrace.SECTION_PREWARM_AD_VIEW);
+        try {
+            MutableContextWrapper context = new MutableContextWrapper(mContext);
+            AdView adView = backend.createBannerAd(context);
+
+            synchronized (this) {
+                mSpareContext = context;
+                mSpareAdView = adView;
+                mSpareBackend = backend;
+            }
+        } catch (Exception ignored) {
+        } finally {
+            DynamicAdTrace.endSection(traced);
+        }
+    }
+
+    /**
+     * Load the WebView provider and create a spare ad view now.
+     * <p>It must be called on the main thread.
+     *
+     * @param backend The backend to create the ad view.
+     */
+    public void prewarm(@NonNull DynamicAdBackend backend) {
+        prewarmWebView();
+        prewarmAdView(backend);
+    }
+
+    /**
+     * Load the WebView provider and create a spare ad view in the next idle slots.
+     *
+     * @param idleScheduler The idle scheduler to be used.
+     * @param backend The backend to create the ad view.
+     */
+    public void prewarm(@NonNull DynamicAdIdleScheduler idleScheduler,
+            final @NonNull DynamicAdBackend backend) {
+        idleScheduler.post(new DynamicAdIdleScheduler.Task() {
+            @Override
+            public boolean run(long deadline) {
+                if (!isWebViewReady()) {
+                    prewarmWebView();
+
+                    // Create the ad view in the next idle slot.
+                    return true;
+                }
+
+                prewarmAdView(backend);
+                return false;
+            }
+        });
+    }
+
+    /**
+     * Take the spare ad view for a banner ad.
+     *
+     * @param backend The backend used by the banner ad.
+     * @param context The context of the host.
+     *
+     * @return The spare ad view attached to the host context, {@code null} if there is no
+     *         spare ad view for the supplied backend.
+     */
+    public synchronized @Nullable AdView take(@NonNull DynamicAdBackend backend,
+            @NonNull Context context) {
+        if (mSpareAdView == null || mSpareBackend != backend) {
+            return null;
+        }
+
+        AdView adView = mSpareAdView;
+        mSpareContext.setBaseContext(context);
+        mSpareAdView = null;
+        mSpareContext = null;
+        mSpareBackend = null;
+        mTaken++;
+
+        return adView;
+    }
+
+    /**
+     * Destroy the spare ad view if it has not been taken.
+     */
+    public void clear() {
+        AdView adView;
+        synchronized (this) {
+            adView = mSpareAdView;
+            mSpareAdView = null;
+            mSpareContext = null;
+            mSpareBackend = null;
+        }
+
+        if (adView != null) {
+            adView.destroy();
+        }
+    }
+}
@@ -0,0 +1,327 @@
+/*
+ * Copyright 2022-2025 Pranav Pandey
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.pranavpandey.android.dynamic.ads.backend;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+
+import android.content.Context;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import com.google.android.gms.ads.AdRequest;
+import com.google.android.gms.ads.LoadAdError;
+import com.google.android.gms.ads.initialization.InitializationStatus;
+import com.google.android.gms.ads.initialization.OnInitializationCompleteListener;
+import com.google.android.gms.ads.interstitial.InterstitialAd;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.RuntimeEnvironment;
+import org.robolectric.annotation.Config;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Tests for the {@link DynamicSimulatedAdBackend} and its {@link DynamicVirtualClock}.
+ */
+@RunWith(RobolectricTestRunner.class)
+@Config(sdk = 34)
+public class DynamicSimulatedAdBackendTest {
+
+    /**
+     * Ad unit id used by the tests.
+     */
+    private static final String AD_UNIT_ID = "ca-app-pub-3940256099942544/1033173712";
+
+    /**
+     * Ad unit id which is never filled by the ad factory.
+     */
+    private static final String AD_UNIT_ID_EMPTY = "ca-app-pub-3940256099942544/0000000000";
+
+    /**
+     * Context to load the ads.
+     */
+    private Context mContext;
+
+    /**
+     * Ad request to load the ads.
+     */
+    private AdRequest mAdRequest;
+
+    @Before
+    public void setUp() {
+        mContext = RuntimeEnvironment.getApplication();
+        mAdRequest = new AdRequest.Builder().build();
+    }
+
+    /**
+     * Returns a simulated backend that creates a mock for every filled request.
+     *
+     * @param seed The seed for the random to be used.
+     *
+     * @return The simulated backend that creates a mock for every filled request.
+     */
+    private static @NonNull DynamicSimulatedAdBackend getBackend(long seed) {
+        return new DynamicSimulatedAdBackend(new DynamicVirtualClock(), seed,
+                new DynamicSimulatedAdBackend.AdFactory() {
+            @Override
+            public @Nullable <T> T createAd(@NonNull Class<T> type, @NonNull String adUnitId) {
+                return AD_UNIT_ID_EMPTY.equals(adUnitId) ? null : mock(type);
+            }
+        });
+    }
+
+    /**
+     * Load an interstitial ad from the simulated backend.
+     *
+     * @param backend The simulated backend to be used.
+     * @param adUnitId The ad unit id to be used.
+     *
+     * @return The callback to receive the result.
+     */
+    private @NonNull Callback load(@NonNull DynamicSimulatedAdBackend backend,
+            @NonNull String adUnitId) {
+        Callback callback = new Callback(backend.getClock());
+        backend.loadInterstitialAd(mContext, adUnitId, mAdRequest, callback);
+
+        return callback;
+    }
+
+    @Test
+    public void requestCompletesAfterLatency() {
+        DynamicSimulatedAdBackend backend = getBackend(0);
+        backend.setDefaultProfile(new DynamicSimulatedAdBackend.Profile.Builder()
+                .setLatency(DynamicSimulatedAdBackend.Latency.fixed(200))
+                .setFillRate(1f).build());
+
+        Callback callback = load(backend, AD_UNIT_ID);
+        assertEquals(1, backend.getRequestCount(AD_UNIT_ID));
+        assertEquals(1, backend.getRequestCount());
+
+        backend.getClock().advance(199);
+        assertNull(callback.mAd);
+
+        backend.getClock().advance(1);
+        assertNotNull(callback.mAd);
+        assertNull(callback.mError);
+        assertEquals(200, callback.mTime);
+        assertEquals(200, backend.elapsedRealtime());
+    }
+
+    @Test
+    public void failedRequestReturnsWeightedError() {
+        DynamicSimulatedAdBackend backend = getBackend(0);
+        backend.setProfile(AD_UNIT_ID, new DynamicSimulatedAdBackend.Profile.Builder()
+                .setFillRate(0f)
+                .addError(AdRequest.ERROR_CODE_NETWORK_ERROR, 1).build());
+
+        Callback callback = load(backend, AD_UNIT_ID);
+        backend.getClock().runAll();
+
+        assertNull(callback.mAd);
+        assertNotNull(callback.mError);
+        assertEquals(AdRequest.ERROR_CODE_NETWORK_ERROR, callback.mError.getCode());
+        assertEquals(DynamicSimulatedAdBackend.ERROR_DOMAIN, callback.mError.getDomain());
+
+        // The other ad units keep using the default profile.
+        assertEquals(DynamicSimulatedAdBackend.Profile.DEFAULT_FILL_RATE,
+                backend.getProfile(AD_UNIT_ID_EMPTY).getFillRate(), 0f);
+    }
+
+    @Test
+    public void noFillIsTheDefaultError() {
+        DynamicSimulatedAdBackend backend = getBackend(0);
+        backend.setDefaultProfile(new DynamicSimulatedAdBackend.Profile.Builder()
+                .setFillRate(0f).build());
+
+        Callback callback = load(backend, AD_UNIT_ID);
+        backend.getClock().runAll();
+
+        assertNotNull(callback.mError);
+        assertEquals(AdRequest.ERROR_CODE_NO_FILL, callback.mError.getCode());
+    }
+
+    @Test
+    public void missingAdFailsInternally() {
+        DynamicSimulatedAdBackend backend = getBackend(0);
+        backend.setDefaultProfile(new DynamicSimulatedAdBackend.Profile.Builder()
+                .setFillRate(1f).build());
+
+        Callback callback = load(backend, AD_UNIT_ID_EMPTY);
+        backend.getClock().runAll();
+
+        assertNull(callback.mAd);
+        assertNotNull(callback.mError);
+        assertEquals(AdRequest.ERROR_CODE_INTERNAL_ERROR, callback.mError.getCode());
+    }
+
+    @Test
+    public void sameSeedIsReproducible() {
+        List<String> first = simulate(42);
+
+        assertEquals(first, simulate(42));
+        assertNotEquals(first, simulate(43));
+    }
+
+    /**
+     * Simulate a run of ad requests with the default profile.
+     *
+     * @param seed The seed for the random to be used.
+     *
+     * @return The outcome of each request.
+     */
+    private @NonNull List<String> simulate(long seed) {
+        DynamicSimulatedAdBackend backend = getBackend(seed);
+        List<Callback> callbacks = new ArrayList<>();
+        for (int i = 0; i < 50; i++) {
+            callbacks.add(load(backend, AD_UNIT_ID));
+        }
+        backend.getClock().runAll();
+
+        List<String> outcomes = new ArrayList<>();
+        for (Callback callback : callbacks) {
+            outcomes.add(callback.mTime + ":" + (callback.mError != null
+                    ? callback.mError.getCode() : "loaded"));
+        }
+
+        return outcomes;
+    }
+
+    @Test
+    public void initializationCompletesAfterLatency() {
+        DynamicSimulatedAdBackend backend = getBackend(0);
+        backend.setInitializationLatency(DynamicSimulatedAdBackend.Latency.fixed(300));
+
+        final List<InitializationStatus> statuses = new ArrayList<>();
+        backend.initialize(mContext, new OnInitializationCompleteListener() {
+            @Override
+            public void onInitializationComplete(
+                    @NonNull InitializationStatus initializationStatus) {
+                statuses.add(initializationStatus);
+            }
+        });
+
+        backend.getClock().advance(299);
+        assertTrue(statuses.isEmpty());
+
+        backend.getClock().advance(1);
+        assertEquals(1, statuses.size());
+        assertTrue(statuses.get(0).getAdapterStatusMap().isEmpty());
+    }
+
+    @Test
+    public void scheduledTasksRunInOrder() {
+        DynamicSimulatedAdBackend backend = getBackend(0);
+        final StringBuilder order = new StringBuilder();
+        Runnable cancelled = append(order, "x");
+
+        backend.schedule(append(order, "b"), 20);
+        backend.schedule(append(order, "a"), 10);
+        backend.schedule(cancelled, 10);
+        backend.schedule(append(order, "c"), 20);
+        backend.cancel(cancelled);
+
+        assertEquals(3, backend.getClock().getPendingCount());
+        assertTrue(backend.getClock().runNext());
+        assertEquals("a", order.toString());
+        assertEquals(10, backend.elapsedRealtime());
+
+        assertEquals(2, backend.getClock().runAll());
+        assertEquals("abc", order.toString());
+        assertEquals(20, backend.elapsedRealtime());
+    }
+
+    /**
+     * Returns a task to append a value to the supplied builder.
+     *
+     * @param builder The builder to be used.
+     * @param value The value to be appended.
+     *
+     * @return The task to append a value to the supplied builder.
+     */
+    private static @NonNull Runnable append(final @NonNull StringBuilder builder,
+            final @NonNull String value) {
+        return new Runnable() {
+            @Override
+            public void run() {
+                builder.append(value);
+            }
+        };
+    }
+
+    /**
+     * A callback to record the result of an ad request.
+     */
+    private static class Callback implements DynamicAdCallback<InterstitialAd> {
+
+        /**
+         * Clock to record the time of the result.
+         */
+        private final DynamicVirtualClock mClock;
+
+        /**
+         * Loaded ad, if any.
+         */
+        private InterstitialAd mAd;
+
+        /**
+         * Returned error, if any.
+         */
+        private LoadAdError mError;
+
+        /**
+         * Time at which the result was received.
+         */
+        private long mTime = -1;
+
+        /**
+         * Constructor to initialize an object of this class.
+         *
+         * @param clock The clock to record the time of the result.
+         */
+        Callback(@NonNull DynamicVirtualClock clock) {
+            this.mClock = clock;
+        }
+
+        @Override
+        public void onAdLoaded(@NonNull InterstitialAd ad) {
+            mAd = ad;
+            mTime = mClock.now();
+        }
+
+        @Override
+        public void onAdFailedToLoad(@NonNull LoadAdError loadAdError) {
+            mError = loadAdError;
+            mTime = mClock.now();
+        }
+
+        @Override
+        public void onAdImpression() { }
+
+        @Override
+        public void onAdClicked() { }
+    }
+}
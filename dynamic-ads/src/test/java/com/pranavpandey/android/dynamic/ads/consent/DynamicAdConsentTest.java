@@ -0,0 +1,191 @@
+/*
+ * Copyright 2022-2025 Pranav Pandey
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.pranavpandey.android.dynamic.ads.consent;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import android.content.Context;
+import android.content.SharedPreferences;
+
+import androidx.annotation.NonNull;
+
+import com.pranavpandey.android.dynamic.ads.DynamicAd;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.RuntimeEnvironment;
+import org.robolectric.annotation.Config;
+
+import java.util.Arrays;
+
+/**
+ * Tests for the TCF data parsed by the {@link DynamicAdConsent}.
+ */
+@RunWith(RobolectricTestRunner.class)
+@Config(sdk = 34)
+public class DynamicAdConsentTest {
+
+    /**
+     * Shared preferences to store the TCF data.
+     */
+    private SharedPreferences mSharedPreferences;
+
+    /**
+     * Consent to be tested.
+     */
+    private DynamicAdConsent mAdConsent;
+
+    @Before
+    public void setUp() {
+        mSharedPreferences = RuntimeEnvironment.getApplication()
+                .getSharedPreferences("tcf", Context.MODE_PRIVATE);
+        mSharedPreferences.edit().clear().commit();
+        mAdConsent = new DynamicAdConsent(mSharedPreferences);
+    }
+
+    /**
+     * Returns a TCF bit string with the supplied ids set.
+     *
+     * @param length The length of the bit string.
+     * @param ids The ids to be set starting from {@code 1}.
+     *
+     * @return The TCF bit string with the supplied ids set.
+     */
+    private static @NonNull String bits(int length, int... ids) {
+        char[] bits = new char[length];
+        Arrays.fill(bits, '0');
+
+        for (int id : ids) {
+            bits[id - 1] = '1';
+        }
+
+        return new String(bits);
+    }
+
+    /**
+     * Store the TCF data when the GDPR applies.
+     *
+     * @param purposeConsents The purposes with consent.
+     * @param purposeLegitimateInterests The purposes with legitimate interest.
+     * @param vendorConsent {@code true} if the Google vendor has consent.
+     * @param vendorLegitimateInterest {@code true} if the Google vendor has legitimate
+     *                                 interest.
+     */
+    private void store(@NonNull int[] purposeConsents, @NonNull int[] purposeLegitimateInterests,
+            boolean vendorConsent, boolean vendorLegitimateInterest) {
+        int vendor = DynamicAdConsent.VENDOR_GOOGLE;
+
+        mSharedPreferences.edit()
+                .putInt(DynamicAd.IABTCF_gdprApplies, 1)
+                .putString(DynamicAd.IABTCF_PurposeConsents, bits(11, purposeConsents))
+                .putString(DynamicAd.IABTCF_PurposeLegitimateInterests,
+                        bits(11, purposeLegitimateInterests))
+                .putString(DynamicAd.IABTCF_VendorConsents,
+                        vendorConsent ? bits(vendor, vendor) : bits(vendor))
+                .putString(DynamicAd.IABTCF_VendorLegitimateInterests,
+                        vendorLegitimateInterest ? bits(vendor, vendor) : bits(vendor))
+                .commit();
+    }
+
+    @Test
+    public void missingDataIsUnknown() {
+        assertEquals(DynamicAdConsent.Decision.UNKNOWN, mAdConsent.getDecision());
+        assertFalse(mAdConsent.isAvailable());
+        assertFalse(mAdConsent.canRequestAds());
+    }
+
+    @Test
+    public void personalizedWithoutGdpr() {
+        mSharedPreferences.edit().putInt(DynamicAd.IABTCF_gdprApplies, 0).commit();
+
+        assertEquals(DynamicAdConsent.Decision.PERSONALIZED, mAdConsent.getDecision());
+        assertTrue(mAdConsent.canRequestAds());
+    }
+
+    @Test
+    public void gdprAppliesAsString() {
+        mSharedPreferences.edit().putString(DynamicAd.IABTCF_gdprApplies, "1").commit();
+
+        assertEquals(DynamicAdConsent.Decision.NONE, mAdConsent.getDecision());
+        assertTrue(mAdConsent.isAvailable());
+    }
+
+    @Test
+    public void personalizedWithAllConsents() {
+        store(new int[] { 1, 2, 3, 4, 7, 9, 10 }, new int[0], true, false);
+
+        assertEquals(DynamicAdConsent.Decision.PERSONALIZED, mAdConsent.getDecision());
+        assertTrue(mAdConsent.hasPurposeConsent(DynamicAdConsent.PURPOSE_STORAGE));
+        assertTrue(mAdConsent.hasVendorConsent(DynamicAdConsent.VENDOR_GOOGLE));
+        assertFalse(mAdConsent.hasPurposeConsent(0));
+        assertFalse(mAdConsent.isNonPersonalized());
+    }
+
+    @Test
+    public void nonPersonalizedWithoutProfiling() {
+        store(new int[] { 1, 2, 7, 9, 10 }, new int[0], true, false);
+
+        assertEquals(DynamicAdConsent.Decision.NON_PERSONALIZED, mAdConsent.getDecision());
+        assertTrue(mAdConsent.isNonPersonalized());
+    }
+
+    @Test
+    public void limitedWithoutStorage() {
+        store(new int[0], new int[] { 2, 7, 9, 10 }, false, true);
+
+        assertEquals(DynamicAdConsent.Decision.LIMITED, mAdConsent.getDecision());
+        assertTrue(mAdConsent.canRequestAds());
+        assertFalse(mAdConsent.hasVendorConsent(DynamicAdConsent.VENDOR_GOOGLE));
+        assertTrue(mAdConsent.isNonPersonalized());
+    }
+
+    @Test
+    public void noneWithoutVendor() {
+        store(new int[] { 1, 2, 3, 4, 7, 9, 10 }, new int[0], false, false);
+
+        assertEquals(DynamicAdConsent.Decision.NONE, mAdConsent.getDecision());
+        assertFalse(mAdConsent.canRequestAds());
+    }
+
+    @Test
+    public void noneWithoutBasicPurpose() {
+        store(new int[] { 1, 2, 3, 4, 7, 9 }, new int[0], true, false);
+
+        assertEquals(DynamicAdConsent.Decision.NONE, mAdConsent.getDecision());
+    }
+
+    @Test
+    public void decisionIsCachedTillDataChanges() {
+        store(new int[] { 1, 2, 7, 9, 10 }, new int[0], true, false);
+
+        mAdConsent.getDecision();
+        mAdConsent.getDecision();
+        assertEquals(1, mAdConsent.getEvaluations());
+
+        mSharedPreferences.edit().putString("unrelated", "value").commit();
+        assertEquals(DynamicAdConsent.Decision.NON_PERSONALIZED, mAdConsent.getDecision());
+        assertEquals(1, mAdConsent.getEvaluations());
+
+        store(new int[] { 1, 2, 3, 4, 7, 9, 10 }, new int[0], true, false);
+        assertEquals(DynamicAdConsent.Decision.PERSONALIZED, mAdConsent.getDecision());
+        assertEquals(2, mAdConsent.getEvaluations());
+    }
+}
@@ -0,0 +1,213 @@
+/*
+ * Copyright 2022-2025 Pranav Pandey
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.pranavpandey.android.dynamic.ads.event;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import androidx.annotation.NonNull;
+
+import com.pranavpandey.android.dynamic.ads.DynamicAd;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Tests for the ring buffer used by the {@link DynamicAdEventStream}.
+ */
+@RunWith(RobolectricTestRunner.class)
+@Config(sdk = 34)
+public class DynamicAdEventStreamTest {
+
+    /**
+     * Ad unit id used by the tests.
+     */
+    private static final String AD_UNIT_ID = "ca-app-pub-3940256099942544/6300978111";
+
+    /**
+     * Time in seconds to wait for the delivery.
+     */
+    private static final long TIMEOUT = 5;
+
+    /**
+     * Ad to publish the events.
+     */
+    private DynamicAd mAd;
+
+    @Before
+    public void setUp() {
+        mAd = mock(DynamicAd.class);
+        when(mAd.getAdFormat()).thenReturn(DynamicAd.Format.BANNER);
+    }
+
+    /**
+     * A subscriber to keep a copy of the delivered events.
+     */
+    private static class Recorder implements DynamicAdEventStream.Subscriber {
+
+        /**
+         * Copy of the delivered events.
+         */
+        private final List<DynamicAdEvent> mEvents = new CopyOnWriteArrayList<>();
+
+        /**
+         * Latch to wait for the expected events.
+         */
+        private final CountDownLatch mLatch;
+
+        /**
+         * Constructor to initialize an object of this class.
+         *
+         * @param count The number of expected events.
+         */
+        Recorder(int count) {
+            this.mLatch = new CountDownLatch(count);
+        }
+
+        @Override
+        public void onAdEvent(@NonNull DynamicAdEvent event) {
+            mEvents.add(event.copy());
+            mLatch.countDown();
+        }
+
+        /**
+         * Wait till the expected events have been delivered.
+         *
+         * @return {@code true} if the expected events have been delivered.
+         */
+        boolean await() throws InterruptedException {
+            return mLatch.await(TIMEOUT, TimeUnit.SECONDS);
+        }
+    }
+
+    @Test
+    public void capacityIsPowerOfTwo() {
+        assertEquals(DynamicAdEventStream.DEFAULT_CAPACITY,
+                new DynamicAdEventStream().getCapacity());
+        assertEquals(128, new DynamicAdEventStream(100).getCapacity());
+        assertEquals(64, new DynamicAdEventStream(64).getCapacity());
+        assertEquals(2, new DynamicAdEventStream(0).getCapacity());
+    }
+
+    @Test
+    public void eventsAreIgnoredWithoutSubscribers() {
+        DynamicAdEventStream stream = new DynamicAdEventStream();
+        stream.publish(DynamicAdEvent.Type.REQUESTED, mAd, AD_UNIT_ID, 1,
+                DynamicAdEvent.ERROR_NONE);
+
+        assertFalse(stream.hasSubscribers());
+        assertEquals(0, stream.getPublished());
+    }
+
+    @Test
+    public void eventsAreDeliveredInOrder() throws InterruptedException {
+        DynamicAdEventStream stream = new DynamicAdEventStream();
+        Recorder recorder = new Recorder(3);
+        stream.subscribe(recorder);
+        stream.subscribe(recorder);
+
+        stream.publish(DynamicAdEvent.Type.REQUESTED, mAd, AD_UNIT_ID, 10,
+                DynamicAdEvent.ERROR_NONE);
+        stream.publish(DynamicAdEvent.Type.FAILED, mAd, AD_UNIT_ID, 20, 3);
+        stream.publish(DynamicAdEvent.Type.LOADED, mAd, AD_UNIT_ID, 30,
+                DynamicAdEvent.ERROR_NONE);
+
+        assertTrue(recorder.await());
+        assertEquals(3, recorder.mEvents.size());
+        assertEquals(3, stream.getPublished());
+        assertEquals(0, stream.getDropped());
+
+        DynamicAdEvent failed = recorder.mEvents.get(1);
+        assertEquals(1, failed.getSequence());
+        assertEquals(DynamicAdEvent.Type.FAILED, failed.getType());
+        assertEquals(DynamicAd.Format.BANNER, failed.getAdFormat());
+        assertEquals(AD_UNIT_ID, failed.getAdUnitId());
+        assertEquals(20, failed.getTime());
+        assertEquals(3, failed.getErrorCode());
+        assertEquals(DynamicAdEvent.Type.LOADED, recorder.mEvents.get(2).getType());
+    }
+
+    @Test
+    public void slowSubscriberDropsOldestEvents() throws InterruptedException {
+        DynamicAdEventStream stream = new DynamicAdEventStream(4);
+        final CountDownLatch blocked = new CountDownLatch(1);
+        final CountDownLatch release = new CountDownLatch(1);
+        Recorder recorder = new Recorder(5) {
+            @Override
+            public void onAdEvent(@NonNull DynamicAdEvent event) {
+                super.onAdEvent(event);
+
+                if (event.getSequence() == 0) {
+                    blocked.countDown();
+
+                    try {
+                        release.await(TIMEOUT, TimeUnit.SECONDS);
+                    } catch (InterruptedException ignored) {
+                    }
+                }
+            }
+        };
+        stream.subscribe(recorder);
+
+        stream.publish(DynamicAdEvent.Type.REQUESTED, mAd, AD_UNIT_ID, 0,
+                DynamicAdEvent.ERROR_NONE);
+        assertTrue(blocked.await(TIMEOUT, TimeUnit.SECONDS));
+
+        for (int i = 1; i <= 10; i++) {
+            stream.publish(DynamicAdEvent.Type.LOADED, mAd, AD_UNIT_ID, i,
+                    DynamicAdEvent.ERROR_NONE);
+        }
+        release.countDown();
+
+        assertTrue(recorder.await());
+        assertEquals(11, stream.getPublished());
+        assertEquals(6, stream.getDropped());
+        assertEquals(5, recorder.mEvents.size());
+
+        // Only the latest events that fit in the buffer are delivered after the stall.
+        for (int i = 1; i < recorder.mEvents.size(); i++) {
+            assertEquals(6 + i, recorder.mEvents.get(i).getSequence());
+            assertEquals(6 + i, recorder.mEvents.get(i).getTime());
+        }
+    }
+
+    @Test
+    public void unsubscribedStreamIgnoresEvents() {
+        DynamicAdEventStream stream = new DynamicAdEventStream();
+        Recorder recorder = new Recorder(1);
+        stream.subscribe(recorder);
+        stream.unsubscribe(recorder);
+
+        stream.publish(DynamicAdEvent.Type.CLICK, mAd, AD_UNIT_ID, 1,
+                DynamicAdEvent.ERROR_NONE);
+
+        assertFalse(stream.hasSubscribers());
+        assertEquals(0, stream.getPublished());
+        assertTrue(recorder.mEvents.isEmpty());
+    }
+}
@@ -0,0 +1,99 @@
+/*
+ * Copyright 2022-2025 Pranav Pandey
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.pranavpandey.android.dynamic.ads.metrics;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+/**
+ * Tests for the {@link DynamicAdHistogram}.
+ */
+public class DynamicAdHistogramTest {
+
+    @Test
+    public void bucketBoundsContainTheirValues() {
+        for (long value : new long[] { 0, 1, 3, 4, 5, 7, 8, 100, 1000, 123456, 1L << 40 }) {
+            int bucket = DynamicAdHistogram.getBucket(value);
+
+            assertTrue(value + " is below its bucket",
+                    DynamicAdHistogram.getBucketLowerBound(bucket) <= value);
+            assertTrue(value + " is above its bucket",
+                    DynamicAdHistogram.getBucketUpperBound(bucket) >= value);
+        }
+    }
+
+    @Test
+    public void bucketsAreContiguous() {
+        for (int i = 1; i < DynamicAdHistogram.BUCKETS; i++) {
+            assertEquals(DynamicAdHistogram.getBucketUpperBound(i - 1) + 1,
+                    DynamicAdHistogram.getBucketLowerBound(i));
+        }
+
+        assertEquals(Long.MAX_VALUE,
+                DynamicAdHistogram.getBucketUpperBound(DynamicAdHistogram.BUCKETS - 1));
+        assertEquals(DynamicAdHistogram.BUCKETS - 1, DynamicAdHistogram.getBucket(Long.MAX_VALUE));
+    }
+
+    @Test
+    public void negativeValuesAreIgnored() {
+        DynamicAdHistogram histogram = new DynamicAdHistogram();
+        histogram.record(-1);
+
+        assertEquals(0, histogram.getCount());
+        assertEquals(0, histogram.getPercentile(50));
+    }
+
+    @Test
+    public void percentilesAreBoundedByTheirBucket() {
+        DynamicAdHistogram histogram = new DynamicAdHistogram();
+        for (int i = 1; i <= 1000; i++) {
+            histogram.record(i);
+        }
+
+        DynamicAdHistogram.Snapshot snapshot = histogram.getSnapshot();
+        assertEquals(1000, snapshot.getCount());
+        assertEquals(500500, snapshot.getSum());
+        assertEquals(500, snapshot.getMean());
+        assertEquals(1000, snapshot.getMax());
+        assertEquals(1000, snapshot.getPercentile(100));
+
+        for (double percentile : new double[] { 1, 50, 90, 99 }) {
+            long expected = (long) Math.ceil(percentile * 10);
+            long value = snapshot.getPercentile(percentile);
+
+            // The estimate is the upper bound of the bucket with 25% relative error at most.
+            assertTrue(percentile + ": " + value, value >= expected);
+            assertTrue(percentile + ": " + value, value <= expected * 1.25 + 1);
+            assertEquals(value, histogram.getPercentile(percentile));
+        }
+    }
+
+    @Test
+    public void resetClearsAllValues() {
+        DynamicAdHistogram histogram = new DynamicAdHistogram();
+        histogram.record(42);
+        histogram.reset();
+
+        DynamicAdHistogram.Snapshot snapshot = histogram.getSnapshot();
+        assertEquals(0, snapshot.getCount());
+        assertEquals(0, snapshot.getSum());
+        assertEquals(0, snapshot.getMax());
+        assertEquals(0, snapshot.getPercentile(99));
+    }
+}
@@ -0,0 +1,178 @@
+/*
+ * Copyright 2022-2025 Pranav Pandey
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.pranavpandey.android.dynamic.ads.metrics;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import com.google.android.gms.ads.AdRequest;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.RandomAccessFile;
+
+/**
+ * Tests for the {@link DynamicAdUnitStore}.
+ */
+public class DynamicAdUnitStoreTest {
+
+    /**
+     * Ad unit id used by the tests.
+     */
+    private static final String AD_UNIT_ID = "ca-app-pub-3940256099942544/6300978111";
+
+    @Rule
+    public TemporaryFolder mFolder = new TemporaryFolder();
+
+    /**
+     * File to store the records.
+     */
+    private File mFile;
+
+    @Before
+    public void setUp() {
+        mFile = new File(mFolder.getRoot(), DynamicAdUnitStore.FILE_NAME);
+    }
+
+    @Test
+    public void updatesAreIgnoredTillOpened() {
+        DynamicAdUnitStore store = new DynamicAdUnitStore(mFile);
+        store.onRequest(AD_UNIT_ID);
+
+        assertFalse(store.isOpen());
+        assertNull(store.getRecord(AD_UNIT_ID));
+        assertTrue(store.open());
+        assertNull(store.getRecord(AD_UNIT_ID));
+    }
+
+    @Test
+    public void recordsAreCounted() {
+        DynamicAdUnitStore store = new DynamicAdUnitStore(mFile);
+        assertTrue(store.open());
+
+        for (int i = 0; i < 10; i++) {
+            store.onRequest(AD_UNIT_ID);
+        }
+        for (int i = 0; i < 8; i++) {
+            store.onLoad(AD_UNIT_ID, 100 + i);
+        }
+        store.onFailure(AD_UNIT_ID, AdRequest.ERROR_CODE_NETWORK_ERROR);
+        store.onFailure(AD_UNIT_ID, AdRequest.ERROR_CODE_NO_FILL);
+        store.onExpire(AD_UNIT_ID);
+        store.onShow(AD_UNIT_ID);
+
+        DynamicAdUnitStore.Record record = store.getRecord(AD_UNIT_ID);
+        assertNotNull(record);
+        assertEquals(10, record.getRequests());
+        assertEquals(8, record.getLoads());
+        assertEquals(2, record.getFailures());
+        assertEquals(1, record.getExpirations());
+        assertEquals(1, record.getShows());
+        assertTrue(record.getLastNoFillTime() > 0);
+        assertEquals(0.8f, record.getFillRate(), 0.001f);
+        assertEquals(0.125f, record.getExpiryWaste(), 0.001f);
+        assertEquals(8, record.getLoadLatency().getCount());
+        assertEquals(107, record.getLoadLatency().getMax());
+        assertEquals(828, record.getLoadLatency().getSum());
+    }
+
+    @Test
+    public void recordsArePersisted() {
+        DynamicAdUnitStore store = new DynamicAdUnitStore(mFile);
+        assertTrue(store.open());
+        store.onRequest(AD_UNIT_ID);
+        store.onLoad(AD_UNIT_ID, 250);
+
+        DynamicAdUnitStore reopened = new DynamicAdUnitStore(mFile);
+        assertTrue(reopened.open());
+
+        DynamicAdUnitStore.Record record = reopened.getRecord(AD_UNIT_ID);
+        assertNotNull(record);
+        assertEquals(1, record.getRequests());
+        assertEquals(1, record.getLoads());
+        assertEquals(250, record.getLoadLatency().getMax());
+        assertEquals(1, reopened.getRecords().size());
+    }
+
+    @Test
+    public void countersAreHalvedAtTheWindow() {
+        DynamicAdUnitStore store = new DynamicAdUnitStore(mFile);
+        assertTrue(store.open());
+
+        store.onLoad(AD_UNIT_ID, 100);
+        store.onLoad(AD_UNIT_ID, 100);
+        for (int i = 0; i < DynamicAdUnitStore.WINDOW; i++) {
+            store.onRequest(AD_UNIT_ID);
+        }
+
+        DynamicAdUnitStore.Record record = store.getRecord(AD_UNIT_ID);
+        assertNotNull(record);
+        assertEquals(DynamicAdUnitStore.WINDOW / 2, record.getRequests());
+        assertEquals(1, record.getLoads());
+        assertEquals(1, record.getLoadLatency().getCount());
+        assertEquals(100, record.getLoadLatency().getSum());
+    }
+
+    @Test
+    public void unitsAreLimited() {
+        DynamicAdUnitStore store = new DynamicAdUnitStore(mFile);
+        assertTrue(store.open());
+
+        for (int i = 0; i <= DynamicAdUnitStore.MAX_UNITS; i++) {
+            store.onRequest(AD_UNIT_ID + i);
+        }
+
+        assertEquals(DynamicAdUnitStore.MAX_UNITS, store.getRecords().size());
+        assertNull(store.getRecord(AD_UNIT_ID + DynamicAdUnitStore.MAX_UNITS));
+    }
+
+    @Test
+    public void corruptFileIsReset() throws Exception {
+        try (RandomAccessFile file = new RandomAccessFile(mFile, "rw")) {
+            file.writeInt(0xCAFEBABE);
+            file.writeInt(42);
+        }
+
+        DynamicAdUnitStore store = new DynamicAdUnitStore(mFile);
+        assertTrue(store.open());
+        assertTrue(store.getRecords().isEmpty());
+
+        store.onRequest(AD_UNIT_ID);
+        assertNotNull(store.getRecord(AD_UNIT_ID));
+    }
+
+    @Test
+    public void clearRemovesAllRecords() {
+        DynamicAdUnitStore store = new DynamicAdUnitStore(mFile);
+        assertTrue(store.open());
+        store.onRequest(AD_UNIT_ID);
+        store.clear();
+
+        assertTrue(store.getRecords().isEmpty());
+
+        DynamicAdUnitStore reopened = new DynamicAdUnitStore(mFile);
+        assertTrue(reopened.open());
+        assertNull(reopened.getRecord(AD_UNIT_ID));
+    }
+}
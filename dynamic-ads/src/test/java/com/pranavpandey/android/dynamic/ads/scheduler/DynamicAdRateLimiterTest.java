@@ -0,0 +1,224 @@
+/*
+ * Copyright 2022-2025 Pranav Pandey
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.pranavpandey.android.dynamic.ads.scheduler;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import com.pranavpandey.android.dynamic.ads.backend.DynamicSimulatedAdBackend;
+import com.pranavpandey.android.dynamic.ads.backend.DynamicVirtualClock;
+import com.pranavpandey.android.dynamic.ads.metrics.DynamicAdHistogram;
+import com.pranavpandey.android.dynamic.ads.metrics.DynamicAdUnitStore;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Tests for the {@link DynamicAdRateLimiter} on a virtual clock.
+ */
+public class DynamicAdRateLimiterTest {
+
+    /**
+     * Ad unit id used by the tests.
+     */
+    private static final String AD_UNIT_ID = "ca-app-pub-3940256099942544/6300978111";
+
+    /**
+     * Another ad unit id used by the tests.
+     */
+    private static final String AD_UNIT_ID_OTHER = "ca-app-pub-3940256099942544/2247696110";
+
+    /**
+     * Virtual clock to move the time.
+     */
+    private DynamicVirtualClock mClock;
+
+    /**
+     * Rate limiter to be tested.
+     */
+    private DynamicAdRateLimiter mRateLimiter;
+
+    @Before
+    public void setUp() {
+        mClock = new DynamicVirtualClock();
+        mRateLimiter = new DynamicAdRateLimiter(new DynamicSimulatedAdBackend(mClock, 0,
+                new DynamicSimulatedAdBackend.AdFactory() {
+            @Override
+            public @Nullable <T> T createAd(@NonNull Class<T> type, @NonNull String adUnitId) {
+                return null;
+            }
+        }));
+    }
+
+    /**
+     * Returns a request to count the number of times it has been run.
+     *
+     * @param count The counter to be incremented.
+     *
+     * @return The request to count the number of times it has been run.
+     */
+    private static @NonNull Runnable count(final @NonNull AtomicInteger count) {
+        return new Runnable() {
+            @Override
+            public void run() {
+                count.incrementAndGet();
+            }
+        };
+    }
+
+    @Test
+    public void unitBurstIsLimited() {
+        for (int i = 0; i < DynamicAdRateLimiter.DEFAULT_UNIT_CAPACITY; i++) {
+            assertTrue(mRateLimiter.tryAcquire(AD_UNIT_ID));
+        }
+
+        long delay = (long) Math.ceil(1000 / DynamicAdRateLimiter.DEFAULT_UNIT_RATE);
+        assertFalse(mRateLimiter.tryAcquire(AD_UNIT_ID));
+        assertEquals(delay, mRateLimiter.getDelay(AD_UNIT_ID));
+        assertEquals(0, mRateLimiter.getDelay(AD_UNIT_ID_OTHER));
+
+        mClock.advance(delay - 1);
+        assertFalse(mRateLimiter.tryAcquire(AD_UNIT_ID));
+
+        mClock.advance(1);
+        assertTrue(mRateLimiter.tryAcquire(AD_UNIT_ID));
+        assertEquals(DynamicAdRateLimiter.DEFAULT_UNIT_CAPACITY + 1,
+                mRateLimiter.getSnapshot().getAcquired());
+    }
+
+    @Test
+    public void peekDoesNotCreateBucket() {
+        assertEquals(0, mRateLimiter.peekDelay(AD_UNIT_ID));
+        assertTrue(mRateLimiter.getSnapshot().getUnitTokens().isEmpty());
+
+        for (int i = 0; i < DynamicAdRateLimiter.DEFAULT_UNIT_CAPACITY; i++) {
+            assertTrue(mRateLimiter.tryAcquire(AD_UNIT_ID));
+        }
+
+        mClock.advance(1000);
+        assertEquals(mRateLimiter.getDelay(AD_UNIT_ID), mRateLimiter.peekDelay(AD_UNIT_ID));
+        assertEquals(1, mRateLimiter.getSnapshot().getUnitTokens().size());
+    }
+
+    @Test
+    public void recentNoFillStartsEmpty() {
+        DynamicAdHistogram.Snapshot latency = new DynamicAdHistogram().getSnapshot();
+        Map<String, DynamicAdUnitStore.Record> records = new HashMap<>();
+        records.put(AD_UNIT_ID, new DynamicAdUnitStore.Record(
+                10, 0, 10, 0, 0, System.currentTimeMillis(), latency));
+        records.put(AD_UNIT_ID_OTHER, new DynamicAdUnitStore.Record(10, 0, 10, 0, 0,
+                System.currentTimeMillis() - DynamicAdRateLimiter.NO_FILL_WINDOW, latency));
+        mRateLimiter.restore(records);
+
+        assertFalse(mRateLimiter.tryAcquire(AD_UNIT_ID));
+        assertEquals((long) Math.ceil(1000 / DynamicAdRateLimiter.DEFAULT_UNIT_RATE),
+                mRateLimiter.getDelay(AD_UNIT_ID));
+        assertTrue(mRateLimiter.tryAcquire(AD_UNIT_ID_OTHER));
+    }
+
+    @Test
+    public void globalLimitIsShared() {
+        mRateLimiter.setGlobalLimit(2, 1);
+
+        assertTrue(mRateLimiter.tryAcquire(AD_UNIT_ID));
+        assertTrue(mRateLimiter.tryAcquire(AD_UNIT_ID_OTHER));
+        assertFalse(mRateLimiter.tryAcquire(AD_UNIT_ID_OTHER));
+        assertEquals(1000, mRateLimiter.getDelay(AD_UNIT_ID));
+    }
+
+    @Test
+    public void unitLimitCanBeCustomised() {
+        mRateLimiter.setUnitLimit(AD_UNIT_ID, 1, 2);
+
+        assertTrue(mRateLimiter.tryAcquire(AD_UNIT_ID));
+        assertFalse(mRateLimiter.tryAcquire(AD_UNIT_ID));
+        assertEquals(500, mRateLimiter.getDelay(AD_UNIT_ID));
+
+        mRateLimiter.setUnitLimit(1, 1);
+        assertTrue(mRateLimiter.tryAcquire(AD_UNIT_ID_OTHER));
+        assertFalse(mRateLimiter.tryAcquire(AD_UNIT_ID_OTHER));
+        assertEquals(500, mRateLimiter.getDelay(AD_UNIT_ID));
+    }
+
+    @Test
+    public void deferredRequestsAreCoalesced() {
+        mRateLimiter.setUnitLimit(AD_UNIT_ID, 1, 1);
+        assertTrue(mRateLimiter.tryAcquire(AD_UNIT_ID));
+
+        AtomicInteger first = new AtomicInteger();
+        AtomicInteger latest = new AtomicInteger();
+        Object key = new Object();
+        mRateLimiter.defer(key, AD_UNIT_ID, count(first));
+        mRateLimiter.defer(key, AD_UNIT_ID, count(latest));
+
+        assertTrue(mRateLimiter.isDeferred(key));
+        assertEquals(1, mRateLimiter.getSnapshot().getPending());
+        assertEquals(1, mRateLimiter.getSnapshot().getCoalesced());
+
+        mClock.advance(999);
+        assertEquals(0, latest.get());
+
+        mClock.advance(1);
+        assertEquals(0, first.get());
+        assertEquals(1, latest.get());
+        assertFalse(mRateLimiter.isDeferred(key));
+    }
+
+    @Test
+    public void deferredRequestsCanBeCancelled() {
+        mRateLimiter.setUnitLimit(AD_UNIT_ID, 1, 1);
+        assertTrue(mRateLimiter.tryAcquire(AD_UNIT_ID));
+
+        AtomicInteger count = new AtomicInteger();
+        Object key = new Object();
+        mRateLimiter.defer(key, AD_UNIT_ID, count(count));
+        mRateLimiter.cancel(key);
+
+        assertFalse(mRateLimiter.isDeferred(key));
+        assertEquals(0, mClock.getPendingCount());
+
+        mClock.advance(10000);
+        assertEquals(0, count.get());
+    }
+
+    @Test
+    public void deferredRequestsAreRescheduled() {
+        mRateLimiter.setUnitLimit(AD_UNIT_ID, 1, 1);
+        assertTrue(mRateLimiter.tryAcquire(AD_UNIT_ID));
+
+        AtomicInteger count = new AtomicInteger();
+        mRateLimiter.defer(new Object(), AD_UNIT_ID, count(count));
+
+        // The slower rate leaves only half a token when the request was due.
+        mRateLimiter.setUnitLimit(AD_UNIT_ID, 1, 0.5);
+        mClock.advance(1000);
+        assertEquals(0, count.get());
+        assertEquals(1, mClock.getPendingCount());
+
+        mClock.advance(1000);
+        assertEquals(1, count.get());
+        assertEquals(0, mClock.getPendingCount());
+    }
+}